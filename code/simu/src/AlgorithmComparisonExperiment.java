@@ -1,18 +1,26 @@
 import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.text.DecimalFormat;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
 
-import allocation.WFD;
-import allocation.CacheAware_v2;
-import analyzer.PerformanceAnalyzer;
 import analyzer.PerformanceAnalyzer.ExperimentResult;
-import entity.Node;
-import generator.EnhancedTaskGenerator;
+import analyzer.ResultAggregator;
+import analyzer.ResultAggregator.Metric;
+import analyzer.RunningStatistics;
+import experiment.ParallelExperimentRunner;
+import experiment.PhaseProfiler;
+import experiment.ParallelExperimentRunner.TestCase;
+import experiment.TestCaseRunner;
+import experiment.TestCaseRunner.CaseResult;
+import generator.TaskSetCorpus;
 import parameters.SystemParameters;
+import visualizer.ResultCsvSink;
 import visualizer.ResultVisualizer;
 
 /**
@@ -76,11 +84,96 @@ public class AlgorithmComparisonExperiment {
      */
     private static final double HIGH_CACHE_SENSITIVITY_RATIO = 0.7;
     
-    /** 性能分析器实例 */
-    private static PerformanceAnalyzer analyzer;
+    /** 实验基础随机种子（固定种子确保结果可重复） */
+    private static final long BASE_SEED = 42;
+    
+    /** 
+     * 并行执行测试案例的线程数
+     * 可通过 -Dexperiment.threads=N 指定，默认使用全部可用处理器
+     */
+    private static final int PARALLELISM = Integer.getInteger(
+        "experiment.threads", Runtime.getRuntime().availableProcessors());
+    
+    /** 
+     * 任务集语料文件路径
+     * 可通过 -Dexperiment.corpus=路径 指定：文件不存在时先生成全部任务集写入语料，
+     * 之后各次实验直接从语料读取任务集；未指定时每个案例现场生成
+     */
+    private static final String CORPUS_PATH = System.getProperty("experiment.corpus");
+    
+    /** 
+     * 阶段剖析记录文件路径
+     * 可通过 -Dexperiment.profile=路径.jfr 指定：记录任务生成、分配、执行时间计算和性能分析各阶段的JFR事件，
+     * 实验结束时打印各阶段耗时分布；未指定时不记录
+     */
+    private static final String PROFILE_PATH = System.getProperty("experiment.profile");
+    
+    /** 实验结果CSV文件 */
+    private static final String CSV_FILENAME = "result/algorithm_comparison_results.csv";
     
     /** 结果可视化器实例 */
     private static ResultVisualizer visualizer;
+    
+    /**
+     * 对比实验的在线汇总：按案例顺序逐个加入结果，累计胜负和改进量并打印进度，
+     * 不保留案例结果本身
+     */
+    private static class ComparisonTally {
+        /** 按(算法, 利用率级别)在线汇总各指标，报告只读取汇总统计量 */
+        final ResultAggregator aggregator = new ResultAggregator();
+        
+        int completedTests = 0;
+        int wfdWins = 0;
+        int cacheAwareWins = 0;
+        double totalMakespanImprovement = 0.0;
+        double totalCacheHitImprovement = 0.0;
+        double currentUtilization = Double.NaN;
+        
+        void add(CaseResult caseResult) {
+            if (caseResult.utilization != currentUtilization) {
+                currentUtilization = caseResult.utilization;
+                System.out.println("📊 测试利用率级别: " + currentUtilization);
+            }
+            completedTests++;
+            
+            ExperimentResult wfdResult = caseResult.wfdResult;
+            ExperimentResult cacheResult = caseResult.cacheAwareResult;
+            aggregator.add("WFD", wfdResult);
+            aggregator.add("CacheAware_v2", cacheResult);
+            
+            // 计算性能差异
+            double makespanImprovement = ((double)(wfdResult.makespan - cacheResult.makespan)) / wfdResult.makespan;
+            double cacheHitImprovement = cacheResult.cacheHitRatio - wfdResult.cacheHitRatio;
+            
+            totalMakespanImprovement += makespanImprovement;
+            totalCacheHitImprovement += cacheHitImprovement;
+            
+            // 胜负统计
+            if (cacheResult.makespan < wfdResult.makespan) {
+                cacheAwareWins++;
+            } else {
+                wfdWins++;
+            }
+            
+            // 详细进度报告（每10个案例）
+            if (completedTests % 10 == 0) {
+                System.out.printf("✅ 完成 %d/%d 测试案例\n", completedTests, TOTAL_TEST_CASES);
+                System.out.printf("   当前makespan改进: %.2f%%\n", makespanImprovement * 100);
+                System.out.printf("   当前缓存命中率改进: %.3f\n", cacheHitImprovement);
+                System.out.printf("   CacheAware_v2胜率: %.1f%%\n", 
+                                 (double)cacheAwareWins / completedTests * 100);
+                
+                // 显示缓存状态报告
+                if (caseResult.cacheStateReport != null) {
+                    System.out.println("   🗄️ 缓存状态快照:");
+                    for (Map.Entry<Integer, String> entry : caseResult.cacheStateReport.entrySet()) {
+                        System.out.println("     " + entry.getValue());
+                    }
+                }
+                System.out.println();
+            }
+        }
+    }
       /**
      * 主程序入口
      * 
@@ -100,14 +193,27 @@ public class AlgorithmComparisonExperiment {
         System.out.println();
         
         // 初始化分析和可视化组件
-        analyzer = new PerformanceAnalyzer();
         visualizer = new ResultVisualizer();
         
         // 设置系统参数
         setupSystemParameters();
         
-        // 运行对比实验
-        runComparison();
+        // 运行对比实验；结果写入失败时整个实验视为失败，不生成基于部分结果的报告
+        try {
+            if (PROFILE_PATH == null) {
+                runComparison();
+            } else {
+                PhaseProfiler profiler = PhaseProfiler.start(Paths.get(PROFILE_PATH));
+                try {
+                    runComparison();
+                } finally {
+                    profiler.close();
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("❌ 实验失败（结果写入或阶段剖析记录）: " + e.getMessage());
+            System.exit(1);
+        }
         
         System.out.println("=== 实验完成 ===");
     }
@@ -134,6 +240,39 @@ public class AlgorithmComparisonExperiment {
         System.out.println("   L2缓存共享: 每" + SystemParameters.Level2CoreNum + "个核心共享");
         System.out.println();
     }
+    /**
+     * 打开任务集语料（未配置时返回null），语料文件不存在时先生成
+     */
+    private static TaskSetCorpus.Reader openCorpus(TestCaseRunner caseRunner, List<TestCase> testCases) {
+        if (CORPUS_PATH == null) {
+            return null;
+        }
+        Path path = Paths.get(CORPUS_PATH);
+        try {
+            if (!Files.exists(path)) {
+                System.out.println("💾 生成任务集语料: " + path);
+                caseRunner.writeCorpus(path, testCases);
+            }
+            TaskSetCorpus.Reader corpus = TaskSetCorpus.open(path, caseRunner.corpusFingerprint());
+            System.out.println("💾 使用任务集语料: " + path + " (" + corpus.caseCount() + " 个任务集)\n");
+            return corpus;
+        } catch (IOException e) {
+            System.err.println("任务集语料不可用，改为现场生成: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    private static void closeCorpus(TaskSetCorpus.Reader corpus) {
+        if (corpus == null) {
+            return;
+        }
+        try {
+            corpus.close();
+        } catch (IOException e) {
+            System.err.println("关闭任务集语料失败: " + e.getMessage());
+        }
+    }
+    
       /**
      * 运行算法对比实验主流程
      * 
@@ -145,242 +284,62 @@ public class AlgorithmComparisonExperiment {
      * 5. 生成实时进度报告
      * 6. 统计胜负情况和性能改进
      * 7. 生成最终分析报告和可视化
+     * 
+     * @throws IOException 结果CSV写入失败（此时不生成报告）
      */
-    private static void runComparison() {
+    private static void runComparison() throws IOException {
         System.out.println("🚀 开始WFD vs CacheAware_v2对比实验...\n");
         
-        // 初始化随机数生成器和任务生成器
-        Random rng = new Random(42); // 固定种子确保结果可重复
-        EnhancedTaskGenerator taskGenerator = new EnhancedTaskGenerator(CORES, rng);
-        
-        // 存储各算法的实验结果
-        Map<String, List<ExperimentResult>> algorithmResults = new HashMap<>();
-        algorithmResults.put("WFD", new ArrayList<>());
-        algorithmResults.put("CacheAware_v2", new ArrayList<>());
+        // 每个案例的随机种子由固定的基础种子和案例ID派生，确保结果可重复且与线程数无关
+        TestCaseRunner caseRunner = new TestCaseRunner(
+            CORES, TASKS_PER_CASE, HIGH_CACHE_SENSITIVITY_RATIO, BASE_SEED);
+        ParallelExperimentRunner runner = new ParallelExperimentRunner(caseRunner, PARALLELISM);
+        runner.setCacheReportInterval(10);
+        System.out.println("🧵 并行线程数: " + PARALLELISM + "\n");
         
-        // 性能统计变量
-        int completedTests = 0;
-        int wfdWins = 0;
-        int cacheAwareWins = 0;
-        double totalMakespanImprovement = 0.0;
-        double totalCacheHitImprovement = 0.0;
-        
-        // 对每个利用率级别进行测试
+        // 构造全部测试案例
+        List<TestCase> testCases = new ArrayList<>();
+        int testsPerLevel = TOTAL_TEST_CASES / UTILIZATION_LEVELS.length;
         for (double utilization : UTILIZATION_LEVELS) {
-            int testsPerLevel = TOTAL_TEST_CASES / UTILIZATION_LEVELS.length;
-            
-            System.out.println("📊 测试利用率级别: " + utilization);
-            
             for (int test = 0; test < testsPerLevel; test++) {
-                completedTests++;
-                
-                // 生成缓存敏感的任务集
-                List<Node> originalTasks = taskGenerator.generateCacheIntensiveTasks(
-                    TASKS_PER_CASE, utilization, HIGH_CACHE_SENSITIVITY_RATIO
-                );
-                
-                // === WFD算法测试 ===
-                List<Node> wfdTasks = cloneTasks(originalTasks);
-                List<Integer> wfdProcessors = generateProcessorList(CORES);
-                WFD wfdAlgorithm = new WFD();
-                
-                long wfdStartTime = System.nanoTime();
-                simulateWFDAllocation(wfdTasks, wfdProcessors, wfdAlgorithm);
-                long wfdEndTime = System.nanoTime();
-                  ExperimentResult wfdResult = analyzer.analyzeAlgorithmPerformance(
-                    "WFD", completedTests, wfdTasks, CORES, 
-                    (wfdEndTime - wfdStartTime) / 1_000_000.0, utilization
-                );
-                algorithmResults.get("WFD").add(wfdResult);
-                
-                // === CacheAware_v2算法测试 ===
-                List<Node> cacheTasks = cloneTasks(originalTasks);
-                List<Integer> cacheProcessors = generateProcessorList(CORES);
-                CacheAware_v2 cacheAlgorithm = new CacheAware_v2();
-                
-                // 重置缓存状态
-                CacheAware_v2.resetState();
-                
-                long cacheStartTime = System.nanoTime();
-                simulateCacheAwareAllocation(cacheTasks, cacheProcessors, cacheAlgorithm);
-                long cacheEndTime = System.nanoTime();
-                
-                ExperimentResult cacheResult = analyzer.analyzeAlgorithmPerformance(
-                    "CacheAware_v2", completedTests, cacheTasks, CORES,
-                    (cacheEndTime - cacheStartTime) / 1_000_000.0, utilization
-                );
-                algorithmResults.get("CacheAware_v2").add(cacheResult);
-                
-                // 计算性能差异
-                double makespanImprovement = ((double)(wfdResult.makespan - cacheResult.makespan)) / wfdResult.makespan;
-                double cacheHitImprovement = cacheResult.cacheHitRatio - wfdResult.cacheHitRatio;
-                
-                totalMakespanImprovement += makespanImprovement;
-                totalCacheHitImprovement += cacheHitImprovement;
-                
-                // 胜负统计
-                if (cacheResult.makespan < wfdResult.makespan) {
-                    cacheAwareWins++;
-                } else {
-                    wfdWins++;
-                }
-                
-                // 详细进度报告（每10个案例）
-                if (completedTests % 10 == 0) {
-                    System.out.printf("✅ 完成 %d/%d 测试案例\n", completedTests, TOTAL_TEST_CASES);
-                    System.out.printf("   当前makespan改进: %.2f%%\n", makespanImprovement * 100);
-                    System.out.printf("   当前缓存命中率改进: %.3f\n", cacheHitImprovement);
-                    System.out.printf("   CacheAware_v2胜率: %.1f%%\n", 
-                                     (double)cacheAwareWins / completedTests * 100);
-                    
-                    // 显示缓存状态报告
-                    System.out.println("   🗄️ 缓存状态快照:");
-                    Map<Integer, String> cacheReport = CacheAware_v2.getCacheStateReport();
-                    for (Map.Entry<Integer, String> entry : cacheReport.entrySet()) {
-                        System.out.println("     " + entry.getValue());
-                    }
-                    System.out.println();
-                }
+                testCases.add(new TestCase(testCases.size() + 1, utilization));
             }
         }
         
-        // 生成详细的分析报告
-        generateReport(algorithmResults, cacheAwareWins, wfdWins, completedTests,
-                      totalMakespanImprovement, totalCacheHitImprovement);
-        
-        // 生成可视化图表
-        generateVisualization(algorithmResults);
-        
-        // 重置算法状态
-        WFD.resetLoads();
-        CacheAware_v2.resetState();
-    }    /**
-     * 模拟Cache-Aware算法的任务分配过程
-     * 
-     * 该方法模拟Cache-Aware算法的完整执行过程，包括：
-     * 1. 任务分配决策
-     * 2. 缓存感知的执行时间计算
-     * 3. 处理器负载更新
-     * 4. 任务调度时间计算
-     * 
-     * @param tasks 要分配的任务列表
-     * @param processors 可用处理器列表
-     * @param algorithm Cache-Aware算法实例
-     */
-    private static void simulateCacheAwareAllocation(List<Node> tasks, 
-            List<Integer> processors, CacheAware_v2 algorithm) {
-        
-        // 处理器负载跟踪数组
-        long[] processorLoads = new long[processors.size()];
-        
-        // 逐个处理任务
-        for (Node task : tasks) {
-            // 准备就绪任务列表（Cache-Aware算法每次处理一个任务）
-            List<Node> readyTasks = new ArrayList<>();
-            readyTasks.add(task);
-            
-            // 调用Cache-Aware算法进行任务分配
-            int allocatedProcessor = algorithm.allocate(readyTasks, processors);
-            
-            if (allocatedProcessor != -1) {
-                // 记录任务分配结果
-                task.partition = allocatedProcessor;
-                
-                // 使用Cache-Aware算法的执行时间计算
-                // 这里会考虑缓存优化带来的性能提升
-                long enhancedET = CacheAware_v2.calculateExecutionTime(task, allocatedProcessor);
-                
-                // 更新任务的实际执行时间
-                task.expectedET = enhancedET;
-                
-                // 计算任务的调度时间
-                task.start = processorLoads[allocatedProcessor];
-                task.finishAt = task.start + enhancedET;
-                processorLoads[allocatedProcessor] = task.finishAt;
-                task.finish = true;
-            }
+        // 并行执行所有案例，结果按案例顺序交回；每个案例完成后立即写入CSV并加入在线汇总，不保留结果列表
+        ComparisonTally tally = new ComparisonTally();
+        TaskSetCorpus.Reader corpus = null;
+        try (ResultCsvSink csv = new ResultCsvSink(CSV_FILENAME)) {
+            corpus = openCorpus(caseRunner, testCases);
+            caseRunner.setCorpus(corpus);
+            runner.runAll(testCases, caseResult -> {
+                try {
+                    csv.append("WFD", caseResult.wfdResult);
+                    csv.append("CacheAware_v2", caseResult.cacheAwareResult);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                tally.add(caseResult);
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            runner.shutdown();
+            closeCorpus(corpus);
         }
-    }    /**
-     * 模拟WFD算法的任务分配过程
-     * 
-     * 该方法模拟传统WFD算法的执行过程，作为对比基准：
-     * 1. 基于负载均衡的简单分配策略
-     * 2. 使用原始执行时间（无缓存优化）
-     * 3. 处理器负载更新
-     * 4. 任务调度时间计算
-     * 
-     * @param tasks 要分配的任务列表
-     * @param processors 可用处理器列表  
-     * @param algorithm WFD算法实例
-     */
-    private static void simulateWFDAllocation(List<Node> tasks, List<Integer> processors, WFD algorithm) {
-        // 处理器负载跟踪数组
-        long[] processorLoads = new long[processors.size()];
         
-        // 逐个处理任务
-        for (Node task : tasks) {
-            // 准备就绪任务列表（WFD算法每次处理一个任务）
-            List<Node> readyTasks = new ArrayList<>();
-            readyTasks.add(task);
-            
-            // 调用WFD算法进行任务分配
-            int allocatedProcessor = algorithm.allocate(readyTasks, processors);
-            
-            if (allocatedProcessor != -1) {
-                // 记录任务分配结果
-                task.partition = allocatedProcessor;
-                
-                // WFD使用原始执行时间（无缓存优化）
-                long executionTime = task.expectedET;
-                
-                // 计算任务的调度时间
-                task.start = processorLoads[allocatedProcessor];
-                task.finishAt = task.start + executionTime;
-                processorLoads[allocatedProcessor] = task.finishAt;
-                task.finish = true;
-            }
-        }
-    }
-      /**
-     * 克隆任务列表（深拷贝）
-     */    private static List<Node> cloneTasks(List<Node> original) {
-        List<Node> cloned = new ArrayList<>();
-        Random rng = new Random(42); // 用于创建Node的随机数生成器
+        // 生成详细的分析报告
+        generateReport(tally.aggregator, tally.cacheAwareWins, tally.wfdWins, tally.completedTests,
+                      tally.totalMakespanImprovement, tally.totalCacheHitImprovement);
         
-        for (Node node : original) {
-            // 使用Node的正确构造函数
-            Node clonedNode = new Node(node.getLayer(), node.getType(), node.getId(), 
-                                     node.getDagID(), node.crp, rng);
-            
-            // 复制关键属性
-            clonedNode.expectedET = node.expectedET;
-            clonedNode.sensitivity = node.sensitivity;
-            clonedNode.affinity = node.affinity;
-            
-            if (node.weights != null) {
-                clonedNode.weights = node.weights.clone();
-            }
-            
-            cloned.add(clonedNode);
-        }
-        return cloned;
-    }
-    
-    /**
-     * 生成处理器列表
-     */
-    private static List<Integer> generateProcessorList(int cores) {
-        List<Integer> processors = new ArrayList<>();
-        for (int i = 0; i < cores; i++) {
-            processors.add(i);
-        }
-        return processors;
+        // 生成可视化图表
+        generateVisualization(tally.aggregator);
     }
     
     /**
      * 生成详细的分析报告
      */
-    private static void generateReport(Map<String, List<ExperimentResult>> algorithmResults, 
+    private static void generateReport(ResultAggregator aggregator, 
             int cacheAwareWins, int wfdWins, int totalTests,
             double totalMakespanImprovement, double totalCacheHitImprovement) {
         
@@ -401,13 +360,13 @@ public class AlgorithmComparisonExperiment {
                           cacheAwareWins, totalTests, winRate);
         
         // 详细统计分析
-        List<ExperimentResult> wfdResults = algorithmResults.get("WFD");
-        List<ExperimentResult> cacheResults = algorithmResults.get("CacheAware_v2");
+        ResultAggregator.Group wfdStats = aggregator.overall("WFD");
+        ResultAggregator.Group cacheStats = aggregator.overall("CacheAware_v2");
           // 计算统计指标
-        double wfdAvgMakespan = wfdResults.stream().mapToDouble(r -> r.makespan).average().orElse(0);
-        double cacheAvgMakespan = cacheResults.stream().mapToDouble(r -> r.makespan).average().orElse(0);
-        double wfdAvgCacheHit = wfdResults.stream().mapToDouble(r -> r.cacheHitRatio).average().orElse(0);
-        double cacheAvgCacheHit = cacheResults.stream().mapToDouble(r -> r.cacheHitRatio).average().orElse(0);
+        double wfdAvgMakespan = wfdStats.mean(Metric.MAKESPAN);
+        double cacheAvgMakespan = cacheStats.mean(Metric.MAKESPAN);
+        double wfdAvgCacheHit = wfdStats.mean(Metric.CACHE_HIT_RATIO);
+        double cacheAvgCacheHit = cacheStats.mean(Metric.CACHE_HIT_RATIO);
         
         System.out.println("\n📋 详细性能指标:");
         System.out.printf("   WFD算法:\n");
@@ -426,6 +385,21 @@ public class AlgorithmComparisonExperiment {
                           cacheAvgCacheHit - wfdAvgCacheHit,
                           (cacheAvgCacheHit - wfdAvgCacheHit) * 100);
         
+        // 各利用率级别的Makespan分布
+        System.out.println("\n📊 各利用率级别Makespan分布 (均值 / 中位数 / P95):");
+        for (double utilization : aggregator.getUtilizationLevels("WFD")) {
+            System.out.printf("   U=%.1f:\n", utilization);
+            for (String algorithm : aggregator.getAlgorithms()) {
+                ResultAggregator.Group group = aggregator.group(algorithm, utilization);
+                if (group == null) {
+                    continue;
+                }
+                RunningStatistics makespan = group.get(Metric.MAKESPAN);
+                System.out.printf("     %-15s %.0f / %.0f / %.0f ns\n", algorithm,
+                                  makespan.getMean(), makespan.getMedian(), makespan.getQuantile(0.95));
+            }
+        }
+        
         // 结果评估
         System.out.println("\n🔍 结果评估:");
         if (avgMakespanImprovement > 15) {
@@ -452,7 +426,7 @@ public class AlgorithmComparisonExperiment {
      */    /**
      * 生成可视化图表和数据分析
      */
-    private static void generateVisualization(Map<String, List<ExperimentResult>> algorithmResults) {
+    private static void generateVisualization(ResultAggregator aggregator) {
         System.out.println("\n📊 生成可视化图表和数据分析...");
           try {
             // 确保result目录存在
@@ -463,16 +437,12 @@ public class AlgorithmComparisonExperiment {
             }
             
             // 生成ASCII图表
-            visualizer.generatePerformanceChart(algorithmResults);
+            visualizer.generatePerformanceChart(aggregator);
             
-            // 导出CSV数据到result目录
-            String csvFilename = "result/algorithm_comparison_results.csv";
-            visualizer.exportToCSV(algorithmResults, csvFilename);
+            // CSV数据已在实验过程中逐案例写入result目录
+            String csvFilename = CSV_FILENAME;
             System.out.println("✅ 实验数据已导出到: " + csvFilename);
             
-            // 生成对比矩阵
-            visualizer.generateComparisonMatrix(algorithmResults);
-            
             // 调用Python脚本处理CSV数据
             runPythonVisualization(csvFilename);
             
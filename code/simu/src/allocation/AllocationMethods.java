@@ -1,7 +1,11 @@
 package allocation;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import entity.Node;
+import entity.Node.NodeType;
+import entity.TaskSet;
 
 /**
  * 抽象任务分配算法基类
@@ -28,4 +32,85 @@ public abstract class AllocationMethods {
      * @return 分配的处理器ID，如果分配失败返回-1
      */
     public abstract int allocate(List<Node> readyNodes, List<Integer> availableProc);
+    
+    /**
+     * 批量任务分配
+     * 
+     * 按顺序为tasks中的每个任务做一次分配决策，结果写入assignment[i]。
+     * 语义与依次以单任务就绪列表调用allocate()相同（前面的决策会影响后面的决策），
+     * 但只需一次调用，实现类可以在整批决策之间复用中间状态，避免逐任务的列表构造和装箱。
+     * 
+     * 默认实现逐个调用allocate()，子类可覆盖以提供原生批量实现。
+     * 
+     * @param tasks 待分配的任务（建议为RandomAccess列表）
+     * @param cores 候选处理器ID数组，只使用前coreCount个元素
+     * @param coreCount 候选处理器数量
+     * @param assignment 输出数组，长度至少为tasks.size()
+     * @return 已分配的任务数；没有任务或没有候选处理器时返回0，assignment对应位置填-1
+     */
+    public int allocateBatch(List<Node> tasks, int[] cores, int coreCount, int[] assignment) {
+        int n = tasks.size();
+        if (n == 0 || coreCount <= 0) {
+            Arrays.fill(assignment, 0, n, -1);
+            return 0;
+        }
+        
+        List<Integer> availableProc = new ArrayList<>(coreCount);
+        for (int i = 0; i < coreCount; i++) {
+            availableProc.add(cores[i]);
+        }
+        
+        // 复用同一个单元素就绪列表
+        Node[] slot = new Node[1];
+        List<Node> readyNodes = Arrays.asList(slot);
+        for (int i = 0; i < n; i++) {
+            slot[0] = tasks.get(i);
+            assignment[i] = allocate(readyNodes, availableProc);
+        }
+        return n;
+    }
+    
+    /**
+     * 批量任务分配（任务数组版本）
+     * 
+     * @see #allocateBatch(List, int[], int, int[])
+     */
+    public int allocateBatch(Node[] tasks, int[] cores, int coreCount, int[] assignment) {
+        return allocateBatch(Arrays.asList(tasks), cores, coreCount, assignment);
+    }
+    
+    /**
+     * 批量任务分配（结构数组任务集版本）
+     * 
+     * 依次为任务集中下标[from, to)的任务做分配决策，结果写入assignment[i - from]。
+     * 
+     * 默认实现把同一个Node对象作为各任务的视图重复使用（TaskSet.load/store），
+     * 算法写到任务上的缓存统计会写回任务集；子类可覆盖以直接读取基本类型数组。
+     * 
+     * @param tasks 任务集
+     * @param from 起始下标（含）
+     * @param to 结束下标（不含）
+     * @param cores 候选处理器ID数组，只使用前coreCount个元素
+     * @param coreCount 候选处理器数量
+     * @param assignment 输出数组，长度至少为to - from
+     * @return 已分配的任务数
+     */
+    public int allocateBatch(TaskSet tasks, int from, int to, int[] cores, int coreCount, int[] assignment) {
+        int n = to - from;
+        if (n <= 0 || coreCount <= 0) {
+            Arrays.fill(assignment, 0, Math.max(n, 0), -1);
+            return 0;
+        }
+        
+        Node view = new Node(0, NodeType.NORMAL, 0, 0, null, null);
+        List<Node> single = Arrays.asList(view);
+        int[] decision = new int[1];
+        for (int i = from; i < to; i++) {
+            tasks.load(i, view);
+            allocateBatch(single, cores, coreCount, decision);
+            tasks.store(i, view);
+            assignment[i - from] = decision[0];
+        }
+        return n;
+    }
 }
@@ -1,7 +1,11 @@
 package allocation;
 
+import java.util.Arrays;
 import java.util.List;
 import entity.Node;
+import entity.TaskSet;
+import generator.CacheHierarchy;
+import parameters.SystemParameters;
 
 /**
  * Cache-Aware v1算法实现
@@ -9,6 +13,30 @@ import entity.Node;
  */
 public class CacheAware_v1 extends AllocationMethods {
     
+    /** 处理器拓扑，亲和性按拓扑距离（SMT兄弟、L2簇、插槽、NUMA节点）计算 */
+    private final CacheHierarchy topology;
+    
+    /**
+     * 按系统参数中的核心数和拓扑配置创建
+     */
+    public CacheAware_v1() {
+        this(SystemParameters.coreNum);
+    }
+    
+    /**
+     * 按指定核心数创建，拓扑取自系统参数
+     */
+    public CacheAware_v1(int coreNum) {
+        this(CacheHierarchy.fromSystemParameters(coreNum));
+    }
+    
+    /**
+     * 按指定拓扑创建
+     */
+    public CacheAware_v1(CacheHierarchy topology) {
+        this.topology = topology;
+    }
+    
     @Override
     public int allocate(List<Node> readyNodes, List<Integer> availableProc) {
         if (readyNodes.isEmpty() || availableProc.isEmpty()) {
@@ -34,6 +62,68 @@ public class CacheAware_v1 extends AllocationMethods {
         return bestProcessor != -1 ? bestProcessor : availableProc.get(0);
     }
     
+    /**
+     * 批量分配：v1评分不依赖分配历史，每个任务独立选择得分最高的处理器
+     */
+    @Override
+    public int allocateBatch(List<Node> tasks, int[] cores, int coreCount, int[] assignment) {
+        int n = tasks.size();
+        if (n == 0 || coreCount <= 0) {
+            Arrays.fill(assignment, 0, n, -1);
+            return 0;
+        }
+        
+        for (int i = 0; i < n; i++) {
+            Node nodeToAllocate = tasks.get(i);
+            
+            int bestProcessor = -1;
+            double bestScore = Double.MIN_VALUE;
+            for (int c = 0; c < coreCount; c++) {
+                double score = calculateCacheAwareScore(nodeToAllocate, cores[c]);
+                if (score > bestScore) {
+                    bestScore = score;
+                    bestProcessor = cores[c];
+                }
+            }
+            
+            assignment[i] = bestProcessor != -1 ? bestProcessor : cores[0];
+        }
+        return n;
+    }
+    
+    /**
+     * 批量分配（结构数组任务集版本），直接读取敏感度、亲和性和权重数组
+     */
+    @Override
+    public int allocateBatch(TaskSet tasks, int from, int to, int[] cores, int coreCount, int[] assignment) {
+        int n = to - from;
+        if (n <= 0 || coreCount <= 0) {
+            Arrays.fill(assignment, 0, Math.max(n, 0), -1);
+            return 0;
+        }
+        
+        double[] weights = tasks.weights;
+        for (int i = from; i < to; i++) {
+            double sensitivity = tasks.sensitivity[i];
+            int affinity = tasks.affinity[i];
+            double l1Weight = weights[i * TaskSet.WEIGHT_COUNT];
+            double l2Weight = weights[i * TaskSet.WEIGHT_COUNT + 1];
+            
+            int bestProcessor = -1;
+            double bestScore = Double.MIN_VALUE;
+            for (int c = 0; c < coreCount; c++) {
+                double score = calculateCacheAwareScore(sensitivity, affinity, true, l1Weight, l2Weight, cores[c]);
+                if (score > bestScore) {
+                    bestScore = score;
+                    bestProcessor = cores[c];
+                }
+            }
+            
+            assignment[i - from] = bestProcessor != -1 ? bestProcessor : cores[0];
+        }
+        return n;
+    }
+    
     /**
      * 计算Cache-Aware适合度分数
      * 考虑因素：
@@ -43,19 +133,29 @@ public class CacheAware_v1 extends AllocationMethods {
      * 4. 缓存层次结构
      */
     private double calculateCacheAwareScore(Node node, int processorId) {
+        boolean hasWeights = node.weights != null && node.weights.length >= 4;
+        return calculateCacheAwareScore(node.sensitivity, node.affinity, hasWeights,
+            hasWeights ? node.weights[0] : 0.0, hasWeights ? node.weights[1] : 0.0, processorId);
+    }
+    
+    /**
+     * 计算Cache-Aware适合度分数（基本类型参数版本，供Node和TaskSet共用）
+     */
+    private double calculateCacheAwareScore(double sensitivity, int affinity, boolean hasWeights,
+            double l1Weight, double l2Weight, int processorId) {
         double score = 0.0;
         
         // 1. 缓存敏感度权重 (越敏感的任务越需要考虑缓存)
-        double cacheSensitivityWeight = node.sensitivity * 0.4;
+        double cacheSensitivityWeight = sensitivity * 0.4;
         
         // 2. 处理器亲和性 (同一DAG的任务倾向于分配到相近的处理器)
-        double affinityWeight = calculateAffinityScore(node, processorId) * 0.3;
+        double affinityWeight = calculateAffinityScore(affinity, processorId) * 0.3;
         
         // 3. 负载均衡权重 (避免处理器过载)
         double loadBalanceWeight = calculateLoadBalanceScore(processorId) * 0.2;
         
         // 4. 缓存层次优势 (L2缓存共享考虑)
-        double cacheHierarchyWeight = calculateCacheHierarchyScore(node, processorId) * 0.1;
+        double cacheHierarchyWeight = calculateCacheHierarchyScore(hasWeights, l1Weight, l2Weight) * 0.1;
         
         score = cacheSensitivityWeight + affinityWeight + loadBalanceWeight + cacheHierarchyWeight;
         
@@ -64,12 +164,12 @@ public class CacheAware_v1 extends AllocationMethods {
     
     /**
      * 计算处理器亲和性分数
-     * 同一DAG的任务分配到相近处理器可能有缓存共享优势
+     * 同一DAG的任务分配到拓扑上相近的处理器（共享L1/L2/L3或同一NUMA节点）可能有缓存共享优势
      */
-    private double calculateAffinityScore(Node node, int processorId) {
+    private double calculateAffinityScore(int affinity, int processorId) {
         // 如果节点有亲和性偏好
-        if (node.affinity != -1) {
-            int distance = Math.abs(node.affinity - processorId);
+        if (affinity != -1) {
+            int distance = topology.distance(affinity, processorId);
             return Math.max(0, 1.0 - distance * 0.1); // 距离越近分数越高
         }
         
@@ -90,16 +190,13 @@ public class CacheAware_v1 extends AllocationMethods {
      * 计算缓存层次结构分数
      * 考虑L2缓存共享等因素
      */
-    private double calculateCacheHierarchyScore(Node node, int processorId) {
-        // L2缓存通常每2个核心共享
-        int l2ClusterId = processorId / 2;
-        
+    private double calculateCacheHierarchyScore(boolean hasWeights, double l1Weight, double l2Weight) {
         // 如果节点有缓存权重配置
-        if (node.weights != null && node.weights.length >= 4) {
+        if (hasWeights) {
             // L1权重 + L2权重(共享优势)
-            return node.weights[0] * 0.6 + node.weights[1] * 0.4;
+            return l1Weight * 0.6 + l2Weight * 0.4;
         }
         
         return 0.5; // 默认中等分数
     }
-}
\ No newline at end of file
+}
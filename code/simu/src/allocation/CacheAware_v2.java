@@ -1,9 +1,11 @@
 package allocation;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
 import entity.Node;
+import generator.CacheHierarchy;
 import parameters.SystemParameters;
 
 /**
@@ -14,41 +16,153 @@ import parameters.SystemParameters;
  * 
  *  Cache-Aware Task Scheduling System
  */
-public class CacheAware_v2 extends AllocationMethods {      /** 处理器负载跟踪 */
-    private static Map<Integer, Double> processorLoads = new HashMap<>();
+public class CacheAware_v2 extends AllocationMethods {
     
-    /** 处理器缓存状态跟踪 */
-    private static Map<Integer, CacheState> cacheStates = new HashMap<>();
+    /** 处理器拓扑 */
+    private final CacheHierarchy topology;
     
-    /** 处理器任务计数 */
-    private static Map<Integer, Integer> taskCount = new HashMap<>();
+    /** 处理器状态表（实例级，每个测试案例使用独立的算法实例，可并发运行） */
+    private final ProcessorStates state;
     
-    /** 缓存命中率统计 */
-    private static Map<Integer, CacheHitStats> cacheHitStats = new HashMap<>();
-      /**
-     * 处理器缓存状态
+    /**
+     * 处理器状态表
+     * 
+     * 以核心ID为下标的扁平基本类型数组保存全部处理器状态，
+     * 评分热路径上只有数组访问，没有Map查找和装箱。
      */
-    private static class CacheState {
-        double l1Utilization = 0.0;     // L1缓存利用率
-        double l2Utilization = 0.0;     // L2缓存利用率
-        double l3Utilization = 0.0;     // L3缓存利用率
-        int recentTaskCount = 0;         // 最近任务数量
-        double avgTaskSensitivity = 0.0; // 平均缓存敏感度
+    private static final class ProcessorStates {
+        // 处理器是否已初始化（首次参与评分时初始化）
+        boolean[] active;
+        
+        // 处理器负载跟踪
+        double[] load;
+        // 处理器任务计数
+        int[] taskCount;
+        
+        // 处理器缓存状态
+        double[] l1Utilization;      // L1缓存利用率
+        double[] l2Utilization;      // L2缓存利用率
+        double[] l3Utilization;      // L3缓存利用率
+        int[] recentTaskCount;       // 最近任务数量
+        double[] avgTaskSensitivity; // 平均缓存敏感度
+        
+        // 缓存命中率统计
+        double[] totalL1Accesses;    // L1总访问次数
+        double[] totalL2Accesses;    // L2总访问次数
+        double[] totalL3Accesses;    // L3总访问次数
+        double[] totalL1Hits;        // L1总命中次数
+        double[] totalL2Hits;        // L2总命中次数
+        double[] totalL3Hits;        // L3总命中次数
+        int[] totalTasks;            // 处理的任务总数
+        
+        // L2簇状态（以簇编号为下标），簇内全部处理器任务敏感度之和与任务数
+        double[] clusterSensitivitySum;
+        int[] clusterTaskCount;
+        
+        ProcessorStates(int cores, int clusters) {
+            allocate(Math.max(cores, 1));
+            clusterSensitivitySum = new double[Math.max(clusters, 1)];
+            clusterTaskCount = new int[Math.max(clusters, 1)];
+        }
+        
+        int size() {
+            return active.length;
+        }
+        
+        private void allocate(int cores) {
+            active = new boolean[cores];
+            load = new double[cores];
+            taskCount = new int[cores];
+            l1Utilization = new double[cores];
+            l2Utilization = new double[cores];
+            l3Utilization = new double[cores];
+            recentTaskCount = new int[cores];
+            avgTaskSensitivity = new double[cores];
+            totalL1Accesses = new double[cores];
+            totalL2Accesses = new double[cores];
+            totalL3Accesses = new double[cores];
+            totalL1Hits = new double[cores];
+            totalL2Hits = new double[cores];
+            totalL3Hits = new double[cores];
+            totalTasks = new int[cores];
+        }
+        
+        /**
+         * 保证核心ID可直接作为下标（处理器列表超出初始核心数时按倍数扩容）
+         */
+        void ensureCapacity(int core) {
+            if (core < active.length) {
+                return;
+            }
+            int cores = Math.max(core + 1, active.length * 2);
+            active = Arrays.copyOf(active, cores);
+            load = Arrays.copyOf(load, cores);
+            taskCount = Arrays.copyOf(taskCount, cores);
+            l1Utilization = Arrays.copyOf(l1Utilization, cores);
+            l2Utilization = Arrays.copyOf(l2Utilization, cores);
+            l3Utilization = Arrays.copyOf(l3Utilization, cores);
+            recentTaskCount = Arrays.copyOf(recentTaskCount, cores);
+            avgTaskSensitivity = Arrays.copyOf(avgTaskSensitivity, cores);
+            totalL1Accesses = Arrays.copyOf(totalL1Accesses, cores);
+            totalL2Accesses = Arrays.copyOf(totalL2Accesses, cores);
+            totalL3Accesses = Arrays.copyOf(totalL3Accesses, cores);
+            totalL1Hits = Arrays.copyOf(totalL1Hits, cores);
+            totalL2Hits = Arrays.copyOf(totalL2Hits, cores);
+            totalL3Hits = Arrays.copyOf(totalL3Hits, cores);
+            totalTasks = Arrays.copyOf(totalTasks, cores);
+        }
+        
+        /**
+         * 清空全部状态，O(核心数)
+         */
+        void clear() {
+            Arrays.fill(active, false);
+            Arrays.fill(load, 0.0);
+            Arrays.fill(taskCount, 0);
+            Arrays.fill(l1Utilization, 0.0);
+            Arrays.fill(l2Utilization, 0.0);
+            Arrays.fill(l3Utilization, 0.0);
+            Arrays.fill(recentTaskCount, 0);
+            Arrays.fill(avgTaskSensitivity, 0.0);
+            Arrays.fill(totalL1Accesses, 0.0);
+            Arrays.fill(totalL2Accesses, 0.0);
+            Arrays.fill(totalL3Accesses, 0.0);
+            Arrays.fill(totalL1Hits, 0.0);
+            Arrays.fill(totalL2Hits, 0.0);
+            Arrays.fill(totalL3Hits, 0.0);
+            Arrays.fill(totalTasks, 0);
+            Arrays.fill(clusterSensitivitySum, 0.0);
+            Arrays.fill(clusterTaskCount, 0);
+        }
     }
-      /**
-     * 缓存命中率统计
+    
+    /**
+     * 按系统参数中的核心数创建
      */
-    private static class CacheHitStats {
-        double totalL1Accesses = 0.0;   // L1总访问次数
-        double totalL2Accesses = 0.0;   // L2总访问次数
-        double totalL3Accesses = 0.0;   // L3总访问次数
-        double totalL1Hits = 0.0;       // L1总命中次数
-        double totalL2Hits = 0.0;       // L2总命中次数
-        double totalL3Hits = 0.0;       // L3总命中次数
-        int totalTasks = 0;             // 处理的任务总数
-        
+    public CacheAware_v2() {
+        this(SystemParameters.coreNum);
     }
-        /**
+    
+    /**
+     * 按指定核心数创建
+     * 
+     * @param coreNum 处理器核心数（决定状态数组的初始大小）
+     */
+    public CacheAware_v2(int coreNum) {
+        this(CacheHierarchy.fromSystemParameters(coreNum));
+    }
+    
+    /**
+     * 按指定拓扑创建
+     * 
+     * @param topology 处理器拓扑（L2簇亲和性和处理器亲和性距离取自其预计算映射）
+     */
+    public CacheAware_v2(CacheHierarchy topology) {
+        this.topology = topology;
+        this.state = new ProcessorStates(topology.coreNum, topology.clusterCount(CacheHierarchy.LEVEL2));
+    }
+    
+    /**
      * Cache-Aware任务分配核心算法
      * 
      * 多维度评分策略：缓存收益、负载均衡、缓存亲和性、缓存质量
@@ -83,26 +197,76 @@ public class CacheAware_v2 extends AllocationMethods {      /** 处理器负载
         
         // 返回选中的处理器ID，失败时返回第一个可用处理器
         return bestProcessor != -1 ? bestProcessor : availableProc.get(0);
-    }    /**
+    }
+    
+    /**
+     * Cache-Aware批量分配
+     * 
+     * 候选处理器的容量检查和初始化在整批开始时完成一次，
+     * 之后每个决策只做纯数组评分；选中处理器的状态更新立即生效，
+     * 因此结果与逐个调用allocate()完全一致。
+     */
+    @Override
+    public int allocateBatch(List<Node> tasks, int[] cores, int coreCount, int[] assignment) {
+        int n = tasks.size();
+        if (n == 0 || coreCount <= 0) {
+            Arrays.fill(assignment, 0, n, -1);
+            return 0;
+        }
+        
+        // 整批只做一次初始化
+        for (int c = 0; c < coreCount; c++) {
+            state.ensureCapacity(cores[c]);
+            state.active[cores[c]] = true;
+        }
+        
+        for (int i = 0; i < n; i++) {
+            Node nodeToAllocate = tasks.get(i);
+            
+            int bestProcessor = -1;
+            double bestScore = Double.MIN_VALUE;
+            for (int c = 0; c < coreCount; c++) {
+                double score = calculateActiveScore(nodeToAllocate, cores[c]);
+                if (score > bestScore) {
+                    bestScore = score;
+                    bestProcessor = cores[c];
+                }
+            }
+            
+            if (bestProcessor != -1) {
+                updateProcessorState(bestProcessor, nodeToAllocate);
+                recordTaskCacheHitRatio(bestProcessor, nodeToAllocate);
+                assignment[i] = bestProcessor;
+            } else {
+                assignment[i] = cores[0];
+            }
+        }
+        return n;
+    }
+    
+    /**
      * 计算Cache-Aware综合适合度分数
      * 多维度加权评分：缓存收益40%、负载均衡30%、缓存亲和性20%、缓存质量10%、缓存干扰惩罚5%
      */
     private double calculateCacheAwareScore(Node node, int processorId) {
         // 初始化处理器状态（如果是首次访问该处理器）
-        if (!cacheStates.containsKey(processorId)) {
-            cacheStates.put(processorId, new CacheState());
-            processorLoads.put(processorId, 0.0);
-            taskCount.put(processorId, 0);
-        }
+        state.ensureCapacity(processorId);
+        state.active[processorId] = true;
         
-        CacheState cacheState = cacheStates.get(processorId);
-        double currentLoad = processorLoads.get(processorId);
+        return calculateActiveScore(node, processorId);
+    }
+    
+    /**
+     * 对已初始化的处理器计算综合适合度分数（不做容量检查）
+     */
+    private double calculateActiveScore(Node node, int processorId) {
+        double currentLoad = state.load[processorId];
         
         double score = 0.0;
         
         // 1. 缓存收益分数 (权重40%)
         // 评估任务在该处理器上可能获得的缓存性能提升
-        double cacheScore = calculateCacheBenefitScore(node, processorId, cacheState) * 0.4;
+        double cacheScore = calculateCacheBenefitScore(node, processorId) * 0.4;
         
         // 2. 负载均衡分数 (权重30%)
         // 倾向于选择当前负载较轻的处理器，维持系统负载均衡
@@ -110,15 +274,15 @@ public class CacheAware_v2 extends AllocationMethods {      /** 处理器负载
         
         // 3. 缓存亲和性分数 (权重20%)
         // 考虑任务与处理器之间的缓存亲和关系，提升缓存局部性
-        double affinityScore = calculateCacheAffinityScore(node, processorId, cacheState) * 0.2;
+        double affinityScore = calculateCacheAffinityScore(node, processorId) * 0.2;
         
         // 4. 缓存质量分数 (权重10%)
         // 评估目标处理器当前的缓存状态质量，偏好缓存状态良好的处理器
-        double cacheQualityScore = calculateCacheQualityScore(node, cacheState) * 0.1;
+        double cacheQualityScore = calculateCacheQualityScore(node, processorId) * 0.1;
         
         // 5. 缓存干扰惩罚分数 (权重5%)
         // 减少因任务分配不当导致的缓存干扰，保护已有的缓存效果
-        double interferenceScore = calculateCacheInterferenceScore(node, cacheState) * 0.05;
+        double interferenceScore = calculateCacheInterferenceScore(node, processorId) * 0.05;
         
         // 计算最终的综合适合度分数
         score = cacheScore + loadScore + affinityScore + cacheQualityScore - interferenceScore;
@@ -127,7 +291,7 @@ public class CacheAware_v2 extends AllocationMethods {      /** 处理器负载
     }    /**
      * 计算缓存收益分数
      */
-    private double calculateCacheBenefitScore(Node node, int processorId, CacheState cacheState) {
+    private double calculateCacheBenefitScore(Node node, int processorId) {
         if (node.weights == null || node.weights.length < 4) {
             return 0.5; // 默认中等分数，参考v1
         }
@@ -138,9 +302,9 @@ public class CacheAware_v2 extends AllocationMethods {      /** 处理器负载
         double l3Benefit = node.weights[2] * node.sensitivity * 0.3; // L3效果调整
         
         // 缓存状态衰减
-        double l1UtilizationPenalty = cacheState.l1Utilization * 0.7; // 线性衰减，更温和
-        double l2UtilizationPenalty = cacheState.l2Utilization * 0.5; // 减少惩罚
-        double l3UtilizationPenalty = cacheState.l3Utilization * 0.3; // 减少惩罚
+        double l1UtilizationPenalty = state.l1Utilization[processorId] * 0.7; // 线性衰减，更温和
+        double l2UtilizationPenalty = state.l2Utilization[processorId] * 0.5; // 减少惩罚
+        double l3UtilizationPenalty = state.l3Utilization[processorId] * 0.3; // 减少惩罚
         
         // 缓存收益
         double adjustedL1Benefit = l1Benefit * (1.0 - l1UtilizationPenalty);
@@ -159,13 +323,14 @@ public class CacheAware_v2 extends AllocationMethods {      /** 处理器负载
     }    /**
      * 计算缓存亲和性分数
      */
-    private double calculateCacheAffinityScore(Node node, int processorId, CacheState cacheState) {
+    private double calculateCacheAffinityScore(Node node, int processorId) {
         double score = 0.0;
           // L2缓存共享亲和性 
-        if (SystemParameters.Level2CoreNum > 0) {
+        if (topology.cacheLevel >= 2) {
             // 如果当前L2组有相似的任务，给予亲和性加分
-            if (cacheState.avgTaskSensitivity > 0.0) {
-                double sensitivitySimilarity = 1.0 - Math.abs(node.sensitivity - cacheState.avgTaskSensitivity);
+            double avgTaskSensitivity = level2GroupSensitivity(processorId);
+            if (avgTaskSensitivity > 0.0) {
+                double sensitivitySimilarity = 1.0 - Math.abs(node.sensitivity - avgTaskSensitivity);
                 score += sensitivitySimilarity * 0.3; // 降低权重，更保守
             } else {
                 score += 0.5; // 空缓存组给予中等分数
@@ -174,7 +339,7 @@ public class CacheAware_v2 extends AllocationMethods {      /** 处理器负载
         
         // 处理器亲和性
         if (node.affinity != -1) {
-            int distance = Math.abs(node.affinity - processorId);
+            int distance = topology.distance(node.affinity, processorId);
             score += Math.max(0, 1.0 - distance * 0.1); // 使用v1的衰减率
         } else {
             score += 0.5; // 无亲和性偏好时给予中等分数
@@ -182,10 +347,22 @@ public class CacheAware_v2 extends AllocationMethods {      /** 处理器负载
         
         return Math.min(score, 1.0); // 限制最大值为1.0
     }
+    
+    /**
+     * 处理器所在L2簇的平均任务敏感度，处理器超出拓扑范围时视为独立的簇
+     */
+    private double level2GroupSensitivity(int processorId) {
+        int cluster = topology.getLevel2ClusterID(processorId);
+        if (cluster < 0) {
+            return state.avgTaskSensitivity[processorId];
+        }
+        int count = state.clusterTaskCount[cluster];
+        return count > 0 ? state.clusterSensitivitySum[cluster] / count : 0.0;
+    }
       /**
      * 计算缓存质量分数
      */
-    private double calculateCacheQualityScore(Node node, CacheState cacheState) {
+    private double calculateCacheQualityScore(Node node, int processorId) {
         double score = 0.0;
         
         // 缓存利用率质量 - 偏好中等利用率的缓存（避免过度拥挤和完全空闲）
@@ -193,16 +370,17 @@ public class CacheAware_v2 extends AllocationMethods {      /** 处理器负载
         double optimalL2Utilization = 0.5; // 最优L2利用率
         double optimalL3Utilization = 0.4; // 最优L3利用率
         
-        double l1Quality = 1.0 - Math.abs(cacheState.l1Utilization - optimalL1Utilization);
-        double l2Quality = 1.0 - Math.abs(cacheState.l2Utilization - optimalL2Utilization);
-        double l3Quality = 1.0 - Math.abs(cacheState.l3Utilization - optimalL3Utilization);
+        double l1Quality = 1.0 - Math.abs(state.l1Utilization[processorId] - optimalL1Utilization);
+        double l2Quality = 1.0 - Math.abs(state.l2Utilization[processorId] - optimalL2Utilization);
+        double l3Quality = 1.0 - Math.abs(state.l3Utilization[processorId] - optimalL3Utilization);
         
         score += (l1Quality * 0.5 + l2Quality * 0.3 + l3Quality * 0.2);
         
         // 任务密度质量 - 避免过度集中
-        if (cacheState.recentTaskCount < 3) {
+        int recentTaskCount = state.recentTaskCount[processorId];
+        if (recentTaskCount < 3) {
             score += 0.3; // 任务较少时加分
-        } else if (cacheState.recentTaskCount > 8) {
+        } else if (recentTaskCount > 8) {
             score -= 0.2; // 任务过多时减分
         }
         
@@ -210,12 +388,12 @@ public class CacheAware_v2 extends AllocationMethods {      /** 处理器负载
     }    /**
      * 计算缓存干扰惩罚分数
      */
-    private double calculateCacheInterferenceScore(Node node, CacheState cacheState) {
+    private double calculateCacheInterferenceScore(Node node, int processorId) {
         // 任务密度惩罚 - 降低惩罚强度
-        double taskCountPenalty = Math.min(cacheState.recentTaskCount * 0.05, 0.3); // 降低惩罚
+        double taskCountPenalty = Math.min(state.recentTaskCount[processorId] * 0.05, 0.3); // 降低惩罚
         
         // 敏感度差异惩罚
-        double sensitivityDifference = Math.abs(node.sensitivity - cacheState.avgTaskSensitivity);
+        double sensitivityDifference = Math.abs(node.sensitivity - state.avgTaskSensitivity[processorId]);
         double sensitivityPenalty = sensitivityDifference * 0.15; // 降低惩罚强度
         
         return taskCountPenalty + sensitivityPenalty;
@@ -231,43 +409,49 @@ public class CacheAware_v2 extends AllocationMethods {      /** 处理器负载
      * 更新处理器状态
      */
     private void updateProcessorState(int processorId, Node task) {
-        CacheState cacheState = cacheStates.get(processorId);
-        double currentLoad = processorLoads.get(processorId);
-        int currentTaskCount = taskCount.get(processorId);
+        ProcessorStates s = state;
         
         // 更新负载
-        processorLoads.put(processorId, currentLoad + task.expectedET);
+        s.load[processorId] += task.expectedET;
         
         // 更新任务计数
-        taskCount.put(processorId, currentTaskCount + 1);
+        s.taskCount[processorId]++;
         
         // 缓存利用率更新
         if (task.weights != null && task.weights.length >= 4) {
             double utilizationIncrement = task.sensitivity * 0.05; // 减少增量，更保守
             
             // 利用率增长
-            cacheState.l1Utilization = Math.min(0.9, cacheState.l1Utilization + 
+            s.l1Utilization[processorId] = Math.min(0.9, s.l1Utilization[processorId] + 
                                                utilizationIncrement * task.weights[0] * 0.8);
-            cacheState.l2Utilization = Math.min(0.8, cacheState.l2Utilization + 
+            s.l2Utilization[processorId] = Math.min(0.8, s.l2Utilization[processorId] + 
                                                utilizationIncrement * task.weights[1] * 0.6);
-            cacheState.l3Utilization = Math.min(0.7, cacheState.l3Utilization + 
+            s.l3Utilization[processorId] = Math.min(0.7, s.l3Utilization[processorId] + 
                                                utilizationIncrement * task.weights[2] * 0.4);
             
             // 添加缓存衰减机制 - 模拟缓存替换
-            if (cacheState.recentTaskCount > 5) {
+            if (s.recentTaskCount[processorId] > 5) {
                 double decayFactor = 0.95; // 轻微衰减
-                cacheState.l1Utilization *= decayFactor;
-                cacheState.l2Utilization *= decayFactor;
-                cacheState.l3Utilization *= decayFactor;
+                s.l1Utilization[processorId] *= decayFactor;
+                s.l2Utilization[processorId] *= decayFactor;
+                s.l3Utilization[processorId] *= decayFactor;
             }
         }
         
         // 更新平均任务敏感度
-        cacheState.avgTaskSensitivity = (cacheState.avgTaskSensitivity * cacheState.recentTaskCount + 
-                                        task.sensitivity) / (cacheState.recentTaskCount + 1);
+        int recentTaskCount = s.recentTaskCount[processorId];
+        s.avgTaskSensitivity[processorId] = (s.avgTaskSensitivity[processorId] * recentTaskCount + 
+                                        task.sensitivity) / (recentTaskCount + 1);
         
         // 更新任务计数
-        cacheState.recentTaskCount++;
+        s.recentTaskCount[processorId] = recentTaskCount + 1;
+        
+        // 更新所在L2簇的敏感度统计
+        int cluster = topology.getLevel2ClusterID(processorId);
+        if (cluster >= 0) {
+            s.clusterSensitivitySum[cluster] += task.sensitivity;
+            s.clusterTaskCount[cluster]++;
+        }
         
         // 更新缓存命中率统计
         updateCacheHitStats(task, processorId);
@@ -276,38 +460,29 @@ public class CacheAware_v2 extends AllocationMethods {      /** 处理器负载
      * 更新缓存命中率统计
      */
     private void updateCacheHitStats(Node task, int processorId) {
-        if (!cacheHitStats.containsKey(processorId)) {
-            cacheHitStats.put(processorId, new CacheHitStats());
-        }
-        
-        CacheHitStats stats = cacheHitStats.get(processorId);
+        ProcessorStates s = state;
         
         // 更新总访问次数
-        stats.totalL1Accesses += task.weights[0];
-        stats.totalL2Accesses += task.weights[1];
-        stats.totalL3Accesses += task.weights[2];
+        s.totalL1Accesses[processorId] += task.weights[0];
+        s.totalL2Accesses[processorId] += task.weights[1];
+        s.totalL3Accesses[processorId] += task.weights[2];
         
         // 更新命中次数（基于当前处理器状态的估计）
-        double l1EstimatedHits = task.weights[0] * (1.0 - cacheStates.get(processorId).l1Utilization * 0.8);
-        double l2EstimatedHits = task.weights[1] * (1.0 - cacheStates.get(processorId).l2Utilization * 0.6);
-        double l3EstimatedHits = task.weights[2] * (1.0 - cacheStates.get(processorId).l3Utilization * 0.4);
+        double l1EstimatedHits = task.weights[0] * (1.0 - s.l1Utilization[processorId] * 0.8);
+        double l2EstimatedHits = task.weights[1] * (1.0 - s.l2Utilization[processorId] * 0.6);
+        double l3EstimatedHits = task.weights[2] * (1.0 - s.l3Utilization[processorId] * 0.4);
         
-        stats.totalL1Hits += l1EstimatedHits;
-        stats.totalL2Hits += l2EstimatedHits;
-        stats.totalL3Hits += l3EstimatedHits;
+        s.totalL1Hits[processorId] += l1EstimatedHits;
+        s.totalL2Hits[processorId] += l2EstimatedHits;
+        s.totalL3Hits[processorId] += l3EstimatedHits;
         
-        stats.totalTasks++;
+        s.totalTasks[processorId]++;
     }
       /**
      * 记录任务的实际缓存命中率
      */
     private void recordTaskCacheHitRatio(int processorId, Node task) {
-        if (!cacheHitStats.containsKey(processorId)) {
-            cacheHitStats.put(processorId, new CacheHitStats());
-        }
-        
-        CacheHitStats stats = cacheHitStats.get(processorId);
-        CacheState cacheState = cacheStates.get(processorId);
+        ProcessorStates s = state;
         
         if (task.weights == null || task.weights.length < 4) {
             return;
@@ -319,23 +494,23 @@ public class CacheAware_v2 extends AllocationMethods {      /** 处理器负载
         double l3Access = task.weights[2] * task.sensitivity;
         
         // 基于当前缓存状态计算命中率
-        double l1HitRatio = Math.max(0, task.weights[0] * (1.0 - cacheState.l1Utilization * 0.8));
-        double l2HitRatio = Math.max(0, task.weights[1] * (1.0 - cacheState.l2Utilization * 0.6));
-        double l3HitRatio = Math.max(0, task.weights[2] * (1.0 - cacheState.l3Utilization * 0.4));
+        double l1HitRatio = Math.max(0, task.weights[0] * (1.0 - s.l1Utilization[processorId] * 0.8));
+        double l2HitRatio = Math.max(0, task.weights[1] * (1.0 - s.l2Utilization[processorId] * 0.6));
+        double l3HitRatio = Math.max(0, task.weights[2] * (1.0 - s.l3Utilization[processorId] * 0.4));
         
         // 记录访问次数和命中次数
-        stats.totalL1Accesses += l1Access;
-        stats.totalL2Accesses += l2Access;
-        stats.totalL3Accesses += l3Access;
+        s.totalL1Accesses[processorId] += l1Access;
+        s.totalL2Accesses[processorId] += l2Access;
+        s.totalL3Accesses[processorId] += l3Access;
         
-        stats.totalL1Hits += l1Access * l1HitRatio;
-        stats.totalL2Hits += l2Access * l2HitRatio;
-        stats.totalL3Hits += l3Access * l3HitRatio;
-          stats.totalTasks++;
+        s.totalL1Hits[processorId] += l1Access * l1HitRatio;
+        s.totalL2Hits[processorId] += l2Access * l2HitRatio;
+        s.totalL3Hits[processorId] += l3Access * l3HitRatio;
+        s.totalTasks[processorId]++;
         
         // 将命中率信息记录到任务中（用于后续分析）
-        double totalAccesses = stats.totalL1Accesses + stats.totalL2Accesses + stats.totalL3Accesses;
-        double totalHits = stats.totalL1Hits + stats.totalL2Hits + stats.totalL3Hits;
+        double totalAccesses = s.totalL1Accesses[processorId] + s.totalL2Accesses[processorId] + s.totalL3Accesses[processorId];
+        double totalHits = s.totalL1Hits[processorId] + s.totalL2Hits[processorId] + s.totalL3Hits[processorId];
         task.actualCacheHitRatio = totalAccesses > 0 ? totalHits / totalAccesses : 0.0;
         
         // 记录各级缓存的命中率
@@ -346,21 +521,19 @@ public class CacheAware_v2 extends AllocationMethods {      /** 处理器负载
       /**
      * 计算缓存感知的执行时间
      */
-    public static long calculateExecutionTime(Node task, int processor) {
-        if (!cacheStates.containsKey(processor)) {
+    public long calculateExecutionTime(Node task, int processor) {
+        if (processor < 0 || processor >= state.size() || !state.active[processor]) {
             return task.expectedET; // 没有缓存信息，返回原始时间
         }
         
-        CacheState cacheState = cacheStates.get(processor);
-        
         if (task.weights == null || task.weights.length < 4) {
             return task.expectedET;
         }
         
         // 更保守的缓存收益计算
-        double l1HitRatio = Math.max(0, task.weights[0] * (1.0 - cacheState.l1Utilization * 0.8));
-        double l2HitRatio = Math.max(0, task.weights[1] * (1.0 - cacheState.l2Utilization * 0.6));
-        double l3HitRatio = Math.max(0, task.weights[2] * (1.0 - cacheState.l3Utilization * 0.4));
+        double l1HitRatio = Math.max(0, task.weights[0] * (1.0 - state.l1Utilization[processor] * 0.8));
+        double l2HitRatio = Math.max(0, task.weights[1] * (1.0 - state.l2Utilization[processor] * 0.6));
+        double l3HitRatio = Math.max(0, task.weights[2] * (1.0 - state.l3Utilization[processor] * 0.4));
         
         // 更保守的缓存命中时间节省
         double l1Savings = l1HitRatio * task.sensitivity * 0.25; // 降低L1节省到25%
@@ -382,30 +555,53 @@ public class CacheAware_v2 extends AllocationMethods {      /** 处理器负载
         long adjustedET = (long)(task.expectedET * (1.0 - totalSavings));
         return Math.max(adjustedET, task.expectedET / 2); // 最多减少50%执行时间
     }
-      /**
-     * 重置所有状态
+
+    /**
+     * 把任务记到由外部调度器（如HEFT）选定的处理器上
+     *
+     * 登记处理器并更新其缓存状态和命中率统计，与allocate()选中该处理器后的状态更新相同，
+     * 之后calculateExecutionTime按更新后的缓存状态估算该处理器上的执行时间。
      */
-    public static void resetState() {
-        processorLoads.clear();
-        cacheStates.clear();
-        taskCount.clear();
-        cacheHitStats.clear();
+    public void assign(Node task, int processor) {
+        state.ensureCapacity(processor);
+        state.active[processor] = true;
+        updateProcessorState(processor, task);
+        recordTaskCacheHitRatio(processor, task);
+    }
+
+    /**
+     * 登记处理器[0, coreCount)（与allocateBatch开始时相同），
+     * 未登记的处理器没有缓存信息，calculateExecutionTime返回原始执行时间
+     */
+    public void activateProcessors(int coreCount) {
+        for (int c = 0; c < coreCount; c++) {
+            state.ensureCapacity(c);
+            state.active[c] = true;
+        }
+    }
+
+    /**
+     * 重置所有状态（数组填充，O(核心数)）
+     */
+    public void resetState() {
+        state.clear();
     }
       /**
      * 获取处理器缓存状态报告
      */
-    public static Map<Integer, String> getCacheStateReport() {
+    public Map<Integer, String> getCacheStateReport() {
         Map<Integer, String> report = new HashMap<>();
         
-        for (Map.Entry<Integer, CacheState> entry : cacheStates.entrySet()) {
-            int procId = entry.getKey();
-            CacheState state = entry.getValue();
+        for (int procId = 0; procId < state.size(); procId++) {
+            if (!state.active[procId]) {
+                continue;
+            }
             
             String stateStr = String.format(
                 "Proc%d: L1=%.2f L2=%.2f L3=%.2f Tasks=%d AvgSens=%.3f Load=%.0f",
-                procId, state.l1Utilization, state.l2Utilization, state.l3Utilization,
-                state.recentTaskCount, state.avgTaskSensitivity, 
-                processorLoads.getOrDefault(procId, 0.0)
+                procId, state.l1Utilization[procId], state.l2Utilization[procId], state.l3Utilization[procId],
+                state.recentTaskCount[procId], state.avgTaskSensitivity[procId], 
+                state.load[procId]
             );
             
             report.put(procId, stateStr);
@@ -416,13 +612,13 @@ public class CacheAware_v2 extends AllocationMethods {      /** 处理器负载
       /**
      * 计算整体缓存命中率
      */
-    public static double calculateOverallCacheHitRatio() {
+    public double calculateOverallCacheHitRatio() {
         double totalAccesses = 0.0;
         double totalHits = 0.0;
         
-        for (CacheHitStats stats : cacheHitStats.values()) {
-            totalAccesses += stats.totalL1Accesses + stats.totalL2Accesses + stats.totalL3Accesses;
-            totalHits += stats.totalL1Hits + stats.totalL2Hits + stats.totalL3Hits;
+        for (int p = 0; p < state.size(); p++) {
+            totalAccesses += state.totalL1Accesses[p] + state.totalL2Accesses[p] + state.totalL3Accesses[p];
+            totalHits += state.totalL1Hits[p] + state.totalL2Hits[p] + state.totalL3Hits[p];
         }
         
         return totalAccesses > 0 ? totalHits / totalAccesses : 0.0;
@@ -448,20 +644,20 @@ public class CacheAware_v2 extends AllocationMethods {      /** 处理器负载
       /**
      * 获取详细的缓存命中率报告
      */
-    public static Map<String, Double> getDetailedCacheHitReport() {
+    public Map<String, Double> getDetailedCacheHitReport() {
         Map<String, Double> report = new HashMap<>();
         
         double totalL1Accesses = 0.0, totalL1Hits = 0.0;
         double totalL2Accesses = 0.0, totalL2Hits = 0.0;
         double totalL3Accesses = 0.0, totalL3Hits = 0.0;
         
-        for (CacheHitStats stats : cacheHitStats.values()) {
-            totalL1Accesses += stats.totalL1Accesses;
-            totalL1Hits += stats.totalL1Hits;
-            totalL2Accesses += stats.totalL2Accesses;
-            totalL2Hits += stats.totalL2Hits;
-            totalL3Accesses += stats.totalL3Accesses;
-            totalL3Hits += stats.totalL3Hits;
+        for (int p = 0; p < state.size(); p++) {
+            totalL1Accesses += state.totalL1Accesses[p];
+            totalL1Hits += state.totalL1Hits[p];
+            totalL2Accesses += state.totalL2Accesses[p];
+            totalL2Hits += state.totalL2Hits[p];
+            totalL3Accesses += state.totalL3Accesses[p];
+            totalL3Hits += state.totalL3Hits[p];
         }
         
         report.put("L1_Hit_Ratio", totalL1Accesses > 0 ? totalL1Hits / totalL1Accesses : 0.0);
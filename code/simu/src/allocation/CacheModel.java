@@ -0,0 +1,82 @@
+package allocation;
+
+import java.util.List;
+
+import entity.Node;
+import entity.TaskSet;
+
+/**
+ * 缓存命中统计模型
+ *
+ * 向性能分析器报告每个任务及每级缓存的命中率。调用方在一次运行开始时确定使用哪个模型，
+ * 分析器逐任务调用，不再按算法名称分支或通过反射查找。相互比较的各算法应使用同一种模型
+ * （实验中为simulator.LruCacheModel），命中率才出自相同的缓存假设。
+ *
+ * 整体命中率为各任务命中率按L1~L3缓存权重之和加权的平均值，再经overallHitRatio修正。
+ *
+ * @author Cache-Aware Task Scheduling System
+ */
+public interface CacheModel {
+
+    /**
+     * 直接读取任务上记录的命中率（actualCacheHitRatio / actualL1L2L3HitRatio），
+     * 适用于在调度过程中自行记录命中统计的分配算法
+     */
+    CacheModel RECORDED = new CacheModel() {
+        @Override
+        public double taskHitRatio(Node task) {
+            return task.actualCacheHitRatio;
+        }
+
+        @Override
+        public double taskHitRatio(TaskSet tasks, int i) {
+            return tasks.actualCacheHitRatio[i];
+        }
+    };
+
+    /**
+     * 分析任务集之前调用一次（例如回放调度、计算命中统计），默认无操作
+     */
+    default void prepare(List<Node> tasks) {
+    }
+
+    /**
+     * 分析结构数组任务集之前调用一次，默认无操作
+     */
+    default void prepare(TaskSet tasks) {
+    }
+
+    /**
+     * 任务的缓存命中率（0~1）
+     */
+    double taskHitRatio(Node task);
+
+    /**
+     * 任务集中第i个任务的缓存命中率（0~1）
+     */
+    double taskHitRatio(TaskSet tasks, int i);
+
+    /**
+     * 任务在第level级缓存（1~TaskSet.HIT_LEVELS）的命中率，默认读取任务上记录的分级命中率
+     */
+    default double taskLevelHitRatio(Node task, int level) {
+        return task.actualL1L2L3HitRatio[level - 1];
+    }
+
+    /**
+     * 任务集中第i个任务在第level级缓存的命中率，默认读取任务集中记录的分级命中率
+     */
+    default double taskLevelHitRatio(TaskSet tasks, int i, int level) {
+        return tasks.actualHitRatio[i * TaskSet.HIT_LEVELS + level - 1];
+    }
+
+    /**
+     * 由加权命中率之和得到整体命中率
+     *
+     * @param weightedHitRatio 各任务命中率 × 权重之和
+     * @param totalWeight 权重之和
+     */
+    default double overallHitRatio(double weightedHitRatio, double totalWeight) {
+        return totalWeight > 0 ? weightedHitRatio / totalWeight : 0.0;
+    }
+}
@@ -0,0 +1,271 @@
+package allocation;
+
+import java.util.Arrays;
+import java.util.List;
+import entity.Node;
+import generator.CacheHierarchy;
+import parameters.SystemParameters;
+
+/**
+ * 全局EDF（Global Earliest Deadline First）调度策略
+ *
+ * 与其余分区式分配算法不同，全局EDF不把任务固定在处理器上：所有就绪作业放在一个全局就绪队列中，
+ * 任一时刻在m个处理器上执行绝对截止期最早的m个作业，被抢占的作业可以在任意处理器上恢复执行。
+ *
+ * 本类提供全局调度需要的三部分决策，时间推进由PeriodicSimulator的全局模式完成：
+ * - 全局就绪队列：按（绝对截止期, 释放序号）排序的二叉最小堆，元素为作业槽编号，
+ *   排序键与元素并列存放在基本类型数组中，入队/出队O(log n)，可容纳10^5以上的积压作业
+ * - 处理器选择：作业优先回到上次执行的处理器，其次选择拓扑距离最近的空闲处理器（同L2簇优先）
+ * - 迁移代价：作业跨CacheHierarchy定义的L2簇迁移时，按执行时间 × 重填比例 × 缓存敏感度
+ *   追加缓存重填时间；同一L2簇内迁移共享缓存，不计代价
+ *
+ * 作为AllocationMethods在一次性仿真中使用时（EventDrivenSimulator按就绪顺序派发），
+ * allocate()只提供迁移感知的处理器选择，作业顺序由调用者决定。
+ *
+ * @author Cache-Aware Task Scheduling System
+ */
+public class GlobalEDF extends AllocationMethods {
+
+    /** 处理器拓扑（判定迁移是否跨L2簇） */
+    private final CacheHierarchy topology;
+
+    /** 跨L2簇迁移时缓存重填时间占作业执行时间的比例（再乘以任务的缓存敏感度） */
+    private final double refillRatio;
+
+    // ==================== 全局就绪队列 ====================
+
+    /** 最小堆：heap[i]为作业槽，heapDeadline/heapSeq为对应的绝对截止期和释放序号 */
+    private int[] heap = new int[64];
+    private long[] heapDeadline = new long[64];
+    private long[] heapSeq = new long[64];
+    private int size;
+
+    /**
+     * 按系统参数中的核心数和缓存配置创建
+     */
+    public GlobalEDF() {
+        this(SystemParameters.coreNum);
+    }
+
+    /**
+     * 按指定核心数创建，拓扑和重填比例取自系统参数
+     *
+     * @param coreNum 处理器核心数
+     */
+    public GlobalEDF(int coreNum) {
+        this(CacheHierarchy.fromSystemParameters(coreNum), SystemParameters.migrationRefillRatio);
+    }
+
+    /**
+     * @param topology 处理器拓扑
+     * @param refillRatio 跨L2簇迁移的缓存重填比例（不小于0）
+     */
+    public GlobalEDF(CacheHierarchy topology, double refillRatio) {
+        this.topology = topology;
+        this.refillRatio = Math.max(0.0, refillRatio);
+    }
+
+    public CacheHierarchy getTopology() {
+        return topology;
+    }
+
+    public double getRefillRatio() {
+        return refillRatio;
+    }
+
+    // ==================== 就绪队列操作 ====================
+
+    /**
+     * 作业入队
+     *
+     * @param job 作业槽编号（由调用者管理）
+     * @param deadline 绝对截止期
+     * @param seq 释放序号，截止期相同时序号小的先执行
+     */
+    public void push(int job, long deadline, long seq) {
+        if (size == heap.length) {
+            int capacity = size * 2;
+            heap = Arrays.copyOf(heap, capacity);
+            heapDeadline = Arrays.copyOf(heapDeadline, capacity);
+            heapSeq = Arrays.copyOf(heapSeq, capacity);
+        }
+        int i = size++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            long parentDeadline = heapDeadline[parent];
+            if (deadline > parentDeadline || (deadline == parentDeadline && seq > heapSeq[parent])) {
+                break;
+            }
+            heap[i] = heap[parent];
+            heapDeadline[i] = parentDeadline;
+            heapSeq[i] = heapSeq[parent];
+            i = parent;
+        }
+        heap[i] = job;
+        heapDeadline[i] = deadline;
+        heapSeq[i] = seq;
+    }
+
+    /**
+     * 取出截止期最早的作业
+     *
+     * @return 作业槽编号，队列为空时为-1
+     */
+    public int poll() {
+        if (size == 0) {
+            return -1;
+        }
+        int top = heap[0];
+        int last = --size;
+        if (last == 0) {
+            return top;
+        }
+        int job = heap[last];
+        long deadline = heapDeadline[last];
+        long seq = heapSeq[last];
+        int i = 0;
+        int half = last >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int right = child + 1;
+            if (right < last && (heapDeadline[right] < heapDeadline[child]
+                    || (heapDeadline[right] == heapDeadline[child] && heapSeq[right] < heapSeq[child]))) {
+                child = right;
+            }
+            long childDeadline = heapDeadline[child];
+            if (deadline < childDeadline || (deadline == childDeadline && seq < heapSeq[child])) {
+                break;
+            }
+            heap[i] = heap[child];
+            heapDeadline[i] = childDeadline;
+            heapSeq[i] = heapSeq[child];
+            i = child;
+        }
+        heap[i] = job;
+        heapDeadline[i] = deadline;
+        heapSeq[i] = seq;
+        return top;
+    }
+
+    /** 队首作业的绝对截止期，队列为空时为Long.MAX_VALUE */
+    public long peekDeadline() {
+        return size > 0 ? heapDeadline[0] : Long.MAX_VALUE;
+    }
+
+    /** 队首作业的释放序号，队列为空时为Long.MAX_VALUE */
+    public long peekSeq() {
+        return size > 0 ? heapSeq[0] : Long.MAX_VALUE;
+    }
+
+    /** 就绪队列中的作业数 */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 清空就绪队列（保留已扩展的容量）
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    // ==================== 处理器选择与迁移代价 ====================
+
+    /**
+     * 为作业选择空闲处理器
+     *
+     * 优先选择preferred本身，否则选择与preferred拓扑距离最近的空闲处理器（SMT兄弟、同L2簇、
+     * 同L3、同NUMA节点依次更远），距离相同时选择ID最小的处理器。
+     *
+     * @param preferred 作业上次执行的处理器，-1表示没有偏好
+     * @param running 各处理器上正在执行的作业，小于0表示空闲
+     * @param cores 处理器数量（只考虑running的前cores个元素）
+     * @return 选中的处理器，没有空闲处理器时为-1
+     */
+    public int selectCore(int preferred, int[] running, int cores) {
+        if (preferred >= 0 && preferred < cores && running[preferred] < 0) {
+            return preferred;
+        }
+        int best = -1;
+        int bestDistance = Integer.MAX_VALUE;
+        for (int c = 0; c < cores; c++) {
+            if (running[c] >= 0) {
+                continue;
+            }
+            if (preferred < 0) {
+                return c;
+            }
+            int distance = topology.distance(preferred, c);
+            if (distance < bestDistance) {
+                best = c;
+                bestDistance = distance;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * 作业是否跨L2簇迁移（不共享L2缓存的两个处理器之间）
+     */
+    public boolean crossesLevel2(int from, int to) {
+        if (from < 0 || from == to) {
+            return false;
+        }
+        int cluster = topology.getLevel2ClusterID(from);
+        return cluster < 0 || cluster != topology.getLevel2ClusterID(to);
+    }
+
+    /**
+     * 作业从from迁移到to时追加的缓存重填时间
+     *
+     * @param from 作业上次执行的处理器（-1表示首次执行，不计代价）
+     * @param to 恢复执行的处理器
+     * @param execution 作业的执行时间
+     * @param sensitivity 任务的缓存敏感度
+     * @return 重填时间，同一L2簇内迁移时为0
+     */
+    public long migrationPenalty(int from, int to, long execution, double sensitivity) {
+        if (!crossesLevel2(from, to)) {
+            return 0L;
+        }
+        return (long) Math.ceil(execution * refillRatio * Math.max(0.0, sensitivity));
+    }
+
+    // ==================== AllocationMethods ====================
+
+    /**
+     * 为就绪列表的首个任务选择处理器：优先回到任务上次所在的处理器（否则其亲和处理器），
+     * 其次选择拓扑距离最近的候选处理器，避免跨L2簇迁移
+     */
+    @Override
+    public int allocate(List<Node> readyNodes, List<Integer> availableProc) {
+        if (readyNodes.isEmpty() || availableProc.isEmpty()) {
+            return -1;
+        }
+        Node task = readyNodes.get(0);
+        int preferred = task.partition >= 0 ? task.partition : task.affinity;
+        if (preferred < 0) {
+            return availableProc.get(0);
+        }
+
+        int best = -1;
+        int bestDistance = Integer.MAX_VALUE;
+        for (int procId : availableProc) {
+            int distance = topology.distance(preferred, procId);
+            if (distance < bestDistance) {
+                best = procId;
+                bestDistance = distance;
+            }
+        }
+        return best >= 0 ? best : availableProc.get(0);
+    }
+
+    @Override
+    public String toString() {
+        return "GlobalEDF[refillRatio=" + refillRatio + ", " + topology + "]";
+    }
+}
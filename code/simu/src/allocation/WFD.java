@@ -1,7 +1,10 @@
 package allocation;
 
+import java.util.Arrays;
 import java.util.List;
 import entity.Node;
+import entity.TaskSet;
+import parameters.SystemParameters;
 
 /**
  * Worst Fit Decreasing (WFD) 任务分配算法
@@ -9,12 +12,60 @@ import entity.Node;
  * 经典负载均衡算法，采用最差适配策略，将任务分配给当前负载最轻的处理器。
  * 不考虑缓存局部性，适合作为对比基准。
  * 
+ * 实现说明：
+ * - 处理器负载使用long累加，长时间仿真不会溢出
+ * - 处理器按（负载, ID）组织为带位置索引的最小堆，负载相同时选择ID最小的处理器
+ * - 候选处理器为全部处理器时，一次分配为O(log m)（取堆顶并下沉）；
+ *   候选处理器为子集时退化为对候选列表的线性扫描
+ * - 处理器数量根据构造参数和出现过的处理器ID自动扩展，不再有固定上限
+ * - WFD不跟踪缓存状态：实验中的命中率由LRU缓存模型（LruCacheModel）在仿真时逐次统计，
+ *   与其他算法使用同一模型
+ * 
  * @author Cache-Aware Task Scheduling System
  */
 public class WFD extends AllocationMethods {
     
-    /** 处理器负载跟踪数组 */
-    private static int[] processorLoads = new int[8];
+    /** 已登记的处理器数量，登记的处理器ID恰为[0, coreCount) */
+    private int coreCount;
+    
+    /** 处理器负载（以处理器ID为下标） */
+    private long[] loads;
+    
+    /** 最小堆：heap[i]为处理器ID */
+    private int[] heap;
+    
+    /** 处理器ID在堆中的位置 */
+    private int[] heapIndex;
+    
+    /** 子集判定用的标记数组与当前标记值 */
+    private int[] seen;
+    private int seenStamp;
+    
+    /** 最近一次确认为全部处理器的候选列表及其确认时的处理器数量 */
+    private List<Integer> verifiedProcList;
+    private int verifiedCoreCount;
+    
+    /**
+     * 按系统参数中的核心数创建
+     */
+    public WFD() {
+        this(SystemParameters.coreNum);
+    }
+    
+    /**
+     * 按指定核心数创建
+     * 
+     * @param coreNum 处理器核心数（出现更大的处理器ID时自动扩展）
+     */
+    public WFD(int coreNum) {
+        int capacity = Math.max(coreNum, 1);
+        loads = new long[capacity];
+        heap = new int[capacity];
+        heapIndex = new int[capacity];
+        seen = new int[capacity];
+        coreCount = 0;
+        ensureCores(coreNum);
+    }
     
     /**
      * WFD任务分配核心算法
@@ -32,39 +83,268 @@ public class WFD extends AllocationMethods {
         Node nodeToAllocate = readyNodes.get(0);
         long taskLoad = nodeToAllocate.expectedET; // 任务的预期执行时间作为负载
         
-        int bestProcessor = -1;      // 最优处理器ID
-        int minLoad = Integer.MAX_VALUE; // 当前最小负载
-        
-        // 遍历所有可用处理器，寻找负载最小的处理器
-        for (int procId : availableProc) {
-            if (procId < processorLoads.length && processorLoads[procId] < minLoad) {
-                minLoad = processorLoads[procId];
-                bestProcessor = procId;
+        int bestProcessor;
+        if (coversAllCores(availableProc)) {
+            // 候选为全部处理器：堆顶即负载最小的处理器
+            bestProcessor = heap[0];
+        } else {
+            // 候选为子集：线性扫描候选处理器
+            bestProcessor = -1;
+            for (int procId : availableProc) {
+                if (procId < 0) {
+                    continue;
+                }
+                ensureCores(procId + 1);
+                if (bestProcessor == -1 || lighter(procId, bestProcessor)) {
+                    bestProcessor = procId;
+                }
+            }
+            if (bestProcessor == -1) {
+                return availableProc.get(0);
             }
         }
         
-        // 更新选中处理器的负载统计
-        if (bestProcessor != -1 && bestProcessor < processorLoads.length) {
-            processorLoads[bestProcessor] += taskLoad;
+        // 更新选中处理器的负载并恢复堆序
+        addLoad(bestProcessor, taskLoad);
+        return bestProcessor;
+    }
+    
+    /**
+     * WFD批量分配
+     * 
+     * 整批只做一次候选集合判定：候选为全部处理器时每个决策O(log m)，
+     * 否则每个决策对候选数组线性扫描。不产生任何对象分配。
+     */
+    @Override
+    public int allocateBatch(List<Node> tasks, int[] cores, int coreCount, int[] assignment) {
+        int n = tasks.size();
+        if (n == 0 || coreCount <= 0) {
+            Arrays.fill(assignment, 0, n, -1);
+            return 0;
+        }
+        
+        boolean allCores = prepareBatch(cores, coreCount);
+        
+        for (int i = 0; i < n; i++) {
+            int bestProcessor = selectProcessor(allCores, cores, coreCount);
+            if (bestProcessor == -1) {
+                assignment[i] = cores[0];
+                continue;
+            }
+            addLoad(bestProcessor, tasks.get(i).expectedET);
+            assignment[i] = bestProcessor;
+        }
+        return n;
+    }
+    
+    /**
+     * WFD批量分配（结构数组任务集版本），直接读取任务集的执行时间数组
+     */
+    @Override
+    public int allocateBatch(TaskSet tasks, int from, int to, int[] cores, int coreCount, int[] assignment) {
+        int n = to - from;
+        if (n <= 0 || coreCount <= 0) {
+            Arrays.fill(assignment, 0, Math.max(n, 0), -1);
+            return 0;
         }
         
-        // 返回选中的处理器ID，如果没有找到合适的处理器则返回第一个可用处理器
-        return bestProcessor != -1 ? bestProcessor : availableProc.get(0);
+        boolean allCores = prepareBatch(cores, coreCount);
+        
+        long[] expectedET = tasks.expectedET;
+        for (int i = from; i < to; i++) {
+            int bestProcessor = selectProcessor(allCores, cores, coreCount);
+            if (bestProcessor == -1) {
+                assignment[i - from] = cores[0];
+                continue;
+            }
+            addLoad(bestProcessor, expectedET[i]);
+            assignment[i - from] = bestProcessor;
+        }
+        return n;
+    }
+    
+    /**
+     * 批量分配前登记候选处理器，并判定候选是否为全部处理器
+     */
+    private boolean prepareBatch(int[] cores, int count) {
+        int maxCore = -1;
+        for (int c = 0; c < count; c++) {
+            maxCore = Math.max(maxCore, cores[c]);
+        }
+        ensureCores(maxCore + 1);
+        return coversAllCores(cores, count);
+    }
+    
+    /**
+     * 批量分配中的单次选择：候选为全部处理器时取堆顶，否则扫描候选数组
+     * 
+     * @return 选中的处理器ID，候选中没有合法ID时返回-1
+     */
+    private int selectProcessor(boolean allCores, int[] cores, int count) {
+        if (allCores) {
+            return heap[0];
+        }
+        int bestProcessor = -1;
+        for (int c = 0; c < count; c++) {
+            int procId = cores[c];
+            if (procId >= 0 && (bestProcessor == -1 || lighter(procId, bestProcessor))) {
+                bestProcessor = procId;
+            }
+        }
+        return bestProcessor;
     }
     
     /**
      * 重置所有处理器的负载统计
      */
-    public static void resetLoads() {
-        for (int i = 0; i < processorLoads.length; i++) {
-            processorLoads[i] = 0;
+    public void resetLoads() {
+        Arrays.fill(loads, 0, coreCount, 0L);
+        // 负载全为0时按ID升序排列即为合法的堆
+        for (int i = 0; i < coreCount; i++) {
+            heap[i] = i;
+            heapIndex[i] = i;
         }
     }
     
     /**
      * 获取当前所有处理器的负载情况
      */
-    public static int[] getProcessorLoads() {
-        return processorLoads.clone();
+    public long[] getProcessorLoads() {
+        return Arrays.copyOf(loads, coreCount);
+    }
+    
+    // ==================== 候选集合判定 ====================
+    
+    /**
+     * 判断候选列表是否恰为全部已登记处理器
+     * 
+     * 同一列表实例在处理器数量不变时只做一次O(k)判定，之后为O(1)；
+     * 调用方如果在两次调用之间原地修改列表内容但保持长度不变，需保证内容仍为全部处理器。
+     */
+    private boolean coversAllCores(List<Integer> availableProc) {
+        if (availableProc.size() != coreCount) {
+            return false;
+        }
+        if (availableProc == verifiedProcList && verifiedCoreCount == coreCount) {
+            return true;
+        }
+        
+        int stamp = nextStamp();
+        for (int procId : availableProc) {
+            if (procId < 0 || procId >= coreCount || seen[procId] == stamp) {
+                return false;
+            }
+            seen[procId] = stamp;
+        }
+        verifiedProcList = availableProc;
+        verifiedCoreCount = coreCount;
+        return true;
+    }
+    
+    /**
+     * 判断候选数组是否恰为全部已登记处理器，O(k)
+     */
+    private boolean coversAllCores(int[] cores, int count) {
+        if (count != coreCount) {
+            return false;
+        }
+        int stamp = nextStamp();
+        for (int c = 0; c < count; c++) {
+            int procId = cores[c];
+            if (procId < 0 || procId >= coreCount || seen[procId] == stamp) {
+                return false;
+            }
+            seen[procId] = stamp;
+        }
+        return true;
+    }
+    
+    private int nextStamp() {
+        if (++seenStamp == 0) {
+            Arrays.fill(seen, 0);
+            seenStamp = 1;
+        }
+        return seenStamp;
+    }
+    
+    // ==================== 索引最小堆 ====================
+    
+    /**
+     * 登记处理器[0, cores)，新处理器以0负载加入堆
+     */
+    private void ensureCores(int cores) {
+        if (cores <= coreCount) {
+            return;
+        }
+        if (cores > loads.length) {
+            int capacity = Math.max(cores, loads.length * 2);
+            loads = Arrays.copyOf(loads, capacity);
+            heap = Arrays.copyOf(heap, capacity);
+            heapIndex = Arrays.copyOf(heapIndex, capacity);
+            seen = Arrays.copyOf(seen, capacity);
+        }
+        for (int procId = coreCount; procId < cores; procId++) {
+            loads[procId] = 0L;
+            heap[procId] = procId;
+            heapIndex[procId] = procId;
+            siftUp(procId);
+        }
+        coreCount = cores;
+    }
+    
+    /**
+     * 增加处理器负载（负载只增不减，只需下沉）
+     */
+    private void addLoad(int procId, long load) {
+        loads[procId] += load;
+        if (load >= 0) {
+            siftDown(heapIndex[procId]);
+        } else {
+            siftUp(heapIndex[procId]);
+        }
+    }
+    
+    /**
+     * a是否比b更适合：负载更小，或负载相同且ID更小
+     */
+    private boolean lighter(int a, int b) {
+        return loads[a] < loads[b] || (loads[a] == loads[b] && a < b);
+    }
+    
+    private void siftUp(int pos) {
+        int procId = heap[pos];
+        while (pos > 0) {
+            int parent = (pos - 1) >>> 1;
+            int parentId = heap[parent];
+            if (!lighter(procId, parentId)) {
+                break;
+            }
+            heap[pos] = parentId;
+            heapIndex[parentId] = pos;
+            pos = parent;
+        }
+        heap[pos] = procId;
+        heapIndex[procId] = pos;
+    }
+    
+    private void siftDown(int pos) {
+        int procId = heap[pos];
+        int half = coreCount >>> 1;
+        while (pos < half) {
+            int child = 2 * pos + 1;
+            int right = child + 1;
+            if (right < coreCount && lighter(heap[right], heap[child])) {
+                child = right;
+            }
+            int childId = heap[child];
+            if (!lighter(childId, procId)) {
+                break;
+            }
+            heap[pos] = childId;
+            heapIndex[childId] = pos;
+            pos = child;
+        }
+        heap[pos] = procId;
+        heapIndex[procId] = pos;
     }
 }
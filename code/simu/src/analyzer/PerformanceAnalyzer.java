@@ -2,11 +2,14 @@ package analyzer;
 
 import java.text.DecimalFormat;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
+import allocation.CacheModel;
+import analyzer.ResultAggregator.Metric;
 import entity.Node;
+import entity.TaskSet;
+import profiler.PhaseEvents.AnalysisEvent;
+import simulator.PeriodicSimulator;
 
 /**
  * 性能分析器 - 任务调度算法性能评估核心组件
@@ -68,6 +71,9 @@ public class PerformanceAnalyzer {
         /** 缓存命中率 (0.0-1.0) */
         public double cacheHitRatio;
         
+        /** 各级缓存命中率 [L1, L2, L3]（按任务缓存权重加权） */
+        public double[] levelHitRatios = new double[TaskSet.HIT_LEVELS];
+        
         /** 估算能耗 */
         public double energyConsumption;
         
@@ -103,371 +109,346 @@ public class PerformanceAnalyzer {
             this.testCaseId = testId;
         }
     }
-      /**
+    /**
      * 分析单个算法的性能 - 增强版本
+     * 
+     * 一次遍历任务列表累加全部指标（见MetricAccumulator），
+     * 缓存命中率由cacheModel逐任务报告。
+     * 
+     * @param cacheModel 本次运行的缓存命中统计模型（实验中为该次运行的LRU缓存模型）
      */
     public ExperimentResult analyzeAlgorithmPerformance(String algorithmName, int testCaseId, 
-            List<Node> tasks, int processorCount, double executionTimeMs, double utilizationLevel) {
-        
-        ExperimentResult result = new ExperimentResult();
-        result.algorithmName = algorithmName;
-        result.testCaseId = testCaseId;
-        result.algorithmExecutionTime = executionTimeMs;
-        result.utilizationLevel = utilizationLevel;
-        
-        // 1. 计算Makespan（最大完成时间）
-        result.makespan = calculateMakespan(tasks, processorCount);
-        
-        // 2. 计算平均响应时间
-        result.averageResponseTime = calculateAverageResponseTime(tasks);
+            List<Node> tasks, int processorCount, double executionTimeMs, double utilizationLevel,
+            CacheModel cacheModel) {
         
-        // 3. 计算CPU利用率
-        result.cpuUtilization = calculateCpuUtilization(tasks, processorCount);
-        
-        // 4. 计算负载均衡度
-        result.loadBalance = calculateLoadBalance(tasks, processorCount);
-        
-        // 5. 计算缓存命中率（仅对Cache-Aware有意义）
-        result.cacheHitRatio = calculateCacheHitRatio(tasks, algorithmName);
-        
-        // 6. 计算能耗（简化模型）
-        result.energyConsumption = calculateEnergyConsumption(tasks);
-        
-        // 7. 计算错过截止期的任务数
-        result.missedDeadlines = calculateMissedDeadlines(tasks);
-          // 8. 计算缓存敏感度带来的收益
-        result.cacheSensitivityBenefit = calculateCacheSensitivityBenefit(tasks, algorithmName);
-        
-        // 9. 计算完整任务执行时间
-        result.totalTaskExecutionTime = calculateTotalTaskExecutionTime(tasks);
-        result.averageTaskExecutionTime = calculateAverageTaskExecutionTime(tasks);
+        AnalysisEvent event = new AnalysisEvent();
+        event.begin();
+        cacheModel.prepare(tasks);
+        MetricAccumulator acc = new MetricAccumulator(algorithmName, processorCount, cacheModel);
+        for (Node task : tasks) {
+            acc.accept(task.partition, task.start, task.finishAt, task.release,
+                task.expectedET, relativeDeadline(task.deadline, task.period), task.sensitivity);
+            if (task.weights != null && task.weights.length >= 3) {
+                double weight = task.weights[0] + task.weights[1] + task.weights[2];
+                acc.acceptHitRatio(weight, task.sensitivity, cacheModel.taskHitRatio(task));
+                for (int level = 1; level <= TaskSet.HIT_LEVELS; level++) {
+                    acc.acceptLevelHitRatio(level, weight, cacheModel.taskLevelHitRatio(task, level));
+                }
+            }
+        }
         
+        ExperimentResult result = acc.toResult(testCaseId, executionTimeMs, utilizationLevel);
         results.add(result);
+        event.finish(testCaseId, algorithmName, tasks.size());
         return result;
     }
     
     /**
-     * 分析单个算法的性能 - 兼容性版本
+     * 分析单个算法的性能，使用任务上记录的命中率（CacheModel.RECORDED）
      */
     public ExperimentResult analyzeAlgorithmPerformance(String algorithmName, int testCaseId, 
-                                                       List<Node> tasks, int processorCount) {
-        return analyzeAlgorithmPerformance(algorithmName, testCaseId, tasks, processorCount, 0.0, 1.0);
-    }
-    
-    /**
-     * 计算Makespan（所有任务完成的最大时间）
-     */
-    private double calculateMakespan(List<Node> tasks, int processorCount) {
-        double[] processorFinishTimes = new double[processorCount];
-        
-        for (Node task : tasks) {
-            if (task.partition >= 0 && task.partition < processorCount) {
-                processorFinishTimes[task.partition] = Math.max(
-                    processorFinishTimes[task.partition], 
-                    task.finishAt
-                );
-            }
-        }
-        
-        double maxFinishTime = 0;
-        for (double time : processorFinishTimes) {
-            maxFinishTime = Math.max(maxFinishTime, time);
-        }
-        
-        return maxFinishTime;
+            List<Node> tasks, int processorCount, double executionTimeMs, double utilizationLevel) {
+        return analyzeAlgorithmPerformance(algorithmName, testCaseId, tasks, processorCount,
+            executionTimeMs, utilizationLevel, CacheModel.RECORDED);
     }
     
     /**
-     * 计算平均响应时间
+     * 分析单个算法的性能 - 兼容性版本
      */
-    private double calculateAverageResponseTime(List<Node> tasks) {
-        if (tasks.isEmpty()) return 0;
-        
-        double totalResponseTime = 0;
-        int validTasks = 0;
-        
-        for (Node task : tasks) {
-            if (task.start >= 0 && task.finishAt >= 0) {
-                totalResponseTime += (task.finishAt - task.release);
-                validTasks++;
-            }
-        }
-        
-        return validTasks > 0 ? totalResponseTime / validTasks : 0;
+    public ExperimentResult analyzeAlgorithmPerformance(String algorithmName, int testCaseId, 
+                                                       List<Node> tasks, int processorCount) {
+        return analyzeAlgorithmPerformance(algorithmName, testCaseId, tasks, processorCount, 0.0, 1.0);
     }
     
     /**
-     * 计算CPU利用率
+     * 分析单个算法的性能 - 结构数组任务集版本
+     * 
+     * 直接扫描TaskSet的基本类型数组，不需要Node对象；
+     * 与Node列表版本共用同一个累加器，相同调度结果得到相同的数值。
      */
-    private double calculateCpuUtilization(List<Node> tasks, int processorCount) {
-        if (tasks.isEmpty()) return 0;
-        
-        double totalExecutionTime = 0;
-        double totalMakespan = calculateMakespan(tasks, processorCount);
-        
-        for (Node task : tasks) {
-            if (task.start >= 0 && task.finishAt >= 0) {
-                totalExecutionTime += (task.finishAt - task.start);
+    public ExperimentResult analyzeAlgorithmPerformance(String algorithmName, int testCaseId,
+            TaskSet tasks, int processorCount, double executionTimeMs, double utilizationLevel,
+            CacheModel cacheModel) {
+        
+        AnalysisEvent event = new AnalysisEvent();
+        event.begin();
+        cacheModel.prepare(tasks);
+        int n = tasks.size();
+        long[] start = tasks.start;
+        long[] finishAt = tasks.finishAt;
+        long[] release = tasks.release;
+        long[] expectedET = tasks.expectedET;
+        int[] partition = tasks.partition;
+        double[] sensitivity = tasks.sensitivity;
+        double[] weights = tasks.weights;
+        int w = TaskSet.WEIGHT_COUNT;
+        
+        MetricAccumulator acc = new MetricAccumulator(algorithmName, processorCount, cacheModel);
+        for (int i = 0; i < n; i++) {
+            acc.accept(partition[i], start[i], finishAt[i], release[i], expectedET[i],
+                relativeDeadline(tasks.deadline[i], tasks.period[i]), sensitivity[i]);
+            double weight = weights[i * w] + weights[i * w + 1] + weights[i * w + 2];
+            acc.acceptHitRatio(weight, sensitivity[i], cacheModel.taskHitRatio(tasks, i));
+            for (int level = 1; level <= TaskSet.HIT_LEVELS; level++) {
+                acc.acceptLevelHitRatio(level, weight, cacheModel.taskLevelHitRatio(tasks, i, level));
             }
         }
         
-        double totalAvailableTime = totalMakespan * processorCount;
-        return totalAvailableTime > 0 ? totalExecutionTime / totalAvailableTime : 0;
+        ExperimentResult result = acc.toResult(testCaseId, executionTimeMs, utilizationLevel);
+        results.add(result);
+        event.finish(testCaseId, algorithmName, tasks.size());
+        return result;
     }
     
     /**
-     * 计算负载均衡度（标准差越小越好）
-     */
-    private double calculateLoadBalance(List<Node> tasks, int processorCount) {
-        double[] processorLoads = new double[processorCount];
-        
-        // 计算每个处理器的负载
-        for (Node task : tasks) {
-            if (task.partition >= 0 && task.partition < processorCount) {
-                processorLoads[task.partition] += (task.finishAt - task.start);
-            }
-        }
-        
-        // 计算平均负载
-        double avgLoad = 0;
-        for (double load : processorLoads) {
-            avgLoad += load;
-        }
-        avgLoad /= processorCount;
-        
-        // 计算标准差
-        double variance = 0;
-        for (double load : processorLoads) {
-            variance += Math.pow(load - avgLoad, 2);
-        }
-        double stdDev = Math.sqrt(variance / processorCount);
-        
-        // 返回负载均衡度（1 - 归一化标准差）
-        return avgLoad > 0 ? 1.0 - (stdDev / avgLoad) : 0;
-    }
-      /**
-     * 计算缓存命中率 - 修正版本
-     * 区分不同算法，使用实际的缓存命中率数据
-     */    /**
-     * 计算缓存命中率 - 重新设计版本
+     * 分析单个算法的性能 - 结构数组任务集版本，使用任务集中记录的命中率（CacheModel.RECORDED）
      */
-    private double calculateCacheHitRatio(List<Node> tasks, String algorithmName) {
-        if (algorithmName.contains("CacheAware")) {
-            return calculateCacheAwareCacheHitRatio(tasks);
-        } else if ("WFD".equals(algorithmName)) {
-            return calculateWFDCacheHitRatio(tasks);
-        } else {
-            // 其他算法使用基础计算
-            return calculateBasicCacheHitRatio(tasks);
-        }
+    public ExperimentResult analyzeAlgorithmPerformance(String algorithmName, int testCaseId,
+            TaskSet tasks, int processorCount, double executionTimeMs, double utilizationLevel) {
+        return analyzeAlgorithmPerformance(algorithmName, testCaseId, tasks, processorCount,
+            executionTimeMs, utilizationLevel, CacheModel.RECORDED);
     }
     
     /**
-     * 计算CacheAware算法的缓存命中率
+     * 分析周期任务仿真（PeriodicSimulator）的结果
+     * 
+     * 时间类指标按作业统计：平均响应时间和平均任务执行时间为每个作业的均值，
+     * 错过截止期为完成时间晚于绝对截止期的作业数，Makespan为最后一个作业的完成时间；
+     * 处理器负载取自仿真统计的各处理器忙碌时间（全局调度下作业可能在多个处理器上执行）；
+     * 缓存命中率仍由cacheModel逐任务报告。
+     * 
+     * @param stats 仿真统计（任务级数组与tasks按下标对应）
      */
-    private double calculateCacheAwareCacheHitRatio(List<Node> tasks) {
-        // 首先尝试从CacheAware算法获取实际命中率
-        try {
-            Class<?> cacheAwareClass = Class.forName("allocation.CacheAware_v2");
-            java.lang.reflect.Method method = cacheAwareClass.getMethod("calculateCacheHitRatioFromTasks", List.class);
-            Double hitRatio = (Double) method.invoke(null, tasks);
-            if (hitRatio > 0) {
-                return hitRatio;
-            }
-        } catch (Exception e) {
-            System.err.println("警告：无法获取CacheAware算法的实际命中率，使用估算方法");
+    public ExperimentResult analyzePeriodicPerformance(String algorithmName, int testCaseId,
+            List<Node> tasks, int processorCount, double executionTimeMs, double utilizationLevel,
+            CacheModel cacheModel, PeriodicSimulator.Stats stats) {
+        
+        AnalysisEvent event = new AnalysisEvent();
+        event.begin();
+        cacheModel.prepare(tasks);
+        MetricAccumulator acc = new MetricAccumulator(algorithmName, processorCount, cacheModel);
+        for (int c = 0; c < stats.coreBusyTime.length; c++) {
+            acc.acceptProcessor(c, stats.coreFinishTime[c], stats.coreBusyTime[c]);
         }
-        
-        // 备用方法：基于任务的实际命中率计算
-        double totalWeightedHitRatio = 0.0;
-        double totalWeight = 0.0;
-        
-        for (Node task : tasks) {
+        for (int i = 0; i < tasks.size(); i++) {
+            Node task = tasks.get(i);
+            acc.acceptJobs(stats.taskBusyTime[i], stats.taskResponseTime[i],
+                stats.taskJobs[i], stats.taskMisses[i], task.sensitivity);
             if (task.weights != null && task.weights.length >= 3) {
-                // 如果任务有实际命中率记录，使用它
-                if (task.actualCacheHitRatio > 0) {
-                    double weight = task.weights[0] + task.weights[1] + task.weights[2];
-                    totalWeightedHitRatio += task.actualCacheHitRatio * weight;
-                    totalWeight += weight;
-                } else {
-                    // 否则使用改进的估算方法
-                    double l1Weight = task.weights[0];
-                    double l2Weight = task.weights[1];
-                    double l3Weight = task.weights[2];
-                    
-                    // 更精确的缓存命中率估算，考虑缓存感知算法的优化效果
-                    double estimatedHitRatio = (l1Weight * 0.85 + l2Weight * 0.75 + l3Weight * 0.65) * 
-                                              (1.0 + task.sensitivity * 0.25);
-                    
-                    double weight = l1Weight + l2Weight + l3Weight;
-                    totalWeightedHitRatio += estimatedHitRatio * weight;
-                    totalWeight += weight;
+                double weight = task.weights[0] + task.weights[1] + task.weights[2];
+                acc.acceptHitRatio(weight, task.sensitivity, cacheModel.taskHitRatio(task));
+                for (int level = 1; level <= TaskSet.HIT_LEVELS; level++) {
+                    acc.acceptLevelHitRatio(level, weight, cacheModel.taskLevelHitRatio(task, level));
                 }
             }
         }
         
-        return totalWeight > 0 ? Math.min(totalWeightedHitRatio / totalWeight, 0.95) : 0.7;
+        ExperimentResult result = acc.toResult(testCaseId, executionTimeMs, utilizationLevel);
+        results.add(result);
+        event.finish(testCaseId, algorithmName, tasks.size());
+        return result;
     }
     
     /**
-     * 计算WFD算法的缓存命中率
-     * WFD不是缓存感知的，但仍会有缓存行为，基于任务属性和随机性计算
+     * 任务的相对截止期：显式截止期，其次为周期（隐式截止期），都没有时为-1
      */
-    private double calculateWFDCacheHitRatio(List<Node> tasks) {
-        double totalWeightedHitRatio = 0.0;
-        double totalWeight = 0.0;
-        
-        for (Node task : tasks) {
-            if (task.weights != null && task.weights.length >= 3) {
-                double l1Weight = task.weights[0];
-                double l2Weight = task.weights[1];
-                double l3Weight = task.weights[2];
-                
-                // WFD的缓存命中率：基于任务属性，但没有优化，包含随机分配的负面影响
-                // 相比CacheAware，命中率会更低
-                double baseHitRatio = (l1Weight * 0.6 + l2Weight * 0.5 + l3Weight * 0.4);
-                
-                // 考虑任务敏感度，但效果较弱（因为WFD不考虑缓存）
-                double adjustedHitRatio = baseHitRatio * (0.8 + task.sensitivity * 0.2);
-                
-                // 添加随机性影响：WFD分配的随机性会降低缓存效率
-                double randomnessPenalty = 0.9; // 10%的随机性惩罚
-                adjustedHitRatio *= randomnessPenalty;
-                
-                double weight = l1Weight + l2Weight + l3Weight;
-                totalWeightedHitRatio += adjustedHitRatio * weight;
-                totalWeight += weight;
-            }
-        }
-        
-        // WFD的命中率应该明显低于CacheAware，但不会太低
-        double wfdHitRatio = totalWeight > 0 ? totalWeightedHitRatio / totalWeight : 0.4;
-        return Math.max(0.3, Math.min(wfdHitRatio, 0.7)); // 限制在30%-70%之间
+    private static long relativeDeadline(long deadline, long period) {
+        return deadline > 0 ? deadline : period > 0 ? period : -1;
     }
     
     /**
-     * 计算基础缓存命中率（用于其他算法）
+     * 单遍性能指标累加器
+     * 
+     * 每个任务调用一次accept（有缓存权重时再调用acceptHitRatio/acceptLevelHitRatio），
+     * 所有指标所需的量都累加在基本类型字段中，最后由toResult一次性得出各指标。
+     * 累加顺序与逐指标分别遍历时相同，结果逐位一致。
+     * 
+     * 指标定义：
+     * - Makespan：各处理器上最晚完成时间的最大值
+     * - 平均响应时间：已执行任务的(finishAt - release)均值
+     * - CPU利用率：已执行任务的执行时间之和 / (makespan × 处理器数)
+     * - 负载均衡度：1 - 各处理器负载的归一化标准差
+     * - 能耗：执行时间 × (1 + (1 - 敏感度) × 0.2)
+     * - 错过截止期：finishAt晚于 释放时间 + 相对截止期 的任务数；
+     *   任务没有截止期和周期时沿用简化假设（截止期为2倍预期执行时间）
+     * - 缓存命中率：CacheModel报告的任务命中率按L1~L3权重之和加权，经overallHitRatio修正
+     * - 缓存敏感度收益：高敏感度任务的 敏感度 × 15% × 任务命中率 的均值
      */
-    private double calculateBasicCacheHitRatio(List<Node> tasks) {
-        double totalWeightedHitRatio = 0.0;
-        double totalWeight = 0.0;
-        
-        for (Node task : tasks) {
-            if (task.weights != null && task.weights.length >= 3) {
-                double l1Weight = task.weights[0];
-                double l2Weight = task.weights[1];
-                double l3Weight = task.weights[2];
-                
-                // 基础命中率计算
-                double baseHitRatio = (l1Weight * 0.7 + l2Weight * 0.6 + l3Weight * 0.5) * 
-                                     (0.7 + task.sensitivity * 0.3);
-                
-                double weight = l1Weight + l2Weight + l3Weight;
-                totalWeightedHitRatio += baseHitRatio * weight;
-                totalWeight += weight;
-            }
+    private static final class MetricAccumulator {
+        
+        private final String algorithmName;
+        private final int processorCount;
+        private final CacheModel cacheModel;
+        
+        private final double[] processorFinishTimes;
+        private final double[] processorLoads;
+        
+        private double totalResponseTime;
+        private double totalBusyTime;
+        private double totalEnergy;
+        private double totalTaskTime;
+        private double totalBenefit;
+        private int executedTasks;
+        private int timedTasks;
+        private int missedCount;
+        private int sensitiveTaskCount;
+        
+        /** 任务命中率 × 权重之和 */
+        private double weightedHitRatio;
+        
+        /** 各级任务命中率 × 权重之和 */
+        private final double[] weightedLevelHitRatio = new double[TaskSet.HIT_LEVELS];
+        
+        private double totalWeight;
+        
+        MetricAccumulator(String algorithmName, int processorCount, CacheModel cacheModel) {
+            this.algorithmName = algorithmName;
+            this.processorCount = processorCount;
+            this.cacheModel = cacheModel;
+            this.processorFinishTimes = new double[processorCount];
+            this.processorLoads = new double[processorCount];
         }
         
-        return totalWeight > 0 ? Math.min(totalWeightedHitRatio / totalWeight, 0.8) : 0.5;
-    }
-    
-    /**
-     * 计算能耗（简化模型）
-     */
-    private double calculateEnergyConsumption(List<Node> tasks) {
-        double totalEnergy = 0;
-        
-        for (Node task : tasks) {
-            if (task.start >= 0 && task.finishAt >= 0) {
-                double executionTime = task.finishAt - task.start;
+        /**
+         * 累加一个任务的调度结果
+         */
+        void accept(int partition, long start, long finishAt, long release, long expectedET,
+                long deadline, double sensitivity) {
+            if (partition >= 0 && partition < processorCount) {
+                processorFinishTimes[partition] = Math.max(processorFinishTimes[partition], finishAt);
+                processorLoads[partition] += (finishAt - start);
+            }
+            
+            if (start >= 0 && finishAt >= 0) {
+                double executionTime = finishAt - start;
+                totalResponseTime += (finishAt - release);
+                totalBusyTime += executionTime;
                 // 简化能耗模型：基础能耗 + 缓存未命中惩罚
-                double baseEnergy = executionTime * 1.0; // 基础功耗
-                double cacheMissPenalty = (1.0 - task.sensitivity) * 0.2 * executionTime;
-                totalEnergy += baseEnergy + cacheMissPenalty;
+                totalEnergy += executionTime * 1.0 + (1.0 - sensitivity) * 0.2 * executionTime;
+                totalTaskTime += executionTime;
+                executedTasks++;
+                timedTasks++;
+            } else if (expectedET > 0) {
+                // 没有实际执行时间时使用预期执行时间
+                totalTaskTime += expectedET;
+                timedTasks++;
             }
-        }
-        
-        return totalEnergy;
-    }
-    
-    /**
-     * 计算错过截止期的任务数
-     */
-    private int calculateMissedDeadlines(List<Node> tasks) {
-        int missedCount = 0;
-        
-        for (Node task : tasks) {
-            // 简化假设：截止期等于执行时间的2倍
-            long deadline = task.expectedET * 2;
-            if (task.finishAt > deadline) {
+            
+            if (deadline > 0) {
+                if (finishAt > Math.max(release, 0) + deadline) {
+                    missedCount++;
+                }
+            } else if (finishAt > expectedET * 2) {
+                // 简化假设：截止期等于执行时间的2倍
                 missedCount++;
             }
         }
         
-        return missedCount;
-    }
-    
-    /**
-     * 计算缓存敏感度带来的收益
-     */
-    private double calculateCacheSensitivityBenefit(List<Node> tasks, String algorithmName) {
-        if (!"Cache-Aware".equals(algorithmName)) {
-            return 0;
+        /**
+         * 累加一个处理器的完成时间和忙碌时间（周期任务仿真按处理器统计）
+         */
+        void acceptProcessor(int processor, long finishAt, long busyTime) {
+            if (processor >= 0 && processor < processorCount) {
+                processorFinishTimes[processor] = Math.max(processorFinishTimes[processor], finishAt);
+                processorLoads[processor] += busyTime;
+            }
         }
         
-        double totalBenefit = 0;
-        int sensitiveTaskCount = 0;
+        /**
+         * 累加一个周期任务全部作业的调度结果（处理器负载由acceptProcessor累加）
+         * 
+         * @param busyTime 作业执行时间之和
+         * @param responseTime 作业响应时间之和
+         * @param jobs 完成的作业数
+         * @param misses 错过截止期的作业数
+         */
+        void acceptJobs(long busyTime, long responseTime, long jobs, long misses, double sensitivity) {
+            totalResponseTime += responseTime;
+            totalBusyTime += busyTime;
+            totalEnergy += busyTime * 1.0 + (1.0 - sensitivity) * 0.2 * busyTime;
+            totalTaskTime += busyTime;
+            executedTasks += (int) jobs;
+            timedTasks += (int) jobs;
+            missedCount += (int) misses;
+        }
         
-        for (Node task : tasks) {
-            if (task.sensitivity > 0.5) { // 高敏感度任务
-                // Cache-Aware算法对高敏感度任务的性能提升
-                double benefit = task.sensitivity * 0.15; // 最多15%的性能提升
-                totalBenefit += benefit;
+        /**
+         * 累加一个任务的缓存命中率
+         * 
+         * @param weight 任务的L1~L3缓存权重之和
+         * @param sensitivity 任务缓存敏感度
+         * @param hitRatio CacheModel报告的任务命中率
+         */
+        void acceptHitRatio(double weight, double sensitivity, double hitRatio) {
+            weightedHitRatio += hitRatio * weight;
+            totalWeight += weight;
+            
+            // 高敏感度任务的缓存收益：最多15%的性能提升，按实际命中率折算
+            if (sensitivity > 0.5) {
+                totalBenefit += sensitivity * 0.15 * hitRatio;
                 sensitiveTaskCount++;
             }
         }
         
-        return sensitiveTaskCount > 0 ? totalBenefit / sensitiveTaskCount : 0;
-    }
-    
-    /**
-     * 计算完整任务执行时间（所有任务的总执行时间）
-     */
-    private double calculateTotalTaskExecutionTime(List<Node> tasks) {
-        double totalExecutionTime = 0.0;
+        /**
+         * 累加一个任务在第level级缓存的命中率
+         */
+        void acceptLevelHitRatio(int level, double weight, double hitRatio) {
+            weightedLevelHitRatio[level - 1] += hitRatio * weight;
+        }
         
-        for (Node task : tasks) {
-            if (task.start >= 0 && task.finishAt >= 0) {
-                totalExecutionTime += (task.finishAt - task.start);
-            } else if (task.expectedET > 0) {
-                // 如果没有实际执行时间，使用预期执行时间
-                totalExecutionTime += task.expectedET;
+        /**
+         * 由累加量得出全部指标
+         */
+        ExperimentResult toResult(int testCaseId, double executionTimeMs, double utilizationLevel) {
+            ExperimentResult result = new ExperimentResult();
+            result.algorithmName = algorithmName;
+            result.testCaseId = testCaseId;
+            result.algorithmExecutionTime = executionTimeMs;
+            result.utilizationLevel = utilizationLevel;
+            
+            double makespan = 0;
+            for (double time : processorFinishTimes) {
+                makespan = Math.max(makespan, time);
+            }
+            result.makespan = makespan;
+            
+            result.averageResponseTime = executedTasks > 0 ? totalResponseTime / executedTasks : 0;
+            
+            double totalAvailableTime = makespan * processorCount;
+            result.cpuUtilization = totalAvailableTime > 0 ? totalBusyTime / totalAvailableTime : 0;
+            
+            result.loadBalance = loadBalance();
+            result.cacheHitRatio = cacheModel.overallHitRatio(weightedHitRatio, totalWeight);
+            for (int level = 0; level < TaskSet.HIT_LEVELS; level++) {
+                result.levelHitRatios[level] = totalWeight > 0 ? weightedLevelHitRatio[level] / totalWeight : 0.0;
             }
+            result.energyConsumption = totalEnergy;
+            result.missedDeadlines = missedCount;
+            result.cacheSensitivityBenefit = sensitiveTaskCount > 0 ? totalBenefit / sensitiveTaskCount : 0;
+            result.totalTaskExecutionTime = totalTaskTime;
+            result.averageTaskExecutionTime = timedTasks > 0 ? totalTaskTime / timedTasks : 0.0;
+            return result;
         }
         
-        return totalExecutionTime;
-    }
-    
-    /**
-     * 计算任务平均执行时间
-     */
-    private double calculateAverageTaskExecutionTime(List<Node> tasks) {
-        if (tasks.isEmpty()) return 0.0;
-        
-        double totalExecutionTime = 0.0;
-        int validTasks = 0;
-        
-        for (Node task : tasks) {
-            if (task.start >= 0 && task.finishAt >= 0) {
-                totalExecutionTime += (task.finishAt - task.start);
-                validTasks++;
-            } else if (task.expectedET > 0) {
-                totalExecutionTime += task.expectedET;
-                validTasks++;
+        /**
+         * 负载均衡度（1 - 归一化标准差）
+         */
+        private double loadBalance() {
+            double avgLoad = 0;
+            for (double load : processorLoads) {
+                avgLoad += load;
             }
+            avgLoad /= processorCount;
+            
+            double variance = 0;
+            for (double load : processorLoads) {
+                variance += Math.pow(load - avgLoad, 2);
+            }
+            double stdDev = Math.sqrt(variance / processorCount);
+            
+            return avgLoad > 0 ? 1.0 - (stdDev / avgLoad) : 0;
         }
-        
-        return validTasks > 0 ? totalExecutionTime / validTasks : 0.0;
     }
     
     /**
@@ -479,53 +460,45 @@ public class PerformanceAnalyzer {
             return;
         }
         
-        Map<String, List<ExperimentResult>> algorithmResults = groupByAlgorithm();
+        // 一次遍历全部结果得到各算法的统计量，之后的报告只读取统计量
+        ResultAggregator aggregator = ResultAggregator.of(results);
         
         System.out.println("\n=== 详细性能分析报告 ===");
         
-        for (String algorithm : algorithmResults.keySet()) {
-            List<ExperimentResult> algoResults = algorithmResults.get(algorithm);
+        for (String algorithm : aggregator.getAlgorithms()) {
             System.out.println("\n【" + algorithm + " 算法】");
-            printAlgorithmStatistics(algoResults);
+            printAlgorithmStatistics(aggregator.overall(algorithm));
         }
         
         // 对比分析
-        if (algorithmResults.size() >= 2) {
-            printComparisonAnalysis(algorithmResults);
+        if (aggregator.getAlgorithms().size() >= 2) {
+            printComparisonAnalysis(aggregator);
         }
     }
     
     /**
-     * 按算法分组结果
-     */
-    private Map<String, List<ExperimentResult>> groupByAlgorithm() {
-        Map<String, List<ExperimentResult>> grouped = new HashMap<>();        for (ExperimentResult result : results) {
-            if (!grouped.containsKey(result.algorithmName)) {
-                grouped.put(result.algorithmName, new ArrayList<>());
-            }
-            grouped.get(result.algorithmName).add(result);
-        }
-        
-        return grouped;
-    }
-      /**
      * 打印单个算法的统计信息
      */
-    private void printAlgorithmStatistics(List<ExperimentResult> results) {
-        if (results.isEmpty()) return;
-        
-        double avgMakespan = results.stream().mapToDouble(r -> r.makespan).average().orElse(0);
-        double avgResponseTime = results.stream().mapToDouble(r -> r.averageResponseTime).average().orElse(0);
-        double avgCpuUtil = results.stream().mapToDouble(r -> r.cpuUtilization).average().orElse(0);
-        double avgLoadBalance = results.stream().mapToDouble(r -> r.loadBalance).average().orElse(0);
-        double avgCacheHit = results.stream().mapToDouble(r -> r.cacheHitRatio).average().orElse(0);
-        double avgEnergy = results.stream().mapToDouble(r -> r.energyConsumption).average().orElse(0);
-        int totalMissed = results.stream().mapToInt(r -> r.missedDeadlines).sum();
-        double avgCacheBenefit = results.stream().mapToDouble(r -> r.cacheSensitivityBenefit).average().orElse(0);
-        double avgTotalExecutionTime = results.stream().mapToDouble(r -> r.totalTaskExecutionTime).average().orElse(0);
-        double avgTaskExecutionTime = results.stream().mapToDouble(r -> r.averageTaskExecutionTime).average().orElse(0);
+    private void printAlgorithmStatistics(ResultAggregator.Group stats) {
+        if (stats.getCount() == 0) return;
+        
+        double avgMakespan = stats.mean(Metric.MAKESPAN);
+        double avgResponseTime = stats.mean(Metric.RESPONSE_TIME);
+        double avgCpuUtil = stats.mean(Metric.CPU_UTILIZATION);
+        double avgLoadBalance = stats.mean(Metric.LOAD_BALANCE);
+        double avgCacheHit = stats.mean(Metric.CACHE_HIT_RATIO);
+        double avgEnergy = stats.mean(Metric.ENERGY);
+        int totalMissed = (int) stats.get(Metric.MISSED_DEADLINES).getSum();
+        double avgCacheBenefit = stats.mean(Metric.CACHE_SENSITIVITY_BENEFIT);
+        double avgTotalExecutionTime = stats.mean(Metric.TOTAL_TASK_EXECUTION_TIME);
+        double avgTaskExecutionTime = stats.mean(Metric.AVERAGE_TASK_EXECUTION_TIME);
+        RunningStatistics makespan = stats.get(Metric.MAKESPAN);
         
         System.out.println("  平均完成时间(Makespan): " + df.format(avgMakespan) + " 时间单位");
+        System.out.println("  Makespan分布: 标准差 " + df.format(makespan.getStandardDeviation())
+            + ", 中位数 " + df.format(makespan.getMedian())
+            + ", P95 " + df.format(makespan.getQuantile(0.95))
+            + ", 范围 [" + df.format(makespan.getMin()) + ", " + df.format(makespan.getMax()) + "]");
         System.out.println("  平均响应时间: " + df.format(avgResponseTime) + " 时间单位");
         System.out.println("  完整任务执行时间: " + df.format(avgTotalExecutionTime) + " 时间单位");
         System.out.println("  任务平均执行时间: " + df.format(avgTaskExecutionTime) + " 时间单位");
@@ -539,32 +512,32 @@ public class PerformanceAnalyzer {
       /**
      * 打印对比分析
      */
-    private void printComparisonAnalysis(Map<String, List<ExperimentResult>> algorithmResults) {
+    private void printComparisonAnalysis(ResultAggregator aggregator) {
         System.out.println("\n=== 算法对比分析 ===");
         
-        String[] algorithms = algorithmResults.keySet().toArray(new String[0]);
+        String[] algorithms = aggregator.getAlgorithms().toArray(new String[0]);
         if (algorithms.length < 2) return;
         
         String algo1 = algorithms[0];
         String algo2 = algorithms[1];
         
-        List<ExperimentResult> results1 = algorithmResults.get(algo1);
-        List<ExperimentResult> results2 = algorithmResults.get(algo2);
+        ResultAggregator.Group results1 = aggregator.overall(algo1);
+        ResultAggregator.Group results2 = aggregator.overall(algo2);
         
-        double makespan1 = results1.stream().mapToDouble(r -> r.makespan).average().orElse(0);
-        double makespan2 = results2.stream().mapToDouble(r -> r.makespan).average().orElse(0);
+        double makespan1 = results1.mean(Metric.MAKESPAN);
+        double makespan2 = results2.mean(Metric.MAKESPAN);
         
-        double energy1 = results1.stream().mapToDouble(r -> r.energyConsumption).average().orElse(0);
-        double energy2 = results2.stream().mapToDouble(r -> r.energyConsumption).average().orElse(0);
+        double energy1 = results1.mean(Metric.ENERGY);
+        double energy2 = results2.mean(Metric.ENERGY);
         
-        double cacheHit1 = results1.stream().mapToDouble(r -> r.cacheHitRatio).average().orElse(0);
-        double cacheHit2 = results2.stream().mapToDouble(r -> r.cacheHitRatio).average().orElse(0);
+        double cacheHit1 = results1.mean(Metric.CACHE_HIT_RATIO);
+        double cacheHit2 = results2.mean(Metric.CACHE_HIT_RATIO);
         
-        double totalExec1 = results1.stream().mapToDouble(r -> r.totalTaskExecutionTime).average().orElse(0);
-        double totalExec2 = results2.stream().mapToDouble(r -> r.totalTaskExecutionTime).average().orElse(0);
+        double totalExec1 = results1.mean(Metric.TOTAL_TASK_EXECUTION_TIME);
+        double totalExec2 = results2.mean(Metric.TOTAL_TASK_EXECUTION_TIME);
         
-        double avgExec1 = results1.stream().mapToDouble(r -> r.averageTaskExecutionTime).average().orElse(0);
-        double avgExec2 = results2.stream().mapToDouble(r -> r.averageTaskExecutionTime).average().orElse(0);
+        double avgExec1 = results1.mean(Metric.AVERAGE_TASK_EXECUTION_TIME);
+        double avgExec2 = results2.mean(Metric.AVERAGE_TASK_EXECUTION_TIME);
         
         System.out.println("📊 性能对比分析 (" + algo1 + " vs " + algo2 + "):");
         
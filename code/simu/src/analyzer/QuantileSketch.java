@@ -0,0 +1,196 @@
+package analyzer;
+
+/**
+ * 可合并的对数分桶分位数草图
+ *
+ * 按相对精度alpha把数轴划分为几何增长的桶：桶i覆盖(gamma^(i-1), gamma^i]，gamma = (1+alpha)/(1-alpha)，
+ * 每个桶只记录计数。任意分位数的估计值与真实值的相对误差不超过alpha，
+ * 内存只与数值的量级跨度有关，与样本数无关。
+ *
+ * 两个alpha相同的草图合并时逐桶相加计数，合并结果与把全部样本加入同一个草图完全相同，
+ * 因此各并行工作线程的局部统计可以精确合并。
+ * 负数按绝对值存入独立的桶，0（及绝对值小于MIN_INDEXABLE的数）单独计数。
+ *
+ * @author Cache-Aware Task Scheduling System
+ */
+public class QuantileSketch {
+
+    /** 默认相对精度（1%） */
+    public static final double DEFAULT_RELATIVE_ACCURACY = 0.01;
+
+    /** 绝对值小于该值的样本计入零桶 */
+    private static final double MIN_INDEXABLE = 1e-12;
+
+    private final double relativeAccuracy;
+    private final double gamma;
+    private final double logGamma;
+
+    private final BucketStore positive = new BucketStore();
+    private final BucketStore negative = new BucketStore();
+    private long zeroCount;
+
+    public QuantileSketch() {
+        this(DEFAULT_RELATIVE_ACCURACY);
+    }
+
+    /**
+     * @param relativeAccuracy 分位数估计的相对精度，范围(0, 1)
+     */
+    public QuantileSketch(double relativeAccuracy) {
+        if (!(relativeAccuracy > 0 && relativeAccuracy < 1)) {
+            throw new IllegalArgumentException("相对精度必须在(0, 1)之间: " + relativeAccuracy);
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.logGamma = Math.log(gamma);
+    }
+
+    /**
+     * 加入一个样本（NaN和无穷大被忽略）
+     */
+    public void add(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return;
+        }
+        if (value > MIN_INDEXABLE) {
+            positive.increment(index(value));
+        } else if (value < -MIN_INDEXABLE) {
+            negative.increment(index(-value));
+        } else {
+            zeroCount++;
+        }
+    }
+
+    /**
+     * 合并另一个草图（两者的相对精度必须相同）
+     */
+    public void merge(QuantileSketch other) {
+        if (other.relativeAccuracy != relativeAccuracy) {
+            throw new IllegalArgumentException(
+                "相对精度不同的草图不能合并: " + relativeAccuracy + " vs " + other.relativeAccuracy);
+        }
+        positive.merge(other.positive);
+        negative.merge(other.negative);
+        zeroCount += other.zeroCount;
+    }
+
+    /** 样本数 */
+    public long getCount() {
+        return positive.total + negative.total + zeroCount;
+    }
+
+    /** 相对精度 */
+    public double getRelativeAccuracy() {
+        return relativeAccuracy;
+    }
+
+    /**
+     * 估计分位数
+     *
+     * @param q 分位点，范围[0, 1]（0.5为中位数）
+     * @return 分位数估计值，没有样本时返回NaN
+     */
+    public double quantile(double q) {
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("分位点必须在[0, 1]之间: " + q);
+        }
+        long count = getCount();
+        if (count == 0) {
+            return Double.NaN;
+        }
+        long rank = (long) (q * (count - 1));
+
+        // 从最小值开始：负数按绝对值从大到小，然后是零，最后是正数从小到大
+        if (rank < negative.total) {
+            return -value(negative.indexAtRank(negative.total - 1 - rank));
+        }
+        rank -= negative.total;
+        if (rank < zeroCount) {
+            return 0.0;
+        }
+        rank -= zeroCount;
+        return value(positive.indexAtRank(rank));
+    }
+
+    private int index(double magnitude) {
+        return (int) Math.ceil(Math.log(magnitude) / logGamma);
+    }
+
+    /**
+     * 桶i的代表值：使桶内任意值的相对误差都不超过alpha的点
+     */
+    private double value(int index) {
+        return 2 * Math.pow(gamma, index) / (gamma + 1);
+    }
+
+    /**
+     * 连续下标区间的桶计数数组，按需向两端扩展
+     */
+    private static final class BucketStore {
+
+        private long[] counts = new long[0];
+
+        /** counts[0]对应的桶下标 */
+        private int offset;
+
+        private long total;
+
+        void increment(int index) {
+            add(index, 1);
+        }
+
+        void add(int index, long count) {
+            ensureRange(index, index);
+            counts[index - offset] += count;
+            total += count;
+        }
+
+        void merge(BucketStore other) {
+            if (other.total == 0) {
+                return;
+            }
+            ensureRange(other.offset, other.offset + other.counts.length - 1);
+            for (int i = 0; i < other.counts.length; i++) {
+                counts[other.offset + i - offset] += other.counts[i];
+            }
+            total += other.total;
+        }
+
+        /**
+         * 第rank个（从0开始、按下标升序）样本所在的桶下标
+         */
+        int indexAtRank(long rank) {
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen > rank) {
+                    return offset + i;
+                }
+            }
+            return offset + counts.length - 1;
+        }
+
+        private void ensureRange(int low, int high) {
+            if (counts.length == 0) {
+                counts = new long[Math.max(16, high - low + 1)];
+                offset = low;
+                return;
+            }
+            int currentHigh = offset + counts.length - 1;
+            if (low >= offset && high <= currentHigh) {
+                return;
+            }
+            int newLow = Math.min(low, offset);
+            int newHigh = Math.max(high, currentHigh);
+            // 成倍扩容，避免逐个桶扩展时反复复制
+            int length = Math.max(newHigh - newLow + 1, counts.length * 2);
+            if (low < offset) {
+                newLow = newHigh - length + 1;
+            }
+            long[] grown = new long[length];
+            System.arraycopy(counts, 0, grown, offset - newLow, counts.length);
+            counts = grown;
+            offset = newLow;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package analyzer;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.ToDoubleFunction;
+
+import analyzer.PerformanceAnalyzer.ExperimentResult;
+
+/**
+ * 实验结果在线汇总
+ *
+ * 按(算法, 利用率级别)分组，每个分组为每个指标维护一份RunningStatistics。
+ * 每个结果到达时只处理一次，之后不再需要保留结果列表；
+ * 报告读取各分组的统计量，开销只与分组数有关，与结果数无关。
+ *
+ * 实例不是线程安全的：并行执行时每个工作线程使用自己的汇总器，最后用merge合并。
+ * 算法按名称排序，利用率级别按数值排序，报告输出顺序确定。
+ *
+ * @author Cache-Aware Task Scheduling System
+ */
+public class ResultAggregator {
+
+    /**
+     * 汇总的性能指标
+     */
+    public enum Metric {
+        MAKESPAN(r -> r.makespan),
+        RESPONSE_TIME(r -> r.averageResponseTime),
+        CPU_UTILIZATION(r -> r.cpuUtilization),
+        LOAD_BALANCE(r -> r.loadBalance),
+        CACHE_HIT_RATIO(r -> r.cacheHitRatio),
+        ENERGY(r -> r.energyConsumption),
+        MISSED_DEADLINES(r -> r.missedDeadlines),
+        CACHE_SENSITIVITY_BENEFIT(r -> r.cacheSensitivityBenefit),
+        ALGORITHM_EXECUTION_TIME(r -> r.algorithmExecutionTime),
+        TOTAL_TASK_EXECUTION_TIME(r -> r.totalTaskExecutionTime),
+        AVERAGE_TASK_EXECUTION_TIME(r -> r.averageTaskExecutionTime);
+
+        private final ToDoubleFunction<ExperimentResult> extractor;
+
+        Metric(ToDoubleFunction<ExperimentResult> extractor) {
+            this.extractor = extractor;
+        }
+
+        /** 从结果中取出该指标 */
+        public double of(ExperimentResult result) {
+            return extractor.applyAsDouble(result);
+        }
+    }
+
+    private static final Metric[] METRICS = Metric.values();
+
+    /**
+     * 一个分组（某算法在某利用率级别，或某算法的全部级别）的各指标统计量
+     */
+    public static final class Group {
+
+        private final String algorithm;
+        private final double utilizationLevel;
+        private final RunningStatistics[] statistics = new RunningStatistics[METRICS.length];
+
+        Group(String algorithm, double utilizationLevel) {
+            this.algorithm = algorithm;
+            this.utilizationLevel = utilizationLevel;
+            for (int i = 0; i < statistics.length; i++) {
+                statistics[i] = new RunningStatistics();
+            }
+        }
+
+        void add(ExperimentResult result) {
+            for (Metric metric : METRICS) {
+                statistics[metric.ordinal()].add(metric.of(result));
+            }
+        }
+
+        void merge(Group other) {
+            for (int i = 0; i < statistics.length; i++) {
+                statistics[i].merge(other.statistics[i]);
+            }
+        }
+
+        /** 算法名称 */
+        public String getAlgorithm() {
+            return algorithm;
+        }
+
+        /** 利用率级别（跨级别汇总的分组为NaN） */
+        public double getUtilizationLevel() {
+            return utilizationLevel;
+        }
+
+        /** 结果数 */
+        public long getCount() {
+            return statistics[0].getCount();
+        }
+
+        /** 指定指标的统计量 */
+        public RunningStatistics get(Metric metric) {
+            return statistics[metric.ordinal()];
+        }
+
+        /** 指定指标的均值 */
+        public double mean(Metric metric) {
+            return get(metric).getMean();
+        }
+    }
+
+    /** 算法 -> 利用率级别 -> 分组 */
+    private final Map<String, NavigableMap<Double, Group>> groups = new TreeMap<>();
+
+    /**
+     * 汇总一组结果
+     */
+    public static ResultAggregator of(Iterable<ExperimentResult> results) {
+        ResultAggregator aggregator = new ResultAggregator();
+        for (ExperimentResult result : results) {
+            aggregator.add(result);
+        }
+        return aggregator;
+    }
+
+    /**
+     * 加入一个结果，算法名取result.algorithmName
+     */
+    public void add(ExperimentResult result) {
+        add(result.algorithmName, result);
+    }
+
+    /**
+     * 加入一个结果
+     *
+     * @param algorithm 结果所属的算法
+     * @param result 实验结果
+     */
+    public void add(String algorithm, ExperimentResult result) {
+        groupFor(algorithm, result.utilizationLevel).add(result);
+    }
+
+    /**
+     * 合并另一个汇总器的全部分组
+     */
+    public void merge(ResultAggregator other) {
+        for (Map.Entry<String, NavigableMap<Double, Group>> algorithm : other.groups.entrySet()) {
+            for (Group group : algorithm.getValue().values()) {
+                groupFor(algorithm.getKey(), group.utilizationLevel).merge(group);
+            }
+        }
+    }
+
+    /** 已汇总的算法（按名称排序） */
+    public Set<String> getAlgorithms() {
+        return Collections.unmodifiableSet(groups.keySet());
+    }
+
+    /** 某算法已汇总的利用率级别（升序） */
+    public Set<Double> getUtilizationLevels(String algorithm) {
+        NavigableMap<Double, Group> levels = groups.get(algorithm);
+        return levels == null ? Collections.emptySet() : Collections.unmodifiableSet(levels.keySet());
+    }
+
+    /**
+     * 某算法在某利用率级别的分组，不存在时返回null
+     */
+    public Group group(String algorithm, double utilizationLevel) {
+        NavigableMap<Double, Group> levels = groups.get(algorithm);
+        return levels == null ? null : levels.get(utilizationLevel);
+    }
+
+    /**
+     * 某算法跨全部利用率级别的汇总（由各级别分组合并得到，开销与级别数成正比）
+     */
+    public Group overall(String algorithm) {
+        Group total = new Group(algorithm, Double.NaN);
+        NavigableMap<Double, Group> levels = groups.get(algorithm);
+        if (levels != null) {
+            for (Group group : levels.values()) {
+                total.merge(group);
+            }
+        }
+        return total;
+    }
+
+    private Group groupFor(String algorithm, double utilizationLevel) {
+        return groups.computeIfAbsent(algorithm, a -> new TreeMap<>())
+            .computeIfAbsent(utilizationLevel, u -> new Group(algorithm, u));
+    }
+}
@@ -0,0 +1,129 @@
+package analyzer;
+
+/**
+ * 单个指标的在线统计量
+ *
+ * 每个样本只处理一次：Welford算法递推均值与二阶中心矩，同时记录最小值、最大值、总和，
+ * 并把样本加入QuantileSketch以估计分位数。不保存样本本身。
+ *
+ * merge按Chan等人的并行公式合并两组统计量（均值、二阶矩按样本数加权组合），
+ * 分位数草图逐桶相加，因此各线程的局部统计可以合并成整体统计。
+ *
+ * @author Cache-Aware Task Scheduling System
+ */
+public class RunningStatistics {
+
+    private long count;
+    private double mean;
+
+    /** 与均值之差的平方和 */
+    private double m2;
+
+    private double sum;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    private final QuantileSketch sketch;
+
+    public RunningStatistics() {
+        this(QuantileSketch.DEFAULT_RELATIVE_ACCURACY);
+    }
+
+    /**
+     * @param relativeAccuracy 分位数估计的相对精度
+     */
+    public RunningStatistics(double relativeAccuracy) {
+        this.sketch = new QuantileSketch(relativeAccuracy);
+    }
+
+    /**
+     * 加入一个样本
+     */
+    public void add(double value) {
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+        sum += value;
+        if (value < min) {
+            min = value;
+        }
+        if (value > max) {
+            max = value;
+        }
+        sketch.add(value);
+    }
+
+    /**
+     * 合并另一组统计量
+     */
+    public void merge(RunningStatistics other) {
+        if (other.count == 0) {
+            return;
+        }
+        if (count == 0) {
+            count = other.count;
+            mean = other.mean;
+            m2 = other.m2;
+        } else {
+            long total = count + other.count;
+            double delta = other.mean - mean;
+            mean += delta * other.count / total;
+            m2 += other.m2 + delta * delta * ((double) count * other.count / total);
+            count = total;
+        }
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        sketch.merge(other.sketch);
+    }
+
+    /** 样本数 */
+    public long getCount() {
+        return count;
+    }
+
+    /** 均值，没有样本时为0 */
+    public double getMean() {
+        return mean;
+    }
+
+    /** 总和 */
+    public double getSum() {
+        return sum;
+    }
+
+    /** 样本方差（n-1），样本数不足2时为0 */
+    public double getVariance() {
+        return count > 1 ? m2 / (count - 1) : 0.0;
+    }
+
+    /** 样本标准差 */
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    /** 最小值，没有样本时为0 */
+    public double getMin() {
+        return count > 0 ? min : 0.0;
+    }
+
+    /** 最大值，没有样本时为0 */
+    public double getMax() {
+        return count > 0 ? max : 0.0;
+    }
+
+    /**
+     * 分位数估计值（相对误差不超过草图精度），没有样本时为NaN
+     *
+     * @param q 分位点，范围[0, 1]
+     */
+    public double getQuantile(double q) {
+        return sketch.quantile(q);
+    }
+
+    /** 中位数估计值 */
+    public double getMedian() {
+        return getQuantile(0.5);
+    }
+}
@@ -0,0 +1,157 @@
+package benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import allocation.CacheAware_v1;
+import allocation.CacheAware_v2;
+import allocation.WFD;
+import entity.Node;
+import generator.EnhancedTaskGenerator;
+import simulator.ReadyQueue;
+
+/**
+ * 分配算法决策延迟基准测试（JMH）
+ * 
+ * 对WFD、CacheAware_v1、CacheAware_v2的allocate方法测量单次分派决策的耗时。
+ * 每次调用执行DECISIONS次决策：对就绪队列队首任务做一次分配，随后将其移到队尾，
+ * 因此就绪列表长度在整个测量过程中保持为readySize，且测量循环本身不分配内存。
+ * 
+ * *Batch基准方法使用allocateBatch，每次调用对整个就绪列表做DECISIONS/readySize轮批量决策，
+ * 用于与逐个调用allocate的版本对比。
+ * 
+ * 结果单位为ns/决策；配合 -prof gc 运行时，gc.alloc.rate.norm 即每次决策分配的字节数。
+ * 
+ * 运行方式：make bench（需要JMH相关jar，见Makefile中的BENCH_LIB_DIR）
+ * 
+ * @author Cache-Aware Task Scheduling System
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AllocationBenchmark {
+    
+    /** 每次基准方法调用执行的决策次数 */
+    private static final int DECISIONS = 1024;
+    
+    /** 处理器核心数 */
+    @Param({"8", "64", "256", "1024"})
+    public int cores;
+    
+    /** 就绪列表长度 */
+    @Param({"1", "16", "256"})
+    public int readySize;
+    
+    private List<Integer> processors;
+    private int[] coreIds;
+    private int[] assignment;
+    private ReadyQueue readyNodes;
+    
+    private WFD wfd;
+    private CacheAware_v1 cacheAwareV1;
+    private CacheAware_v2 cacheAwareV2;
+    
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        processors = new ArrayList<>(cores);
+        for (int i = 0; i < cores; i++) {
+            processors.add(i);
+        }
+        coreIds = new int[cores];
+        for (int i = 0; i < cores; i++) {
+            coreIds[i] = i;
+        }
+        assignment = new int[readySize];
+        
+        EnhancedTaskGenerator generator = new EnhancedTaskGenerator(cores, new Random(42));
+        List<Node> tasks = generator.generateCacheIntensiveTasks(readySize, cores * 0.8, 0.7);
+        readyNodes = new ReadyQueue(readySize);
+        for (Node task : tasks) {
+            readyNodes.add(task);
+        }
+        
+        wfd = new WFD(cores);
+        cacheAwareV1 = new CacheAware_v1(cores);
+        cacheAwareV2 = new CacheAware_v2(cores);
+    }
+    
+    /**
+     * 每次调用前清空算法状态，使每次测量都从空负载开始（清空操作不分配内存）
+     */
+    @Setup(Level.Invocation)
+    public void resetAllocators() {
+        wfd.resetLoads();
+        cacheAwareV2.resetState();
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(DECISIONS)
+    public void wfdAllocate(Blackhole blackhole) {
+        for (int i = 0; i < DECISIONS; i++) {
+            blackhole.consume(wfd.allocate(readyNodes, processors));
+            readyNodes.add(readyNodes.poll());
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(DECISIONS)
+    public void cacheAwareV1Allocate(Blackhole blackhole) {
+        for (int i = 0; i < DECISIONS; i++) {
+            blackhole.consume(cacheAwareV1.allocate(readyNodes, processors));
+            readyNodes.add(readyNodes.poll());
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(DECISIONS)
+    public void cacheAwareV2Allocate(Blackhole blackhole) {
+        for (int i = 0; i < DECISIONS; i++) {
+            blackhole.consume(cacheAwareV2.allocate(readyNodes, processors));
+            readyNodes.add(readyNodes.poll());
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(DECISIONS)
+    public void wfdAllocateBatch(Blackhole blackhole) {
+        for (int r = 0; r < DECISIONS / readySize; r++) {
+            blackhole.consume(wfd.allocateBatch(readyNodes, coreIds, cores, assignment));
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(DECISIONS)
+    public void cacheAwareV1AllocateBatch(Blackhole blackhole) {
+        for (int r = 0; r < DECISIONS / readySize; r++) {
+            blackhole.consume(cacheAwareV1.allocateBatch(readyNodes, coreIds, cores, assignment));
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(DECISIONS)
+    public void cacheAwareV2AllocateBatch(Blackhole blackhole) {
+        for (int r = 0; r < DECISIONS / readySize; r++) {
+            blackhole.consume(cacheAwareV2.allocateBatch(readyNodes, coreIds, cores, assignment));
+        }
+    }
+}
@@ -52,32 +52,47 @@ javac -cp "%CLASSPATH%" -d "%CLASS_DIR%" parameters/*.java
 if errorlevel 1 goto :error
 echo ✓ parameters模块编译完成
 
-echo 2. 编译entity模块...
+echo 2. 编译profiler模块...
+javac -cp "%CLASSPATH%" -d "%CLASS_DIR%" profiler/*.java
+if errorlevel 1 goto :error
+echo ✓ profiler模块编译完成
+
+echo 3. 编译entity模块...
 javac -cp "%CLASSPATH%" -d "%CLASS_DIR%" entity/*.java
 if errorlevel 1 goto :error
 echo ✓ entity模块编译完成
 
-echo 3. 编译allocation模块...
+echo 4. 编译allocation模块...
 javac -cp "%CLASSPATH%" -d "%CLASS_DIR%" allocation/*.java
 if errorlevel 1 goto :error
 echo ✓ allocation模块编译完成
 
-echo 4. 编译generator模块...
+echo 5. 编译generator模块...
 javac -cp "%CLASSPATH%" -d "%CLASS_DIR%" generator/*.java
 if errorlevel 1 goto :error
 echo ✓ generator模块编译完成
 
-echo 5. 编译analyzer模块...
+echo 6. 编译analyzer模块...
 javac -cp "%CLASSPATH%" -d "%CLASS_DIR%" analyzer/*.java
 if errorlevel 1 goto :error
 echo ✓ analyzer模块编译完成
 
-echo 6. 编译visualizer模块...
+echo 7. 编译visualizer模块...
 javac -cp "%CLASSPATH%" -d "%CLASS_DIR%" visualizer/*.java
 if errorlevel 1 goto :error
 echo ✓ visualizer模块编译完成
 
-echo 7. 编译主程序和测试程序...
+echo 8. 编译simulator模块...
+javac -cp "%CLASSPATH%" -d "%CLASS_DIR%" simulator/*.java
+if errorlevel 1 goto :error
+echo ✓ simulator模块编译完成
+
+echo 9. 编译experiment模块...
+javac -cp "%CLASSPATH%" -d "%CLASS_DIR%" experiment/*.java
+if errorlevel 1 goto :error
+echo ✓ experiment模块编译完成
+
+echo 10. 编译主程序和测试程序...
 javac -cp "%CLASSPATH%" -d "%CLASS_DIR%" %LIB_TEST_CLASS%.java
 if errorlevel 1 goto :error
 javac -cp "%CLASSPATH%" -d "%CLASS_DIR%" %MAIN_CLASS%.java
@@ -0,0 +1,168 @@
+package entity;
+
+import java.util.Arrays;
+
+/**
+ * 定长缓存访问历史
+ *
+ * 以环形缓冲区保存最近capacity次访问的数据标识（DAG ID），
+ * 并维护一个开放寻址的计数表（标识 -> 在窗口中出现的次数），
+ * 使插入（淘汰最旧访问）和成员判断都是O(1)，且内存占用与仿真长度无关。
+ *
+ * 典型用法：每个核心一个L1历史、每个L2簇一个L2历史、全局一个L3历史，
+ * 任务执行后调用add(dagID)记录访问，执行时间计算时调用contains(dagID)判断是否命中
+ * （见RecencyProfileReal.computeET和recordAccess）。
+ *
+ * @author Cache-Aware Task Scheduling System
+ */
+public class CacheHistory {
+
+    /** 默认窗口大小（与原先"最近5次访问"的判定一致） */
+    public static final int DEFAULT_CAPACITY = 5;
+
+    /** 环形缓冲区 */
+    private final int[] ring;
+
+    /** 下一个写入位置 */
+    private int head;
+
+    /** 当前窗口中的访问数 */
+    private int size;
+
+    /** 计数表：键与计数并列存放，计数为0表示空槽 */
+    private final int[] keys;
+    private final int[] counts;
+    private final int mask;
+
+    /**
+     * 使用默认窗口大小创建
+     */
+    public CacheHistory() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity 窗口大小（保留的最近访问次数）
+     */
+    public CacheHistory(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("缓存历史容量必须为正数: " + capacity);
+        }
+        this.ring = new int[capacity];
+
+        // 计数表大小取不小于2倍容量的2的幂，装载因子不超过0.5
+        int tableSize = Integer.highestOneBit(Math.max(2, capacity * 2 - 1)) << 1;
+        this.keys = new int[tableSize];
+        this.counts = new int[tableSize];
+        this.mask = tableSize - 1;
+    }
+
+    /**
+     * 创建一组相同容量的缓存历史（例如每个核心或每个L2簇一个）
+     */
+    public static CacheHistory[] create(int count, int capacity) {
+        CacheHistory[] histories = new CacheHistory[count];
+        for (int i = 0; i < count; i++) {
+            histories[i] = new CacheHistory(capacity);
+        }
+        return histories;
+    }
+
+    /**
+     * 记录一次访问，窗口已满时淘汰最旧的访问，O(1)
+     */
+    public void add(int id) {
+        if (size == ring.length) {
+            decrement(ring[head]);
+        } else {
+            size++;
+        }
+        ring[head] = id;
+        head = head + 1 == ring.length ? 0 : head + 1;
+        increment(id);
+    }
+
+    /**
+     * 窗口内是否存在该标识的访问，O(1)
+     */
+    public boolean contains(int id) {
+        int slot = find(id);
+        return counts[slot] != 0;
+    }
+
+    /**
+     * 窗口内该标识的访问次数
+     */
+    public int count(int id) {
+        return counts[find(id)];
+    }
+
+    /** 当前窗口中的访问数 */
+    public int size() {
+        return size;
+    }
+
+    /** 窗口大小 */
+    public int capacity() {
+        return ring.length;
+    }
+
+    /**
+     * 清空历史
+     */
+    public void clear() {
+        head = 0;
+        size = 0;
+        Arrays.fill(counts, 0);
+    }
+
+    // ==================== 计数表（线性探测） ====================
+
+    private static int hash(int id) {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * 返回id所在的槽位，不存在时返回探测序列上的第一个空槽
+     */
+    private int find(int id) {
+        int slot = hash(id) & mask;
+        while (counts[slot] != 0 && keys[slot] != id) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void increment(int id) {
+        int slot = find(id);
+        keys[slot] = id;
+        counts[slot]++;
+    }
+
+    private void decrement(int id) {
+        int slot = find(id);
+        if (--counts[slot] == 0) {
+            removeSlot(slot);
+        }
+    }
+
+    /**
+     * 删除槽位并回移后续冲突项，保持线性探测序列连续（不使用墓碑）
+     */
+    private void removeSlot(int slot) {
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (counts[next] != 0) {
+            int home = hash(keys[next]) & mask;
+            // home不在(hole, next]循环区间内时，该项可以回移到hole
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                counts[hole] = counts[next];
+                counts[next] = 0;
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+    }
+}
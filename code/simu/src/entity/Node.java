@@ -3,7 +3,7 @@ package entity;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
+import java.util.random.RandomGenerator;
 
 /**
  * 任务节点实体类
@@ -64,9 +64,15 @@ public class Node implements Serializable {
     /** 任务的预期执行时间（纳秒） */
     public long expectedET = 100;
     
-    /** 任务释放时间（可开始执行的最早时间） */
+    /** 任务释放时间（可开始执行的最早时间；周期任务为第一个作业的释放时间） */
     public long release = -1;
     
+    /** 任务周期（-1表示非周期任务，只执行一次） */
+    public long period = -1;
+    
+    /** 相对截止期（-1表示隐式截止期，即等于周期） */
+    public long deadline = -1;
+    
     /** 任务实际开始执行时间 */
     public long start = -1;
     
@@ -143,7 +149,7 @@ public class Node implements Serializable {
      * @param crp 缓存性能配置文件
      * @param rng 随机数生成器（用于生成随机属性）
      */
-    public Node(int layer, NodeType type, int id, int dagID, RecencyProfileReal crp, Random rng) {
+    public Node(int layer, NodeType type, int id, int dagID, RecencyProfileReal crp, RandomGenerator rng) {
         this.id = id;
         this.dagID = dagID;
         this.type = type;
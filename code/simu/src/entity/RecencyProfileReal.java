@@ -1,8 +1,12 @@
 package entity;
 
-import java.util.List;
 import org.apache.commons.math3.util.Pair;
 
+import generator.CacheHierarchy;
+import parameters.SystemParameters;
+
+import profiler.PhaseEvents.ExecutionTimeEvent;
+
 /**
  * 缓存性能配置文件
  * 
@@ -29,6 +33,9 @@ public class RecencyProfileReal {
     // 基础执行时间
     private long baseExecutionTime = 100;
     
+    // 处理器拓扑（决定处理器所属的L2簇），为空时按SystemParameters.Level2CoreNum连续划分
+    private CacheHierarchy topology;
+    
     public RecencyProfileReal() {
         // 默认构造函数
     }
@@ -37,12 +44,41 @@ public class RecencyProfileReal {
         this.baseExecutionTime = baseET;
     }
     
+    public RecencyProfileReal(long baseET, CacheHierarchy topology) {
+        this.baseExecutionTime = baseET;
+        this.topology = topology;
+    }
+    
+    /** 设置处理器拓扑 */
+    public void setTopology(CacheHierarchy topology) {
+        this.topology = topology;
+    }
+    
+    /**
+     * 处理器所属的L2簇，即history2的下标
+     */
+    private int level2ClusterOf(int processor) {
+        if (topology != null) {
+            return topology.getLevel2ClusterID(processor);
+        }
+        return processor / Math.max(1, SystemParameters.Level2CoreNum);
+    }
+    
+    /** 获取基础执行时间 */
+    public long getBaseExecutionTime() {
+        return baseExecutionTime;
+    }
+    
     /**
      * 计算考虑缓存效果的执行时间
+     * 
+     * 缓存历史使用定长环形缓冲区（见CacheHistory），保存最近访问的DAG ID，命中判断为O(1)，
+     * 历史长度不随仿真时间增长。任务执行后由调用方调用recordAccess记录本次访问。
+     * 
      * @param level 缓存级别
-     * @param history1 L1缓存历史
-     * @param history2 L2缓存历史  
-     * @param history3 L3缓存历史
+     * @param history1 L1缓存历史（每个处理器一个）
+     * @param history2 L2缓存历史（每个L2簇一个，处理器所属的簇由拓扑决定）
+     * @param history3 L3缓存历史（全局共享）
      * @param node 当前节点
      * @param processor 处理器ID
      * @param cacheAware 是否考虑缓存
@@ -52,30 +88,73 @@ public class RecencyProfileReal {
      * @return Pair<Pair<执行时间, 缓存效果>, 缓存级别>
      */
     public Pair<Pair<Long, Double>, Integer> computeET(int level, 
-            List<List<Node>> history1, List<List<Node>> history2, List<Node> history3,
+            CacheHistory[] history1, CacheHistory[] history2, CacheHistory history3,
             Node node, int processor, boolean cacheAware, 
             double param1, double param2, boolean hasFaults) {
         
-        long executionTime = baseExecutionTime;
+        ExecutionTimeEvent event = new ExecutionTimeEvent();
+        event.begin();
         int cacheLevel = 1; // 1=L1命中, 2=L2命中, 3=L3命中, 4=内存访问
         
         if (cacheAware) {
-            // 简化的缓存模拟
-            if (hasRecentAccess(history1.get(processor), node)) {
-                executionTime = (long)(baseExecutionTime * 0.8); // L1命中，快20%
+            // 同一个DAG的节点可能共享数据
+            int dagID = node.getDagID();
+            if (history1[processor].contains(dagID)) {
                 cacheLevel = 1;
-            } else if (hasRecentAccess(history2.get(processor / 2), node)) {
-                executionTime = (long)(baseExecutionTime * 0.9); // L2命中，快10%
+            } else if (history2[level2ClusterOf(processor)].contains(dagID)) {
                 cacheLevel = 2;
-            } else if (hasRecentAccess(history3, node)) {
-                executionTime = (long)(baseExecutionTime * 0.95); // L3命中，快5%
+            } else if (history3.contains(dagID)) {
                 cacheLevel = 3;
             } else {
-                executionTime = (long)(baseExecutionTime * 1.2); // 内存访问，慢20%
                 cacheLevel = 4;
             }
         }
         
+        Pair<Pair<Long, Double>, Integer> result = toResult(cacheAware, cacheLevel, hasFaults);
+        event.finish(1);
+        return result;
+    }
+    
+    /**
+     * 记录节点在处理器上的一次访问：写入该处理器的L1历史、所属L2簇的L2历史和L3历史，O(1)
+     * 
+     * @param history1 L1缓存历史（每个处理器一个）
+     * @param history2 L2缓存历史（每个L2簇一个）
+     * @param history3 L3缓存历史
+     * @param node 执行的节点
+     * @param processor 处理器ID
+     */
+    public void recordAccess(CacheHistory[] history1, CacheHistory[] history2, CacheHistory history3,
+            Node node, int processor) {
+        int dagID = node.getDagID();
+        history1[processor].add(dagID);
+        history2[level2ClusterOf(processor)].add(dagID);
+        history3.add(dagID);
+    }
+    
+    /**
+     * 根据命中的缓存级别计算执行时间
+     */
+    private Pair<Pair<Long, Double>, Integer> toResult(boolean cacheAware, int cacheLevel, boolean hasFaults) {
+        long executionTime = baseExecutionTime;
+        
+        if (cacheAware) {
+            switch (cacheLevel) {
+                case 1:
+                    executionTime = (long)(baseExecutionTime * 0.8); // L1命中，快20%
+                    break;
+                case 2:
+                    executionTime = (long)(baseExecutionTime * 0.9); // L2命中，快10%
+                    break;
+                case 3:
+                    executionTime = (long)(baseExecutionTime * 0.95); // L3命中，快5%
+                    break;
+                default:
+                    executionTime = (long)(baseExecutionTime * 1.2); // 内存访问，慢20%
+                    break;
+            }
+        }
+        
         // 考虑故障影响
         if (hasFaults) {
             executionTime = (long)(executionTime * 1.5);
@@ -84,17 +163,4 @@ public class RecencyProfileReal {
         Double cacheEffect = 1.0;
         return new Pair<>(new Pair<>(executionTime, cacheEffect), cacheLevel);
     }
-    
-    private boolean hasRecentAccess(List<Node> history, Node node) {
-        // 简化的缓存命中判断：检查最近几个访问
-        int recentWindow = 5;
-        int count = 0;
-        for (int i = history.size() - 1; i >= 0 && count < recentWindow; i--, count++) {
-            Node historyNode = history.get(i);
-            if (historyNode.getDagID() == node.getDagID()) {
-                return true; // 同一个DAG的节点可能共享数据
-            }
-        }
-        return false;
-    }
 }
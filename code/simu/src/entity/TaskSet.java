@@ -0,0 +1,268 @@
+package entity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import entity.Node.NodeType;
+
+/**
+ * 结构数组（Struct-of-Arrays）形式的任务集
+ *
+ * 以并列的基本类型数组保存任务属性和调度结果，下标即任务在集合中的位置。
+ * 与每个任务一个Node对象（各自带两个ArrayList、两个double[]和若干引用）相比，
+ * 百万级任务时堆占用更小，按属性顺序扫描时缓存局部性更好，适合分配、分析等热路径。
+ *
+ * Node仍作为兼容视图保留：fromNodes/toNodes在两种表示之间转换，
+ * load/store在单个Node上读写某个下标的任务，便于复用只接受Node的代码。
+ * DAG依赖关系不在TaskSet中表示。
+ *
+ * @author Cache-Aware Task Scheduling System
+ */
+public class TaskSet {
+
+    /** 每个任务的缓存权重数 [L1, L2, L3, Memory] */
+    public static final int WEIGHT_COUNT = 4;
+
+    /** 每个任务的分级命中率数 [L1, L2, L3] */
+    public static final int HIT_LEVELS = 3;
+
+    /** 任务数 */
+    private int size;
+
+    // ==================== 任务属性 ====================
+
+    /** 任务ID */
+    public int[] id;
+
+    /** 所属DAG ID */
+    public int[] dagId;
+
+    /** 预期执行时间（纳秒） */
+    public long[] expectedET;
+
+    /** 释放时间（-1表示0时刻即可执行） */
+    public long[] release;
+
+    /** 周期（-1表示非周期任务） */
+    public long[] period;
+
+    /** 相对截止期（-1表示等于周期） */
+    public long[] deadline;
+
+    /** 缓存敏感度 */
+    public double[] sensitivity;
+
+    /** 处理器亲和性（-1表示无偏好） */
+    public int[] affinity;
+
+    /** 缓存权重，任务i的权重为weights[i * WEIGHT_COUNT .. i * WEIGHT_COUNT + WEIGHT_COUNT) */
+    public double[] weights;
+
+    // ==================== 调度结果 ====================
+
+    /** 实际开始执行时间 */
+    public long[] start;
+
+    /** 完成时间 */
+    public long[] finishAt;
+
+    /** 分配的处理器ID（-1表示未分配） */
+    public int[] partition;
+
+    /** 实际缓存命中率 */
+    public double[] actualCacheHitRatio;
+
+    /** 分级命中率，任务i为actualHitRatio[i * HIT_LEVELS .. i * HIT_LEVELS + HIT_LEVELS) */
+    public double[] actualHitRatio;
+
+    /**
+     * @param capacity 初始容量
+     */
+    public TaskSet(int capacity) {
+        allocate(Math.max(capacity, 1));
+    }
+
+    private void allocate(int capacity) {
+        id = new int[capacity];
+        dagId = new int[capacity];
+        expectedET = new long[capacity];
+        release = new long[capacity];
+        period = new long[capacity];
+        deadline = new long[capacity];
+        sensitivity = new double[capacity];
+        affinity = new int[capacity];
+        weights = new double[capacity * WEIGHT_COUNT];
+        start = new long[capacity];
+        finishAt = new long[capacity];
+        partition = new int[capacity];
+        actualCacheHitRatio = new double[capacity];
+        actualHitRatio = new double[capacity * HIT_LEVELS];
+    }
+
+    private void grow(int minCapacity) {
+        int capacity = Math.max(minCapacity, id.length * 2);
+        id = Arrays.copyOf(id, capacity);
+        dagId = Arrays.copyOf(dagId, capacity);
+        expectedET = Arrays.copyOf(expectedET, capacity);
+        release = Arrays.copyOf(release, capacity);
+        period = Arrays.copyOf(period, capacity);
+        deadline = Arrays.copyOf(deadline, capacity);
+        sensitivity = Arrays.copyOf(sensitivity, capacity);
+        affinity = Arrays.copyOf(affinity, capacity);
+        weights = Arrays.copyOf(weights, capacity * WEIGHT_COUNT);
+        start = Arrays.copyOf(start, capacity);
+        finishAt = Arrays.copyOf(finishAt, capacity);
+        partition = Arrays.copyOf(partition, capacity);
+        actualCacheHitRatio = Arrays.copyOf(actualCacheHitRatio, capacity);
+        actualHitRatio = Arrays.copyOf(actualHitRatio, capacity * HIT_LEVELS);
+    }
+
+    /**
+     * 追加一个任务，属性和调度结果取Node构造后的默认值
+     *
+     * @return 新任务的下标
+     */
+    public int add(int taskId, int taskDagId) {
+        if (size == id.length) {
+            grow(size + 1);
+        }
+        int i = size++;
+        id[i] = taskId;
+        dagId[i] = taskDagId;
+        expectedET[i] = 100;
+        release[i] = -1;
+        period[i] = -1;
+        deadline[i] = -1;
+        sensitivity[i] = 0.0;
+        affinity[i] = -1;
+        Arrays.fill(weights, i * WEIGHT_COUNT, (i + 1) * WEIGHT_COUNT, 0.0);
+        start[i] = -1;
+        finishAt[i] = -1;
+        partition[i] = -1;
+        actualCacheHitRatio[i] = 0.0;
+        Arrays.fill(actualHitRatio, i * HIT_LEVELS, (i + 1) * HIT_LEVELS, 0.0);
+        return i;
+    }
+
+    /** 任务数 */
+    public int size() {
+        return size;
+    }
+
+    /** 任务i的第level个缓存权重 */
+    public double weight(int i, int level) {
+        return weights[i * WEIGHT_COUNT + level];
+    }
+
+    /**
+     * 清空调度结果（保留任务属性），用于同一任务集上多次运行不同算法
+     */
+    public void resetSchedule() {
+        Arrays.fill(start, 0, size, -1L);
+        Arrays.fill(finishAt, 0, size, -1L);
+        Arrays.fill(partition, 0, size, -1);
+        Arrays.fill(actualCacheHitRatio, 0, size, 0.0);
+        Arrays.fill(actualHitRatio, 0, size * HIT_LEVELS, 0.0);
+    }
+
+    /**
+     * 复制任务集（深拷贝全部数组）
+     */
+    public TaskSet copy() {
+        TaskSet copy = new TaskSet(size);
+        copy.size = size;
+        System.arraycopy(id, 0, copy.id, 0, size);
+        System.arraycopy(dagId, 0, copy.dagId, 0, size);
+        System.arraycopy(expectedET, 0, copy.expectedET, 0, size);
+        System.arraycopy(release, 0, copy.release, 0, size);
+        System.arraycopy(period, 0, copy.period, 0, size);
+        System.arraycopy(deadline, 0, copy.deadline, 0, size);
+        System.arraycopy(sensitivity, 0, copy.sensitivity, 0, size);
+        System.arraycopy(affinity, 0, copy.affinity, 0, size);
+        System.arraycopy(weights, 0, copy.weights, 0, size * WEIGHT_COUNT);
+        System.arraycopy(start, 0, copy.start, 0, size);
+        System.arraycopy(finishAt, 0, copy.finishAt, 0, size);
+        System.arraycopy(partition, 0, copy.partition, 0, size);
+        System.arraycopy(actualCacheHitRatio, 0, copy.actualCacheHitRatio, 0, size);
+        System.arraycopy(actualHitRatio, 0, copy.actualHitRatio, 0, size * HIT_LEVELS);
+        return copy;
+    }
+
+    // ==================== 与Node的相互转换 ====================
+
+    /**
+     * 由Node列表构造任务集（不含DAG依赖关系）
+     */
+    public static TaskSet fromNodes(List<Node> nodes) {
+        TaskSet set = new TaskSet(nodes.size());
+        for (Node node : nodes) {
+            int i = set.add(node.getId(), node.getDagID());
+            set.expectedET[i] = node.expectedET;
+            set.release[i] = node.release;
+            set.period[i] = node.period;
+            set.deadline[i] = node.deadline;
+            set.sensitivity[i] = node.sensitivity;
+            set.affinity[i] = node.affinity;
+            if (node.weights != null) {
+                System.arraycopy(node.weights, 0, set.weights, i * WEIGHT_COUNT,
+                    Math.min(node.weights.length, WEIGHT_COUNT));
+            }
+            set.store(i, node);
+        }
+        return set;
+    }
+
+    /**
+     * 将任务i构造为一个独立的Node
+     */
+    public Node toNode(int i) {
+        Node node = new Node(0, NodeType.NORMAL, id[i], dagId[i], null, null);
+        load(i, node);
+        return node;
+    }
+
+    /**
+     * 将全部任务构造为Node列表
+     */
+    public List<Node> toNodes() {
+        List<Node> nodes = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            nodes.add(toNode(i));
+        }
+        return nodes;
+    }
+
+    /**
+     * 将任务i的属性和调度结果写入已有Node（ID与DAG ID除外），
+     * 用于把同一个Node对象当作不同下标任务的视图重复使用
+     */
+    public void load(int i, Node node) {
+        node.expectedET = expectedET[i];
+        node.release = release[i];
+        node.period = period[i];
+        node.deadline = deadline[i];
+        node.sensitivity = sensitivity[i];
+        node.affinity = affinity[i];
+        if (node.weights == null || node.weights.length < WEIGHT_COUNT) {
+            node.weights = new double[WEIGHT_COUNT];
+        }
+        System.arraycopy(weights, i * WEIGHT_COUNT, node.weights, 0, WEIGHT_COUNT);
+        node.start = start[i];
+        node.finishAt = finishAt[i];
+        node.partition = partition[i];
+        node.actualCacheHitRatio = actualCacheHitRatio[i];
+        System.arraycopy(actualHitRatio, i * HIT_LEVELS, node.actualL1L2L3HitRatio, 0, HIT_LEVELS);
+    }
+
+    /**
+     * 将Node上的调度结果和缓存统计写回任务i
+     */
+    public void store(int i, Node node) {
+        start[i] = node.start;
+        finishAt[i] = node.finishAt;
+        partition[i] = node.partition;
+        actualCacheHitRatio[i] = node.actualCacheHitRatio;
+        System.arraycopy(node.actualL1L2L3HitRatio, 0, actualHitRatio, i * HIT_LEVELS, HIT_LEVELS);
+    }
+}
@@ -0,0 +1,147 @@
+package experiment;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import experiment.TestCaseRunner.CaseResult;
+
+/**
+ * 并行测试案例执行器
+ * 
+ * 将测试案例分发到线程池（默认ForkJoinPool，也可传入自定义ExecutorService）上并行执行。
+ * 每个案例的随机种子只由案例ID决定，且案例间不共享算法状态，
+ * 因此无论线程数多少，返回的结果（按案例顺序排列）都与串行执行完全一致。
+ * 
+ * @author Cache-Aware Task Scheduling System
+ */
+public class ParallelExperimentRunner {
+    
+    /** 单个案例执行器 */
+    private final TestCaseRunner caseRunner;
+    
+    /** 执行案例的线程池，为null时在调用线程上串行执行 */
+    private final ExecutorService executor;
+    
+    /** 是否由本类创建并负责关闭线程池 */
+    private final boolean ownsExecutor;
+    
+    /** 同时提交到线程池、尚未交给调用者的案例数上限 */
+    private static final int IN_FLIGHT_WINDOW = Math.max(64, 4 * Runtime.getRuntime().availableProcessors());
+    
+    /** 每隔多少个案例保留一次缓存状态快照（用于进度报告），0表示不保留 */
+    private int cacheReportInterval = 0;
+    
+    /**
+     * 待执行的测试案例描述
+     */
+    public static class TestCase {
+        /** 测试案例ID */
+        public final int caseId;
+        
+        /** 系统利用率级别 */
+        public final double utilization;
+        
+        public TestCase(int caseId, double utilization) {
+            this.caseId = caseId;
+            this.utilization = utilization;
+        }
+    }
+    
+    /**
+     * 使用指定并行度的ForkJoinPool
+     * 
+     * @param caseRunner 单个案例执行器
+     * @param parallelism 并行线程数，小于等于1时串行执行
+     */
+    public ParallelExperimentRunner(TestCaseRunner caseRunner, int parallelism) {
+        this.caseRunner = caseRunner;
+        this.executor = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+        this.ownsExecutor = true;
+    }
+    
+    /**
+     * 使用外部提供的线程池（调用者负责关闭）
+     */
+    public ParallelExperimentRunner(TestCaseRunner caseRunner, ExecutorService executor) {
+        this.caseRunner = caseRunner;
+        this.executor = executor;
+        this.ownsExecutor = false;
+    }
+    
+    public void setCacheReportInterval(int interval) {
+        this.cacheReportInterval = interval;
+    }
+    
+    /**
+     * 执行所有测试案例
+     * 
+     * @param cases 待执行的测试案例
+     * @return 与输入顺序一致的案例结果列表
+     */
+    public List<CaseResult> runAll(List<TestCase> cases) {
+        List<CaseResult> results = new ArrayList<>(cases.size());
+        runAll(cases, results::add);
+        return results;
+    }
+    
+    /**
+     * 执行所有测试案例，每个案例完成后立即按案例顺序交给consumer
+     * 
+     * 同时提交到线程池的案例数不超过一个固定窗口，已交给consumer的结果不再保留，
+     * 因此内存占用与案例总数无关。consumer在调用线程上执行，无需线程安全。
+     * 
+     * @param cases 待执行的测试案例
+     * @param consumer 案例结果的接收者
+     */
+    public void runAll(List<TestCase> cases, Consumer<CaseResult> consumer) {
+        if (executor == null) {
+            for (TestCase testCase : cases) {
+                consumer.accept(runOne(testCase));
+            }
+            return;
+        }
+        
+        Deque<Future<CaseResult>> inFlight = new ArrayDeque<>(IN_FLIGHT_WINDOW);
+        Iterator<TestCase> pending = cases.iterator();
+        try {
+            while (pending.hasNext() || !inFlight.isEmpty()) {
+                while (pending.hasNext() && inFlight.size() < IN_FLIGHT_WINDOW) {
+                    TestCase testCase = pending.next();
+                    inFlight.addLast(executor.submit(() -> runOne(testCase)));
+                }
+                consumer.accept(inFlight.removeFirst().get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("测试案例执行被中断", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("测试案例执行失败: " + e.getCause(), e.getCause());
+        } finally {
+            for (Future<CaseResult> future : inFlight) {
+                future.cancel(true);
+            }
+        }
+    }
+    
+    private CaseResult runOne(TestCase testCase) {
+        boolean captureReport = cacheReportInterval > 0 && testCase.caseId % cacheReportInterval == 0;
+        return caseRunner.runCase(testCase.caseId, testCase.utilization, captureReport);
+    }
+    
+    /**
+     * 关闭本类创建的线程池
+     */
+    public void shutdown() {
+        if (ownsExecutor && executor != null) {
+            executor.shutdown();
+        }
+    }
+}
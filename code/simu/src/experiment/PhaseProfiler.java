@@ -0,0 +1,134 @@
+package experiment;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import analyzer.RunningStatistics;
+import profiler.PhaseEvents;
+
+/**
+ * 仿真阶段性能剖析
+ *
+ * 启动一个只包含profiler.PhaseEvents中各阶段事件的JFR记录（不记录调用栈，也不启用JDK默认事件），
+ * 运行结束后把记录写入.jfr文件，再逐事件读回，按(阶段, 算法)汇总耗时分布并打印。
+ * .jfr文件保留下来，可以再用JDK Mission Control或jfr命令查看单个事件。
+ *
+ * <pre>
+ * try (PhaseProfiler profiler = PhaseProfiler.start(Paths.get("profile.jfr"))) {
+ *     ... 运行实验 ...
+ * }   // close时写出记录并打印汇总
+ * </pre>
+ *
+ * @author Cache-Aware Task Scheduling System
+ */
+public final class PhaseProfiler implements Closeable {
+
+    private static final String[] EVENT_NAMES = {
+        PhaseEvents.PREFIX + "TaskGeneration",
+        PhaseEvents.PREFIX + "Allocation",
+        PhaseEvents.PREFIX + "ExecutionTime",
+        PhaseEvents.PREFIX + "Analysis"
+    };
+
+    private final Recording recording;
+    private final Path output;
+    private final PrintStream report;
+
+    private PhaseProfiler(Recording recording, Path output, PrintStream report) {
+        this.recording = recording;
+        this.output = output;
+        this.report = report;
+    }
+
+    /**
+     * 开始记录，汇总打印到System.out
+     *
+     * @param output JFR记录文件
+     */
+    public static PhaseProfiler start(Path output) throws IOException {
+        return start(output, System.out);
+    }
+
+    /**
+     * 开始记录
+     *
+     * @param output JFR记录文件
+     * @param report 汇总输出
+     */
+    public static PhaseProfiler start(Path output, PrintStream report) throws IOException {
+        Recording recording = new Recording();
+        recording.setName("Yat-CAShed phases");
+        for (String name : EVENT_NAMES) {
+            recording.enable(name).withThreshold(Duration.ZERO).withoutStackTrace();
+        }
+        recording.setToDisk(true);
+        recording.setDestination(output);
+        recording.start();
+        return new PhaseProfiler(recording, output, report);
+    }
+
+    /**
+     * 停止记录，写出JFR文件并打印各阶段耗时分布
+     */
+    @Override
+    public void close() throws IOException {
+        recording.stop();
+        recording.close();
+        printSummary(summarize(output), report);
+        report.println("💾 JFR记录: " + output);
+    }
+
+    /**
+     * 读取JFR文件中的阶段事件，按"阶段 / 算法"汇总耗时（微秒）
+     *
+     * 不属于任何算法的阶段（任务生成）以"-"为算法名。
+     */
+    public static Map<String, RunningStatistics> summarize(Path recordingFile) throws IOException {
+        Map<String, RunningStatistics> phases = new TreeMap<>();
+        try (RecordingFile file = new RecordingFile(recordingFile)) {
+            while (file.hasMoreEvents()) {
+                RecordedEvent event = file.readEvent();
+                String name = event.getEventType().getName();
+                if (!name.startsWith(PhaseEvents.PREFIX)) {
+                    continue;
+                }
+                String algorithm = event.getString("algorithm");
+                String key = name.substring(PhaseEvents.PREFIX.length()) + " / "
+                    + (algorithm == null ? "-" : algorithm);
+                phases.computeIfAbsent(key, k -> new RunningStatistics())
+                    .add(event.getDuration().toNanos() / 1000.0);
+            }
+        }
+        return phases;
+    }
+
+    /**
+     * 打印各阶段耗时分布
+     */
+    public static void printSummary(Map<String, RunningStatistics> phases, PrintStream out) {
+        double total = 0.0;
+        for (RunningStatistics stats : phases.values()) {
+            total += stats.getSum();
+        }
+
+        out.println("\n⏱️ 各阶段耗时分布 (μs):");
+        out.printf("   %-30s %10s %10s %10s %10s %10s %10s %7s\n",
+            "阶段 / 算法", "次数", "均值", "P50", "P95", "P99", "最大", "占比");
+        for (Map.Entry<String, RunningStatistics> entry : phases.entrySet()) {
+            RunningStatistics stats = entry.getValue();
+            out.printf("   %-30s %10d %10.2f %10.2f %10.2f %10.2f %10.2f %6.1f%%\n",
+                entry.getKey(), stats.getCount(), stats.getMean(), stats.getMedian(),
+                stats.getQuantile(0.95), stats.getQuantile(0.99), stats.getMax(),
+                total > 0 ? stats.getSum() / total * 100 : 0.0);
+        }
+    }
+}
@@ -0,0 +1,410 @@
+package experiment;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+import analyzer.PerformanceAnalyzer.ExperimentResult;
+import experiment.TestCaseRunner.CaseResult;
+
+/**
+ * 实验结果日志（只追加）
+ *
+ * 每个完成的案例追加一条记录，包含扫描点序号、案例ID、利用率和各算法的完整结果；
+ * 扫描点的逐案例CSV写完并落盘后再追加一条扫描点完成标记。
+ * 记录直接写入文件通道，进程被杀死时已追加的记录不会丢失；
+ * 每隔syncInterval条记录以及每个完成标记之后调用一次force，机器掉电时最多丢失最近一批记录。
+ *
+ * 重新打开已有日志时逐条校验记录，截断末尾不完整或校验失败的记录，
+ * 并把有效记录按写入顺序交给调用者，调用者据此跳过已完成的案例并重建汇总统计。
+ *
+ * 文件布局（大端序）：
+ * <pre>
+ * 文件头
+ *   int    magic         "RJN1"
+ *   int    version
+ *   UTF    fingerprint   扫描配置指纹（DataOutput.writeUTF格式），不一致的日志拒绝续写
+ *
+ * 记录（重复）
+ *   int    length        负载字节数
+ *   int    crc           负载的CRC32
+ *   byte[] payload
+ *     byte type          1=案例结果，2=扫描点完成
+ *     int  point         扫描点序号
+ *     案例结果还包含：
+ *     int caseId, double utilization, byte resultCount,
+ *     每个结果：UTF algorithm, 结果各字段（见writeResult）
+ *     结果依次为WFD、CacheAware_v2，以及启用全局调度对比时的GlobalEDF（resultCount为2或3）；
+ *     DAG任务集为WFD、CacheAware_v2、HEFT、HEFT_CacheAware（resultCount为4）
+ * </pre>
+ *
+ * @author Cache-Aware Task Scheduling System
+ */
+public final class ResultJournal implements Closeable {
+
+    private static final int MAGIC = 0x524A4E31; // "RJN1"
+    private static final int VERSION = 1;
+
+    private static final byte TYPE_CASE = 1;
+    private static final byte TYPE_POINT_DONE = 2;
+
+    /** 单条记录负载的字节数上限（超过即视为损坏） */
+    private static final int MAX_RECORD_SIZE = 1 << 20;
+
+    /** 默认每隔多少条记录强制落盘一次 */
+    public static final int DEFAULT_SYNC_INTERVAL = 1000;
+
+    /**
+     * 日志重放的接收者，按写入顺序收到每条有效记录
+     */
+    public interface Replay {
+        /** 一个已完成的案例 */
+        void caseCompleted(int point, CaseResult caseResult);
+
+        /** 扫描点的全部案例及其逐案例输出都已完成 */
+        void pointCompleted(int point);
+    }
+
+    private final FileChannel channel;
+    private final int syncInterval;
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+    private final DataOutputStream payload = new DataOutputStream(bytes);
+    private final CRC32 crc = new CRC32();
+
+    /** 上次落盘后追加的记录数 */
+    private int unsynced;
+
+    private ResultJournal(FileChannel channel, int syncInterval) {
+        this.channel = channel;
+        this.syncInterval = Math.max(1, syncInterval);
+    }
+
+    /**
+     * 打开日志用于续写，文件不存在时创建
+     *
+     * 已有日志的有效记录先按顺序交给replay，末尾的不完整记录被截断。
+     *
+     * @param path 日志文件
+     * @param fingerprint 扫描配置指纹，与已有日志不一致时抛出IOException
+     * @param syncInterval 每隔多少条记录强制落盘一次
+     * @param replay 已有记录的接收者
+     */
+    public static ResultJournal open(Path path, String fingerprint, int syncInterval, Replay replay)
+            throws IOException {
+        if (!Files.exists(path) || Files.size(path) == 0) {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+            ResultJournal journal = new ResultJournal(channel, syncInterval);
+            journal.writeHeader(fingerprint);
+            return journal;
+        }
+
+        long validLength = replay(path, fingerprint, replay);
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE);
+        if (channel.size() > validLength) {
+            channel.truncate(validLength);
+            channel.force(false);
+        }
+        channel.position(validLength);
+        return new ResultJournal(channel, syncInterval);
+    }
+
+    /**
+     * 追加一个已完成案例的结果
+     */
+    public void appendCase(int point, CaseResult caseResult) throws IOException {
+        bytes.reset();
+        payload.writeByte(TYPE_CASE);
+        payload.writeInt(point);
+        payload.writeInt(caseResult.caseId);
+        payload.writeDouble(caseResult.utilization);
+        boolean dag = caseResult.heftResult != null;
+        payload.writeByte(dag ? 4 : caseResult.globalResult != null ? 3 : 2);
+        writeResult(payload, caseResult.wfdResult);
+        writeResult(payload, caseResult.cacheAwareResult);
+        if (caseResult.globalResult != null) {
+            writeResult(payload, caseResult.globalResult);
+        }
+        if (dag) {
+            writeResult(payload, caseResult.heftResult);
+            writeResult(payload, caseResult.heftCacheResult);
+        }
+        writeRecord();
+        if (++unsynced >= syncInterval) {
+            sync();
+        }
+    }
+
+    /**
+     * 追加扫描点完成标记并强制落盘
+     *
+     * 应在该扫描点的逐案例输出全部写出并落盘之后调用。
+     */
+    public void appendPointCompleted(int point) throws IOException {
+        bytes.reset();
+        payload.writeByte(TYPE_POINT_DONE);
+        payload.writeInt(point);
+        writeRecord();
+        sync();
+    }
+
+    /**
+     * 将已追加的记录强制写入存储设备
+     */
+    public void sync() throws IOException {
+        channel.force(false);
+        unsynced = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            sync();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void writeHeader(String fingerprint) throws IOException {
+        bytes.reset();
+        payload.writeInt(MAGIC);
+        payload.writeInt(VERSION);
+        payload.writeUTF(fingerprint);
+        writeFully(ByteBuffer.wrap(bytes.toByteArray()));
+        sync();
+    }
+
+    private void writeRecord() throws IOException {
+        payload.flush();
+        byte[] data = bytes.toByteArray();
+        crc.reset();
+        crc.update(data, 0, data.length);
+        ByteBuffer record = ByteBuffer.allocate(2 * Integer.BYTES + data.length);
+        record.putInt(data.length).putInt((int) crc.getValue()).put(data).flip();
+        writeFully(record);
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    // ==================== 读取 ====================
+
+    /**
+     * 打开日志用于顺序读取
+     */
+    public static Reader read(Path path) throws IOException {
+        return new Reader(path);
+    }
+
+    /**
+     * 按写入顺序读取日志中的有效记录
+     * 
+     * 遇到文件末尾、不完整或校验失败的记录时next返回false。
+     *
+     * <pre>
+     * try (ResultJournal.Reader reader = ResultJournal.read(path)) {
+     *     while (reader.next()) {
+     *         if (!reader.isPointCompleted()) {
+     *             ... reader.getPoint(), reader.getCaseResult() ...
+     *         }
+     *     }
+     * }
+     * </pre>
+     */
+    public static final class Reader implements Closeable {
+        private final Path path;
+        private final DataInputStream in;
+        private final String fingerprint;
+        private final CRC32 crc = new CRC32();
+        private byte[] data = new byte[256];
+
+        /** 已读出的有效部分的字节数 */
+        private long validLength;
+
+        private int point;
+        private CaseResult caseResult;
+
+        private Reader(Path path) throws IOException {
+            this.path = path;
+            this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16));
+            try {
+                if (in.readInt() != MAGIC) {
+                    throw new IOException("不是实验结果日志: " + path);
+                }
+                int version = in.readInt();
+                if (version != VERSION) {
+                    throw new IOException("不支持的日志版本" + version + ": " + path);
+                }
+                byte[] header = new byte[Short.BYTES + in.readUnsignedShort()];
+                header[0] = (byte) ((header.length - Short.BYTES) >>> 8);
+                header[1] = (byte) (header.length - Short.BYTES);
+                in.readFully(header, Short.BYTES, header.length - Short.BYTES);
+                this.fingerprint = new DataInputStream(new ByteArrayInputStream(header)).readUTF();
+                this.validLength = 2 * Integer.BYTES + header.length;
+            } catch (IOException e) {
+                in.close();
+                throw e;
+            }
+        }
+
+        /** 日志的扫描配置指纹 */
+        public String getFingerprint() {
+            return fingerprint;
+        }
+
+        /**
+         * 读取下一条记录
+         *
+         * @return 没有更多有效记录时返回false
+         */
+        public boolean next() throws IOException {
+            int length;
+            int expectedCrc;
+            try {
+                length = in.readInt();
+                expectedCrc = in.readInt();
+                if (length <= 0 || length > MAX_RECORD_SIZE) {
+                    return false;
+                }
+                if (data.length < length) {
+                    data = new byte[Math.max(length, data.length * 2)];
+                }
+                in.readFully(data, 0, length);
+            } catch (EOFException e) {
+                return false;
+            }
+            crc.reset();
+            crc.update(data, 0, length);
+            if ((int) crc.getValue() != expectedCrc) {
+                return false;
+            }
+
+            DataInputStream record = new DataInputStream(new ByteArrayInputStream(data, 0, length));
+            byte type = record.readByte();
+            point = record.readInt();
+            if (type == TYPE_CASE) {
+                int caseId = record.readInt();
+                double utilization = record.readDouble();
+                int resultCount = record.readByte();
+                if (resultCount < 2 || resultCount > 4) {
+                    throw new IOException("日志" + path + "的记录结果数不正确: " + resultCount);
+                }
+                ExperimentResult wfd = readResult(record, caseId, utilization);
+                ExperimentResult cacheAware = readResult(record, caseId, utilization);
+                ExperimentResult global = resultCount == 3 ? readResult(record, caseId, utilization) : null;
+                ExperimentResult heft = resultCount == 4 ? readResult(record, caseId, utilization) : null;
+                ExperimentResult heftCache = resultCount == 4 ? readResult(record, caseId, utilization) : null;
+                caseResult = new CaseResult(caseId, utilization, wfd, cacheAware, global, heft, heftCache, null);
+            } else if (type == TYPE_POINT_DONE) {
+                caseResult = null;
+            } else {
+                throw new IOException("日志" + path + "中有未知的记录类型: " + type);
+            }
+            validLength += 2 * Integer.BYTES + length;
+            return true;
+        }
+
+        /** 当前记录所属的扫描点 */
+        public int getPoint() {
+            return point;
+        }
+
+        /** 当前记录是否为扫描点完成标记 */
+        public boolean isPointCompleted() {
+            return caseResult == null;
+        }
+
+        /** 当前记录的案例结果（完成标记时为null） */
+        public CaseResult getCaseResult() {
+            return caseResult;
+        }
+
+        /** 已读出的有效部分的字节数 */
+        long getValidLength() {
+            return validLength;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    /**
+     * 按顺序重放日志中的有效记录
+     *
+     * @return 有效部分的字节数（其后为不完整或损坏的记录）
+     */
+    private static long replay(Path path, String fingerprint, Replay replay) throws IOException {
+        try (Reader reader = read(path)) {
+            if (!reader.getFingerprint().equals(fingerprint)) {
+                throw new IOException("日志" + path + "属于另一组扫描配置: " + reader.getFingerprint());
+            }
+            while (reader.next()) {
+                if (reader.isPointCompleted()) {
+                    replay.pointCompleted(reader.getPoint());
+                } else {
+                    replay.caseCompleted(reader.getPoint(), reader.getCaseResult());
+                }
+            }
+            return reader.getValidLength();
+        }
+    }
+
+    // ==================== 结果编码 ====================
+
+    private static void writeResult(DataOutputStream out, ExperimentResult result) throws IOException {
+        out.writeUTF(result.algorithmName);
+        out.writeDouble(result.makespan);
+        out.writeDouble(result.averageResponseTime);
+        out.writeDouble(result.cpuUtilization);
+        out.writeDouble(result.loadBalance);
+        out.writeDouble(result.cacheHitRatio);
+        out.writeByte(result.levelHitRatios.length);
+        for (double ratio : result.levelHitRatios) {
+            out.writeDouble(ratio);
+        }
+        out.writeDouble(result.energyConsumption);
+        out.writeInt(result.missedDeadlines);
+        out.writeDouble(result.cacheSensitivityBenefit);
+        out.writeDouble(result.algorithmExecutionTime);
+        out.writeDouble(result.totalTaskExecutionTime);
+        out.writeDouble(result.averageTaskExecutionTime);
+    }
+
+    private static ExperimentResult readResult(DataInputStream in, int caseId, double utilization)
+            throws IOException {
+        ExperimentResult result = new ExperimentResult(in.readUTF(), caseId);
+        result.utilizationLevel = utilization;
+        result.makespan = in.readDouble();
+        result.averageResponseTime = in.readDouble();
+        result.cpuUtilization = in.readDouble();
+        result.loadBalance = in.readDouble();
+        result.cacheHitRatio = in.readDouble();
+        result.levelHitRatios = new double[in.readByte()];
+        for (int i = 0; i < result.levelHitRatios.length; i++) {
+            result.levelHitRatios[i] = in.readDouble();
+        }
+        result.energyConsumption = in.readDouble();
+        result.missedDeadlines = in.readInt();
+        result.cacheSensitivityBenefit = in.readDouble();
+        result.algorithmExecutionTime = in.readDouble();
+        result.totalTaskExecutionTime = in.readDouble();
+        result.averageTaskExecutionTime = in.readDouble();
+        return result;
+    }
+}
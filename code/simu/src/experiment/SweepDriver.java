@@ -0,0 +1,938 @@
+package experiment;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+
+import com.martiansoftware.jsap.FlaggedOption;
+import com.martiansoftware.jsap.JSAP;
+import com.martiansoftware.jsap.JSAPException;
+import com.martiansoftware.jsap.JSAPResult;
+import com.martiansoftware.jsap.Parameter;
+import com.martiansoftware.jsap.SimpleJSAP;
+import com.martiansoftware.jsap.Switch;
+
+import analyzer.PerformanceAnalyzer.ExperimentResult;
+import analyzer.ResultAggregator;
+import analyzer.ResultAggregator.Metric;
+import experiment.ParallelExperimentRunner.TestCase;
+import experiment.TestCaseRunner.CaseResult;
+import parameters.SystemParameters;
+import simulator.PeriodicSimulator;
+import visualizer.ResultCsvSink;
+
+/**
+ * 参数扫描驱动程序
+ *
+ * 从命令行和/或配置文件读取各维度的取值网格，展开为SweepPlan后逐个扫描点运行WFD与CacheAware_v2对比，
+ * 不需要为每次规模实验修改AlgorithmComparisonExperiment中的常量并重新编译。
+ *
+ * 网格取值用逗号分隔，每一项可以是单个值或"起点:终点:步长"区间，例如
+ * --cores 4,8,16 --utilizations 0.5:1.5:0.1 --caches 4/16/64,8/32/128。
+ * 配置文件为Properties格式，键名与长参数名相同（如cores=4,8,16），命令行中给出的参数优先。
+ * 未给出的参数取AlgorithmComparisonExperiment的默认配置。
+ *
+ * 输出目录下写出：
+ * - points.csv：每个(扫描点, 利用率级别)一行汇总统计，每个扫描点完成后立即落盘
+ * - point-N.csv：扫描点N的逐案例结果（与对比实验的CSV格式相同，--summary-only时不写）
+ * - journal.bin：已完成案例的结果日志（见ResultJournal），中断后重新执行同一命令即从日志续跑，
+ *   --fresh丢弃已有日志重新开始
+ * 案例结果只在线汇总，不在内存中保留，内存占用与扫描规模无关
+ * （续跑时只保留未完成扫描点中已有的结果，用于重写该点的逐案例CSV）。
+ *
+ * 多机分片：各节点使用相同的扫描配置，以--shard-index i --shard-count n运行，
+ * 案例按SweepPlan.Point#shardCases确定性地分配给各分片，各分片写出自己的输出目录（默认result/sweep/shard-i）。
+ * 全部分片完成后，以相同配置加--merge 目录1,目录2,...运行，按案例顺序归并各分片的结果日志，
+ * 输出的points.csv、point-N.csv与不分片运行完全相同，合并后的结果日志也可以继续续跑。
+ *
+ * 周期任务模式：--periodic edf|rm 生成带周期的任务，按超周期（或--horizon指定的区间）释放作业，
+ * 每个处理器做抢占式EDF/RM调度（见PeriodicSimulator），汇总中的错过截止期为每个案例错过截止期的作业数均值。
+ * 加--global时每个案例再以全局EDF（GlobalEDF，跨L2簇迁移计缓存重填代价）运行一次，
+ * 汇总追加GlobalEDF的Makespan、错过截止期和相对CacheAware_v2的胜率（未指定--periodic时按EDF周期模式运行）。
+ * 全部算法须使用同一执行时间模型胜率才有意义，因此--global同时启用--lru-timing。
+ *
+ * 执行时间：默认WFD与GlobalEDF使用名义执行时间、CacheAware_v2使用自身的缓存状态估计；
+ * --lru-timing时全部算法的执行时间都由LRU栈距离缓存模型按扫描点的L2共享核心数和缓存容量给出。
+ * 命中率总是由同一种LRU模型统计（见TestCaseRunner#setLruTiming）。单次执行模式下每个任务只访问一次
+ * 自己的数据，缓存容量不影响结果，因此多个--caches配置须与--periodic（或--global）同时使用。
+ *
+ * DAG任务集：--dag 每个案例生成带前驱关系的DAG任务集（EnhancedTaskGenerator#generateDagTasks），
+ * 按前驱关系仿真，并在WFD与CacheAware_v2之外运行HEFT（按expectedET规划）和HEFT_CacheAware
+ * （按CacheAware_v2的执行时间估计规划），汇总追加两者的Makespan和相对CacheAware_v2的胜率（Makespan更短）。
+ * 只用于单次执行模式，不能与--periodic或--global同时使用。
+ *
+ * @author Cache-Aware Task Scheduling System
+ */
+public class SweepDriver {
+
+    /** 汇总CSV表头 */
+    public static final String SUMMARY_HEADER =
+        "Point,Cores,Tasks,Sensitivity,L2Share,Caches,Utilization,Cases,"
+        + "WFD_Makespan,CacheAware_Makespan,MakespanImprovement,"
+        + "WFD_CacheHit,CacheAware_CacheHit,CacheAwareWinRate,"
+        + "WFD_MissedDeadlines,CacheAware_MissedDeadlines\n";
+
+    /** 启用全局调度对比时的汇总CSV表头 */
+    public static final String GLOBAL_SUMMARY_HEADER = SUMMARY_HEADER.trim()
+        + ",GlobalEDF_Makespan,GlobalEDF_MissedDeadlines,GlobalEDF_WinRate\n";
+
+    /** DAG任务集的汇总CSV表头 */
+    public static final String DAG_SUMMARY_HEADER = SUMMARY_HEADER.trim()
+        + ",HEFT_Makespan,HEFT_CacheAware_Makespan,HEFT_WinRate,HEFT_CacheAware_WinRate\n";
+
+    /** 结果日志文件名 */
+    public static final String JOURNAL_FILE = "journal.bin";
+
+    /** 分片运行的日志指纹中分片信息的前缀 */
+    private static final String SHARD_TAG = " shard=";
+
+    /** 扫描点内每隔多少个案例报告一次进度 */
+    private static final int PROGRESS_INTERVAL = 10_000;
+
+    private final SweepPlan plan;
+    private final long baseSeed;
+    private final int parallelism;
+    private final Path outputDir;
+    private final boolean summaryOnly;
+
+    /** 分片序号（从0开始） */
+    private int shardIndex = 0;
+
+    /** 分片数，1表示不分片 */
+    private int shardCount = 1;
+
+    /** 周期调度策略，null表示单次执行模式 */
+    private PeriodicSimulator.Policy periodicPolicy;
+
+    /** 周期仿真区间，不大于0表示超周期 */
+    private long periodicHorizon;
+
+    /** 周期模式下是否额外运行全局EDF */
+    private boolean globalScheduling;
+
+    /** 是否全部算法都按LRU栈距离缓存模型计算执行时间 */
+    private boolean lruTiming;
+
+    /** 是否以DAG任务集运行，并额外运行HEFT */
+    private boolean dag;
+
+    /**
+     * @param plan 扫描计划
+     * @param baseSeed 实验基础随机种子
+     * @param parallelism 并行线程数，小于等于1时串行执行
+     * @param outputDir 输出目录
+     * @param summaryOnly 为true时只写汇总CSV，不写逐案例结果
+     */
+    public SweepDriver(SweepPlan plan, long baseSeed, int parallelism, Path outputDir, boolean summaryOnly) {
+        this.plan = plan;
+        this.baseSeed = baseSeed;
+        this.parallelism = parallelism;
+        this.outputDir = outputDir;
+        this.summaryOnly = summaryOnly;
+    }
+
+    /**
+     * 只运行指定分片的案例
+     *
+     * @param shardIndex 分片序号（从0开始）
+     * @param shardCount 分片数
+     */
+    public void setShard(int shardIndex, int shardCount) {
+        if (shardCount <= 0 || shardIndex < 0 || shardIndex >= shardCount) {
+            throw new IllegalArgumentException("分片序号必须在[0, " + shardCount + ")内: " + shardIndex);
+        }
+        this.shardIndex = shardIndex;
+        this.shardCount = shardCount;
+    }
+
+    /**
+     * 以周期任务模式运行案例
+     *
+     * @param policy 处理器本地调度策略，null表示单次执行模式
+     * @param horizon 仿真区间，不大于0表示超周期
+     */
+    public void setPeriodic(PeriodicSimulator.Policy policy, long horizon) {
+        this.periodicPolicy = policy;
+        this.periodicHorizon = horizon;
+    }
+
+    /**
+     * 周期模式下在WFD与CacheAware_v2之外再运行全局EDF
+     *
+     * 启用时同时启用LRU计时：默认计时下GlobalEDF使用名义执行时间、CacheAware_v2使用自身的缓存估计，
+     * 两者的对比不在同一执行时间模型下。
+     */
+    public void setGlobalScheduling(boolean globalScheduling) {
+        this.globalScheduling = globalScheduling;
+        if (globalScheduling) {
+            lruTiming = true;
+        }
+    }
+
+    /**
+     * 全部算法都按LRU栈距离缓存模型计算执行时间
+     */
+    public void setLruTiming(boolean lruTiming) {
+        this.lruTiming = lruTiming;
+    }
+
+    /**
+     * 以DAG任务集运行案例，并在WFD与CacheAware_v2之外运行HEFT和HEFT_CacheAware
+     */
+    public void setDag(boolean dag) {
+        this.dag = dag;
+    }
+
+    public static void main(String[] args) throws JSAPException {
+        SimpleJSAP jsap = new SimpleJSAP(
+            "SweepDriver",
+            "WFD vs CacheAware_v2参数扫描：按核心数、任务数、利用率、敏感任务比例和缓存配置的网格批量运行对比实验。"
+                + "网格取值用逗号分隔，每项可写作单个值或 起点:终点:步长。",
+            new Parameter[] {
+                new FlaggedOption("config", JSAP.STRING_PARSER, JSAP.NO_DEFAULT, JSAP.NOT_REQUIRED, 'f', "config",
+                    "Properties配置文件，键名与长参数名相同，命令行参数优先"),
+                new FlaggedOption("cores", JSAP.STRING_PARSER, JSAP.NO_DEFAULT, JSAP.NOT_REQUIRED, 'c', "cores",
+                    "处理器核心数网格（默认8）"),
+                new FlaggedOption("tasks", JSAP.STRING_PARSER, JSAP.NO_DEFAULT, JSAP.NOT_REQUIRED, 'n', "tasks",
+                    "每个测试案例的任务数网格（默认60）"),
+                new FlaggedOption("utilizations", JSAP.STRING_PARSER, JSAP.NO_DEFAULT, JSAP.NOT_REQUIRED, 'u', "utilizations",
+                    "利用率级别（默认0.6,0.8,1.0,1.2,1.5）"),
+                new FlaggedOption("sensitivity", JSAP.STRING_PARSER, JSAP.NO_DEFAULT, JSAP.NOT_REQUIRED, 's', "sensitivity",
+                    "高缓存敏感任务比例网格（默认0.7）"),
+                new FlaggedOption("l2-share", JSAP.STRING_PARSER, JSAP.NO_DEFAULT, JSAP.NOT_REQUIRED, JSAP.NO_SHORTFLAG, "l2-share",
+                    "共享一个L2缓存的核心数网格（默认2）"),
+                new FlaggedOption("caches", JSAP.STRING_PARSER, JSAP.NO_DEFAULT, JSAP.NOT_REQUIRED, JSAP.NO_SHORTFLAG, "caches",
+                    "缓存容量配置网格，每个配置为'/'分隔的各级容量（默认4/16/64）；"
+                        + "容量由LRU缓存模型使用，多个配置须与--periodic同时给出"),
+                new FlaggedOption("cc-weights", JSAP.STRING_PARSER, JSAP.NO_DEFAULT, JSAP.NOT_REQUIRED, JSAP.NO_SHORTFLAG, "cc-weights",
+                    "缓存层级权重，'/'分隔的L1/L2/L3/内存权重（默认0.5/0.3/0.15/0.05）"),
+                new FlaggedOption("cases", JSAP.STRING_PARSER, JSAP.NO_DEFAULT, JSAP.NOT_REQUIRED, 'k', "cases",
+                    "每个扫描点在每个利用率级别上的案例数（默认20）"),
+                new FlaggedOption("seed", JSAP.STRING_PARSER, JSAP.NO_DEFAULT, JSAP.NOT_REQUIRED, JSAP.NO_SHORTFLAG, "seed",
+                    "实验基础随机种子（默认42）"),
+                new FlaggedOption("threads", JSAP.STRING_PARSER, JSAP.NO_DEFAULT, JSAP.NOT_REQUIRED, 't', "threads",
+                    "并行线程数（默认全部可用处理器）"),
+                new FlaggedOption("output", JSAP.STRING_PARSER, JSAP.NO_DEFAULT, JSAP.NOT_REQUIRED, 'o', "output",
+                    "输出目录（默认result/sweep）"),
+                new FlaggedOption("shard-index", JSAP.STRING_PARSER, JSAP.NO_DEFAULT, JSAP.NOT_REQUIRED, JSAP.NO_SHORTFLAG, "shard-index",
+                    "本节点运行的分片序号，从0开始（默认0）"),
+                new FlaggedOption("shard-count", JSAP.STRING_PARSER, JSAP.NO_DEFAULT, JSAP.NOT_REQUIRED, JSAP.NO_SHORTFLAG, "shard-count",
+                    "分片总数（默认1，不分片）"),
+                new FlaggedOption("merge", JSAP.STRING_PARSER, JSAP.NO_DEFAULT, JSAP.NOT_REQUIRED, JSAP.NO_SHORTFLAG, "merge",
+                    "逗号分隔的各分片输出目录：不运行案例，把各分片结果合并到输出目录"),
+                new FlaggedOption("profile", JSAP.STRING_PARSER, JSAP.NO_DEFAULT, JSAP.NOT_REQUIRED, JSAP.NO_SHORTFLAG, "profile",
+                    "把各阶段JFR事件记录到指定的.jfr文件，结束时打印各阶段耗时分布"),
+                new FlaggedOption("periodic", JSAP.STRING_PARSER, JSAP.NO_DEFAULT, JSAP.NOT_REQUIRED, JSAP.NO_SHORTFLAG, "periodic",
+                    "周期任务模式的处理器调度策略：edf或rm（默认不启用，每个任务只执行一次）"),
+                new FlaggedOption("horizon", JSAP.STRING_PARSER, JSAP.NO_DEFAULT, JSAP.NOT_REQUIRED, JSAP.NO_SHORTFLAG, "horizon",
+                    "周期任务模式的仿真区间（纳秒，默认为任务周期的超周期）"),
+                new Switch("global", JSAP.NO_SHORTFLAG, "global",
+                    "周期任务模式下额外运行全局EDF（跨L2簇迁移计缓存重填代价），与CacheAware_v2对比；同时启用--lru-timing"),
+                new Switch("dag", JSAP.NO_SHORTFLAG, "dag",
+                    "以DAG任务集运行（按前驱关系仿真），额外运行HEFT与按CacheAware_v2估计规划的HEFT；不能与--periodic/--global同时使用"),
+                new Switch("lru-timing", JSAP.NO_SHORTFLAG, "lru-timing",
+                    "全部算法的执行时间和命中率都由LRU栈距离缓存模型（按扫描点的缓存配置）给出"),
+                new Switch("summary-only", JSAP.NO_SHORTFLAG, "summary-only",
+                    "只写汇总CSV，不写逐案例结果"),
+                new Switch("fresh", JSAP.NO_SHORTFLAG, "fresh",
+                    "丢弃输出目录中已有的结果日志，从头开始扫描"),
+                new Switch("dry-run", JSAP.NO_SHORTFLAG, "dry-run",
+                    "只展开并打印扫描计划，不运行案例")
+            });
+
+        JSAPResult config = jsap.parse(args);
+        if (jsap.messagePrinted()) {
+            System.exit(config.success() ? 0 : 1);
+        }
+
+        try {
+            Options options = new Options(config, loadConfigFile(config));
+            List<int[]> caches = parseCacheGrid(options.get("caches", "4/16/64"));
+            boolean periodicRuns = options.get("periodic", null) != null || options.flag("global");
+            if (options.flag("dag") && periodicRuns) {
+                // DAG任务集只在单次执行模式下按前驱关系仿真，周期调度器不处理前驱约束
+                throw new IllegalArgumentException("--dag不能与--periodic或--global同时使用");
+            }
+            if (caches.size() > 1 && !periodicRuns) {
+                // 缓存容量只由LRU缓存模型读取；单次执行模式下每个任务只访问一次自己的数据块，
+                // 容量不影响结果，各容量配置的扫描点会完全相同
+                throw new IllegalArgumentException(
+                    "多个缓存容量配置只在--periodic时影响结果，请补充该参数或只给出一个配置: "
+                    + options.get("caches", ""));
+            }
+            SweepPlan plan = new SweepPlan(
+                parseIntGrid(options.get("cores", "8")),
+                parseIntGrid(options.get("tasks", "60")),
+                parseDoubleGrid(options.get("utilizations", "0.6,0.8,1.0,1.2,1.5")),
+                parseDoubleGrid(options.get("sensitivity", "0.7")),
+                parseIntGrid(options.get("l2-share", "2")),
+                caches,
+                parsePositiveInt("cases", options.get("cases", "20")));
+            SystemParameters.cc_weights = parseDoubleTuple(options.get("cc-weights", "0.5/0.3/0.15/0.05"));
+            long seed = Long.parseLong(options.get("seed", "42").trim());
+            int threads = parsePositiveInt("threads",
+                options.get("threads", String.valueOf(Runtime.getRuntime().availableProcessors())));
+            int shardCount = parsePositiveInt("shard-count", options.get("shard-count", "1"));
+            int shardIndex = Integer.parseInt(options.get("shard-index", "0").trim());
+            Path output = Paths.get(options.get("output",
+                shardCount > 1 ? "result/sweep/shard-" + shardIndex : "result/sweep"));
+
+            System.out.println("=== WFD vs CacheAware_v2参数扫描 ===");
+            System.out.println("📋 扫描网格: " + plan);
+            System.out.println("📊 扫描点数: " + plan.getPointCount() + "，案例总数: " + plan.getTotalCases());
+            if (options.flag("dry-run")) {
+                for (SweepPlan.Point point : plan.expand()) {
+                    System.out.println("   " + point);
+                }
+                return;
+            }
+            SweepDriver driver = new SweepDriver(plan, seed, threads, output, options.flag("summary-only"));
+            driver.setLruTiming(options.flag("lru-timing"));
+            if (options.flag("lru-timing") || options.flag("global")) {
+                System.out.println("🧮 执行时间模型: LRU栈距离缓存模型（全部算法）");
+            }
+            String periodic = options.get("periodic", null);
+            if (options.flag("global")) {
+                driver.setGlobalScheduling(true);
+                if (periodic == null) {
+                    periodic = "edf";
+                }
+            }
+            if (options.flag("dag")) {
+                driver.setDag(true);
+                System.out.println("🕸️ DAG任务集: 附加HEFT与HEFT_CacheAware对比");
+            }
+            if (periodic != null) {
+                driver.setPeriodic(parsePolicy(periodic), Long.parseLong(options.get("horizon", "0").trim()));
+                System.out.println("⏰ 周期任务模式: " + periodic.trim().toUpperCase(Locale.ROOT)
+                    + "，仿真区间: " + options.get("horizon", "超周期")
+                    + (options.flag("global") ? "，附加全局EDF对比" : ""));
+            }
+            String merge = options.get("merge", null);
+            if (merge != null) {
+                List<Path> shards = new ArrayList<>();
+                for (String dir : merge.split(",")) {
+                    shards.add(Paths.get(dir.trim()));
+                }
+                System.out.println("🔗 合并分片: " + shards + " -> " + output);
+                driver.merge(shards);
+                System.out.println("=== 分片合并完成 ===");
+                return;
+            }
+            driver.setShard(shardIndex, shardCount);
+
+            if (shardCount > 1) {
+                System.out.println("🧩 分片: " + shardIndex + "/" + shardCount
+                    + "，本分片案例数: " + plan.getShardCases(shardIndex, shardCount));
+            }
+            System.out.println("🧵 并行线程数: " + threads);
+            System.out.println("📁 输出目录: " + output + "\n");
+            if (options.flag("fresh")) {
+                Files.deleteIfExists(output.resolve(JOURNAL_FILE));
+            }
+
+            String profile = options.get("profile", null);
+            if (profile == null) {
+                driver.run();
+            } else {
+                PhaseProfiler profiler = PhaseProfiler.start(Paths.get(profile));
+                try {
+                    driver.run();
+                } finally {
+                    profiler.close();
+                }
+            }
+            System.out.println("=== 参数扫描完成 ===");
+        } catch (IllegalArgumentException e) {
+            System.err.println("❌ 参数错误: " + e.getMessage());
+            System.exit(1);
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("❌ 扫描结果写入失败: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * 依次运行全部扫描点
+     *
+     * SystemParameters是全局配置，扫描点之间串行；扫描点内部的案例在共享线程池上并行执行。
+     * 每个完成的案例先追加到输出目录下的结果日志；日志已存在时先重放，
+     * 已完成的案例不再运行，汇总统计由日志中的结果重建，因此中断后重新执行同一命令即可续跑。
+     */
+    public void run() throws IOException {
+        Files.createDirectories(outputDir);
+        Map<Integer, PointProgress> progress = new HashMap<>();
+        ResultJournal.Replay replay = new ResultJournal.Replay() {
+            @Override
+            public void caseCompleted(int point, CaseResult caseResult) {
+                progress.computeIfAbsent(point, p -> new PointProgress()).replay(caseResult);
+            }
+
+            @Override
+            public void pointCompleted(int point) {
+                progress.computeIfAbsent(point, p -> new PointProgress()).markCompleted();
+            }
+        };
+
+        ExecutorService executor = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+        long sweepStart = System.nanoTime();
+        long completedCases = 0;
+        long executedCases = 0;
+        try (ResultJournal journal = ResultJournal.open(outputDir.resolve(JOURNAL_FILE), fingerprint(),
+                ResultJournal.DEFAULT_SYNC_INTERVAL, replay);
+                BufferedWriter summary = Files.newBufferedWriter(
+                    outputDir.resolve("points.csv"), StandardCharsets.UTF_8)) {
+            long journaledCases = 0;
+            for (PointProgress point : progress.values()) {
+                journaledCases += point.completedCases.cardinality();
+            }
+            if (journaledCases > 0) {
+                System.out.printf("♻️ 从结果日志恢复 %d/%d 个已完成案例\n", journaledCases, plan.getTotalCases());
+            }
+
+            summary.write(summaryHeader());
+            for (SweepPlan.Point point : plan.expand()) {
+                PointProgress state = progress.remove(point.index);
+                if (state == null) {
+                    state = new PointProgress();
+                }
+                if (!state.completed) {
+                    executedCases += runPoint(point, state, executor, journal);
+                }
+                writeSummary(point, state, summary);
+                summary.flush();
+
+                completedCases += state.completedCases.cardinality();
+                double elapsed = (System.nanoTime() - sweepStart) / 1e9;
+                System.out.printf("✅ 扫描点 %d/%d 完成 (%s)，累计 %d/%d 案例，%.1f 案例/秒\n",
+                    point.index + 1, plan.getPointCount(), point, completedCases,
+                    plan.getShardCases(shardIndex, shardCount),
+                    executedCases / Math.max(elapsed, 1e-9));
+            }
+        } finally {
+            if (executor != null) {
+                executor.shutdown();
+            }
+        }
+    }
+
+    /**
+     * 运行一个扫描点中尚未完成的案例
+     *
+     * 逐案例CSV从日志中已有的结果开始重写，写完并落盘后在日志中标记该扫描点完成。
+     *
+     * @return 本次实际运行的案例数
+     */
+    private int runPoint(SweepPlan.Point point, PointProgress state, ExecutorService executor,
+            ResultJournal journal) throws IOException {
+        point.apply();
+        TestCaseRunner caseRunner = point.caseRunner(baseSeed);
+        caseRunner.setPeriodic(periodicPolicy, periodicHorizon);
+        caseRunner.setGlobalScheduling(globalScheduling);
+        caseRunner.setLruTiming(lruTiming);
+        caseRunner.setDag(dag);
+        ParallelExperimentRunner runner = new ParallelExperimentRunner(caseRunner, executor);
+        List<TestCase> pending = new ArrayList<>(point.getCaseCount());
+        for (TestCase testCase : point.shardCases(shardIndex, shardCount)) {
+            if (!state.completedCases.get(testCase.caseId)) {
+                pending.add(testCase);
+            }
+        }
+        int[] completed = {0};
+
+        ResultCsvSink csv = summaryOnly ? null
+            : new ResultCsvSink(outputDir.resolve("point-" + point.index + ".csv").toString());
+        try {
+            if (csv != null) {
+                for (CaseResult caseResult : state.replayed) {
+                    writeCase(csv, caseResult);
+                }
+            }
+            state.replayed = null;
+
+            runner.runAll(pending, caseResult -> {
+                try {
+                    journal.appendCase(point.index, caseResult);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                state.add(caseResult);
+                if (csv != null) {
+                    writeCase(csv, caseResult);
+                }
+                if (++completed[0] % PROGRESS_INTERVAL == 0) {
+                    System.out.printf("   扫描点 %d: %d/%d 案例\n", point.index,
+                        state.completedCases.cardinality(), point.getCaseCount());
+                }
+            });
+            if (csv != null) {
+                csv.flush();
+            }
+        } finally {
+            if (csv != null) {
+                csv.close();
+            }
+        }
+        journal.appendPointCompleted(point.index);
+        return pending.size();
+    }
+
+    /**
+     * 写出一个扫描点各利用率级别的汇总行
+     */
+    private static void writeSummary(SweepPlan.Point point, PointProgress state, BufferedWriter summary)
+            throws IOException {
+        for (Map.Entry<Double, int[]> entry : state.cacheAwareWins.entrySet()) {
+            double utilization = entry.getKey();
+            ResultAggregator.Group wfd = state.aggregator.group("WFD", utilization);
+            ResultAggregator.Group cacheAware = state.aggregator.group("CacheAware_v2", utilization);
+            double wfdMakespan = wfd.mean(Metric.MAKESPAN);
+            double cacheAwareMakespan = cacheAware.mean(Metric.MAKESPAN);
+            summary.write(String.format(Locale.ROOT, "%d,%d,%d,%.3f,%d,%s,%.3f,%d,%.2f,%.2f,%.4f,%.4f,%.4f,%.4f,%.2f,%.2f",
+                point.index, point.cores, point.tasksPerCase, point.highSensitivityRatio,
+                point.level2CoreNum, point.cacheLabel(), utilization, wfd.getCount(),
+                wfdMakespan, cacheAwareMakespan, (wfdMakespan - cacheAwareMakespan) / wfdMakespan,
+                wfd.mean(Metric.CACHE_HIT_RATIO), cacheAware.mean(Metric.CACHE_HIT_RATIO),
+                (double) entry.getValue()[0] / wfd.getCount(),
+                wfd.mean(Metric.MISSED_DEADLINES), cacheAware.mean(Metric.MISSED_DEADLINES)));
+            ResultAggregator.Group global = state.aggregator.group("GlobalEDF", utilization);
+            if (global != null) {
+                int[] globalWins = state.globalWins.get(utilization);
+                summary.write(String.format(Locale.ROOT, ",%.2f,%.2f,%.4f",
+                    global.mean(Metric.MAKESPAN), global.mean(Metric.MISSED_DEADLINES),
+                    (double) (globalWins != null ? globalWins[0] : 0) / global.getCount()));
+            }
+            ResultAggregator.Group heft = state.aggregator.group("HEFT", utilization);
+            if (heft != null) {
+                ResultAggregator.Group heftCache = state.aggregator.group("HEFT_CacheAware", utilization);
+                int[] heftWins = state.heftWins.get(utilization);
+                summary.write(String.format(Locale.ROOT, ",%.2f,%.2f,%.4f,%.4f",
+                    heft.mean(Metric.MAKESPAN), heftCache.mean(Metric.MAKESPAN),
+                    (double) heftWins[0] / heft.getCount(), (double) heftWins[1] / heftCache.getCount()));
+            }
+            summary.write("\n");
+        }
+    }
+
+    /**
+     * 汇总CSV表头：DAG任务集或全局调度对比时追加对应的列
+     */
+    private String summaryHeader() {
+        if (dag) {
+            return DAG_SUMMARY_HEADER;
+        }
+        return globalScheduling ? GLOBAL_SUMMARY_HEADER : SUMMARY_HEADER;
+    }
+
+    /**
+     * 结果日志的配置指纹：计划、种子、缓存权重、周期模式或分片不同的扫描不能共用同一日志
+     */
+    private String fingerprint() {
+        String sweep = sweepFingerprint();
+        return shardCount > 1 ? sweep + SHARD_TAG + shardIndex + "/" + shardCount : sweep;
+    }
+
+    /**
+     * 不含分片信息的配置指纹（合并后的日志使用此指纹，与不分片运行相同）
+     */
+    private String sweepFingerprint() {
+        String sweep = plan + " seed=" + baseSeed + " weights=" + Arrays.toString(SystemParameters.cc_weights);
+        if (lruTiming) {
+            sweep += " timing=lru";
+        }
+        if (dag) {
+            sweep += " workload=dag";
+        }
+        if (periodicPolicy == null) {
+            return sweep;
+        }
+        sweep += " periodic=" + periodicPolicy + " horizon=" + periodicHorizon;
+        return globalScheduling ? sweep + " global" : sweep;
+    }
+
+    /**
+     * 合并各分片的结果
+     *
+     * 各分片的结果日志必须属于同一扫描配置、恰好覆盖全部分片且都已完成。
+     * 每个扫描点内按案例ID归并各分片的记录，依次写入输出目录的结果日志、逐案例CSV和汇总CSV，
+     * 写出顺序与不分片运行相同，因此输出与不分片运行完全一致。
+     *
+     * @param shardDirs 各分片的输出目录
+     */
+    public void merge(List<Path> shardDirs) throws IOException {
+        String sweep = sweepFingerprint();
+        ResultJournal.Reader[] shards = new ResultJournal.Reader[shardDirs.size()];
+        try {
+            boolean[] seen = new boolean[shards.length];
+            for (int i = 0; i < shards.length; i++) {
+                Path path = shardDirs.get(i).resolve(JOURNAL_FILE);
+                shards[i] = ResultJournal.read(path);
+                String fingerprint = shards[i].getFingerprint();
+                int shard = 0;
+                if (!fingerprint.equals(sweep) || shards.length != 1) {
+                    String tag = sweep + SHARD_TAG;
+                    String expectedCount = "/" + shards.length;
+                    if (!fingerprint.startsWith(tag) || !fingerprint.endsWith(expectedCount)) {
+                        throw new IOException("日志" + path + "不属于本扫描配置的" + shards.length
+                            + "分片运行: " + fingerprint);
+                    }
+                    shard = Integer.parseInt(fingerprint.substring(
+                        tag.length(), fingerprint.length() - expectedCount.length()));
+                }
+                if (seen[shard]) {
+                    throw new IOException("分片" + shard + "重复: " + path);
+                }
+                seen[shard] = true;
+            }
+
+            Files.createDirectories(outputDir);
+            Files.deleteIfExists(outputDir.resolve(JOURNAL_FILE));
+            try (ResultJournal journal = ResultJournal.open(outputDir.resolve(JOURNAL_FILE), sweep,
+                    ResultJournal.DEFAULT_SYNC_INTERVAL, null);
+                    BufferedWriter summary = Files.newBufferedWriter(
+                        outputDir.resolve("points.csv"), StandardCharsets.UTF_8)) {
+                summary.write(summaryHeader());
+                for (SweepPlan.Point point : plan.expand()) {
+                    PointProgress state = new PointProgress();
+                    mergePoint(point, shards, shardDirs, state, journal);
+                    writeSummary(point, state, summary);
+                    summary.flush();
+                    System.out.printf("✅ 扫描点 %d/%d 合并完成 (%s)\n",
+                        point.index + 1, plan.getPointCount(), point);
+                }
+            }
+        } finally {
+            for (ResultJournal.Reader shard : shards) {
+                if (shard != null) {
+                    shard.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * 按案例ID归并各分片中一个扫描点的记录
+     */
+    private void mergePoint(SweepPlan.Point point, ResultJournal.Reader[] shards, List<Path> shardDirs,
+            PointProgress state, ResultJournal journal) throws IOException {
+        boolean[] done = new boolean[shards.length];
+        for (int i = 0; i < shards.length; i++) {
+            done[i] = advance(shards[i], point, shardDirs.get(i));
+        }
+
+        ResultCsvSink csv = summaryOnly ? null
+            : new ResultCsvSink(outputDir.resolve("point-" + point.index + ".csv").toString());
+        try {
+            while (true) {
+                int next = -1;
+                for (int i = 0; i < shards.length; i++) {
+                    if (!done[i] && (next < 0
+                            || shards[i].getCaseResult().caseId < shards[next].getCaseResult().caseId)) {
+                        next = i;
+                    }
+                }
+                if (next < 0) {
+                    break;
+                }
+                CaseResult caseResult = shards[next].getCaseResult();
+                if (state.completedCases.get(caseResult.caseId)) {
+                    throw new IOException("扫描点" + point.index + "的案例" + caseResult.caseId + "在多个分片中出现");
+                }
+                journal.appendCase(point.index, caseResult);
+                state.add(caseResult);
+                if (csv != null) {
+                    writeCase(csv, caseResult);
+                }
+                done[next] = advance(shards[next], point, shardDirs.get(next));
+            }
+            if (csv != null) {
+                csv.flush();
+            }
+        } finally {
+            if (csv != null) {
+                csv.close();
+            }
+        }
+        if (state.completedCases.cardinality() != point.getCaseCount()) {
+            throw new IOException("扫描点" + point.index + "只合并到" + state.completedCases.cardinality()
+                + "/" + point.getCaseCount() + "个案例");
+        }
+        journal.appendPointCompleted(point.index);
+    }
+
+    /**
+     * 读取分片日志的下一条记录
+     *
+     * @return 该分片在此扫描点的记录已读完（遇到完成标记）时返回true
+     */
+    private static boolean advance(ResultJournal.Reader shard, SweepPlan.Point point, Path dir)
+            throws IOException {
+        if (!shard.next()) {
+            throw new IOException("分片" + dir + "在扫描点" + point.index + "处未完成，请先续跑该分片");
+        }
+        if (shard.getPoint() != point.index) {
+            throw new IOException("分片" + dir + "的记录顺序与扫描计划不一致: 期望扫描点"
+                + point.index + "，读到" + shard.getPoint());
+        }
+        return shard.isPointCompleted();
+    }
+
+    /**
+     * 一个扫描点的进度与在线汇总
+     */
+    private static final class PointProgress {
+        /** 已完成的案例ID */
+        final BitSet completedCases = new BitSet();
+
+        /** 按(算法, 利用率级别)汇总的统计量 */
+        final ResultAggregator aggregator = new ResultAggregator();
+
+        /** 各利用率级别CacheAware_v2胜出的案例数 */
+        final Map<Double, int[]> cacheAwareWins = new TreeMap<>();
+
+        /** 各利用率级别GlobalEDF胜过CacheAware_v2（错过截止期更少，相同时Makespan更短）的案例数 */
+        final Map<Double, int[]> globalWins = new TreeMap<>();
+
+        /** 各利用率级别HEFT、HEFT_CacheAware的Makespan短于CacheAware_v2的案例数 */
+        final Map<Double, int[]> heftWins = new TreeMap<>();
+
+        /** 日志中重放出的结果，只在扫描点未完成时保留，用于重写逐案例CSV */
+        List<CaseResult> replayed = new ArrayList<>();
+
+        /** 日志中已有完成标记 */
+        boolean completed;
+
+        void replay(CaseResult caseResult) {
+            add(caseResult);
+            if (replayed != null) {
+                replayed.add(caseResult);
+            }
+        }
+
+        void markCompleted() {
+            completed = true;
+            replayed = null;
+        }
+
+        void add(CaseResult caseResult) {
+            completedCases.set(caseResult.caseId);
+            aggregator.add("WFD", caseResult.wfdResult);
+            aggregator.add("CacheAware_v2", caseResult.cacheAwareResult);
+            int[] wins = cacheAwareWins.computeIfAbsent(caseResult.utilization, u -> new int[1]);
+            if (caseResult.cacheAwareResult.makespan < caseResult.wfdResult.makespan) {
+                wins[0]++;
+            }
+            ExperimentResult global = caseResult.globalResult;
+            if (global != null) {
+                aggregator.add("GlobalEDF", global);
+                ExperimentResult cacheAware = caseResult.cacheAwareResult;
+                int[] globalWon = globalWins.computeIfAbsent(caseResult.utilization, u -> new int[1]);
+                if (global.missedDeadlines < cacheAware.missedDeadlines
+                        || (global.missedDeadlines == cacheAware.missedDeadlines
+                            && global.makespan < cacheAware.makespan)) {
+                    globalWon[0]++;
+                }
+            }
+            if (caseResult.heftResult != null) {
+                aggregator.add("HEFT", caseResult.heftResult);
+                aggregator.add("HEFT_CacheAware", caseResult.heftCacheResult);
+                double cacheAwareMakespan = caseResult.cacheAwareResult.makespan;
+                int[] heftWon = heftWins.computeIfAbsent(caseResult.utilization, u -> new int[2]);
+                if (caseResult.heftResult.makespan < cacheAwareMakespan) {
+                    heftWon[0]++;
+                }
+                if (caseResult.heftCacheResult.makespan < cacheAwareMakespan) {
+                    heftWon[1]++;
+                }
+            }
+        }
+    }
+
+    private static void writeCase(ResultCsvSink csv, CaseResult caseResult) {
+        try {
+            csv.append("WFD", caseResult.wfdResult);
+            csv.append("CacheAware_v2", caseResult.cacheAwareResult);
+            if (caseResult.globalResult != null) {
+                csv.append("GlobalEDF", caseResult.globalResult);
+            }
+            if (caseResult.heftResult != null) {
+                csv.append("HEFT", caseResult.heftResult);
+                csv.append("HEFT_CacheAware", caseResult.heftCacheResult);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // ==================== 参数读取 ====================
+
+    /**
+     * 命令行参数与配置文件的合并视图：命令行优先，其次配置文件，最后默认值
+     */
+    private static final class Options {
+        private final JSAPResult commandLine;
+        private final Properties file;
+
+        Options(JSAPResult commandLine, Properties file) {
+            this.commandLine = commandLine;
+            this.file = file;
+        }
+
+        String get(String id, String defaultValue) {
+            if (commandLine.userSpecified(id)) {
+                return commandLine.getString(id);
+            }
+            return file.getProperty(id, defaultValue);
+        }
+
+        boolean flag(String id) {
+            return commandLine.getBoolean(id) || Boolean.parseBoolean(file.getProperty(id, "false").trim());
+        }
+    }
+
+    private static Properties loadConfigFile(JSAPResult config) {
+        Properties properties = new Properties();
+        if (!config.userSpecified("config")) {
+            return properties;
+        }
+        Path path = Paths.get(config.getString("config"));
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("无法读取配置文件" + path + ": " + e.getMessage(), e);
+        }
+        return properties;
+    }
+
+    /**
+     * 解析整数网格，如"4,8,16"或"4:64:4"
+     */
+    static int[] parseIntGrid(String spec) {
+        List<Double> values = parseGrid(spec);
+        int[] grid = new int[values.size()];
+        for (int i = 0; i < grid.length; i++) {
+            double value = values.get(i);
+            if (value != Math.rint(value) || value <= 0) {
+                throw new IllegalArgumentException("取值必须为正整数: " + spec);
+            }
+            grid[i] = (int) value;
+        }
+        return grid;
+    }
+
+    /**
+     * 解析小数网格，如"0.6,0.8,1.0"或"0.5:1.5:0.1"
+     */
+    static double[] parseDoubleGrid(String spec) {
+        List<Double> values = parseGrid(spec);
+        double[] grid = new double[values.size()];
+        for (int i = 0; i < grid.length; i++) {
+            grid[i] = values.get(i);
+            if (!(grid[i] > 0)) {
+                throw new IllegalArgumentException("取值必须为正数: " + spec);
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * 解析缓存容量配置网格，如"4/16/64,8/32/128"
+     */
+    static List<int[]> parseCacheGrid(String spec) {
+        List<int[]> grid = new ArrayList<>();
+        for (String item : spec.split(",")) {
+            double[] tuple = parseDoubleTuple(item);
+            int[] capacities = new int[tuple.length];
+            for (int i = 0; i < tuple.length; i++) {
+                if (tuple[i] != Math.rint(tuple[i]) || tuple[i] <= 0) {
+                    throw new IllegalArgumentException("缓存容量必须为正整数: " + item);
+                }
+                capacities[i] = (int) tuple[i];
+            }
+            grid.add(capacities);
+        }
+        return grid;
+    }
+
+    private static double[] parseDoubleTuple(String spec) {
+        String[] parts = spec.trim().split("/");
+        double[] tuple = new double[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            tuple[i] = parseNumber(parts[i], spec);
+        }
+        return tuple;
+    }
+
+    /**
+     * 展开逗号分隔的取值，区间"起点:终点:步长"包含终点（按1e-9容差判断）
+     */
+    private static List<Double> parseGrid(String spec) {
+        List<Double> values = new ArrayList<>();
+        for (String item : spec.split(",")) {
+            String[] range = item.trim().split(":");
+            if (range.length == 1) {
+                values.add(parseNumber(range[0], spec));
+            } else if (range.length == 3) {
+                double from = parseNumber(range[0], spec);
+                double to = parseNumber(range[1], spec);
+                double step = parseNumber(range[2], spec);
+                if (!(step > 0) || to < from) {
+                    throw new IllegalArgumentException("区间必须满足 起点<=终点 且 步长>0: " + item);
+                }
+                long count = (long) Math.floor((to - from) / step + 1e-9) + 1;
+                for (long i = 0; i < count; i++) {
+                    // 按1e-9量化，避免0.1步长累积的浮点误差出现在输出和种子中
+                    values.add(Math.round((from + i * step) * 1e9) / 1e9);
+                }
+            } else {
+                throw new IllegalArgumentException("无法解析的取值: " + item);
+            }
+        }
+        return values;
+    }
+
+    private static double parseNumber(String text, String spec) {
+        try {
+            return Double.parseDouble(text.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("无法解析的数值'" + text.trim() + "': " + spec, e);
+        }
+    }
+
+    private static int parsePositiveInt(String name, String text) {
+        int value;
+        try {
+            value = Integer.parseInt(text.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + "必须为整数: " + text, e);
+        }
+        if (value <= 0) {
+            throw new IllegalArgumentException(name + "必须为正数: " + text);
+        }
+        return value;
+    }
+
+    private static PeriodicSimulator.Policy parsePolicy(String text) {
+        try {
+            return PeriodicSimulator.Policy.valueOf(text.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("periodic必须为edf或rm: " + text, e);
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package experiment;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import experiment.ParallelExperimentRunner.TestCase;
+import parameters.SystemParameters;
+
+/**
+ * 参数扫描工作计划
+ *
+ * 由各维度的取值网格（核心数 × 每案例任务数 × 高敏感任务比例 × L2共享核心数 × 缓存容量配置）
+ * 展开为扫描点，每个扫描点在全部利用率级别上各执行casesPerUtilization个案例。
+ *
+ * SystemParameters是全局静态配置，同一时刻只能生效一组缓存设置，
+ * 因此扫描点依次执行（apply后再运行该点的案例），扫描点内部的案例并行执行。
+ * 每个扫描点的案例ID从1开始，与AlgorithmComparisonExperiment的编号方式相同，
+ * 相同参数的扫描点与对比实验得到相同的任务集和结果。
+ *
+ * @author Cache-Aware Task Scheduling System
+ */
+public class SweepPlan {
+
+    /**
+     * 一个扫描点：一组固定的系统配置
+     */
+    public static class Point {
+        /** 扫描点序号（从0开始） */
+        public final int index;
+
+        /** 处理器核心数 */
+        public final int cores;
+
+        /** 每个测试案例的任务数量 */
+        public final int tasksPerCase;
+
+        /** 高缓存敏感任务比例 */
+        public final double highSensitivityRatio;
+
+        /** 共享一个L2缓存的核心数 */
+        public final int level2CoreNum;
+
+        /** 各级缓存容量（数据块数），长度即缓存层级数 */
+        private final int[] cacheCapacities;
+
+        private final double[] utilizations;
+        private final int casesPerUtilization;
+
+        Point(int index, int cores, int tasksPerCase, double highSensitivityRatio, int level2CoreNum,
+                int[] cacheCapacities, double[] utilizations, int casesPerUtilization) {
+            this.index = index;
+            this.cores = cores;
+            this.tasksPerCase = tasksPerCase;
+            this.highSensitivityRatio = highSensitivityRatio;
+            this.level2CoreNum = level2CoreNum;
+            this.cacheCapacities = cacheCapacities;
+            this.utilizations = utilizations;
+            this.casesPerUtilization = casesPerUtilization;
+        }
+
+        /** 各级缓存容量 */
+        public int[] getCacheCapacities() {
+            return cacheCapacities.clone();
+        }
+
+        /** 该扫描点的案例总数 */
+        public int getCaseCount() {
+            return utilizations.length * casesPerUtilization;
+        }
+
+        /**
+         * 把该扫描点的系统配置写入SystemParameters
+         *
+         * 缓存层级数和容量由LruCacheModel读取：决定各算法的命中率，LRU计时下还决定执行时间。
+         */
+        public void apply() {
+            SystemParameters.coreNum = cores;
+            SystemParameters.Level2CoreNum = level2CoreNum;
+            SystemParameters.cacheLevel = cacheCapacities.length;
+            SystemParameters.cacheCapacities = cacheCapacities.clone();
+        }
+
+        /**
+         * 该扫描点的测试案例：按利用率级别依次编号，案例ID从1开始
+         */
+        public List<TestCase> testCases() {
+            List<TestCase> cases = new ArrayList<>(getCaseCount());
+            for (double utilization : utilizations) {
+                for (int test = 0; test < casesPerUtilization; test++) {
+                    cases.add(new TestCase(cases.size() + 1, utilization));
+                }
+            }
+            return cases;
+        }
+
+        /**
+         * 该扫描点中属于指定分片的测试案例
+         *
+         * 全部扫描点的案例按(扫描点序号, 案例ID)连续编号，编号对分片数取模等于分片序号的案例属于该分片。
+         * 相邻案例轮流分给各分片，每个分片在各扫描点、各利用率级别上的负载大致相同。
+         *
+         * @param shardIndex 分片序号（从0开始）
+         * @param shardCount 分片数
+         */
+        public List<TestCase> shardCases(int shardIndex, int shardCount) {
+            List<TestCase> cases = new ArrayList<>(getCaseCount() / shardCount + 1);
+            for (TestCase testCase : testCases()) {
+                if (inShard(testCase.caseId, shardIndex, shardCount)) {
+                    cases.add(testCase);
+                }
+            }
+            return cases;
+        }
+
+        /**
+         * 案例是否属于指定分片
+         */
+        public boolean inShard(int caseId, int shardIndex, int shardCount) {
+            long ordinal = (long) index * getCaseCount() + caseId - 1;
+            return ordinal % shardCount == shardIndex;
+        }
+
+        /**
+         * 创建该扫描点的案例执行器
+         *
+         * @param baseSeed 实验基础随机种子
+         */
+        public TestCaseRunner caseRunner(long baseSeed) {
+            return new TestCaseRunner(cores, tasksPerCase, highSensitivityRatio, baseSeed);
+        }
+
+        /** 缓存容量配置的文本形式，如"4/16/64" */
+        public String cacheLabel() {
+            StringBuilder label = new StringBuilder();
+            for (int i = 0; i < cacheCapacities.length; i++) {
+                if (i > 0) {
+                    label.append('/');
+                }
+                label.append(cacheCapacities[i]);
+            }
+            return label.toString();
+        }
+
+        @Override
+        public String toString() {
+            return "#" + index + " cores=" + cores + " tasks=" + tasksPerCase
+                + " sensitivity=" + highSensitivityRatio + " L2share=" + level2CoreNum
+                + " caches=" + cacheLabel() + " cases=" + getCaseCount();
+        }
+    }
+
+    private final int[] cores;
+    private final int[] tasksPerCase;
+    private final double[] utilizations;
+    private final double[] sensitivityRatios;
+    private final int[] level2CoreNums;
+    private final List<int[]> cacheCapacities;
+    private final int casesPerUtilization;
+
+    /**
+     * @param cores 核心数取值
+     * @param tasksPerCase 每案例任务数取值
+     * @param utilizations 利用率级别（每个扫描点都执行全部级别）
+     * @param sensitivityRatios 高缓存敏感任务比例取值
+     * @param level2CoreNums L2共享核心数取值
+     * @param cacheCapacities 缓存容量配置取值，每个配置为各级容量
+     * @param casesPerUtilization 每个扫描点在每个利用率级别上的案例数
+     */
+    public SweepPlan(int[] cores, int[] tasksPerCase, double[] utilizations, double[] sensitivityRatios,
+            int[] level2CoreNums, List<int[]> cacheCapacities, int casesPerUtilization) {
+        requireNonEmpty("cores", cores.length);
+        requireNonEmpty("tasks", tasksPerCase.length);
+        requireNonEmpty("utilizations", utilizations.length);
+        requireNonEmpty("sensitivity", sensitivityRatios.length);
+        requireNonEmpty("l2-share", level2CoreNums.length);
+        requireNonEmpty("cache-capacities", cacheCapacities.size());
+        if (casesPerUtilization <= 0) {
+            throw new IllegalArgumentException("每个利用率级别的案例数必须为正数: " + casesPerUtilization);
+        }
+        for (int[] capacities : cacheCapacities) {
+            if (capacities.length == 0) {
+                throw new IllegalArgumentException("缓存容量配置不能为空");
+            }
+        }
+        this.cores = cores.clone();
+        this.tasksPerCase = tasksPerCase.clone();
+        this.utilizations = utilizations.clone();
+        this.sensitivityRatios = sensitivityRatios.clone();
+        this.level2CoreNums = level2CoreNums.clone();
+        this.cacheCapacities = new ArrayList<>(cacheCapacities);
+        this.casesPerUtilization = casesPerUtilization;
+    }
+
+    /**
+     * 展开为扫描点列表（核心数为最外层维度，缓存容量配置为最内层维度）
+     */
+    public List<Point> expand() {
+        List<Point> points = new ArrayList<>(getPointCount());
+        for (int c : cores) {
+            for (int tasks : tasksPerCase) {
+                for (double sensitivity : sensitivityRatios) {
+                    for (int l2 : level2CoreNums) {
+                        for (int[] capacities : cacheCapacities) {
+                            points.add(new Point(points.size(), c, tasks, sensitivity, l2,
+                                capacities.clone(), utilizations, casesPerUtilization));
+                        }
+                    }
+                }
+            }
+        }
+        return Collections.unmodifiableList(points);
+    }
+
+    /** 扫描点数 */
+    public int getPointCount() {
+        return cores.length * tasksPerCase.length * sensitivityRatios.length
+            * level2CoreNums.length * cacheCapacities.size();
+    }
+
+    /** 全部扫描点的案例总数 */
+    public long getTotalCases() {
+        return (long) getPointCount() * utilizations.length * casesPerUtilization;
+    }
+
+    /**
+     * 指定分片的案例总数
+     *
+     * @see Point#shardCases(int, int)
+     */
+    public long getShardCases(int shardIndex, int shardCount) {
+        long total = getTotalCases();
+        return total > shardIndex ? (total - shardIndex + shardCount - 1) / shardCount : 0;
+    }
+
+    /** 利用率级别 */
+    public double[] getUtilizations() {
+        return utilizations.clone();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder caches = new StringBuilder();
+        for (int[] capacities : cacheCapacities) {
+            caches.append(Arrays.toString(capacities));
+        }
+        return "cores=" + Arrays.toString(cores) + " tasks=" + Arrays.toString(tasksPerCase)
+            + " utilizations=" + Arrays.toString(utilizations)
+            + " sensitivity=" + Arrays.toString(sensitivityRatios)
+            + " L2share=" + Arrays.toString(level2CoreNums) + " caches=" + caches
+            + " casesPerUtilization=" + casesPerUtilization;
+    }
+
+    private static void requireNonEmpty(String name, int length) {
+        if (length == 0) {
+            throw new IllegalArgumentException("扫描维度" + name + "没有取值");
+        }
+    }
+}
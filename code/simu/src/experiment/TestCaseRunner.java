@@ -0,0 +1,614 @@
+package experiment;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import allocation.CacheAware_v2;
+import allocation.GlobalEDF;
+import allocation.HEFT;
+import allocation.WFD;
+import analyzer.PerformanceAnalyzer;
+import analyzer.PerformanceAnalyzer.ExperimentResult;
+import entity.Node;
+import experiment.ParallelExperimentRunner.TestCase;
+import generator.EnhancedTaskGenerator;
+import generator.TaskSetCorpus;
+import parameters.SystemParameters;
+import profiler.PhaseEvents;
+import profiler.PhaseEvents.TaskGenerationEvent;
+import simulator.EventDrivenSimulator;
+import simulator.EventDrivenSimulator.DispatchMode;
+import simulator.ExecutionTimeModel;
+import simulator.LruCacheModel;
+import simulator.PeriodicSimulator;
+
+/**
+ * 单个测试案例执行器
+ * 
+ * 负责一个测试案例的完整流程：生成任务集、分别在离散事件仿真引擎上运行WFD与CacheAware_v2、分析性能。
+ * 设置了周期调度策略（setPeriodic）时改为生成周期任务，在PeriodicSimulator上按超周期
+ * （或指定区间）释放作业并做分区抢占式EDF/RM调度，错过截止期按作业实际统计；
+ * 启用全局调度对比（setGlobalScheduling）时每个案例再运行一次全局EDF。
+ * 设置了DAG任务集（setDag）时改为生成带前驱关系的DAG任务集，按前驱关系仿真（EventDrivenSimulator.runDag），
+ * 并在WFD与CacheAware_v2之外运行HEFT（按expectedET和按CacheAware_v2执行时间规划各一次）。
+ * 默认WFD与全局EDF使用名义执行时间、CacheAware_v2使用自身的缓存状态估计；
+ * 启用LRU计时（setLruTiming）时全部算法的执行时间都由LRU栈距离缓存模型给出。
+ * 命中率不论哪种计时都由同一种LRU模型（LruCacheModel.perTask）在运行中逐次统计，
+ * 各算法的命中率可以直接比较。
+ * 每个案例使用独立的随机数种子、任务生成器、算法实例和分析器，
+ * 因此案例之间没有共享的可变状态，可以在任意线程上以任意顺序执行，
+ * 结果只取决于(基础种子, 案例ID, 利用率)。
+ * 
+ * @author Cache-Aware Task Scheduling System
+ */
+public class TestCaseRunner {
+    
+    /** 系统处理器核心数量 */
+    private final int cores;
+    
+    /** 每个测试案例的任务数量 */
+    private final int tasksPerCase;
+    
+    /** 高缓存敏感任务比例 */
+    private final double highSensitivityRatio;
+    
+    /** 实验基础随机种子 */
+    private final long baseSeed;
+    
+    /** 任务集语料（为null时每个案例现场生成任务集） */
+    private volatile TaskSetCorpus.Reader corpus;
+    
+    /** 周期调度策略（为null时每个任务只执行一次） */
+    private volatile PeriodicSimulator.Policy periodicPolicy;
+    
+    /** 周期仿真区间（不大于0表示超周期） */
+    private volatile long periodicHorizon;
+    
+    /** 周期模式下是否额外运行全局EDF */
+    private volatile boolean globalScheduling;
+    
+    /** 是否全部算法都按LRU栈距离缓存模型计算执行时间 */
+    private volatile boolean lruTiming;
+    
+    /** 是否以DAG任务集运行案例 */
+    private volatile boolean dag;
+    
+    /** DAG任务集中每个节点的最大前驱数 */
+    public static final int DAG_MAX_FAN_IN = 3;
+    
+    /**
+     * 单个测试案例的结果
+     */
+    public static class CaseResult {
+        /** 测试案例ID */
+        public final int caseId;
+        
+        /** 系统利用率级别 */
+        public final double utilization;
+        
+        /** WFD算法结果 */
+        public final ExperimentResult wfdResult;
+        
+        /** CacheAware_v2算法结果 */
+        public final ExperimentResult cacheAwareResult;
+        
+        /** 全局EDF结果（未启用全局调度对比时为null） */
+        public final ExperimentResult globalResult;
+        
+        /** HEFT按expectedET规划的结果（非DAG任务集时为null） */
+        public final ExperimentResult heftResult;
+        
+        /** HEFT按CacheAware_v2执行时间规划的结果（非DAG任务集时为null） */
+        public final ExperimentResult heftCacheResult;
+        
+        /** CacheAware_v2算法在案例结束时的缓存状态快照（未请求时为null） */
+        public final Map<Integer, String> cacheStateReport;
+        
+        public CaseResult(int caseId, double utilization, ExperimentResult wfdResult,
+                ExperimentResult cacheAwareResult, Map<Integer, String> cacheStateReport) {
+            this(caseId, utilization, wfdResult, cacheAwareResult, null, cacheStateReport);
+        }
+        
+        public CaseResult(int caseId, double utilization, ExperimentResult wfdResult,
+                ExperimentResult cacheAwareResult, ExperimentResult globalResult,
+                Map<Integer, String> cacheStateReport) {
+            this(caseId, utilization, wfdResult, cacheAwareResult, globalResult, null, null, cacheStateReport);
+        }
+        
+        public CaseResult(int caseId, double utilization, ExperimentResult wfdResult,
+                ExperimentResult cacheAwareResult, ExperimentResult globalResult,
+                ExperimentResult heftResult, ExperimentResult heftCacheResult,
+                Map<Integer, String> cacheStateReport) {
+            this.caseId = caseId;
+            this.utilization = utilization;
+            this.wfdResult = wfdResult;
+            this.cacheAwareResult = cacheAwareResult;
+            this.globalResult = globalResult;
+            this.heftResult = heftResult;
+            this.heftCacheResult = heftCacheResult;
+            this.cacheStateReport = cacheStateReport;
+        }
+    }
+    
+    public TestCaseRunner(int cores, int tasksPerCase, double highSensitivityRatio, long baseSeed) {
+        this.cores = cores;
+        this.tasksPerCase = tasksPerCase;
+        this.highSensitivityRatio = highSensitivityRatio;
+        this.baseSeed = baseSeed;
+    }
+    
+    /**
+     * 从语料读取任务集，而不是现场生成
+     * 
+     * 语料中找不到的案例仍按(基础种子, 利用率, 案例ID)现场生成。
+     * 
+     * @param corpus 语料读取器，null表示恢复现场生成
+     * @throws IllegalArgumentException 语料的生成配置指纹与本执行器不一致
+     */
+    public void setCorpus(TaskSetCorpus.Reader corpus) {
+        if (corpus != null && !corpus.getFingerprint().equals(corpusFingerprint())) {
+            throw new IllegalArgumentException("语料属于另一组生成配置: " + corpus.getFingerprint()
+                + "，当前配置: " + corpusFingerprint());
+        }
+        this.corpus = corpus;
+    }
+    
+    /**
+     * 任务集生成配置的指纹（基础种子、核心数、每案例任务数、高敏感任务比例、是否周期任务、是否DAG），
+     * 写入语料文件头，读取时要求一致
+     */
+    public String corpusFingerprint() {
+        return "seed=" + baseSeed + " cores=" + cores + " tasks=" + tasksPerCase
+            + " sensitivity=" + highSensitivityRatio + " periodic=" + (periodicPolicy != null)
+            + " dag=" + dag;
+    }
+    
+    /**
+     * 以周期任务模式运行案例
+     * 
+     * 影响任务生成（任务带周期和隐式截止期），须在生成语料和运行案例之前设置。
+     * 
+     * @param policy 处理器本地调度策略，null表示恢复单次执行模式
+     * @param horizon 仿真区间，不大于0表示超周期
+     */
+    public void setPeriodic(PeriodicSimulator.Policy policy, long horizon) {
+        this.periodicPolicy = policy;
+        this.periodicHorizon = horizon;
+    }
+    
+    /**
+     * 周期模式下是否在WFD与CacheAware_v2之外再运行全局EDF（GlobalEDF，执行时间加跨L2簇迁移代价）
+     * 
+     * 只在设置了周期调度策略时生效。未启用LRU计时时全局EDF使用名义执行时间，
+     * 与CacheAware_v2的缓存估计不可直接比较，SweepDriver因此在启用全局调度时同时启用LRU计时。
+     */
+    public void setGlobalScheduling(boolean globalScheduling) {
+        this.globalScheduling = globalScheduling;
+    }
+    
+    /**
+     * 是否以LRU栈距离缓存模型（LruCacheModel.perTask，缓存层次和容量取自SystemParameters）
+     * 计算全部算法的执行时间
+     * 
+     * 每次算法运行都使用一个新的LRU模型统计命中率：每个任务有自己的数据块，作业开始执行时访问。
+     * 启用后执行时间也按命中级别调整，各算法只在分配决策上不同，执行时间的计算方式相同；
+     * 未启用时执行时间由各算法自身的模型给出，LRU模型只统计命中。
+     * 周期任务模式下同一任务的作业重用缓存中的数据，缓存容量决定能保留的工作集数量；
+     * 单次执行模式下每个任务只访问一次，全部为主内存访问。
+     */
+    public void setLruTiming(boolean lruTiming) {
+        this.lruTiming = lruTiming;
+    }
+    
+    /**
+     * 以DAG任务集运行案例
+     * 
+     * 每个案例生成约tasksPerCase个节点的分层DAG任务集（generateDagTasks，每个DAG的节点数取自
+     * SystemParameters.minNodes~maxNodes），节点在全部前驱完成后才就绪。影响任务生成，
+     * 须在生成语料和运行案例之前设置；只用于单次执行模式，不与周期调度策略同时使用。
+     */
+    public void setDag(boolean dag) {
+        this.dag = dag;
+    }
+    
+    /**
+     * 一次算法运行使用的LRU缓存模型，同时作为该次运行的命中率统计模型
+     */
+    private LruCacheModel lruModel() {
+        return LruCacheModel.perTask(cores);
+    }
+    
+    /**
+     * 一次算法运行使用的执行时间模型：LRU计时时为缓存模型本身，
+     * 否则为算法自身的模型，由缓存模型记录每次访问
+     * 
+     * @param cache 本次运行的LRU缓存模型
+     * @param own 算法自身的执行时间模型
+     */
+    private ExecutionTimeModel executionTimeModel(LruCacheModel cache, ExecutionTimeModel own) {
+        return lruTiming ? cache : cache.observing(own);
+    }
+    
+    /**
+     * 获取测试案例的任务集
+     * 
+     * 设置了语料且语料中有该案例时映射并物化该案例，否则现场生成；
+     * 两种方式得到的任务集相同。
+     */
+    public List<Node> loadTasks(int caseId, double utilization) {
+        TaskGenerationEvent event = new TaskGenerationEvent();
+        event.begin();
+        List<Node> tasks = null;
+        TaskSetCorpus.Reader reader = corpus;
+        if (reader != null) {
+            int index = reader.find(caseId, utilization);
+            if (index >= 0) {
+                try {
+                    tasks = reader.map(index).toNodes();
+                } catch (IOException e) {
+                    throw new UncheckedIOException("读取语料中的案例" + caseId + "失败", e);
+                }
+            }
+        }
+        if (tasks == null) {
+            tasks = generateTasks(caseId, utilization);
+        }
+        event.finish(caseId, null, tasks.size());
+        return tasks;
+    }
+    
+    /**
+     * 生成测试案例的任务集
+     * 
+     * 每个案例独立的任务生成器，随机数由(基础种子, 利用率, 案例ID)派生，
+     * 因此任意案例都可以单独重新生成。
+     */
+    public List<Node> generateTasks(int caseId, double utilization) {
+        EnhancedTaskGenerator taskGenerator = EnhancedTaskGenerator.forCase(
+            cores, baseSeed, utilization, caseId);
+        if (dag) {
+            int averageNodes = Math.max(1, (SystemParameters.minNodes + SystemParameters.maxNodes) / 2);
+            return taskGenerator.generateDagTasks(Math.max(1, tasksPerCase / averageNodes),
+                utilization, highSensitivityRatio, DAG_MAX_FAN_IN);
+        }
+        taskGenerator.setPeriodic(periodicPolicy != null);
+        return taskGenerator.generateCacheIntensiveTasks(
+            tasksPerCase, utilization, highSensitivityRatio
+        );
+    }
+    
+    /**
+     * 生成全部测试案例的任务集并写入语料文件
+     * 
+     * 逐个案例生成、写入，内存中只保留当前案例的任务集。
+     * 
+     * @param path 语料文件路径（已存在时覆盖）
+     * @param cases 测试案例
+     */
+    public void writeCorpus(Path path, List<TestCase> cases) throws IOException {
+        try (TaskSetCorpus.Writer writer = TaskSetCorpus.create(path, corpusFingerprint())) {
+            for (TestCase testCase : cases) {
+                writer.writeCase(testCase.caseId, testCase.utilization,
+                    generateTasks(testCase.caseId, testCase.utilization));
+            }
+        }
+    }
+    
+    /**
+     * 执行一个测试案例
+     * 
+     * @param caseId 测试案例ID（与基础种子、利用率共同决定该案例的随机种子）
+     * @param utilization 系统利用率级别
+     * @param captureCacheReport 是否保留CacheAware_v2的缓存状态快照
+     * @return 案例结果
+     */
+    public CaseResult runCase(int caseId, double utilization, boolean captureCacheReport) {
+        PeriodicSimulator.Policy policy = periodicPolicy;
+        if (policy != null) {
+            return runPeriodicCase(caseId, utilization, captureCacheReport, policy);
+        }
+        if (dag) {
+            return runDagCase(caseId, utilization, captureCacheReport);
+        }
+        PerformanceAnalyzer analyzer = new PerformanceAnalyzer();
+        
+        // 生成（或从语料读取）缓存敏感的任务集
+        List<Node> originalTasks = loadTasks(caseId, utilization);
+        
+        // === WFD算法测试 ===
+        List<Node> wfdTasks = cloneTasks(originalTasks);
+        WFD wfdAlgorithm = new WFD(cores);
+        LruCacheModel wfdCache = lruModel();
+        
+        // WFD使用原始执行时间（无缓存优化）
+        PhaseEvents.enterCase(caseId, "WFD");
+        long wfdStartTime = System.nanoTime();
+        try {
+            new EventDrivenSimulator(cores, wfdAlgorithm,
+                executionTimeModel(wfdCache, ExecutionTimeModel.NOMINAL),
+                DispatchMode.PARTITIONED).run(wfdTasks);
+        } finally {
+            PhaseEvents.exitCase();
+        }
+        long wfdEndTime = System.nanoTime();
+        
+        ExperimentResult wfdResult = analyzer.analyzeAlgorithmPerformance(
+            "WFD", caseId, wfdTasks, cores,
+            (wfdEndTime - wfdStartTime) / 1_000_000.0, utilization,
+            wfdCache
+        );
+        
+        // === CacheAware_v2算法测试 ===
+        List<Node> cacheTasks = cloneTasks(originalTasks);
+        CacheAware_v2 cacheAlgorithm = new CacheAware_v2(cores);
+        LruCacheModel cacheModel = lruModel();
+        
+        // 使用Cache-Aware算法的执行时间计算，考虑缓存优化带来的性能提升
+        PhaseEvents.enterCase(caseId, "CacheAware_v2");
+        long cacheStartTime = System.nanoTime();
+        try {
+            new EventDrivenSimulator(cores, cacheAlgorithm,
+                executionTimeModel(cacheModel, cacheAlgorithm::calculateExecutionTime),
+                DispatchMode.PARTITIONED).run(cacheTasks);
+        } finally {
+            PhaseEvents.exitCase();
+        }
+        long cacheEndTime = System.nanoTime();
+        
+        ExperimentResult cacheResult = analyzer.analyzeAlgorithmPerformance(
+            "CacheAware_v2", caseId, cacheTasks, cores,
+            (cacheEndTime - cacheStartTime) / 1_000_000.0, utilization,
+            cacheModel
+        );
+        
+        Map<Integer, String> cacheReport = captureCacheReport ? cacheAlgorithm.getCacheStateReport() : null;
+        
+        return new CaseResult(caseId, utilization, wfdResult, cacheResult, cacheReport);
+    }
+    
+    /**
+     * 以周期任务模式执行一个测试案例：两种算法分别分区，再按策略做抢占式调度
+     */
+    private CaseResult runPeriodicCase(int caseId, double utilization, boolean captureCacheReport,
+            PeriodicSimulator.Policy policy) {
+        PerformanceAnalyzer analyzer = new PerformanceAnalyzer();
+        long horizon = periodicHorizon;
+        
+        List<Node> originalTasks = loadTasks(caseId, utilization);
+        
+        // === WFD算法测试 ===
+        List<Node> wfdTasks = cloneTasks(originalTasks);
+        WFD wfdAlgorithm = new WFD(cores);
+        LruCacheModel wfdCache = lruModel();
+        
+        PhaseEvents.enterCase(caseId, "WFD");
+        long wfdStartTime = System.nanoTime();
+        PeriodicSimulator.Stats wfdStats;
+        try {
+            wfdStats = new PeriodicSimulator(cores, wfdAlgorithm,
+                executionTimeModel(wfdCache, ExecutionTimeModel.NOMINAL), policy)
+                .setHorizon(horizon).run(wfdTasks);
+        } finally {
+            PhaseEvents.exitCase();
+        }
+        long wfdEndTime = System.nanoTime();
+        
+        ExperimentResult wfdResult = analyzer.analyzePeriodicPerformance(
+            "WFD", caseId, wfdTasks, cores,
+            (wfdEndTime - wfdStartTime) / 1_000_000.0, utilization,
+            wfdCache, wfdStats
+        );
+        
+        // === CacheAware_v2算法测试 ===
+        List<Node> cacheTasks = cloneTasks(originalTasks);
+        CacheAware_v2 cacheAlgorithm = new CacheAware_v2(cores);
+        LruCacheModel cacheModel = lruModel();
+        
+        PhaseEvents.enterCase(caseId, "CacheAware_v2");
+        long cacheStartTime = System.nanoTime();
+        PeriodicSimulator.Stats cacheStats;
+        try {
+            cacheStats = new PeriodicSimulator(cores, cacheAlgorithm,
+                executionTimeModel(cacheModel, cacheAlgorithm::calculateExecutionTime), policy)
+                .setHorizon(horizon).run(cacheTasks);
+        } finally {
+            PhaseEvents.exitCase();
+        }
+        long cacheEndTime = System.nanoTime();
+        
+        ExperimentResult cacheResult = analyzer.analyzePeriodicPerformance(
+            "CacheAware_v2", caseId, cacheTasks, cores,
+            (cacheEndTime - cacheStartTime) / 1_000_000.0, utilization,
+            cacheModel, cacheStats
+        );
+        
+        // === 全局EDF测试（可选） ===
+        ExperimentResult globalResult = null;
+        if (globalScheduling) {
+            List<Node> globalTasks = cloneTasks(originalTasks);
+            GlobalEDF globalAlgorithm = new GlobalEDF(cores);
+            LruCacheModel globalCache = lruModel();
+            
+            PhaseEvents.enterCase(caseId, "GlobalEDF");
+            long globalStartTime = System.nanoTime();
+            PeriodicSimulator.Stats globalStats;
+            try {
+                globalStats = new PeriodicSimulator(cores, globalAlgorithm,
+                    executionTimeModel(globalCache, ExecutionTimeModel.NOMINAL))
+                    .setHorizon(horizon).run(globalTasks);
+            } finally {
+                PhaseEvents.exitCase();
+            }
+            long globalEndTime = System.nanoTime();
+            
+            globalResult = analyzer.analyzePeriodicPerformance(
+                "GlobalEDF", caseId, globalTasks, cores,
+                (globalEndTime - globalStartTime) / 1_000_000.0, utilization,
+                globalCache, globalStats
+            );
+        }
+        
+        Map<Integer, String> cacheReport = captureCacheReport ? cacheAlgorithm.getCacheStateReport() : null;
+        
+        return new CaseResult(caseId, utilization, wfdResult, cacheResult, globalResult, cacheReport);
+    }
+    
+    /**
+     * 以DAG任务集执行一个测试案例：WFD、CacheAware_v2、HEFT（expectedET）和HEFT（CacheAware_v2执行时间）
+     * 分别按前驱关系仿真
+     * 
+     * HEFT先对整个任务集做静态规划，仿真中按规划的处理器分派；规划耗时计入算法执行时间。
+     * 按CacheAware_v2规划的HEFT在仿真中也按CacheAware_v2的缓存状态估计计算执行时间，
+     * 与CacheAware_v2算法相同，因此两者的差别只在处理器选择上。
+     */
+    private CaseResult runDagCase(int caseId, double utilization, boolean captureCacheReport) {
+        PerformanceAnalyzer analyzer = new PerformanceAnalyzer();
+        List<Node> originalTasks = loadTasks(caseId, utilization);
+        
+        // === WFD算法测试 ===
+        List<Node> wfdTasks = cloneTasks(originalTasks);
+        WFD wfdAlgorithm = new WFD(cores);
+        LruCacheModel wfdCache = lruModel();
+        
+        PhaseEvents.enterCase(caseId, "WFD");
+        long wfdStartTime = System.nanoTime();
+        try {
+            new EventDrivenSimulator(cores, wfdAlgorithm,
+                executionTimeModel(wfdCache, ExecutionTimeModel.NOMINAL),
+                DispatchMode.PARTITIONED).runDag(wfdTasks);
+        } finally {
+            PhaseEvents.exitCase();
+        }
+        long wfdEndTime = System.nanoTime();
+        
+        ExperimentResult wfdResult = analyzer.analyzeAlgorithmPerformance(
+            "WFD", caseId, wfdTasks, cores,
+            (wfdEndTime - wfdStartTime) / 1_000_000.0, utilization, wfdCache
+        );
+        
+        // === CacheAware_v2算法测试 ===
+        List<Node> cacheTasks = cloneTasks(originalTasks);
+        CacheAware_v2 cacheAlgorithm = new CacheAware_v2(cores);
+        LruCacheModel cacheModel = lruModel();
+        
+        PhaseEvents.enterCase(caseId, "CacheAware_v2");
+        long cacheStartTime = System.nanoTime();
+        try {
+            new EventDrivenSimulator(cores, cacheAlgorithm,
+                executionTimeModel(cacheModel, cacheAlgorithm::calculateExecutionTime),
+                DispatchMode.PARTITIONED).runDag(cacheTasks);
+        } finally {
+            PhaseEvents.exitCase();
+        }
+        long cacheEndTime = System.nanoTime();
+        
+        ExperimentResult cacheResult = analyzer.analyzeAlgorithmPerformance(
+            "CacheAware_v2", caseId, cacheTasks, cores,
+            (cacheEndTime - cacheStartTime) / 1_000_000.0, utilization, cacheModel
+        );
+        
+        // === HEFT算法测试 ===
+        List<Node> heftTasks = cloneTasks(originalTasks);
+        HEFT heftAlgorithm = new HEFT(cores);
+        LruCacheModel heftCache = lruModel();
+        
+        PhaseEvents.enterCase(caseId, "HEFT");
+        long heftStartTime = System.nanoTime();
+        try {
+            heftAlgorithm.schedule(heftTasks);
+            new EventDrivenSimulator(cores, heftAlgorithm,
+                executionTimeModel(heftCache, ExecutionTimeModel.NOMINAL),
+                DispatchMode.PARTITIONED).runDag(heftTasks);
+        } finally {
+            PhaseEvents.exitCase();
+        }
+        long heftEndTime = System.nanoTime();
+        
+        ExperimentResult heftResult = analyzer.analyzeAlgorithmPerformance(
+            "HEFT", caseId, heftTasks, cores,
+            (heftEndTime - heftStartTime) / 1_000_000.0, utilization, heftCache
+        );
+        
+        // === 按CacheAware_v2执行时间规划的HEFT测试 ===
+        List<Node> heftCacheTasks = cloneTasks(originalTasks);
+        HEFT heftCacheAlgorithm = new HEFT(cores, new CacheAware_v2(cores));
+        CacheAware_v2 heftTiming = new CacheAware_v2(cores);
+        LruCacheModel heftCacheCache = lruModel();
+        
+        PhaseEvents.enterCase(caseId, "HEFT_CacheAware");
+        long heftCacheStartTime = System.nanoTime();
+        try {
+            heftCacheAlgorithm.schedule(heftCacheTasks);
+            // 与CacheAware_v2.allocate相同：先把任务记入所选处理器的缓存状态，再计算执行时间
+            new EventDrivenSimulator(cores, heftCacheAlgorithm,
+                executionTimeModel(heftCacheCache, (task, core) -> {
+                    heftTiming.assign(task, core);
+                    return heftTiming.calculateExecutionTime(task, core);
+                }),
+                DispatchMode.PARTITIONED).runDag(heftCacheTasks);
+        } finally {
+            PhaseEvents.exitCase();
+        }
+        long heftCacheEndTime = System.nanoTime();
+        
+        ExperimentResult heftCacheResult = analyzer.analyzeAlgorithmPerformance(
+            "HEFT_CacheAware", caseId, heftCacheTasks, cores,
+            (heftCacheEndTime - heftCacheStartTime) / 1_000_000.0, utilization, heftCacheCache
+        );
+        
+        Map<Integer, String> cacheReport = captureCacheReport ? cacheAlgorithm.getCacheStateReport() : null;
+        
+        return new CaseResult(caseId, utilization, wfdResult, cacheResult, null,
+            heftResult, heftCacheResult, cacheReport);
+    }
+    
+    /**
+     * 克隆任务列表（深拷贝）
+     * 
+     * 任务集内部的DAG父子关系会一并复制。
+     */
+    public static List<Node> cloneTasks(List<Node> original) {
+        List<Node> cloned = new ArrayList<>();
+        Map<Node, Node> copies = new IdentityHashMap<>();
+        Random rng = new Random(42); // 用于创建Node的随机数生成器
+        
+        for (Node node : original) {
+            // 使用Node的正确构造函数
+            Node clonedNode = new Node(node.getLayer(), node.getType(), node.getId(), 
+                                     node.getDagID(), node.crp, rng);
+            
+            // 复制关键属性
+            clonedNode.expectedET = node.expectedET;
+            clonedNode.sensitivity = node.sensitivity;
+            clonedNode.affinity = node.affinity;
+            clonedNode.release = node.release;
+            clonedNode.period = node.period;
+            clonedNode.deadline = node.deadline;
+            
+            if (node.weights != null) {
+                clonedNode.weights = node.weights.clone();
+            }
+            
+            cloned.add(clonedNode);
+            copies.put(node, clonedNode);
+        }
+        
+        // 复制DAG边
+        for (Node node : original) {
+            Node clonedParent = copies.get(node);
+            for (Node child : node.getChildren()) {
+                Node clonedChild = copies.get(child);
+                if (clonedChild != null) {
+                    clonedParent.addChildren(clonedChild);
+                }
+            }
+        }
+        return cloned;
+    }
+}
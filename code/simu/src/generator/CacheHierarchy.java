@@ -5,10 +5,39 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
+import parameters.SystemParameters;
+
+/**
+ * 处理器拓扑与缓存层次
+ *
+ * 构造时为每个共享域预先计算核心到域编号的扁平映射（int[]，以核心ID为下标），
+ * 以及每个域的成员核心列表，之后所有查询都是O(1)的数组访问：
+ * - CORE：物理核心（同一物理核心的SMT硬件线程共享L1）
+ * - LEVEL2：L2簇
+ * - LEVEL3：L3/插槽
+ * - NUMA：NUMA节点
+ *
+ * 规则拓扑用regular/fromSystemParameters按各级共享核心数切分（最后一个域可以不满），
+ * 不规则拓扑（异构簇、非2的幂核心数、子NUMA划分等）直接给出各级映射。
+ * 域编号按核心ID首次出现的顺序重新编号为0..n-1。
+ *
+ * @author Cache-Aware Task Scheduling System
+ */
 public class CacheHierarchy implements Serializable {
-	
+
 	private static final long serialVersionUID = -6902741116934537381L;
 
+	/** 物理核心域（SMT兄弟线程共享L1） */
+	public static final int CORE = 0;
+	/** L2簇 */
+	public static final int LEVEL2 = 1;
+	/** L3/插槽 */
+	public static final int LEVEL3 = 2;
+	/** NUMA节点 */
+	public static final int NUMA = 3;
+
+	private static final int DOMAINS = 4;
+
 	public final int coreNum;
 	public final int cacheLevel;
 	public final int level2ClusterNum;
@@ -18,7 +47,55 @@ public class CacheHierarchy implements Serializable {
 	public final List<int[]> level2;
 	public final List<int[]> level3;
 
+	/** clusterOf[domain][core]：核心所属的域编号 */
+	private final int[][] clusterOf;
+
+	/** members[domain][cluster]：域内的核心（升序） */
+	private final int[][][] members;
+
 	public CacheHierarchy(int coreNum, int cacheLevel, List<int[]> level2) {
+		this(coreNum, cacheLevel, -1, identity(coreNum), level2Map(coreNum, level2), new int[Math.max(coreNum, 0)],
+				new int[Math.max(coreNum, 0)]);
+	}
+
+	public CacheHierarchy(int coreNum, int cacheLevel, int level2ClusterSize) {
+		this(coreNum, cacheLevel, level2ClusterSize, identity(coreNum), partition(coreNum, level2ClusterSize),
+				new int[Math.max(coreNum, 0)], new int[Math.max(coreNum, 0)]);
+
+		if (coreNum < level2ClusterSize) {
+			System.err.println("CoreNum = " + coreNum + ", which is less the level 2 cluster size, which is "
+					+ level2ClusterSize + ".");
+		}
+
+		if (level2ClusterSize > 0 && coreNum % level2ClusterSize != 0) {
+			System.err.println("Cache Hierarchy setting: level 2 cache is not evenly shared, the last cluster has "
+					+ coreNum % level2ClusterSize + " cores. coreNum = " + coreNum);
+		}
+	}
+
+	/**
+	 * 按各级映射构造任意（不规则）拓扑
+	 *
+	 * 映射长度即核心数，取值为非负的域标识（不要求连续）。
+	 * 省略（null）的映射取默认值：物理核心为每个硬件线程独立，L2簇与物理核心相同，
+	 * L3和NUMA为全部核心共享一个。
+	 *
+	 * @param cacheLevel 缓存层级数
+	 * @param coreOf 硬件线程所属的物理核心
+	 * @param level2Of 核心所属的L2簇
+	 * @param level3Of 核心所属的L3/插槽
+	 * @param numaOf 核心所属的NUMA节点
+	 */
+	public static CacheHierarchy fromMaps(int cacheLevel, int[] coreOf, int[] level2Of, int[] level3Of,
+			int[] numaOf) {
+		int coreNum = lengthOf(coreOf, level2Of, level3Of, numaOf);
+		int[] cores = coreOf != null ? coreOf : identity(coreNum);
+		return new CacheHierarchy(coreNum, cacheLevel, -1, cores, level2Of != null ? level2Of : cores,
+				level3Of != null ? level3Of : new int[coreNum], numaOf != null ? numaOf : new int[coreNum]);
+	}
+
+	private CacheHierarchy(int coreNum, int cacheLevel, int level2ClusterSize, int[] coreOf, int[] level2Of,
+			int[] level3Of, int[] numaOf) {
 
 		if (coreNum < 1) {
 			System.err.println("CoreNum = " + coreNum + ", which is less than 1.");
@@ -29,77 +106,221 @@ public class CacheHierarchy implements Serializable {
 					"Cache Hierarchy setting error! Cache levels  = " + cacheLevel + ", which are less than 2");
 		}
 
+		int[][] maps = { coreOf, level2Of, level3Of, numaOf };
+		this.clusterOf = new int[DOMAINS][];
+		this.members = new int[DOMAINS][][];
+		for (int domain = 0; domain < DOMAINS; domain++) {
+			if (maps[domain].length != coreNum) {
+				throw new IllegalArgumentException("拓扑映射长度不一致: 第" + domain + "级为" + maps[domain].length
+						+ ", 核心数为" + coreNum);
+			}
+			clusterOf[domain] = normalize(maps[domain], domain);
+			members[domain] = invert(clusterOf[domain]);
+		}
+
 		this.coreNum = coreNum;
 		this.cacheLevel = cacheLevel;
-		this.level2ClusterSize = -1;
+		this.level2ClusterSize = level2ClusterSize;
+		this.level2ClusterNum = members[LEVEL2].length;
 
-		this.level2 = level2;
-		level1 = new ArrayList<int[]>(); // new int[coreNum][1];
-		level3 = new ArrayList<int[]>(); // new int[1][coreNum];
+		this.level1 = new ArrayList<int[]>(Arrays.asList(members[CORE]));
+		this.level2 = new ArrayList<int[]>(Arrays.asList(members[LEVEL2]));
+		this.level3 = new ArrayList<int[]>(Arrays.asList(members[LEVEL3]));
+	}
 
-		int[] perLevel3 = new int[coreNum];
-		for (int i = 0; i < coreNum; i++) {
-			int[] perLevel1 = new int[1];
-			perLevel1[0] = i;
-			level1.add(perLevel1);
+	/**
+	 * 规则拓扑：各级按固定的共享核心数连续切分，核心数不能整除时最后一个域不满
+	 *
+	 * @param coreNum 核心（硬件线程）数
+	 * @param cacheLevel 缓存层级数
+	 * @param smtWidth 每个物理核心的硬件线程数，不大于0视为1
+	 * @param level2ClusterSize 共享一个L2的核心数，不大于0视为物理核心私有
+	 * @param level3ClusterSize 共享一个L3的核心数，不大于0视为全部核心共享
+	 * @param numaNodeSize 每个NUMA节点的核心数，不大于0视为单节点
+	 */
+	public static CacheHierarchy regular(int coreNum, int cacheLevel, int smtWidth, int level2ClusterSize,
+			int level3ClusterSize, int numaNodeSize) {
+		int smt = Math.max(1, smtWidth);
+		return new CacheHierarchy(coreNum, cacheLevel, level2ClusterSize, partition(coreNum, smt),
+				partition(coreNum, level2ClusterSize > 0 ? level2ClusterSize : smt),
+				partition(coreNum, level3ClusterSize > 0 ? level3ClusterSize : coreNum),
+				partition(coreNum, numaNodeSize > 0 ? numaNodeSize : coreNum));
+	}
 
-			perLevel3[i] = i;
-		}
-		level3.add(perLevel3);
+	/**
+	 * 按SystemParameters中的拓扑配置（smtWidth、Level2CoreNum、Level3CoreNum、numaCoreNum）构造规则拓扑
+	 *
+	 * @param coreNum 核心数
+	 */
+	public static CacheHierarchy fromSystemParameters(int coreNum) {
+		return regular(coreNum, SystemParameters.cacheLevel, SystemParameters.smtWidth,
+				SystemParameters.Level2CoreNum, SystemParameters.Level3CoreNum, SystemParameters.numaCoreNum);
+	}
 
-		this.level2ClusterNum = level2.size();
+	/**
+	 * 缓存级别对应的共享域：L1为物理核心，L2为L2簇，L3及更低级为L3/插槽
+	 *
+	 * @param level 缓存级别（1起）
+	 */
+	public static int domainOfCacheLevel(int level) {
+		return level <= 1 ? CORE : level == 2 ? LEVEL2 : LEVEL3;
+	}
 
+	/**
+	 * 核心所属的域编号，核心超出拓扑范围时返回-1
+	 *
+	 * @param domain CORE、LEVEL2、LEVEL3或NUMA
+	 */
+	public int clusterOf(int domain, int core) {
+		int[] map = clusterOf[domain];
+		return core >= 0 && core < map.length ? map[core] : -1;
 	}
 
-	public CacheHierarchy(int coreNum, int cacheLevel, int level2ClusterSize) {
+	/**
+	 * 域数量
+	 */
+	public int clusterCount(int domain) {
+		return members[domain].length;
+	}
 
-		if (coreNum < 1) {
-			System.err.println("CoreNum = " + coreNum + ", which is less than 1.");
-		}
+	/**
+	 * 核心到域编号的映射副本（以核心ID为下标），供热路径直接按数组访问
+	 */
+	public int[] getClusterMap(int domain) {
+		return clusterOf[domain].clone();
+	}
 
-		if (coreNum < level2ClusterSize) {
-			System.err.println("CoreNum = " + coreNum + ", which is less the level 2 cluster size, which is "
-					+ level2ClusterSize + ".");
-		}
+	/**
+	 * 域内的核心（升序）
+	 */
+	public int[] getClusterMembers(int domain, int cluster) {
+		return members[domain][cluster].clone();
+	}
 
-		if (cacheLevel < 2) {
-			System.err.println(
-					"Cache Hierarchy setting error! Cache levels  = " + cacheLevel + ", which are less than 2");
-		}
+	public int getLevel2ClusterID(int core) {
+		return clusterOf(LEVEL2, core);
+	}
 
-		if (coreNum % level2ClusterSize != 0) {
-			System.err.println("Cache Hierarchy setting error! level 2 cache cannot be evenly shared! coreNum = "
-					+ coreNum + ", cachelevel");
-		}
+	public int getLevel3ClusterID(int core) {
+		return clusterOf(LEVEL3, core);
+	}
 
-		this.coreNum = coreNum;
-		this.cacheLevel = cacheLevel;
-		this.level2ClusterSize = level2ClusterSize;
+	public int getNumaNodeID(int core) {
+		return clusterOf(NUMA, core);
+	}
 
-		level2 = new ArrayList<int[]>();
-		level1 = new ArrayList<int[]>(); // new int[coreNum][1];
-		level3 = new ArrayList<int[]>(); // new int[1][coreNum];
+	/**
+	 * 两个核心之间的拓扑距离
+	 *
+	 * 0为同一硬件线程，1为SMT兄弟，2为同一L2簇，3为同一L3/插槽，4为同一NUMA节点，5为跨NUMA节点；
+	 * 超出拓扑范围的核心按跨NUMA节点计。
+	 */
+	public int distance(int a, int b) {
+		if (a == b) {
+			return 0;
+		}
+		if (a < 0 || b < 0 || a >= coreNum || b >= coreNum) {
+			return DOMAINS + 1;
+		}
+		for (int domain = 0; domain < DOMAINS; domain++) {
+			if (clusterOf[domain][a] == clusterOf[domain][b]) {
+				return domain + 1;
+			}
+		}
+		return DOMAINS + 1;
+	}
 
-		for (int i = 0; i < coreNum / level2ClusterSize; i++) {
-			int[] perLevel2 = new int[level2ClusterSize];
-			level2.add(perLevel2);
+	private static int lengthOf(int[]... maps) {
+		for (int[] map : maps) {
+			if (map != null) {
+				return map.length;
+			}
 		}
+		throw new IllegalArgumentException("拓扑映射不能全部为空");
+	}
 
-		int[] perLevel3 = new int[coreNum];
-		for (int i = 0; i < coreNum; i++) {
-			int[] perLevel1 = new int[1];
-			perLevel1[0] = i;
-			level1.add(perLevel1);
+	private static int[] identity(int coreNum) {
+		return partition(coreNum, 1);
+	}
 
-			int clusterID = i / level2ClusterSize;
-			level2.get(clusterID)[i % level2ClusterSize] = i;
+	private static int[] partition(int coreNum, int size) {
+		int[] map = new int[Math.max(coreNum, 0)];
+		int share = Math.max(1, size);
+		for (int i = 0; i < map.length; i++) {
+			map[i] = i / share;
+		}
+		return map;
+	}
 
-			perLevel3[i] = i;
+	/**
+	 * 显式L2簇列表转为映射，未列出的核心各自成为独立的簇
+	 */
+	private static int[] level2Map(int coreNum, List<int[]> level2) {
+		int[] map = new int[Math.max(coreNum, 0)];
+		Arrays.fill(map, -1);
+		for (int i = 0; i < level2.size(); i++) {
+			for (int core : level2.get(i)) {
+				if (core >= 0 && core < map.length) {
+					map[core] = i;
+				}
+			}
 		}
-		level3.add(perLevel3);
+		int next = level2.size();
+		for (int i = 0; i < map.length; i++) {
+			if (map[i] < 0) {
+				System.err.println("Cache Hierarchy setting: core " + i + " is not in any level 2 cluster.");
+				map[i] = next++;
+			}
+		}
+		return map;
+	}
 
-		this.level2ClusterNum = coreNum / level2ClusterSize;
+	/**
+	 * 按首次出现顺序重新编号为0..n-1
+	 */
+	private static int[] normalize(int[] map, int domain) {
+		int max = -1;
+		for (int id : map) {
+			if (id < 0) {
+				throw new IllegalArgumentException("第" + domain + "级拓扑映射含负数域标识: " + id);
+			}
+			max = Math.max(max, id);
+		}
+		int[] renumber = new int[max + 1];
+		Arrays.fill(renumber, -1);
+		int[] normalized = new int[map.length];
+		int next = 0;
+		for (int i = 0; i < map.length; i++) {
+			if (renumber[map[i]] < 0) {
+				renumber[map[i]] = next++;
+			}
+			normalized[i] = renumber[map[i]];
+		}
+		return normalized;
+	}
 
+	/**
+	 * 由映射得到每个域的成员核心（CSR方式两遍填充）
+	 */
+	private static int[][] invert(int[] map) {
+		int count = 0;
+		for (int id : map) {
+			count = Math.max(count, id + 1);
+		}
+		int[] sizes = new int[count];
+		for (int id : map) {
+			sizes[id]++;
+		}
+		int[][] result = new int[count][];
+		for (int c = 0; c < count; c++) {
+			result[c] = new int[sizes[c]];
+			sizes[c] = 0;
+		}
+		for (int core = 0; core < map.length; core++) {
+			int id = map[core];
+			result[id][sizes[id]++] = core;
+		}
+		return result;
 	}
 
 	private String getOneCacheLevel(int level) {
@@ -130,22 +351,6 @@ public class CacheHierarchy implements Serializable {
 		return out;
 	}
 
-	public int getLevel2ClusterID(int core) {
-	
-		for (int i = 0; i < level2.size(); i++) {
-			int[] cores = level2.get(i);
-			
-			for(int k=0; k<cores.length;k++) {
-				if(cores[k] == core)
-					return i;
-			}
-		}
-
-		
-		return -1;
-
-	}
-
 	@Override
 	public String toString() {
 
@@ -156,6 +361,8 @@ public class CacheHierarchy implements Serializable {
 			out += getOneCacheLevel(i + 1);
 		}
 
+		out += "NUMA nodes: " + Arrays.deepToString(members[NUMA]) + "\n";
+
 		return out;
 	}
 
@@ -175,6 +382,14 @@ public class CacheHierarchy implements Serializable {
 
 		CacheHierarchy ch1 = new CacheHierarchy(3, 3, level2);
 		System.out.println(ch1.toString());
+
+		System.out.println("**************************************************************\n");
+
+		// 2路SMT、每4线程共享L2、每16线程一个插槽、每32线程一个NUMA节点的20线程系统（最后的簇不满）
+		CacheHierarchy ch2 = regular(20, 3, 2, 4, 16, 32);
+		System.out.println(ch2.toString());
+		System.out.println("distance(0,1) = " + ch2.distance(0, 1) + ", distance(0,3) = " + ch2.distance(0, 3)
+				+ ", distance(0,17) = " + ch2.distance(0, 17));
 	}
 
 }
@@ -1,21 +1,24 @@
 package generator;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Random;
+import java.util.random.RandomGenerator;
 
 import entity.Node;
 import entity.Node.NodeType;
 import entity.RecencyProfileReal;
+import entity.TaskSet;
+import parameters.SystemParameters;
 
 /**
  * 增强型任务集生成器
  * 
  * 该类专门为Cache-Aware任务调度算法设计，能够生成具有真实特征的任务集。
- * 使用UUnifastDiscard算法确保利用率分布的合理性，并生成缓存敏感的任务属性。
+ * 使用RandFixedSum（与UUnifastDiscard同分布的无拒绝采样）确保利用率分布的合理性，并生成缓存敏感的任务属性。
  * 
  * 主要功能：
- * - 基于UUnifastDiscard算法的科学利用率分布
+ * - 基于RandFixedSum的科学利用率分布
  * - 生成多样化的缓存敏感度特征
  * - 模拟真实的任务执行时间和周期
  * - 支持缓存权重和亲和性配置
@@ -31,34 +34,67 @@ import entity.RecencyProfileReal;
  */
 public class EnhancedTaskGenerator {
     
-    private Random rng;
+    private RandomGenerator rng;
     private int cores;
     
-    public EnhancedTaskGenerator(int cores, Random rng) {
+    /** 利用率采样器（按任务数和总利用率缓存转移概率表） */
+    private RandFixedSum utilizationSampler;
+    
+    /** 周期的时间单位：周期取值以毫秒计，执行时间以纳秒计 */
+    public static final long PERIOD_UNIT = 1_000_000L;
+    
+    /** 缓存密集型任务是否为周期任务（见setPeriodic） */
+    private boolean periodic = false;
+    
+    /**
+     * @param cores 处理器核心数
+     * @param rng 随机数生成器（java.util.Random、SplittableRandom等均可）
+     */
+    public EnhancedTaskGenerator(int cores, RandomGenerator rng) {
         this.cores = cores;
         this.rng = rng;
     }
     
     /**
-     * 生成复杂的任务集，使用UUnifastDiscard算法控制利用率分布
+     * 创建某个测试案例专用的生成器
+     * 
+     * 随机数生成器为由(实验种子, 利用率, 案例编号)派生的SplittableRandom，
+     * 生成结果只取决于这三个键，与其他案例是否生成、在哪个线程上生成无关。
+     * 
+     * @param cores 处理器核心数
+     * @param sweepSeed 实验（扫描）种子
+     * @param utilization 系统利用率
+     * @param caseIndex 案例编号
+     * @see TaskSetSeed
+     */
+    public static EnhancedTaskGenerator forCase(int cores, long sweepSeed, double utilization, int caseIndex) {
+        return new EnhancedTaskGenerator(cores, TaskSetSeed.random(sweepSeed, utilization, caseIndex));
+    }
+    
+    /**
+     * 设置生成的任务是否为周期任务
+     * 
+     * 关闭时（默认）任务只执行一次，不设置周期和截止期：缓存密集型任务的执行时间为 利用率 × 1ms，
+     * generateComplexTaskSet的执行时间为 利用率 × generatePeriod的取值。
+     * 开启时两者的周期都为 generatePeriod的取值 × PERIOD_UNIT，执行时间为 利用率 × 周期，截止期等于周期；
+     * 缓存密集型任务在其余属性之后再抽取周期，多消耗的随机数会改变后续任务的属性，因此两种模式的任务集不同。
+     */
+    public void setPeriodic(boolean periodic) {
+        this.periodic = periodic;
+    }
+    
+    /**
+     * 生成复杂的任务集，使用RandFixedSum控制利用率分布
      */
     public List<Node> generateComplexTaskSet(int taskCount, double totalUtilization) {
         List<Node> taskSet = new ArrayList<>();
         
-        // 使用UUnifastDiscard生成利用率分布
-        UUnifastDiscard uunifast = new UUnifastDiscard(
-            totalUtilization, taskCount, 1000, cores, false, rng);
-        
-        ArrayList<Double> utilizations = uunifast.getUtils();
-        
-        if (utilizations == null || utilizations.size() < taskCount) {
-            // 如果UUnifastDiscard失败，使用备用方法
-            utilizations = generateFallbackUtilizations(taskCount, totalUtilization);
-        }
+        // 使用RandFixedSum生成利用率分布（无拒绝采样）
+        double[] utilizations = sampleUtilizations(taskCount, totalUtilization);
         
         // 为每个利用率创建任务
         for (int i = 0; i < taskCount; i++) {
-            double util = i < utilizations.size() ? utilizations.get(i) : 0.1;
+            double util = utilizations[i];
             Node task = createTaskFromUtilization(i, util);
             taskSet.add(task);
         }
@@ -72,16 +108,23 @@ public class EnhancedTaskGenerator {
     private Node createTaskFromUtilization(int taskId, double utilization) {
         RecencyProfileReal crp = new RecencyProfileReal(100);
         
-        // 生成周期（影响任务复杂度）
+        // 生成周期（影响任务复杂度），周期任务与缓存密集型任务使用相同的时间单位
         long period = generatePeriod();
+        if (periodic) {
+            period *= PERIOD_UNIT;
+        }
         
         // 根据利用率计算执行时间：WCET = Utilization * Period
         long wcet = (long)(utilization * period);
-        wcet = Math.max(wcet, 10); // 最小执行时间
+        wcet = Math.max(wcet, periodic ? 10000 : 10); // 最小执行时间
         wcet = Math.min(wcet, period); // 不能超过周期
         
         Node task = new Node(0, NodeType.NORMAL, taskId, taskId / 5, crp, rng);
         task.expectedET = wcet;
+        if (periodic) {
+            task.period = period;
+            task.deadline = period; // 隐式截止期
+        }
         
         // 设置缓存敏感度（这是Cache-Aware算法的关键）
         task.sensitivity = generateCacheSensitivity();
@@ -167,23 +210,50 @@ public class EnhancedTaskGenerator {
     /**
      * 备用利用率生成方法
      */
-    private ArrayList<Double> generateFallbackUtilizations(int taskCount, double totalUtil) {
-        ArrayList<Double> utils = new ArrayList<>();
+    private double[] generateFallbackUtilizations(int taskCount, double totalUtil) {
+        double[] utils = new double[taskCount];
         double remaining = totalUtil;
         
         for (int i = 0; i < taskCount - 1; i++) {
             double maxUtil = Math.min(remaining, 1.0);
             double util = rng.nextDouble() * maxUtil * 0.8; // 保守分配
-            utils.add(util);
+            utils[i] = util;
             remaining -= util;
         }
         
         // 最后一个任务获得剩余利用率
-        utils.add(Math.max(0, remaining));
+        if (taskCount > 0) {
+            utils[taskCount - 1] = Math.max(0, remaining);
+        }
         
         return utils;
     }
     
+    /**
+     * 生成taskCount个任务的利用率
+     * 
+     * 与UUnifastDiscard(totalUtilization, taskCount, ..., cores, takeAllUtil=false)的分布相同：
+     * 在taskCount+1维、每维不超过核心数、总和为totalUtilization的区域上均匀采样，
+     * 取前taskCount维。使用RandFixedSum一次采样即成功，不再有丢弃重试；
+     * 同一配置的采样器在多次调用之间复用。
+     * 
+     * @return 长度不小于taskCount的利用率数组
+     */
+    private double[] sampleUtilizations(int taskCount, double totalUtilization) {
+        if (utilizationSampler == null
+                || utilizationSampler.dimension() != taskCount + 1
+                || utilizationSampler.getSum() != totalUtilization
+                || utilizationSampler.getUpper() != cores) {
+            utilizationSampler = new RandFixedSum(taskCount + 1, totalUtilization, 0.0, cores);
+        }
+        
+        if (!utilizationSampler.isFeasible()) {
+            // 总利用率超出可行范围，使用备用方法
+            return generateFallbackUtilizations(taskCount, totalUtilization);
+        }
+        return utilizationSampler.sample(rng);
+    }
+    
     /**
      * 生成缓存密集型任务集，突出缓存敏感特性
      * 专门用于对比Cache-Aware算法的性能优势
@@ -192,22 +262,15 @@ public class EnhancedTaskGenerator {
                                                  double highSensitivityRatio) {
         List<Node> taskSet = new ArrayList<>();
         
-        // 使用UUnifastDiscard生成利用率分布
-        UUnifastDiscard uunifast = new UUnifastDiscard(
-            totalUtilization, taskCount, 1000, cores, false, rng);
-        
-        ArrayList<Double> utilizations = uunifast.getUtils();
-        
-        if (utilizations == null || utilizations.size() < taskCount) {
-            utilizations = generateFallbackUtilizations(taskCount, totalUtilization);
-        }
+        // 使用RandFixedSum生成利用率分布（无拒绝采样）
+        double[] utilizations = sampleUtilizations(taskCount, totalUtilization);
         
         // 计算高敏感度任务数量
         int highSensitivityCount = (int)(taskCount * highSensitivityRatio);
         
         // 为每个利用率创建缓存密集型任务
         for (int i = 0; i < taskCount; i++) {
-            double util = i < utilizations.size() ? utilizations.get(i) : 0.1;
+            double util = utilizations[i];
             Node task = createCacheIntensiveTask(i, util, i < highSensitivityCount);
             taskSet.add(task);
         }
@@ -218,59 +281,241 @@ public class EnhancedTaskGenerator {
      * 创建缓存密集型任务
      */
     private Node createCacheIntensiveTask(int taskId, double utilization, boolean isHighSensitivity) {
+        return createCacheIntensiveTask(0, NodeType.NORMAL, taskId, 0, utilization, isHighSensitivity);
+    }
+    
+    /**
+     * 创建缓存密集型任务（指定DAG中的层级、节点类型和DAG ID）
+     */
+    private Node createCacheIntensiveTask(int layer, NodeType type, int taskId, int dagId,
+                                          double utilization, boolean isHighSensitivity) {
         // 创建RecencyProfile
         RecencyProfileReal profile = createCacheIntensiveProfile(isHighSensitivity);
         
-        // 使用Node类的正确构造函数
-        Node task = new Node(0, NodeType.NORMAL, taskId, 0, profile, rng);
+        // 不向Node构造函数传入随机数生成器：其随机属性随后都会被覆盖，
+        // 任务属性只由下面的抽取决定，与结构数组版本的随机数序列一致
+        Node task = new Node(layer, type, taskId, dagId, profile, null);
         
         // 基础执行时间计算
         long baseExecutionTime = (long)(utilization * 1000000); // 基于利用率的执行时间
         task.expectedET = Math.max(baseExecutionTime, 10000); // 最小1万纳秒
         
         // 设置缓存敏感度
+        task.sensitivity = sampleSensitivity(isHighSensitivity);
+        
+        // 设置缓存权重 - 更突出L1缓存的重要性
+        sampleCacheWeights(isHighSensitivity, task.weights, 0);
+        
+        // 设置处理器亲和性
+        task.affinity = sampleAffinity();
+        
+        if (periodic) {
+            task.period = generatePeriod() * PERIOD_UNIT;
+            task.deadline = task.period;
+            task.expectedET = Math.max((long)(utilization * task.period), 10000);
+        }
+        
+        return task;
+    }
+    
+    /**
+     * 生成缓存密集型任务集（结构数组表示）
+     * 
+     * 与generateCacheIntensiveTasks使用相同的随机数序列，
+     * 相同种子下生成的任务属性与Node版本完全一致，但不创建任何Node对象。
+     */
+    public TaskSet generateCacheIntensiveTaskSet(int taskCount, double totalUtilization,
+                                                 double highSensitivityRatio) {
+        TaskSet taskSet = new TaskSet(taskCount);
+        
+        // 使用RandFixedSum生成利用率分布（无拒绝采样）
+        double[] utilizations = sampleUtilizations(taskCount, totalUtilization);
+        
+        int highSensitivityCount = (int)(taskCount * highSensitivityRatio);
+        
+        for (int i = 0; i < taskCount; i++) {
+            double util = utilizations[i];
+            boolean isHighSensitivity = i < highSensitivityCount;
+            
+            int t = taskSet.add(i, 0);
+            
+            long baseExecutionTime = (long)(util * 1000000);
+            taskSet.expectedET[t] = Math.max(baseExecutionTime, 10000);
+            taskSet.sensitivity[t] = sampleSensitivity(isHighSensitivity);
+            sampleCacheWeights(isHighSensitivity, taskSet.weights, t * TaskSet.WEIGHT_COUNT);
+            taskSet.affinity[t] = sampleAffinity();
+            
+            if (periodic) {
+                taskSet.period[t] = generatePeriod() * PERIOD_UNIT;
+                taskSet.deadline[t] = taskSet.period[t];
+                taskSet.expectedET[t] = Math.max((long)(util * taskSet.period[t]), 10000);
+            }
+        }
+        
+        return taskSet;
+    }
+    
+    /**
+     * 抽取缓存敏感度
+     */
+    private double sampleSensitivity(boolean isHighSensitivity) {
         if (isHighSensitivity) {
             // 高敏感度任务：0.7-0.95
-            task.sensitivity = 0.7 + rng.nextDouble() * 0.25;
+            return 0.7 + rng.nextDouble() * 0.25;
         } else {
             // 低-中敏感度任务：0.1-0.6
-            task.sensitivity = 0.1 + rng.nextDouble() * 0.5;
-        }
-        
-        // 设置缓存权重 - 更突出L1缓存的重要性
-        if (task.weights == null) {
-            task.weights = new double[4];
+            return 0.1 + rng.nextDouble() * 0.5;
         }
-        
+    }
+    
+    /**
+     * 抽取并归一化缓存权重，写入weights[offset .. offset+4)
+     */
+    private void sampleCacheWeights(boolean isHighSensitivity, double[] weights, int offset) {
         if (isHighSensitivity) {
             // 高敏感度任务更依赖L1缓存
-            task.weights[0] = 0.6 + rng.nextDouble() * 0.3; // L1: 0.6-0.9
-            task.weights[1] = 0.2 + rng.nextDouble() * 0.2; // L2: 0.2-0.4
-            task.weights[2] = 0.1 + rng.nextDouble() * 0.1; // L3: 0.1-0.2
-            task.weights[3] = 0.02 + rng.nextDouble() * 0.03; // Memory: 0.02-0.05
+            weights[offset] = 0.6 + rng.nextDouble() * 0.3; // L1: 0.6-0.9
+            weights[offset + 1] = 0.2 + rng.nextDouble() * 0.2; // L2: 0.2-0.4
+            weights[offset + 2] = 0.1 + rng.nextDouble() * 0.1; // L3: 0.1-0.2
+            weights[offset + 3] = 0.02 + rng.nextDouble() * 0.03; // Memory: 0.02-0.05
         } else {
             // 低敏感度任务权重分布更均匀
-            task.weights[0] = 0.3 + rng.nextDouble() * 0.3; // L1: 0.3-0.6
-            task.weights[1] = 0.2 + rng.nextDouble() * 0.2; // L2: 0.2-0.4
-            task.weights[2] = 0.15 + rng.nextDouble() * 0.15; // L3: 0.15-0.3
-            task.weights[3] = 0.05 + rng.nextDouble() * 0.15; // Memory: 0.05-0.2
+            weights[offset] = 0.3 + rng.nextDouble() * 0.3; // L1: 0.3-0.6
+            weights[offset + 1] = 0.2 + rng.nextDouble() * 0.2; // L2: 0.2-0.4
+            weights[offset + 2] = 0.15 + rng.nextDouble() * 0.15; // L3: 0.15-0.3
+            weights[offset + 3] = 0.05 + rng.nextDouble() * 0.15; // Memory: 0.05-0.2
         }
         
         // 归一化权重
-        double weightSum = task.weights[0] + task.weights[1] + task.weights[2] + task.weights[3];
-        for (int i = 0; i < task.weights.length; i++) {
-            task.weights[i] /= weightSum;
+        double weightSum = weights[offset] + weights[offset + 1] + weights[offset + 2] + weights[offset + 3];
+        for (int i = 0; i < 4; i++) {
+            weights[offset + i] /= weightSum;
         }
-        
-        // 设置处理器亲和性
+    }
+    
+    /**
+     * 抽取处理器亲和性
+     */
+    private int sampleAffinity() {
         if (rng.nextDouble() < 0.6) { // 60%的任务有亲和性偏好
-            task.affinity = rng.nextInt(cores);
+            return rng.nextInt(cores);
         } else {
-            task.affinity = -1; // 无特定亲和性
+            return -1; // 无特定亲和性
+        }
+    }
+    /**
+     * 生成DAG任务集
+     * 
+     * 每个DAG的节点数在[SystemParameters.minNodes, maxNodes]之间，结构为分层DAG：
+     * 一个SOURCE节点、一个SINK节点，中间节点随机分布在若干层中，
+     * 每个中间节点从更早的层中选取1~maxFanIn个前驱，没有后继的节点连接到SINK。
+     * 单节点DAG为SOLO节点。节点利用率由RandFixedSum在全部节点之间分配，
+     * 缓存属性与generateCacheIntensiveTasks相同。生成开销为O(节点数×maxFanIn)。
+     * 
+     * @param dagCount DAG数量
+     * @param totalUtilization 全部节点的总利用率
+     * @param highSensitivityRatio 高缓存敏感节点比例
+     * @param maxFanIn 每个节点的最大前驱数
+     * @return 全部DAG节点（按DAG和层级排序）
+     */
+    public List<Node> generateDagTasks(int dagCount, double totalUtilization,
+                                       double highSensitivityRatio, int maxFanIn) {
+        // 确定每个DAG的节点数
+        int[] dagSizes = new int[dagCount];
+        int totalNodes = 0;
+        for (int d = 0; d < dagCount; d++) {
+            dagSizes[d] = SystemParameters.minNodes
+                + rng.nextInt(Math.max(1, SystemParameters.maxNodes - SystemParameters.minNodes + 1));
+            totalNodes += dagSizes[d];
         }
         
-        return task;
+        // 使用RandFixedSum生成利用率分布（无拒绝采样）
+        double[] utilizations = sampleUtilizations(totalNodes, totalUtilization);
+        
+        int highSensitivityCount = (int)(totalNodes * highSensitivityRatio);
+        
+        List<Node> nodes = new ArrayList<>(totalNodes);
+        int globalIndex = 0;
+        for (int d = 0; d < dagCount; d++) {
+            int n = dagSizes[d];
+            
+            // 分层：0层为SOURCE，最后一层为SINK，中间节点按层升序排列
+            int[] layers = new int[n];
+            int layerCount = n <= 2 ? n : 3 + rng.nextInt(Math.max(1, n / 2));
+            for (int v = 1; v < n - 1; v++) {
+                layers[v] = 1 + rng.nextInt(layerCount - 2);
+            }
+            if (n > 1) {
+                layers[n - 1] = layerCount - 1;
+            }
+            Arrays.sort(layers, 1, Math.max(1, n - 1));
+            
+            // 每层第一个节点的下标，用于选择更早层中的前驱
+            int[] layerStart = new int[n];
+            for (int v = 1; v < n; v++) {
+                layerStart[v] = layers[v] == layers[v - 1] ? layerStart[v - 1] : v;
+            }
+            
+            // 选择前驱（边 parent -> v）
+            int[][] parents = new int[n][];
+            boolean[] hasChild = new boolean[n];
+            for (int v = 1; v < n - 1; v++) {
+                int fanIn = 1 + rng.nextInt(Math.max(1, maxFanIn));
+                int[] chosen = new int[fanIn];
+                int count = 0;
+                for (int k = 0; k < fanIn; k++) {
+                    int parent = rng.nextInt(layerStart[v]);
+                    boolean duplicate = false;
+                    for (int j = 0; j < count; j++) {
+                        if (chosen[j] == parent) {
+                            duplicate = true;
+                            break;
+                        }
+                    }
+                    if (!duplicate) {
+                        chosen[count++] = parent;
+                        hasChild[parent] = true;
+                    }
+                }
+                parents[v] = Arrays.copyOf(chosen, count);
+            }
+            
+            // 创建节点
+            Node[] dag = new Node[n];
+            for (int v = 0; v < n; v++) {
+                NodeType type;
+                if (n == 1) {
+                    type = NodeType.SOLO;
+                } else if (v == 0) {
+                    type = NodeType.SOURCE;
+                } else if (v == n - 1) {
+                    type = NodeType.SINK;
+                } else {
+                    type = NodeType.NORMAL;
+                }
+                double util = utilizations[globalIndex];
+                dag[v] = createCacheIntensiveTask(layers[v], type, v, d, util,
+                                                  globalIndex < highSensitivityCount);
+                nodes.add(dag[v]);
+                globalIndex++;
+            }
+            
+            // 连接边：中间节点连接其前驱，没有后继的节点连接到SINK
+            for (int v = 1; v < n - 1; v++) {
+                for (int parent : parents[v]) {
+                    dag[parent].addChildren(dag[v]);
+                }
+            }
+            for (int v = 0; v < n - 1; v++) {
+                if (!hasChild[v]) {
+                    dag[v].addChildren(dag[n - 1]);
+                }
+            }
+        }
+        
+        return nodes;
     }
+    
       /**
      * 创建缓存密集型的recency profile
      */
@@ -0,0 +1,194 @@
+package generator;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * RandFixedSum利用率采样器（无拒绝采样）
+ *
+ * 在 {x ∈ [lower, upper]^n : Σx = sum} 上均匀采样。
+ * 这正是UUnifastDiscard通过"UUnifast + 超过上限即丢弃重来"所逼近的分布，
+ * 但这里每次采样都一次成功，不会在高利用率、低上限时因丢弃率过高而退化。
+ *
+ * 算法：R. Stafford, "Random vectors with fixed sum", 2006
+ * （Emberson等人在任务集生成中使用的randfixedsum）。
+ * 构造时预计算O(n·(k+1))的单纯形转移概率表（k = ⌊(sum - n·lower)/(upper - lower)⌋，
+ * 利用率上限为核心数时通常为0），之后每次采样为O(n)，
+ * 因此同一(n, sum, 上下限)配置的多次采样应复用同一个实例。
+ *
+ * @author Cache-Aware Task Scheduling System
+ */
+public class RandFixedSum {
+
+    /** 最小正double，避免0/0 */
+    private static final double TINY = Double.MIN_VALUE;
+
+    private final int n;
+    private final double sum;
+    private final double lower;
+    private final double upper;
+
+    /** 配置是否可行（lower·n ≤ sum ≤ upper·n） */
+    private final boolean feasible;
+
+    /** 缩放到[0,1]上下限后的和 */
+    private final double scaledSum;
+
+    /** 缩放后和的整数部分，0 ≤ k ≤ n-1 */
+    private final int k;
+
+    /** 转移概率表：t[i][j]（i = 1..n-1, j = 1..min(i, k+1)） */
+    private final double[][] t;
+
+    /**
+     * @param n 向量维数
+     * @param sum 各分量之和
+     * @param lower 分量下限
+     * @param upper 分量上限
+     */
+    public RandFixedSum(int n, double sum, double lower, double upper) {
+        if (n < 1) {
+            throw new IllegalArgumentException("向量维数必须为正数: " + n);
+        }
+        if (!(upper > lower)) {
+            throw new IllegalArgumentException("上限必须大于下限: [" + lower + ", " + upper + "]");
+        }
+        this.n = n;
+        this.sum = sum;
+        this.lower = lower;
+        this.upper = upper;
+
+        double s = (sum - n * lower) / (upper - lower);
+        double eps = 1e-12 * Math.max(1.0, n);
+        this.feasible = s >= -eps && s <= n + eps;
+
+        this.k = Math.max(Math.min((int) Math.floor(s), n - 1), 0);
+        this.scaledSum = Math.max(Math.min(s, k + 1), k);
+        this.t = feasible ? buildTransitionTable() : null;
+    }
+
+    /**
+     * 预计算转移概率表
+     *
+     * w为各单纯形类型的相对体积，只需保留上一行；t[i][j]为第i层第j类单纯形的转移概率。
+     * 采样时类型下标j从k+1开始只减不增，因此只需计算j ≤ k+1的列，
+     * 表的大小为O(n·(k+1))；每行按最大值归一化（t只依赖同一行内的比值），避免大n时下溢。
+     */
+    private double[][] buildTransitionTable() {
+        double s = scaledSum;
+        double[] s1 = new double[n + 1];
+        double[] s2 = new double[n + 1];
+        for (int j = 1; j <= n; j++) {
+            s1[j] = s - (k - j + 1);
+            s2[j] = (k + n - j + 1) - s;
+        }
+
+        int band = k + 1;
+        double[][] table = new double[n][];
+        double[] prev = new double[band + 2];
+        double[] cur = new double[band + 2];
+        prev[2] = 1.0;
+
+        for (int i = 2; i <= n; i++) {
+            int cols = Math.min(i, band);
+            double[] row = new double[cols + 1];
+            double max = 0.0;
+            for (int q = 1; q <= cols; q++) {
+                double tmp1 = prev[q + 1] * s1[q] / i;
+                double tmp2 = prev[q] * s2[n - i + q] / i;
+                double w = tmp1 + tmp2;
+                cur[q + 1] = w;
+                max = Math.max(max, w);
+                double tmp3 = w + TINY;
+                row[q] = s2[n - i + q] > s1[q] ? tmp2 / tmp3 : 1.0 - tmp1 / tmp3;
+            }
+            table[i - 1] = row;
+
+            if (max > 0.0) {
+                for (int q = 2; q <= cols + 1; q++) {
+                    cur[q] /= max;
+                }
+            }
+            double[] swap = prev;
+            prev = cur;
+            cur = swap;
+            Arrays.fill(cur, 0.0);
+        }
+        return table;
+    }
+
+    /** 配置是否可行 */
+    public boolean isFeasible() {
+        return feasible;
+    }
+
+    /** 向量维数 */
+    public int dimension() {
+        return n;
+    }
+
+    /** 各分量之和 */
+    public double getSum() {
+        return sum;
+    }
+
+    /** 分量上限 */
+    public double getUpper() {
+        return upper;
+    }
+
+    /** 分量下限 */
+    public double getLower() {
+        return lower;
+    }
+
+    /**
+     * 采样一个向量
+     */
+    public double[] sample(RandomGenerator rng) {
+        double[] x = new double[n];
+        sample(rng, x);
+        return x;
+    }
+
+    /**
+     * 采样一个向量写入out[0..n)
+     *
+     * @throws IllegalStateException 配置不可行时
+     */
+    public void sample(RandomGenerator rng, double[] out) {
+        if (!feasible) {
+            throw new IllegalStateException("RandFixedSum配置不可行: n=" + n + ", sum=" + sum
+                + ", 范围=[" + lower + ", " + upper + "]");
+        }
+
+        double s = scaledSum;
+        int j = k + 1;
+        double sm = 0.0;
+        double pr = 1.0;
+
+        for (int i = n - 1; i >= 1; i--) {
+            double tij = j >= 1 && j < t[i].length ? t[i][j] : 0.0;
+            int e = rng.nextDouble() <= tij ? 1 : 0;         // 选择单纯形类型
+            double sx = Math.pow(rng.nextDouble(), 1.0 / i); // 单纯形内的位置
+            sm += (1.0 - sx) * pr * s / (i + 1);
+            pr *= sx;
+            out[n - i - 1] = sm + pr * e;
+            s -= e;
+            j -= e;
+        }
+        out[n - 1] = sm + pr * s;
+
+        // 随机打乱分量顺序并缩放回[lower, upper]
+        double range = upper - lower;
+        for (int i = n - 1; i > 0; i--) {
+            int swap = rng.nextInt(i + 1);
+            double tmp = out[i];
+            out[i] = out[swap];
+            out[swap] = tmp;
+        }
+        for (int i = 0; i < n; i++) {
+            out[i] = Math.min(upper, Math.max(lower, range * out[i] + lower));
+        }
+    }
+}
@@ -0,0 +1,733 @@
+package generator;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import entity.Node;
+import entity.Node.NodeType;
+import entity.RecencyProfileReal;
+import entity.TaskSet;
+
+/**
+ * 任务集语料（定长记录二进制格式）
+ *
+ * 实验扫描会在几十个算法变体上反复使用同一批任务集，
+ * 语料文件把生成好的任务集保存下来，之后直接读取而不必重新生成。
+ * Writer逐个追加任务集，一次只需在内存中保留当前任务集；
+ * Reader把每个任务集的数据块以只读MappedByteBuffer映射进来，
+ * MappedCase按下标直接读取记录字段（零拷贝），需要时再物化为Node列表或TaskSet，
+ * 因此可以逐个任务集流式处理远大于堆内存的语料。
+ *
+ * 文件布局（小端序，多字节字段按自身宽度对齐）：
+ * <pre>
+ * 文件头 (32字节)
+ *   int  magic            "TSC1"
+ *   int  version
+ *   int  recordSize       任务记录字节数
+ *   int  indexEntrySize   索引项字节数
+ *   long caseCount        任务集数
+ *   long indexOffset      索引表在文件中的偏移
+ *
+ * 生成配置指纹（文件头之后，8字节对齐）
+ *   int  length, length字节的UTF-8文本（基础种子、核心数、每案例任务数等），
+ *   读取方可要求指纹一致，拒绝由另一组生成配置写出的语料
+ *
+ * 任务集数据块（每个任务集一个，按写入顺序排列，8字节对齐）
+ *   taskCount条任务记录 (112字节)
+ *     int id, int dagId, int layer, byte type, byte flags, 2字节填充,
+ *     long expectedET, long release, double sensitivity, double[4] weights,
+ *     int affinity, int parentCount, long parentOffset, long profileBaseET,
+ *     long period, long deadline
+ *   edgeCount个int：各任务父节点在本任务集中的下标，按任务顺序连续存放
+ *
+ * 索引表（文件末尾，每个任务集一项，32字节）
+ *   int caseId, int taskCount, double utilization, long blockOffset, long edgeCount
+ * </pre>
+ *
+ * 单个任务集的数据块须小于2GB（单次内存映射的上限），整个语料文件大小不受限制。
+ *
+ * @author Cache-Aware Task Scheduling System
+ */
+public final class TaskSetCorpus {
+
+    private static final int MAGIC = 0x31435354; // "TSC1"
+    private static final int VERSION = 4;
+    private static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    private static final int HEADER_SIZE = 32;
+
+    /** 生成配置指纹的最大字节数 */
+    private static final int MAX_FINGERPRINT_BYTES = 1 << 16;
+
+    // ==================== 任务记录字段偏移 ====================
+
+    private static final int ID = 0;
+    private static final int DAG_ID = 4;
+    private static final int LAYER = 8;
+    private static final int TYPE = 12;
+    private static final int FLAGS = 13;
+    private static final int EXPECTED_ET = 16;
+    private static final int RELEASE = 24;
+    private static final int SENSITIVITY = 32;
+    private static final int WEIGHTS = 40;
+    private static final int AFFINITY = 72;
+    private static final int PARENT_COUNT = 76;
+    private static final int PARENT_OFFSET = 80;
+    private static final int PROFILE_BASE_ET = 88;
+    private static final int PERIOD = 96;
+    private static final int DEADLINE = 104;
+
+    /** 任务记录字节数 */
+    public static final int RECORD_SIZE = 112;
+
+    /** 每条记录的缓存权重数 [L1, L2, L3, Memory] */
+    public static final int WEIGHT_COUNT = 4;
+
+    private static final byte FLAG_CRITICAL = 1;
+    private static final byte FLAG_FAULTS = 2;
+
+    // ==================== 索引项字段偏移 ====================
+
+    private static final int INDEX_CASE_ID = 0;
+    private static final int INDEX_TASK_COUNT = 4;
+    private static final int INDEX_UTILIZATION = 8;
+    private static final int INDEX_BLOCK_OFFSET = 16;
+    private static final int INDEX_EDGE_COUNT = 24;
+    private static final int INDEX_ENTRY_SIZE = 32;
+
+    private static final NodeType[] NODE_TYPES = NodeType.values();
+
+    private TaskSetCorpus() {
+    }
+
+    /**
+     * 创建（或覆盖）语料文件，生成配置指纹为空
+     */
+    public static Writer create(Path path) throws IOException {
+        return create(path, "");
+    }
+
+    /**
+     * 创建（或覆盖）语料文件
+     *
+     * @param fingerprint 生成配置指纹，写入文件头之后
+     */
+    public static Writer create(Path path, String fingerprint) throws IOException {
+        byte[] text = fingerprint.getBytes(StandardCharsets.UTF_8);
+        if (text.length > MAX_FINGERPRINT_BYTES) {
+            throw new IllegalArgumentException("生成配置指纹过长: " + text.length + "字节");
+        }
+        return new Writer(FileChannel.open(path, StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE), text);
+    }
+
+    /**
+     * 打开语料文件（只读取文件头、指纹和索引表，任务集数据按需映射）
+     */
+    public static Reader open(Path path) throws IOException {
+        return new Reader(FileChannel.open(path, StandardOpenOption.READ));
+    }
+
+    /**
+     * 打开语料文件，并要求其生成配置指纹与expectedFingerprint一致
+     *
+     * @throws IOException 文件无法读取，或语料由另一组生成配置写出
+     */
+    public static Reader open(Path path, String expectedFingerprint) throws IOException {
+        Reader reader = open(path);
+        if (!reader.getFingerprint().equals(expectedFingerprint)) {
+            reader.close();
+            throw new IOException("语料" + path + "属于另一组生成配置: " + reader.getFingerprint());
+        }
+        return reader;
+    }
+
+    /**
+     * 任务集数据块的字节数（含8字节对齐填充）
+     */
+    private static long blockSize(int taskCount, long edgeCount) {
+        long size = (long) taskCount * RECORD_SIZE + edgeCount * Integer.BYTES;
+        return (size + 7) & ~7L;
+    }
+
+    // ==================== 写入 ====================
+
+    /**
+     * 语料写入器
+     *
+     * <pre>
+     * try (TaskSetCorpus.Writer writer = TaskSetCorpus.create(path, fingerprint)) {
+     *     writer.writeCase(caseId, utilization, tasks);
+     * }
+     * </pre>
+     * 索引表和文件头在close时写入，未正常关闭的文件不能被Reader打开。
+     */
+    public static class Writer implements Closeable {
+
+        /** 写缓冲区大小 */
+        private static final int BUFFER_SIZE = 1 << 20;
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+
+        /** 已写入（含缓冲区中）的字节数，即下一个字节在文件中的偏移 */
+        private long position;
+
+        // 索引表（按写入顺序）
+        private int caseCount;
+        private int[] caseIds = new int[16];
+        private int[] taskCounts = new int[16];
+        private double[] utilizations = new double[16];
+        private long[] blockOffsets = new long[16];
+        private long[] edgeCounts = new long[16];
+
+        private boolean closed;
+
+        private Writer(FileChannel channel, byte[] fingerprint) throws IOException {
+            this.channel = channel;
+            this.buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ORDER);
+            try {
+                channel.position(HEADER_SIZE);
+                this.position = HEADER_SIZE;
+                int base = reserve(Integer.BYTES + fingerprint.length);
+                buffer.putInt(base, fingerprint.length);
+                buffer.put(base + Integer.BYTES, fingerprint);
+                int padding = (int) (-position & 7);
+                base = reserve(padding);
+                for (int i = 0; i < padding; i++) {
+                    buffer.put(base + i, (byte) 0);
+                }
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        /** 已写入的任务集数 */
+        public int caseCount() {
+            return caseCount;
+        }
+
+        /**
+         * 写入一个任务集
+         *
+         * 任务的父节点必须同在该列表中；父节点关系以列表下标记录，读取时按相同顺序恢复DAG。
+         *
+         * @param caseId 任务集（测试案例）编号
+         * @param utilization 生成该任务集时的系统利用率
+         * @param tasks 任务列表
+         */
+        public void writeCase(int caseId, double utilization, List<Node> tasks) throws IOException {
+            ensureOpen();
+            int n = tasks.size();
+            long edges = 0;
+            for (Node node : tasks) {
+                edges += node.getParent().size();
+            }
+            checkBlockSize(n, edges);
+
+            Map<Node, Integer> index = new IdentityHashMap<>(n * 2);
+            for (int i = 0; i < n; i++) {
+                index.put(tasks.get(i), i);
+            }
+
+            long blockOffset = position;
+            long parentOffset = 0;
+            for (Node node : tasks) {
+                int parentCount = node.getParent().size();
+                int flags = (node.isCritical ? FLAG_CRITICAL : 0) | (node.hasFaults ? FLAG_FAULTS : 0);
+                int base = reserve(RECORD_SIZE);
+                buffer.putInt(base + ID, node.getId());
+                buffer.putInt(base + DAG_ID, node.getDagID());
+                buffer.putInt(base + LAYER, node.getLayer());
+                buffer.put(base + TYPE, (byte) node.getType().ordinal());
+                buffer.put(base + FLAGS, (byte) flags);
+                buffer.putLong(base + EXPECTED_ET, node.expectedET);
+                buffer.putLong(base + RELEASE, node.release);
+                buffer.putDouble(base + SENSITIVITY, node.sensitivity);
+                for (int l = 0; l < WEIGHT_COUNT; l++) {
+                    double w = node.weights != null && l < node.weights.length ? node.weights[l] : 0.0;
+                    buffer.putDouble(base + WEIGHTS + l * Double.BYTES, w);
+                }
+                buffer.putInt(base + AFFINITY, node.affinity);
+                buffer.putInt(base + PARENT_COUNT, parentCount);
+                buffer.putLong(base + PARENT_OFFSET, parentOffset);
+                buffer.putLong(base + PROFILE_BASE_ET,
+                    node.crp != null ? node.crp.getBaseExecutionTime() : -1L);
+                buffer.putLong(base + PERIOD, node.period);
+                buffer.putLong(base + DEADLINE, node.deadline);
+                parentOffset += parentCount;
+            }
+
+            for (Node node : tasks) {
+                for (Node parent : node.getParent()) {
+                    Integer p = index.get(parent);
+                    if (p == null) {
+                        throw new IllegalArgumentException(
+                            "任务" + node.getId() + "的父节点" + parent.getId() + "不在任务集中");
+                    }
+                    buffer.putInt(reserve(Integer.BYTES), p);
+                }
+            }
+
+            finishBlock(caseId, utilization, n, blockOffset, edges);
+        }
+
+        /**
+         * 写入一个结构数组形式的任务集（TaskSet不含DAG依赖关系，任务类型记为NORMAL）
+         */
+        public void writeCase(int caseId, double utilization, TaskSet tasks) throws IOException {
+            ensureOpen();
+            int n = tasks.size();
+            checkBlockSize(n, 0);
+
+            long blockOffset = position;
+            for (int i = 0; i < n; i++) {
+                int base = reserve(RECORD_SIZE);
+                buffer.putInt(base + ID, tasks.id[i]);
+                buffer.putInt(base + DAG_ID, tasks.dagId[i]);
+                buffer.putInt(base + LAYER, 0);
+                buffer.put(base + TYPE, (byte) NodeType.NORMAL.ordinal());
+                buffer.put(base + FLAGS, (byte) 0);
+                buffer.putLong(base + EXPECTED_ET, tasks.expectedET[i]);
+                buffer.putLong(base + RELEASE, tasks.release[i]);
+                buffer.putDouble(base + SENSITIVITY, tasks.sensitivity[i]);
+                for (int l = 0; l < WEIGHT_COUNT; l++) {
+                    buffer.putDouble(base + WEIGHTS + l * Double.BYTES, tasks.weight(i, l));
+                }
+                buffer.putInt(base + AFFINITY, tasks.affinity[i]);
+                buffer.putInt(base + PARENT_COUNT, 0);
+                buffer.putLong(base + PARENT_OFFSET, 0L);
+                buffer.putLong(base + PROFILE_BASE_ET, -1L);
+                buffer.putLong(base + PERIOD, tasks.period[i]);
+                buffer.putLong(base + DEADLINE, tasks.deadline[i]);
+            }
+            finishBlock(caseId, utilization, n, blockOffset, 0);
+        }
+
+        /**
+         * 写入索引表并回填文件头
+         */
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                long indexOffset = position;
+                for (int c = 0; c < caseCount; c++) {
+                    int base = reserve(INDEX_ENTRY_SIZE);
+                    buffer.putInt(base + INDEX_CASE_ID, caseIds[c]);
+                    buffer.putInt(base + INDEX_TASK_COUNT, taskCounts[c]);
+                    buffer.putDouble(base + INDEX_UTILIZATION, utilizations[c]);
+                    buffer.putLong(base + INDEX_BLOCK_OFFSET, blockOffsets[c]);
+                    buffer.putLong(base + INDEX_EDGE_COUNT, edgeCounts[c]);
+                }
+                flush();
+
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ORDER);
+                header.putInt(MAGIC).putInt(VERSION).putInt(RECORD_SIZE).putInt(INDEX_ENTRY_SIZE);
+                header.putLong(caseCount).putLong(indexOffset);
+                header.flip();
+                channel.position(0);
+                while (header.hasRemaining()) {
+                    channel.write(header);
+                }
+            } finally {
+                channel.close();
+            }
+        }
+
+        private void ensureOpen() throws IOException {
+            if (closed) {
+                throw new IOException("语料写入器已关闭");
+            }
+        }
+
+        private void checkBlockSize(int taskCount, long edges) {
+            if (blockSize(taskCount, edges) > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("单个任务集过大（" + taskCount + "个任务, "
+                    + edges + "条边），超过2GB的映射上限");
+            }
+        }
+
+        /**
+         * 在写缓冲区中预留bytes字节（空间不足时先刷出）
+         *
+         * @return 预留区域在缓冲区中的起始下标
+         */
+        private int reserve(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+            int base = buffer.position();
+            buffer.position(base + bytes);
+            position += bytes;
+            return base;
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        /**
+         * 补齐数据块的对齐填充并登记索引项
+         */
+        private void finishBlock(int caseId, double utilization, int taskCount,
+                long blockOffset, long edges) throws IOException {
+            int padding = (int) (blockOffset + blockSize(taskCount, edges) - position);
+            if (padding > 0) {
+                int base = reserve(padding);
+                for (int i = 0; i < padding; i++) {
+                    buffer.put(base + i, (byte) 0);
+                }
+            }
+
+            if (caseCount == caseIds.length) {
+                int capacity = caseCount * 2;
+                caseIds = Arrays.copyOf(caseIds, capacity);
+                taskCounts = Arrays.copyOf(taskCounts, capacity);
+                utilizations = Arrays.copyOf(utilizations, capacity);
+                blockOffsets = Arrays.copyOf(blockOffsets, capacity);
+                edgeCounts = Arrays.copyOf(edgeCounts, capacity);
+            }
+            caseIds[caseCount] = caseId;
+            taskCounts[caseCount] = taskCount;
+            utilizations[caseCount] = utilization;
+            blockOffsets[caseCount] = blockOffset;
+            edgeCounts[caseCount] = edges;
+            caseCount++;
+        }
+    }
+
+    // ==================== 读取 ====================
+
+    /**
+     * 语料读取器
+     *
+     * 打开时只读取索引表；map返回的MappedCase各自持有独立的映射，
+     * 可以在多个线程上同时映射和读取不同（或相同）的任务集。
+     */
+    public static class Reader implements Closeable {
+
+        private final FileChannel channel;
+
+        /** 生成配置指纹 */
+        private final String fingerprint;
+
+        private final int[] caseIds;
+        private final int[] taskCounts;
+        private final double[] utilizations;
+        private final long[] blockOffsets;
+        private final long[] edgeCounts;
+
+        /** 按案例编号查找：案例编号 -> 第一个任务集的序号，同编号的其余任务集经nextSameCase串联 */
+        private final Map<Integer, Integer> firstOfCase;
+        private final int[] nextSameCase;
+
+        private Reader(FileChannel channel) throws IOException {
+            this.channel = channel;
+            try {
+                ByteBuffer header = read(0, HEADER_SIZE);
+                int magic = header.getInt();
+                int version = header.getInt();
+                int recordSize = header.getInt();
+                int entrySize = header.getInt();
+                long caseCount = header.getLong();
+                long indexOffset = header.getLong();
+                if (magic != MAGIC) {
+                    throw new IOException("不是任务集语料文件（或写入未正常完成）");
+                }
+                if (version != VERSION || recordSize != RECORD_SIZE || entrySize != INDEX_ENTRY_SIZE) {
+                    throw new IOException("不支持的语料格式版本: " + version);
+                }
+                if (caseCount < 0 || caseCount * INDEX_ENTRY_SIZE > Integer.MAX_VALUE) {
+                    throw new IOException("语料索引表损坏: caseCount=" + caseCount);
+                }
+                int fingerprintLength = read(HEADER_SIZE, Integer.BYTES).getInt();
+                if (fingerprintLength < 0 || fingerprintLength > MAX_FINGERPRINT_BYTES) {
+                    throw new IOException("语料文件头损坏: fingerprintLength=" + fingerprintLength);
+                }
+                ByteBuffer text = read(HEADER_SIZE + Integer.BYTES, fingerprintLength);
+                fingerprint = new String(text.array(), 0, fingerprintLength, StandardCharsets.UTF_8);
+
+                int count = (int) caseCount;
+                caseIds = new int[count];
+                taskCounts = new int[count];
+                utilizations = new double[count];
+                blockOffsets = new long[count];
+                edgeCounts = new long[count];
+
+                ByteBuffer index = read(indexOffset, count * INDEX_ENTRY_SIZE);
+                for (int c = 0; c < count; c++) {
+                    int base = c * INDEX_ENTRY_SIZE;
+                    caseIds[c] = index.getInt(base + INDEX_CASE_ID);
+                    taskCounts[c] = index.getInt(base + INDEX_TASK_COUNT);
+                    utilizations[c] = index.getDouble(base + INDEX_UTILIZATION);
+                    blockOffsets[c] = index.getLong(base + INDEX_BLOCK_OFFSET);
+                    edgeCounts[c] = index.getLong(base + INDEX_EDGE_COUNT);
+                }
+
+                // 逆序串联，使同编号的任务集按写入顺序查找
+                firstOfCase = new HashMap<>(count * 2);
+                nextSameCase = new int[count];
+                for (int c = count - 1; c >= 0; c--) {
+                    Integer next = firstOfCase.put(caseIds[c], c);
+                    nextSameCase[c] = next != null ? next : -1;
+                }
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        /** 生成配置指纹（未指定时为空串） */
+        public String getFingerprint() {
+            return fingerprint;
+        }
+
+        /** 任务集数 */
+        public int caseCount() {
+            return caseIds.length;
+        }
+
+        /** 第c个任务集的案例编号 */
+        public int caseId(int c) {
+            return caseIds[c];
+        }
+
+        /** 第c个任务集的系统利用率 */
+        public double utilization(int c) {
+            return utilizations[c];
+        }
+
+        /** 第c个任务集的任务数 */
+        public int taskCount(int c) {
+            return taskCounts[c];
+        }
+
+        /**
+         * 按案例编号和利用率查找任务集
+         *
+         * 先按案例编号查表，再在同编号的任务集中比较利用率，期望O(1)。
+         *
+         * @return 任务集在语料中的序号，不存在时返回-1
+         */
+        public int find(int caseId, double utilization) {
+            Integer first = firstOfCase.get(caseId);
+            for (int c = first != null ? first : -1; c >= 0; c = nextSameCase[c]) {
+                if (Double.compare(utilizations[c], utilization) == 0) {
+                    return c;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * 映射第c个任务集（只读，不复制数据）
+         */
+        public MappedCase map(int c) throws IOException {
+            long size = blockSize(taskCounts[c], edgeCounts[c]);
+            MappedByteBuffer block = channel.map(FileChannel.MapMode.READ_ONLY, blockOffsets[c], size);
+            block.order(ORDER);
+            return new MappedCase(caseIds[c], utilizations[c], taskCounts[c], block);
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+
+        private ByteBuffer read(long offset, int length) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate(length).order(ORDER);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, offset + buffer.position()) < 0) {
+                    throw new IOException("语料文件被截断");
+                }
+            }
+            buffer.flip();
+            return buffer;
+        }
+    }
+
+    /**
+     * 一个已映射的任务集
+     *
+     * 字段访问器直接读取映射内存中的第i条记录；toNodes/toTaskSet物化整个任务集。
+     * 映射在对象不可达后由GC释放，关闭Reader不影响已映射的任务集。
+     */
+    public static class MappedCase {
+
+        private final int caseId;
+        private final double utilization;
+        private final int size;
+        private final ByteBuffer block;
+
+        /** 边数组在数据块中的起始字节 */
+        private final int edgeBase;
+
+        private MappedCase(int caseId, double utilization, int size, ByteBuffer block) {
+            this.caseId = caseId;
+            this.utilization = utilization;
+            this.size = size;
+            this.block = block;
+            this.edgeBase = size * RECORD_SIZE;
+        }
+
+        /** 案例编号 */
+        public int caseId() {
+            return caseId;
+        }
+
+        /** 系统利用率 */
+        public double utilization() {
+            return utilization;
+        }
+
+        /** 任务数 */
+        public int size() {
+            return size;
+        }
+
+        public int id(int i) {
+            return block.getInt(i * RECORD_SIZE + ID);
+        }
+
+        public int dagId(int i) {
+            return block.getInt(i * RECORD_SIZE + DAG_ID);
+        }
+
+        public int layer(int i) {
+            return block.getInt(i * RECORD_SIZE + LAYER);
+        }
+
+        public NodeType type(int i) {
+            return NODE_TYPES[block.get(i * RECORD_SIZE + TYPE)];
+        }
+
+        public boolean isCritical(int i) {
+            return (block.get(i * RECORD_SIZE + FLAGS) & FLAG_CRITICAL) != 0;
+        }
+
+        public boolean hasFaults(int i) {
+            return (block.get(i * RECORD_SIZE + FLAGS) & FLAG_FAULTS) != 0;
+        }
+
+        public long expectedET(int i) {
+            return block.getLong(i * RECORD_SIZE + EXPECTED_ET);
+        }
+
+        public long release(int i) {
+            return block.getLong(i * RECORD_SIZE + RELEASE);
+        }
+
+        /** 周期，-1表示非周期任务 */
+        public long period(int i) {
+            return block.getLong(i * RECORD_SIZE + PERIOD);
+        }
+
+        /** 相对截止期，-1表示等于周期 */
+        public long deadline(int i) {
+            return block.getLong(i * RECORD_SIZE + DEADLINE);
+        }
+
+        public double sensitivity(int i) {
+            return block.getDouble(i * RECORD_SIZE + SENSITIVITY);
+        }
+
+        /** 任务i的第level个缓存权重 */
+        public double weight(int i, int level) {
+            return block.getDouble(i * RECORD_SIZE + WEIGHTS + level * Double.BYTES);
+        }
+
+        public int affinity(int i) {
+            return block.getInt(i * RECORD_SIZE + AFFINITY);
+        }
+
+        /** RecencyProfile的基础执行时间，-1表示任务没有RecencyProfile */
+        public long profileBaseET(int i) {
+            return block.getLong(i * RECORD_SIZE + PROFILE_BASE_ET);
+        }
+
+        /** 任务i的父节点数 */
+        public int parentCount(int i) {
+            return block.getInt(i * RECORD_SIZE + PARENT_COUNT);
+        }
+
+        /** 任务i的第k个父节点在本任务集中的下标 */
+        public int parent(int i, int k) {
+            long offset = block.getLong(i * RECORD_SIZE + PARENT_OFFSET) + k;
+            return block.getInt(edgeBase + (int) offset * Integer.BYTES);
+        }
+
+        /**
+         * 物化为Node列表（含DAG父子关系，顺序与写入时一致）
+         */
+        public List<Node> toNodes() {
+            List<Node> nodes = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                long baseET = profileBaseET(i);
+                RecencyProfileReal crp = baseET >= 0 ? new RecencyProfileReal(baseET) : null;
+                Node node = new Node(layer(i), type(i), id(i), dagId(i), crp, null);
+                node.expectedET = expectedET(i);
+                node.release = release(i);
+                node.period = period(i);
+                node.deadline = deadline(i);
+                node.sensitivity = sensitivity(i);
+                for (int l = 0; l < WEIGHT_COUNT; l++) {
+                    node.weights[l] = weight(i, l);
+                }
+                node.affinity = affinity(i);
+                node.isCritical = isCritical(i);
+                node.hasFaults = hasFaults(i);
+                nodes.add(node);
+            }
+            for (int i = 0; i < size; i++) {
+                Node node = nodes.get(i);
+                int parents = parentCount(i);
+                for (int k = 0; k < parents; k++) {
+                    node.addParent(nodes.get(parent(i, k)));
+                }
+            }
+            return nodes;
+        }
+
+        /**
+         * 物化为结构数组任务集（不含DAG依赖关系）
+         */
+        public TaskSet toTaskSet() {
+            TaskSet set = new TaskSet(size);
+            for (int i = 0; i < size; i++) {
+                int t = set.add(id(i), dagId(i));
+                set.expectedET[t] = expectedET(i);
+                set.release[t] = release(i);
+                set.period[t] = period(i);
+                set.deadline[t] = deadline(i);
+                set.sensitivity[t] = sensitivity(i);
+                set.affinity[t] = affinity(i);
+                for (int l = 0; l < WEIGHT_COUNT; l++) {
+                    set.weights[t * TaskSet.WEIGHT_COUNT + l] = weight(i, l);
+                }
+            }
+            return set;
+        }
+    }
+}
@@ -50,8 +50,8 @@ public class UUnifastDiscard {
 		if (uUnifastDiscard()) {
 			if (!takeAllUtil) {
 				if (uUs.size() != uNum + 1) {
-					System.err.println("UUnifastDiscard.getUtils(): the number of utilisations generated is wrong!");
-					System.exit(-1);
+					throw new IllegalStateException("UUnifastDiscard.getUtils(): the number of utilisations generated is wrong! expected "
+							+ (uNum + 1) + ", got " + uUs.size());
 				}
 
 				uUs.remove(uUs.size() - 1);
@@ -61,6 +61,20 @@ public class UUnifastDiscard {
 			return null;
 	}
 
+	/**
+	 * Same as getUtils(), but returns a primitive array (null if every attempt was discarded).
+	 * For rejection-free sampling of the same distribution see RandFixedSum.
+	 */
+	public double[] getUtilsArray() {
+		ArrayList<Double> utils = getUtils();
+		if (utils == null)
+			return null;
+		double[] out = new double[utils.size()];
+		for (int i = 0; i < out.length; i++)
+			out[i] = utils.get(i);
+		return out;
+	}
+
 	private boolean uUnifast() {
 		uUs.clear();
 		double sumU = this.uUtil;
@@ -48,7 +48,28 @@ public class SystemParameters {
     
     /** L2缓存共享的核心数量（每N个核心共享一个L2缓存） */
     public static int Level2CoreNum = 2;
-    
+
+    /** 每个物理核心的硬件线程数（SMT宽度，同一物理核心的硬件线程共享L1缓存） */
+    public static int smtWidth = 1;
+
+    /** L3缓存共享的核心数量（0表示全部核心共享一个L3） */
+    public static int Level3CoreNum = 0;
+
+    /** 每个NUMA节点的核心数量（0表示只有一个NUMA节点） */
+    public static int numaCoreNum = 0;
+
+    /** 
+     * 各级缓存容量 [L1, L2, L3]（以数据块为单位，一个数据块对应一个DAG的工作集）
+     * 供LRU栈距离缓存模型判定命中级别，长度不应小于cacheLevel
+     */
+    public static int[] cacheCapacities = {4, 16, 64};
+
+    /**
+     * 全局调度下作业跨L2簇迁移的缓存重填代价：占作业执行时间的比例，
+     * 实际代价再乘以任务的缓存敏感度
+     */
+    public static double migrationRefillRatio = 0.2;
+
     // ==================== DAG任务生成参数 ====================
     
     /** DAG中最大节点数量 */
@@ -0,0 +1,131 @@
+package profiler;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 仿真各阶段的Java Flight Recorder事件
+ *
+ * 每个事件记录一次阶段调用的耗时，并带有案例ID、算法名称和任务数。
+ * 没有启用这些事件的JFR记录时，begin/shouldCommit由JIT消除，插桩几乎没有开销；
+ * 事件字段只在shouldCommit为true时才填充。
+ *
+ * 分配和执行时间计算发生在仿真引擎内部，拿不到案例信息，
+ * 因此由TestCaseRunner在运行每个算法前通过enterCase登记当前线程的案例ID和算法，
+ * 事件提交时从线程上下文读取。
+ *
+ * 用法：
+ * <pre>
+ * AllocationEvent event = new AllocationEvent();
+ * event.begin();
+ * ... 被测阶段 ...
+ * event.finish(taskCount);
+ * </pre>
+ *
+ * @author Cache-Aware Task Scheduling System
+ */
+public final class PhaseEvents {
+
+    /** 事件名称前缀 */
+    public static final String PREFIX = "yatcashed.";
+
+    /** 当前线程正在运行的案例ID和算法 */
+    private static final ThreadLocal<CaseContext> CONTEXT = ThreadLocal.withInitial(CaseContext::new);
+
+    private static final class CaseContext {
+        int caseId = -1;
+        String algorithm;
+    }
+
+    private PhaseEvents() {
+    }
+
+    /**
+     * 登记当前线程接下来运行的案例和算法
+     */
+    public static void enterCase(int caseId, String algorithm) {
+        CaseContext context = CONTEXT.get();
+        context.caseId = caseId;
+        context.algorithm = algorithm;
+    }
+
+    /**
+     * 清除当前线程的案例登记
+     */
+    public static void exitCase() {
+        CaseContext context = CONTEXT.get();
+        context.caseId = -1;
+        context.algorithm = null;
+    }
+
+    /**
+     * 阶段事件的公共字段
+     */
+    @Category({"Yat-CAShed", "Simulation"})
+    @StackTrace(false)
+    public abstract static class PhaseEvent extends Event {
+        @Label("Case ID")
+        public int caseId;
+
+        @Label("Algorithm")
+        public String algorithm;
+
+        @Label("Task Count")
+        public int taskCount;
+
+        /**
+         * 结束计时并提交，案例ID和算法取自当前线程的登记
+         */
+        public final void finish(int taskCount) {
+            end();
+            if (shouldCommit()) {
+                CaseContext context = CONTEXT.get();
+                this.caseId = context.caseId;
+                this.algorithm = context.algorithm;
+                this.taskCount = taskCount;
+                commit();
+            }
+        }
+
+        /**
+         * 结束计时并提交
+         */
+        public final void finish(int caseId, String algorithm, int taskCount) {
+            end();
+            if (shouldCommit()) {
+                this.caseId = caseId;
+                this.algorithm = algorithm;
+                this.taskCount = taskCount;
+                commit();
+            }
+        }
+    }
+
+    @Name(PREFIX + "Allocation")
+    @Label("Allocation")
+    @Description("分配算法的一次分派决策（allocate或allocateBatch），任务数为本次决策的就绪任务数")
+    public static final class AllocationEvent extends PhaseEvent {
+    }
+
+    @Name(PREFIX + "ExecutionTime")
+    @Label("Execution Time Model")
+    @Description("计算一个任务在所分配处理器上的执行时间（CacheAware_v2.calculateExecutionTime、RecencyProfileReal.computeET等）")
+    public static final class ExecutionTimeEvent extends PhaseEvent {
+    }
+
+    @Name(PREFIX + "TaskGeneration")
+    @Label("Task Generation")
+    @Description("生成（或从语料读取）一个测试案例的任务集")
+    public static final class TaskGenerationEvent extends PhaseEvent {
+    }
+
+    @Name(PREFIX + "Analysis")
+    @Label("Performance Analysis")
+    @Description("PerformanceAnalyzer.analyzeAlgorithmPerformance分析一次调度结果")
+    public static final class AnalysisEvent extends PhaseEvent {
+    }
+}
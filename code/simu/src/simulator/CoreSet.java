@@ -0,0 +1,138 @@
+package simulator;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+
+/**
+ * 处理器ID集合
+ *
+ * 基于位图的处理器集合，同时实现List接口（元素按ID升序），可直接作为
+ * AllocationMethods.allocate(readyNodes, availableProc) 的候选处理器列表传入。
+ * 加入、删除和判定均为O(1)，不装箱；按下标访问为O(核心数/64)，顺序遍历为O(核心数/64 + 元素数)。
+ *
+ * @author Cache-Aware Task Scheduling System
+ */
+public class CoreSet extends AbstractList<Integer> implements RandomAccess {
+
+    private final long[] words;
+    private int size = 0;
+
+    /**
+     * @param cores 处理器数量，ID范围为[0, cores)
+     */
+    public CoreSet(int cores) {
+        words = new long[Math.max(1, (cores + 63) >>> 6)];
+    }
+
+    /**
+     * 加入处理器
+     *
+     * @return 处理器原先不在集合中时返回true
+     */
+    public boolean addCore(int core) {
+        long bit = 1L << core;
+        int w = core >>> 6;
+        if ((words[w] & bit) != 0) {
+            return false;
+        }
+        words[w] |= bit;
+        size++;
+        return true;
+    }
+
+    /**
+     * 删除处理器
+     *
+     * @return 处理器原先在集合中时返回true
+     */
+    public boolean removeCore(int core) {
+        long bit = 1L << core;
+        int w = core >>> 6;
+        if ((words[w] & bit) == 0) {
+            return false;
+        }
+        words[w] &= ~bit;
+        size--;
+        return true;
+    }
+
+    public boolean containsCore(int core) {
+        return core >= 0 && (core >>> 6) < words.length && (words[core >>> 6] & (1L << core)) != 0;
+    }
+
+    /**
+     * ID最小的处理器，集合为空时返回-1
+     */
+    public int first() {
+        for (int w = 0; w < words.length; w++) {
+            if (words[w] != 0) {
+                return (w << 6) + Long.numberOfTrailingZeros(words[w]);
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public Integer get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index = " + index + ", size = " + size);
+        }
+        int remaining = index;
+        for (int w = 0; ; w++) {
+            long word = words[w];
+            int count = Long.bitCount(word);
+            if (remaining < count) {
+                for (int i = 0; i < remaining; i++) {
+                    word &= word - 1;
+                }
+                return (w << 6) + Long.numberOfTrailingZeros(word);
+            }
+            remaining -= count;
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof Integer && containsCore((Integer) o);
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(words, 0L);
+        size = 0;
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+        return new Iterator<Integer>() {
+            private int w = 0;
+            private long word = words[0];
+
+            @Override
+            public boolean hasNext() {
+                while (word == 0 && w + 1 < words.length) {
+                    word = words[++w];
+                }
+                return word != 0;
+            }
+
+            @Override
+            public Integer next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int core = (w << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+                return core;
+            }
+        };
+    }
+}
@@ -0,0 +1,549 @@
+package simulator;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.jheaps.AddressableHeap;
+import org.jheaps.monotone.LongRadixAddressableHeap;
+
+import allocation.AllocationMethods;
+import allocation.WFD;
+import entity.Node;
+import entity.Node.NodeType;
+import generator.EnhancedTaskGenerator;
+import profiler.PhaseEvents.AllocationEvent;
+import profiler.PhaseEvents.ExecutionTimeEvent;
+
+/**
+ * 离散事件仿真引擎
+ * 
+ * 以事件时间为键的可寻址单调堆（jheaps的LongRadixAddressableHeap）驱动仿真，
+ * 处理任务释放、任务完成和处理器空闲三类事件，并在每个时间点的事件处理完毕后
+ * 调用任意AllocationMethods实现进行分派决策。
+ * 
+ * 任务释放事件在仿真开始前按释放时间稳定排序后作为事件流与堆合并，
+ * 同一时刻释放的任务保持输入顺序进入就绪队列。
+ * 
+ * DAG模式（runDag）按Node的父子关系执行：每个节点维护剩余前驱计数，
+ * 节点完成时沿CSR邻接数组递减子节点计数，计数归零的子节点进入就绪队列，
+ * 每条边只访问一次，整体为O(节点数+边数)。
+ * 
+ * 分派模式：
+ * - PARTITIONED：任务释放时即在全部处理器中选择一个，进入该处理器的本地FIFO队列，
+ *   处理器空闲时从本地队列取下一个任务执行（全部任务在0时刻释放时与原有的逐任务分配循环等价）
+ * - GLOBAL：任务进入全局就绪队列，仅在有空闲处理器时分派，候选处理器为当前空闲的处理器
+ * 
+ * 执行时间在任务被分配到处理器时由ExecutionTimeModel计算并写回任务的expectedET，
+ * 调度结果写入任务的partition、start、finishAt和finish字段。
+ * 
+ * @author Cache-Aware Task Scheduling System
+ */
+public class EventDrivenSimulator {
+    
+    /**
+     * 分派模式
+     */
+    public enum DispatchMode {
+        PARTITIONED,  // 释放时分区，处理器本地队列
+        GLOBAL        // 全局就绪队列，空闲处理器分派
+    }
+    
+    /**
+     * 事件类型
+     */
+    private enum EventKind {
+        TASK_RELEASE,     // 任务释放（DAG节点就绪时间晚于前驱完成时间）
+        TASK_COMPLETION,  // 任务完成
+        CORE_IDLE         // 处理器空闲
+    }
+    
+    /**
+     * 仿真事件
+     */
+    private static final class Event {
+        final EventKind kind;
+        final Node task;
+        final int core;
+        
+        Event(EventKind kind, Node task, int core) {
+            this.kind = kind;
+            this.task = task;
+            this.core = core;
+        }
+    }
+    
+    /**
+     * 仿真统计信息
+     */
+    public static class SimulationStats {
+        /** 处理的事件总数 */
+        public long eventsProcessed;
+        
+        /** 调用分配算法的次数 */
+        public long dispatchDecisions;
+        
+        /** 最后一个任务的完成时间 */
+        public long makespan;
+        
+        /** 已完成的任务数 */
+        public long completedTasks;
+        
+        /** 仿真结束时仍未完成的任务数（DAG中存在环或前驱不在任务集中时大于0） */
+        public long unfinishedTasks;
+        
+        /** 仿真耗费的实际时间（纳秒） */
+        public long wallTimeNanos;
+        
+        /** 每秒处理的事件数 */
+        public double eventsPerSecond() {
+            return wallTimeNanos > 0 ? eventsProcessed * 1e9 / wallTimeNanos : 0.0;
+        }
+    }
+    
+    private final int cores;
+    private final AllocationMethods allocator;
+    private final ExecutionTimeModel executionTimeModel;
+    private final DispatchMode mode;
+    
+    /** 事件堆：键为事件时间 */
+    private final AddressableHeap<Long, Event> events = new LongRadixAddressableHeap<>(0, Long.MAX_VALUE);
+    
+    /** 全部处理器列表（PARTITIONED模式下的候选处理器） */
+    private final List<Integer> allProcessors;
+    
+    /** 全部处理器ID数组（批量分配的候选处理器） */
+    private final int[] allCores;
+    
+    /** 批量分配结果缓冲区 */
+    private int[] assignment = new int[16];
+    
+    /** 空闲处理器集合，按ID升序作为GLOBAL模式下的候选处理器列表 */
+    private final CoreSet idleProcessors;
+    
+    /** 处理器是否空闲 */
+    private final boolean[] idle;
+    
+    /** 处理器本地队列（PARTITIONED模式） */
+    private final List<ArrayDeque<Node>> localQueues;
+    
+    /** 处理器上正在执行的任务 */
+    private final Node[] running;
+    
+    /** 每个处理器预先创建的完成事件与空闲事件（事件对象复用，不随任务分配） */
+    private final Event[] completionEvents;
+    private final Event[] idleEvents;
+    
+    /** 已释放、尚未分配的任务 */
+    private final ReadyQueue ready = new ReadyQueue();
+    
+    private SimulationStats stats;
+    
+    // ==================== DAG模式状态 ====================
+    
+    /** 是否按前驱关系释放任务 */
+    private boolean precedence = false;
+    
+    /** 节点到稠密下标的映射 */
+    private Map<Node, Integer> nodeIndex;
+    
+    /** 各节点尚未完成的前驱数量 */
+    private int[] remainingParents;
+    
+    /** CSR格式的子节点邻接表：节点v的子节点为successors[successorStart[v] .. successorStart[v+1]) */
+    private int[] successorStart;
+    private int[] successors;
+    
+    /** 下标到节点 */
+    private Node[] dagNodes;
+    
+    /**
+     * @param cores 处理器核心数
+     * @param allocator 分派时调用的分配算法
+     * @param executionTimeModel 执行时间模型
+     * @param mode 分派模式
+     */
+    public EventDrivenSimulator(int cores, AllocationMethods allocator,
+            ExecutionTimeModel executionTimeModel, DispatchMode mode) {
+        this.cores = cores;
+        this.allocator = allocator;
+        this.executionTimeModel = executionTimeModel;
+        this.mode = mode;
+        
+        this.allProcessors = new ArrayList<>(cores);
+        this.allCores = new int[cores];
+        this.idleProcessors = new CoreSet(cores);
+        this.idle = new boolean[cores];
+        this.localQueues = new ArrayList<>(cores);
+        this.running = new Node[cores];
+        this.completionEvents = new Event[cores];
+        this.idleEvents = new Event[cores];
+        for (int i = 0; i < cores; i++) {
+            allProcessors.add(i);
+            allCores[i] = i;
+            localQueues.add(new ArrayDeque<>());
+            completionEvents[i] = new Event(EventKind.TASK_COMPLETION, null, i);
+            idleEvents[i] = new Event(EventKind.CORE_IDLE, null, i);
+        }
+    }
+    
+    /**
+     * 运行仿真
+     * 
+     * 任务在max(release, 0)时刻释放（release为-1表示0时刻即可执行）。
+     * 
+     * @param tasks 待仿真的任务
+     * @return 仿真统计信息
+     */
+    public SimulationStats run(List<Node> tasks) {
+        precedence = false;
+        return simulate(sortByRelease(tasks), tasks.size());
+    }
+    
+    /**
+     * 按DAG前驱关系运行仿真
+     * 
+     * 没有前驱的节点在max(release, 0)时刻释放；其余节点在最后一个前驱完成后、
+     * 且不早于自身release时才进入就绪队列，分配算法看到的是真实的就绪列表。
+     * 只统计任务集内部的边，前驱不在任务集中的边被忽略。
+     * 
+     * @param nodes DAG节点（可包含多个DAG）
+     * @return 仿真统计信息
+     */
+    public SimulationStats runDag(List<Node> nodes) {
+        precedence = true;
+        buildPrecedence(nodes);
+        
+        List<Node> sources = new ArrayList<>();
+        for (int v = 0; v < dagNodes.length; v++) {
+            if (remainingParents[v] == 0) {
+                sources.add(dagNodes[v]);
+            }
+        }
+        
+        try {
+            return simulate(sortByRelease(sources), nodes.size());
+        } finally {
+            nodeIndex = null;
+            dagNodes = null;
+        }
+    }
+    
+    /**
+     * 构建前驱计数和CSR后继数组，O(节点数+边数)
+     */
+    private void buildPrecedence(List<Node> nodes) {
+        int n = nodes.size();
+        dagNodes = nodes.toArray(new Node[0]);
+        nodeIndex = new IdentityHashMap<>(n * 2);
+        for (int v = 0; v < n; v++) {
+            nodeIndex.put(dagNodes[v], v);
+        }
+        
+        remainingParents = new int[n];
+        successorStart = new int[n + 1];
+        int edgeCount = 0;
+        for (int v = 0; v < n; v++) {
+            successorStart[v] = edgeCount;
+            for (Node child : dagNodes[v].getChildren()) {
+                if (nodeIndex.containsKey(child)) {
+                    edgeCount++;
+                }
+            }
+        }
+        successorStart[n] = edgeCount;
+        
+        successors = new int[edgeCount];
+        int e = 0;
+        for (int v = 0; v < n; v++) {
+            for (Node child : dagNodes[v].getChildren()) {
+                Integer c = nodeIndex.get(child);
+                if (c != null) {
+                    successors[e++] = c;
+                    remainingParents[c]++;
+                }
+            }
+        }
+    }
+    
+    private SimulationStats simulate(Node[] releases, int taskCount) {
+        long wallStart = System.nanoTime();
+        reset();
+        
+        int nextRelease = 0;
+        
+        while (nextRelease < releases.length || !events.isEmpty()) {
+            long now = Long.MAX_VALUE;
+            if (nextRelease < releases.length) {
+                now = releaseTime(releases[nextRelease]);
+            }
+            if (!events.isEmpty()) {
+                now = Math.min(now, events.findMin().getKey());
+            }
+            
+            // 先处理同一时刻的全部事件，再统一分派
+            while (nextRelease < releases.length && releaseTime(releases[nextRelease]) == now) {
+                ready.add(releases[nextRelease++]);
+                stats.eventsProcessed++;
+            }
+            while (!events.isEmpty() && events.findMin().getKey() == now) {
+                Event event = events.deleteMin().getValue();
+                stats.eventsProcessed++;
+                handle(event, now);
+            }
+            
+            dispatch(now);
+        }
+        
+        stats.unfinishedTasks = taskCount - stats.completedTasks;
+        stats.wallTimeNanos = System.nanoTime() - wallStart;
+        return stats;
+    }
+    
+    private static long releaseTime(Node task) {
+        return Math.max(task.release, 0);
+    }
+    
+    /**
+     * 按释放时间稳定排序（已有序时不排序）
+     */
+    private static Node[] sortByRelease(List<Node> tasks) {
+        Node[] releases = tasks.toArray(new Node[0]);
+        for (int i = 1; i < releases.length; i++) {
+            if (releaseTime(releases[i]) < releaseTime(releases[i - 1])) {
+                Arrays.sort(releases, Comparator.comparingLong(EventDrivenSimulator::releaseTime));
+                break;
+            }
+        }
+        return releases;
+    }
+    
+    private void reset() {
+        events.clear();
+        ready.clear();
+        idleProcessors.clear();
+        stats = new SimulationStats();
+        for (int i = 0; i < cores; i++) {
+            idle[i] = false;
+            running[i] = null;
+            localQueues.get(i).clear();
+            // 仿真开始时全部处理器空闲
+            events.insert(0L, idleEvents[i]);
+        }
+    }
+    
+    private void handle(Event event, long now) {
+        switch (event.kind) {
+        case TASK_RELEASE:
+            ready.add(event.task);
+            break;
+        case TASK_COMPLETION:
+            onCompletion(event.core, now);
+            break;
+        case CORE_IDLE:
+            onCoreIdle(event.core, now);
+            break;
+        default:
+            break;
+        }
+    }
+    
+    private void onCompletion(int core, long now) {
+        Node task = running[core];
+        running[core] = null;
+        task.finish = true;
+        stats.completedTasks++;
+        stats.makespan = Math.max(stats.makespan, now);
+        if (precedence) {
+            releaseSuccessors(task, now);
+        }
+        events.insert(now, idleEvents[core]);
+    }
+    
+    /**
+     * 递减后继节点的前驱计数，计数归零的节点就绪（每条边O(1)）
+     */
+    private void releaseSuccessors(Node task, long now) {
+        int v = nodeIndex.get(task);
+        for (int e = successorStart[v]; e < successorStart[v + 1]; e++) {
+            int c = successors[e];
+            if (--remainingParents[c] == 0) {
+                Node child = dagNodes[c];
+                long release = releaseTime(child);
+                if (release <= now) {
+                    ready.add(child);
+                    stats.eventsProcessed++;
+                } else {
+                    events.insert(release, new Event(EventKind.TASK_RELEASE, child, -1));
+                }
+            }
+        }
+    }
+    
+    private void onCoreIdle(int core, long now) {
+        // 本地队列中还有任务则立即开始执行，否则进入空闲列表
+        Node next = localQueues.get(core).poll();
+        if (next != null) {
+            start(next, core, now);
+            return;
+        }
+        idle[core] = true;
+        idleProcessors.addCore(core);
+    }
+    
+    /**
+     * 分派就绪任务
+     */
+    private void dispatch(long now) {
+        if (mode == DispatchMode.PARTITIONED && executionTimeModel == ExecutionTimeModel.NOMINAL) {
+            dispatchBatch(now);
+        } else if (mode == DispatchMode.PARTITIONED) {
+            while (!ready.isEmpty()) {
+                int core = allocate(allProcessors);
+                Node task = ready.poll();
+                bind(task, core);
+                if (idle[core]) {
+                    removeIdle(core);
+                    start(localQueues.get(core).poll(), core, now);
+                }
+            }
+        } else {
+            while (!ready.isEmpty() && !idleProcessors.isEmpty()) {
+                int core = allocate(idleProcessors);
+                Node task = ready.poll();
+                bind(task, core);
+                removeIdle(core);
+                start(localQueues.get(core).poll(), core, now);
+            }
+        }
+    }
+    
+    /**
+     * PARTITIONED模式下的批量分派
+     * 
+     * 名义执行时间与分配算法状态无关，因此可以先对整个就绪集合一次性做完分配决策，
+     * 再依次绑定，结果与逐任务分派相同。
+     */
+    private void dispatchBatch(long now) {
+        int n = ready.size();
+        if (n == 0) {
+            return;
+        }
+        if (assignment.length < n) {
+            assignment = new int[Math.max(n, assignment.length * 2)];
+        }
+        stats.dispatchDecisions += n;
+        AllocationEvent event = new AllocationEvent();
+        event.begin();
+        allocator.allocateBatch(ready, allCores, cores, assignment);
+        event.finish(n);
+        
+        for (int i = 0; i < n; i++) {
+            int core = checkCore(assignment[i], allProcessors);
+            bind(ready.poll(), core);
+            if (idle[core]) {
+                removeIdle(core);
+                start(localQueues.get(core).poll(), core, now);
+            }
+        }
+    }
+    
+    private int allocate(List<Integer> candidates) {
+        stats.dispatchDecisions++;
+        AllocationEvent event = new AllocationEvent();
+        event.begin();
+        int core = allocator.allocate(ready, candidates);
+        event.finish(ready.size());
+        return checkCore(core, candidates);
+    }
+    
+    /**
+     * 分配算法返回的处理器不在候选列表中（或为-1）时，统一退回候选列表中的第一个处理器
+     */
+    private int checkCore(int core, List<Integer> candidates) {
+        if (candidates == idleProcessors) {
+            return idleProcessors.containsCore(core) ? core : idleProcessors.first();
+        }
+        return core >= 0 && core < cores ? core : candidates.get(0);
+    }
+    
+    /**
+     * 将任务绑定到处理器：确定执行时间并放入处理器本地队列
+     */
+    private void bind(Node task, int core) {
+        task.partition = core;
+        if (executionTimeModel != ExecutionTimeModel.NOMINAL) {
+            ExecutionTimeEvent event = new ExecutionTimeEvent();
+            event.begin();
+            task.expectedET = executionTimeModel.executionTime(task, core);
+            event.finish(1);
+        }
+        localQueues.get(core).add(task);
+    }
+    
+    private void start(Node task, int core, long now) {
+        task.start = now;
+        task.finishAt = now + task.expectedET;
+        running[core] = task;
+        events.insert(task.finishAt, completionEvents[core]);
+    }
+    
+    private void removeIdle(int core) {
+        idle[core] = false;
+        idleProcessors.removeCore(core);
+    }
+    
+    /**
+     * 吞吐量测试：随机释放时间的大量独立任务，以及大规模DAG任务集
+     */
+    public static void main(String[] args) {
+        int cores = 8;
+        int taskCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Random rng = new Random(42);
+        
+        List<Node> tasks = new ArrayList<>(taskCount);
+        long release = 0;
+        for (int i = 0; i < taskCount; i++) {
+            Node task = new Node(0, NodeType.NORMAL, i, i, null, null);
+            release += rng.nextInt(20);
+            task.release = release;
+            task.expectedET = 50 + rng.nextInt(200);
+            tasks.add(task);
+        }
+        
+        for (DispatchMode mode : DispatchMode.values()) {
+            EventDrivenSimulator simulator = new EventDrivenSimulator(
+                cores, new WFD(cores), ExecutionTimeModel.NOMINAL, mode);
+            SimulationStats stats = simulator.run(tasks);
+            System.out.printf("%-12s events=%d makespan=%d time=%.1fms throughput=%.2fM events/s\n",
+                mode, stats.eventsProcessed, stats.makespan, stats.wallTimeNanos / 1e6,
+                stats.eventsPerSecond() / 1e6);
+        }
+        
+        // DAG模式：约10万个节点
+        EnhancedTaskGenerator generator = new EnhancedTaskGenerator(cores, new Random(42));
+        List<Node> dagNodes = generator.generateDagTasks(taskCount / 70, cores * 0.8, 0.7, 3);
+        for (DispatchMode mode : DispatchMode.values()) {
+            EventDrivenSimulator simulator = new EventDrivenSimulator(
+                cores, new WFD(cores), ExecutionTimeModel.NOMINAL, mode);
+            SimulationStats stats = simulator.runDag(dagNodes);
+            System.out.printf("DAG %-8s nodes=%d completed=%d unfinished=%d makespan=%d time=%.1fms\n",
+                mode, dagNodes.size(), stats.completedTasks, stats.unfinishedTasks, stats.makespan,
+                stats.wallTimeNanos / 1e6);
+        }
+        
+        // DAG模式 + LRU栈距离缓存模型：命中级别决定执行时间
+        LruCacheModel cacheModel = new LruCacheModel(cores);
+        SimulationStats lruStats = new EventDrivenSimulator(
+            cores, new WFD(cores), cacheModel, DispatchMode.PARTITIONED).runDag(dagNodes);
+        System.out.printf("DAG LRU      makespan=%d time=%.1fms L1=%.3f L2=%.3f L3=%.3f mem=%.3f\n",
+            lruStats.makespan, lruStats.wallTimeNanos / 1e6, cacheModel.getHitRatio(1),
+            cacheModel.getHitRatio(2), cacheModel.getHitRatio(3),
+            cacheModel.getHitRatio(cacheModel.getLevels() + 1));
+    }
+}
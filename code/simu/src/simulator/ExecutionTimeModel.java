@@ -0,0 +1,26 @@
+package simulator;
+
+import entity.Node;
+
+/**
+ * 执行时间模型
+ * 
+ * 在任务被绑定到处理器时计算其实际执行时间，
+ * 用于把不同的缓存模型（无缓存、CacheAware_v2的缓存状态估计等）接入仿真引擎。
+ * 
+ * @author Cache-Aware Task Scheduling System
+ */
+public interface ExecutionTimeModel {
+    
+    /** 名义执行时间模型：直接使用任务的预期执行时间（无缓存优化） */
+    ExecutionTimeModel NOMINAL = (task, core) -> task.expectedET;
+    
+    /**
+     * 计算任务在指定处理器上的实际执行时间
+     * 
+     * @param task 已分配的任务
+     * @param core 分配的处理器ID
+     * @return 实际执行时间
+     */
+    long executionTime(Node task, int core);
+}
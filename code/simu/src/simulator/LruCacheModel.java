@@ -0,0 +1,283 @@
+package simulator;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+import allocation.CacheModel;
+import entity.Node;
+import entity.TaskSet;
+import generator.CacheHierarchy;
+import parameters.SystemParameters;
+
+/**
+ * 基于LRU栈距离的多级缓存模型
+ *
+ * 每个缓存实例（每物理核心的L1、每L2簇的L2、每插槽的L3……）维护自己访问序列的栈距离跟踪器，
+ * 一次访问同时进入该核心所属的各级缓存实例；核心到缓存实例的归属取自CacheHierarchy预先计算的映射，
+ * 因此SMT兄弟线程共享L1、不规则的簇划分都能按实际拓扑建模。命中级别为栈距离小于该级容量的第一级，
+ * 各级都未命中则访问主内存。
+ *
+ * 作为执行时间模型接入仿真引擎时，任务在绑定到处理器时访问其数据块（默认为DAG ID），
+ * 执行时间按命中级别调整：L1快20%、L2快10%、L3快5%、主内存慢20%（与RecencyProfileReal一致），
+ * 调整幅度按任务缓存敏感度缩放。
+ *
+ * 经executionTime的每次访问还按任务累计各级命中次数，作为CacheModel时（prepare）
+ * 把每个任务的命中比例写入actualCacheHitRatio / actualL1L2L3HitRatio，
+ * 因此执行时间和命中率出自同一组访问。执行时间由其他模型给出时，
+ * 以observing包装该模型，模型只记录访问和命中、不改变执行时间。
+ *
+ * @author Cache-Aware Task Scheduling System
+ */
+public class LruCacheModel implements ExecutionTimeModel, CacheModel {
+
+    /** 各级缓存命中时的执行时间系数 [L1, L2, L3]，更低级缓存沿用L3系数 */
+    private static final double[] HIT_FACTORS = {0.8, 0.9, 0.95};
+
+    /** 主内存访问的执行时间系数 */
+    private static final double MEMORY_FACTOR = 1.2;
+
+    private final int cores;
+    private final int levels;
+    private final int[] capacities;
+
+    /** instanceOf[level][core]：核心所属的该级缓存实例 */
+    private final int[][] instanceOf;
+
+    /** trackers[level][instance] */
+    private final StackDistanceTracker[][] trackers;
+
+    /** 任务到数据块标识的映射 */
+    private final ToIntFunction<Node> blockOf;
+
+    /** 各级命中次数，下标levels为主内存访问次数 */
+    private final long[] hits;
+
+    /** 经executionTime访问的任务的命中次数：下标0..levels-1为各级缓存，levels为主内存 */
+    private final Map<Node, long[]> taskHits = new IdentityHashMap<>();
+
+    /**
+     * 使用SystemParameters中的缓存层次配置，以DAG ID作为数据块
+     *
+     * @param cores 处理器核心数
+     */
+    public LruCacheModel(int cores) {
+        this(SystemParameters.cacheLevel, SystemParameters.cacheCapacities,
+            CacheHierarchy.fromSystemParameters(cores), Node::getDagID);
+    }
+
+    /**
+     * 使用SystemParameters中的缓存层次配置，每个任务访问自己的数据块
+     *
+     * 数据块按任务首次访问的顺序稠密编号：任务的多次执行（周期作业）重用自己的数据，
+     * 不同任务之间不共享数据，各级缓存能容纳的任务工作集数量由缓存容量决定。
+     * 每个任务只执行一次时全部访问都是首次访问（主内存）。
+     *
+     * @param cores 处理器核心数
+     */
+    public static LruCacheModel perTask(int cores) {
+        Map<Node, Integer> blocks = new IdentityHashMap<>();
+        return new LruCacheModel(SystemParameters.cacheLevel, SystemParameters.cacheCapacities,
+            CacheHierarchy.fromSystemParameters(cores), task -> {
+                Integer block = blocks.get(task);
+                if (block == null) {
+                    block = blocks.size();
+                    blocks.put(task, block);
+                }
+                return block;
+            });
+    }
+
+    /**
+     * @param cores 处理器核心数
+     * @param levels 缓存层级数
+     * @param capacities 各级缓存容量（数据块数），长度不小于levels
+     * @param level2CoreNum 共享一个L2缓存的核心数（L1私有，L3及以下全局共享）
+     * @param blockOf 任务访问的数据块
+     */
+    public LruCacheModel(int cores, int levels, int[] capacities, int level2CoreNum,
+            ToIntFunction<Node> blockOf) {
+        this(levels, capacities, CacheHierarchy.regular(cores, levels, 1, level2CoreNum, 0, 0), blockOf);
+    }
+
+    /**
+     * @param levels 缓存层级数
+     * @param capacities 各级缓存容量（数据块数），长度不小于levels
+     * @param topology 处理器拓扑（L1按物理核心、L2按L2簇、L3及以下按插槽共享）
+     * @param blockOf 任务访问的数据块
+     */
+    public LruCacheModel(int levels, int[] capacities, CacheHierarchy topology,
+            ToIntFunction<Node> blockOf) {
+        if (capacities.length < levels) {
+            throw new IllegalArgumentException(
+                "缓存容量配置不足: 需要" + levels + "级, 实际" + capacities.length + "级");
+        }
+        this.cores = topology.coreNum;
+        this.levels = levels;
+        this.capacities = capacities.clone();
+        this.blockOf = blockOf;
+        this.hits = new long[levels + 1];
+
+        this.instanceOf = new int[levels][];
+        this.trackers = new StackDistanceTracker[levels][];
+        for (int level = 0; level < levels; level++) {
+            int domain = CacheHierarchy.domainOfCacheLevel(level + 1);
+            instanceOf[level] = topology.getClusterMap(domain);
+            int instances = topology.clusterCount(domain);
+            trackers[level] = new StackDistanceTracker[instances];
+            for (int i = 0; i < instances; i++) {
+                trackers[level][i] = new StackDistanceTracker(this.capacities[level]);
+            }
+        }
+    }
+
+    /**
+     * 处理器访问一个数据块
+     *
+     * @param core 处理器ID
+     * @param block 数据块标识（非负）
+     * @return 命中级别：1..levels为对应缓存命中，levels+1为主内存访问
+     */
+    public int access(int core, int block) {
+        int hitLevel = levels + 1;
+        for (int level = 0; level < levels; level++) {
+            int distance = trackers[level][instanceOf[level][core]].access(block);
+            if (hitLevel > levels && distance < capacities[level]) {
+                hitLevel = level + 1;
+            }
+        }
+        hits[hitLevel - 1]++;
+        return hitLevel;
+    }
+
+    /**
+     * 访问任务数据块并按命中级别计算执行时间
+     */
+    @Override
+    public long executionTime(Node task, int core) {
+        int hitLevel = record(task, core);
+        double factor = hitLevel > levels ? MEMORY_FACTOR
+            : HIT_FACTORS[Math.min(hitLevel, HIT_FACTORS.length) - 1];
+        double scaled = 1.0 + (factor - 1.0) * task.sensitivity;
+        return Math.max(1L, (long) (task.expectedET * scaled));
+    }
+
+    /**
+     * 只统计命中、执行时间由timing给出的执行时间模型
+     *
+     * 每次计算执行时间时任务同样访问自己的数据块并计入命中统计，
+     * 因此不论执行时间如何计算，各算法的命中率都出自同一缓存模型。
+     *
+     * @param timing 给出执行时间的模型
+     */
+    public ExecutionTimeModel observing(ExecutionTimeModel timing) {
+        return (task, core) -> {
+            record(task, core);
+            return timing.executionTime(task, core);
+        };
+    }
+
+    /**
+     * 任务在处理器上访问自己的数据块，并累计到任务的命中统计
+     *
+     * @return 命中级别
+     */
+    private int record(Node task, int core) {
+        int hitLevel = access(core, blockOf.applyAsInt(task));
+        taskHits.computeIfAbsent(task, t -> new long[levels + 1])[hitLevel - 1]++;
+        return hitLevel;
+    }
+
+    /**
+     * 指定级别的命中次数
+     *
+     * @param level 1..levels为缓存级别，levels+1为主内存
+     */
+    public long getHits(int level) {
+        return hits[level - 1];
+    }
+
+    /**
+     * 指定级别的命中率（相对全部访问）
+     */
+    public double getHitRatio(int level) {
+        long total = getAccesses();
+        return total > 0 ? (double) hits[level - 1] / total : 0.0;
+    }
+
+    /** 任意级缓存命中的比例 */
+    public double getOverallHitRatio() {
+        long total = getAccesses();
+        return total > 0 ? (double) (total - hits[levels]) / total : 0.0;
+    }
+
+    /** 总访问次数 */
+    public long getAccesses() {
+        long total = 0;
+        for (long h : hits) {
+            total += h;
+        }
+        return total;
+    }
+
+    /** 缓存层级数 */
+    public int getLevels() {
+        return levels;
+    }
+
+    /** 处理器核心数 */
+    public int getCores() {
+        return cores;
+    }
+
+    // ==================== CacheModel ====================
+
+    /**
+     * 把每个任务经executionTime访问的命中比例写入任务（未访问过的任务为0）
+     */
+    @Override
+    public void prepare(List<Node> tasks) {
+        for (Node task : tasks) {
+            long[] counts = taskHits.get(task);
+            long accesses = 0;
+            if (counts != null) {
+                for (long c : counts) {
+                    accesses += c;
+                }
+            }
+            task.actualCacheHitRatio = accesses > 0 ? (double) (accesses - counts[levels]) / accesses : 0.0;
+            for (int level = 1; level <= task.actualL1L2L3HitRatio.length; level++) {
+                task.actualL1L2L3HitRatio[level - 1] = accesses > 0 && level <= levels
+                    ? (double) counts[level - 1] / accesses : 0.0;
+            }
+        }
+    }
+
+    @Override
+    public double taskHitRatio(Node task) {
+        return task.actualCacheHitRatio;
+    }
+
+    /**
+     * 结构数组任务集不经过executionTime，读取任务集中记录的命中率
+     */
+    @Override
+    public double taskHitRatio(TaskSet tasks, int i) {
+        return tasks.actualCacheHitRatio[i];
+    }
+
+    /**
+     * 清空全部缓存状态和统计
+     */
+    public void reset() {
+        for (StackDistanceTracker[] level : trackers) {
+            for (StackDistanceTracker tracker : level) {
+                tracker.clear();
+            }
+        }
+        Arrays.fill(hits, 0L);
+        taskHits.clear();
+    }
+}
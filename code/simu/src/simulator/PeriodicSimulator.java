@@ -0,0 +1,969 @@
+package simulator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import allocation.AllocationMethods;
+import allocation.GlobalEDF;
+import allocation.WFD;
+import entity.Node;
+import entity.Node.NodeType;
+import profiler.PhaseEvents.AllocationEvent;
+import profiler.PhaseEvents.ExecutionTimeEvent;
+
+/**
+ * 周期任务的抢占式调度仿真（分区调度和全局EDF）
+ *
+ * 任务带有周期（Node.period）和相对截止期（Node.deadline，缺省为隐式截止期即等于周期），
+ * 在仿真区间内周期性地释放作业：第k个作业在 max(release, 0) + k × period 时刻释放，
+ * 截止期为释放时间加相对截止期。非周期任务（period不大于0）只释放一个作业。
+ *
+ * 分区：仿真开始前按利用率降序把全部任务交给分配算法一次性分区（allocateBatch），
+ * 之后任务的所有作业都在同一处理器上执行，不迁移。
+ *
+ * 每个处理器独立运行抢占式固定/动态优先级调度：
+ * - EDF：绝对截止期越早优先级越高
+ * - RM：周期越短优先级越高
+ * 优先级相同的作业按释放顺序先到先服务。高优先级作业释放时立即抢占正在执行的作业，
+ * 被抢占作业保留剩余执行时间回到就绪堆。
+ *
+ * 作业的执行时间在首次开始执行时由ExecutionTimeModel计算（缓存模型在此时访问作业的数据），
+ * 名义模型下等于任务的expectedET（WCET）。
+ *
+ * 仿真区间默认为全部任务周期的最小公倍数（超周期），上限为DEFAULT_HORIZON_LIMIT；
+ * 在区间内释放的作业都会执行到完成（过载处理器上的积压作业在区间之后继续执行），
+ * 完成时间晚于截止期的作业计为错过截止期，不丢弃。
+ *
+ * 全局模式（以GlobalEDF构造）不做分区：全部就绪作业进入GlobalEDF的全局就绪队列，
+ * 任一时刻执行绝对截止期最早的m个作业。空闲处理器由GlobalEDF按缓存亲和性选择，
+ * 释放的作业截止期早于执行中最晚的作业时抢占该作业；被抢占作业在另一处理器恢复时计一次迁移，
+ * 跨L2簇迁移按GlobalEDF.migrationPenalty追加缓存重填时间（计入作业执行时间和处理器忙碌时间）。
+ *
+ * 每个处理器只需要两个基本类型数组实现的二叉堆（下一次释放时间、就绪作业），
+ * 作业状态保存在可复用的并列数组作业池中，仿真过程中不为作业创建对象，
+ * 每个作业O(log n)，可以在一次运行中处理数百万个作业。
+ *
+ * @author Cache-Aware Task Scheduling System
+ */
+public class PeriodicSimulator {
+
+    /**
+     * 处理器本地调度策略
+     */
+    public enum Policy {
+        EDF,  // 最早截止期优先
+        RM    // 单调速率
+    }
+
+    /** 未指定仿真区间时超周期的上限（时间单位与执行时间相同） */
+    public static final long DEFAULT_HORIZON_LIMIT = 10_000_000_000L;
+
+    /** 没有截止期的作业使用的绝对截止期 */
+    private static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    /**
+     * 仿真统计信息
+     *
+     * 任务级数组以任务在输入列表中的下标为下标。
+     */
+    public static class Stats {
+        /** 仿真区间（作业释放截止时间） */
+        public long horizon;
+
+        /** 释放的作业数 */
+        public long releasedJobs;
+
+        /** 完成的作业数 */
+        public long completedJobs;
+
+        /** 错过截止期的作业数 */
+        public long missedJobs;
+
+        /** 抢占次数 */
+        public long preemptions;
+
+        /** 被抢占作业在另一处理器恢复执行的次数（仅全局模式） */
+        public long migrations;
+
+        /** 其中跨L2簇的迁移次数 */
+        public long clusterMigrations;
+
+        /** 跨L2簇迁移追加的缓存重填时间之和 */
+        public long migrationPenalty;
+
+        /** 最大延误（完成时间 - 绝对截止期） */
+        public long maxTardiness;
+
+        /** 最后一个作业的完成时间 */
+        public long makespan;
+
+        /** 仿真耗费的实际时间（纳秒） */
+        public long wallTimeNanos;
+
+        /** 各处理器的忙碌时间 */
+        public long[] coreBusyTime;
+
+        /** 各处理器最后一个作业的完成时间 */
+        public long[] coreFinishTime;
+
+        /** 各任务完成的作业数 */
+        public long[] taskJobs;
+
+        /** 各任务错过截止期的作业数 */
+        public long[] taskMisses;
+
+        /** 各任务作业的执行时间之和 */
+        public long[] taskBusyTime;
+
+        /** 各任务作业的响应时间（完成 - 释放）之和 */
+        public long[] taskResponseTime;
+
+        /** 错过截止期的作业比例 */
+        public double missRatio() {
+            return completedJobs > 0 ? (double) missedJobs / completedJobs : 0.0;
+        }
+
+        /** 每秒仿真的作业数 */
+        public double jobsPerSecond() {
+            return wallTimeNanos > 0 ? completedJobs * 1e9 / wallTimeNanos : 0.0;
+        }
+    }
+
+    private final int cores;
+    private final AllocationMethods allocator;
+    private final ExecutionTimeModel executionTimeModel;
+    private final Policy policy;
+
+    /** 全局调度器，分区模式下为null */
+    private final GlobalEDF global;
+
+    /** 仿真区间，不大于0表示使用超周期 */
+    private long horizon;
+
+    // ==================== 任务参数（按输入下标） ====================
+
+    private Node[] nodes;
+    private long[] period;
+    private long[] relativeDeadline;
+    private long[] wcet;
+
+    /** 第一个作业的开始时间和最后一个作业的完成时间，仿真结束后写回Node */
+    private long[] firstStart;
+    private long[] lastFinish;
+
+    // ==================== 作业池 ====================
+
+    private int[] jobTask = new int[64];
+    private long[] jobRelease = new long[64];
+    private long[] jobDeadline = new long[64];
+    private long[] jobKey = new long[64];
+    private long[] jobSeq = new long[64];
+    private long[] jobExecution = new long[64];
+    private long[] jobRemaining = new long[64];
+
+    /** 作业最近一次执行所在的处理器（-1表示尚未执行） */
+    private int[] jobCore = new int[64];
+
+    /** 作业因跨L2簇迁移追加的重填时间（不计入迁移代价的计算基数） */
+    private long[] jobPenalty = new long[64];
+
+    /** 空闲作业槽栈 */
+    private int[] freeJobs = new int[64];
+    private int freeCount;
+    private int jobCapacity;
+
+    // ==================== 每处理器的堆 ====================
+
+    /** 下一次释放时间最小堆（元素为任务下标，releaseTime为对应的释放时间） */
+    private int[] releaseHeap;
+    private long[] releaseTime;
+    private int releaseSize;
+
+    /** 就绪作业最小堆（元素为作业槽，readyKey/readySeq为对应的优先级键和释放序号） */
+    private int[] readyHeap = new int[64];
+    private long[] readyKey = new long[64];
+    private long[] readySeq = new long[64];
+    private int readySize;
+
+    // ==================== 全局模式的处理器状态 ====================
+
+    /** 各处理器上正在执行的作业槽（-1表示空闲） */
+    private int[] coreJob;
+
+    /** 各处理器上作业的预计完成时间（空闲时为Long.MAX_VALUE） */
+    private long[] coreFinish;
+
+    /** 各处理器当前执行段的开始时间 */
+    private long[] segmentStart;
+
+    /** 空闲处理器数量 */
+    private int idleCores;
+
+    /** 执行中的处理器按预计完成时间排序（相同时按处理器ID），堆顶为下一个完成事件 */
+    private CoreHeap finishOrder;
+
+    /** 执行中的处理器按作业优先级从低到高排序，堆顶为抢占的牺牲者 */
+    private CoreHeap victimOrder;
+
+    /** 各任务最近一次执行所在的处理器，新作业优先在此处理器上开始 */
+    private int[] taskCore;
+
+    private long releaseSeq;
+    private Stats stats;
+
+    /**
+     * @param cores 处理器核心数
+     * @param allocator 分区使用的分配算法
+     * @param executionTimeModel 作业执行时间模型
+     * @param policy 处理器本地调度策略
+     */
+    public PeriodicSimulator(int cores, AllocationMethods allocator,
+            ExecutionTimeModel executionTimeModel, Policy policy) {
+        this.cores = cores;
+        this.allocator = allocator;
+        this.executionTimeModel = executionTimeModel;
+        this.policy = policy;
+        this.global = null;
+    }
+
+    /**
+     * 全局EDF模式
+     *
+     * @param cores 处理器核心数
+     * @param scheduler 全局调度器（就绪队列、处理器选择和迁移代价）
+     * @param executionTimeModel 作业执行时间模型
+     */
+    public PeriodicSimulator(int cores, GlobalEDF scheduler, ExecutionTimeModel executionTimeModel) {
+        this.cores = cores;
+        this.allocator = scheduler;
+        this.executionTimeModel = executionTimeModel;
+        this.policy = Policy.EDF;
+        this.global = scheduler;
+    }
+
+    /**
+     * 设置仿真区间
+     *
+     * @param horizon 作业释放的截止时间，不大于0表示使用超周期（上限DEFAULT_HORIZON_LIMIT）
+     * @return this
+     */
+    public PeriodicSimulator setHorizon(long horizon) {
+        this.horizon = horizon;
+        return this;
+    }
+
+    /**
+     * 全部周期任务周期的最小公倍数
+     *
+     * @param limit 上限，最小公倍数超过上限（或溢出）时返回limit
+     * @return 超周期；没有周期任务时为最大的 释放时间 + 执行时间，至少为1
+     */
+    public static long hyperperiod(List<Node> tasks, long limit) {
+        long lcm = 1;
+        boolean periodic = false;
+        long span = 1;
+        for (Node task : tasks) {
+            if (task.period > 0) {
+                periodic = true;
+                long gcd = gcd(lcm, task.period);
+                long scaled = lcm / gcd;
+                if (scaled > limit / task.period) {
+                    return limit;
+                }
+                lcm = scaled * task.period;
+            } else {
+                span = Math.max(span, Math.max(task.release, 0) + task.expectedET);
+            }
+        }
+        return Math.min(periodic ? lcm : span, limit);
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
+    /**
+     * 运行仿真
+     *
+     * 调度结果写回任务：partition为所在处理器（全局模式下为最后执行的处理器），
+     * start为第一个作业开始执行的时间，
+     * finishAt为最后一个作业的完成时间。
+     *
+     * @param tasks 任务集
+     * @return 仿真统计
+     */
+    public Stats run(List<Node> tasks) {
+        long wallStart = System.nanoTime();
+        int n = tasks.size();
+        stats = new Stats();
+        stats.coreBusyTime = new long[cores];
+        stats.coreFinishTime = new long[cores];
+        stats.taskJobs = new long[n];
+        stats.taskMisses = new long[n];
+        stats.taskBusyTime = new long[n];
+        stats.taskResponseTime = new long[n];
+        stats.horizon = horizon > 0 ? horizon : hyperperiod(tasks, DEFAULT_HORIZON_LIMIT);
+
+        nodes = tasks.toArray(new Node[0]);
+        period = new long[n];
+        relativeDeadline = new long[n];
+        wcet = new long[n];
+        firstStart = new long[n];
+        lastFinish = new long[n];
+        Arrays.fill(firstStart, -1L);
+        Arrays.fill(lastFinish, -1L);
+        for (int i = 0; i < n; i++) {
+            Node task = nodes[i];
+            period[i] = task.period;
+            wcet[i] = task.expectedET;
+            relativeDeadline[i] = task.deadline > 0 ? task.deadline
+                : task.period > 0 ? task.period : NO_DEADLINE;
+        }
+
+        releaseHeap = new int[Math.max(n, 1)];
+        releaseTime = new long[Math.max(n, 1)];
+        if (global != null) {
+            simulateGlobal(n);
+        } else {
+            simulatePartitioned(n);
+        }
+        for (int i = 0; i < n; i++) {
+            Node task = nodes[i];
+            task.start = firstStart[i];
+            task.finishAt = lastFinish[i];
+            task.finish = lastFinish[i] >= 0;
+        }
+
+        stats.wallTimeNanos = System.nanoTime() - wallStart;
+        return stats;
+    }
+
+    /**
+     * 分区模式：一次性分区后逐处理器仿真
+     */
+    private void simulatePartitioned(int n) {
+        int[] partition = partition(n);
+
+        // 按处理器分组（计数排序，组内保持输入顺序）
+        int[] coreStart = new int[cores + 1];
+        for (int i = 0; i < n; i++) {
+            coreStart[partition[i] + 1]++;
+        }
+        for (int c = 0; c < cores; c++) {
+            coreStart[c + 1] += coreStart[c];
+        }
+        int[] coreTasks = new int[n];
+        int[] fill = Arrays.copyOf(coreStart, cores);
+        for (int i = 0; i < n; i++) {
+            coreTasks[fill[partition[i]]++] = i;
+        }
+
+        for (int c = 0; c < cores; c++) {
+            simulateCore(c, coreTasks, coreStart[c], coreStart[c + 1]);
+        }
+    }
+
+    /**
+     * 按利用率降序交给分配算法分区
+     *
+     * @return 各任务（按输入下标）所在的处理器
+     */
+    private int[] partition(int n) {
+        Integer[] order = new Integer[n];
+        double[] utilization = new double[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+            Node task = nodes[i];
+            long window = task.period > 0 ? task.period : relativeDeadline[i];
+            utilization[i] = window != NO_DEADLINE ? (double) task.expectedET / window : 0.0;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(utilization[b], utilization[a]));
+
+        List<Node> sorted = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            sorted.add(nodes[order[i]]);
+        }
+        int[] allCores = new int[cores];
+        for (int c = 0; c < cores; c++) {
+            allCores[c] = c;
+        }
+        int[] assignment = new int[Math.max(n, 1)];
+
+        AllocationEvent event = new AllocationEvent();
+        event.begin();
+        allocator.allocateBatch(sorted, allCores, cores, assignment);
+        event.finish(n);
+
+        int[] partition = new int[n];
+        for (int k = 0; k < n; k++) {
+            int core = assignment[k];
+            if (core < 0 || core >= cores) {
+                core = 0;
+            }
+            partition[order[k]] = core;
+            nodes[order[k]].partition = core;
+        }
+        return partition;
+    }
+
+    /**
+     * 仿真一个处理器上的全部作业
+     */
+    private void simulateCore(int core, int[] coreTasks, int from, int to) {
+        releaseSize = 0;
+        readySize = 0;
+        long limit = stats.horizon;
+        for (int k = from; k < to; k++) {
+            int task = coreTasks[k];
+            long first = Math.max(nodes[task].release, 0);
+            if (first < limit) {
+                pushRelease(task, first);
+            }
+        }
+
+        long now = 0;
+        int running = -1;
+        while (true) {
+            long release = releaseSize > 0 ? releaseTime[0] : Long.MAX_VALUE;
+            long finish = running >= 0 ? now + jobRemaining[running] : Long.MAX_VALUE;
+            long event = Math.min(finish, release);
+            if (event == Long.MAX_VALUE) {
+                break;
+            }
+
+            // 同一时刻先完成、再释放，最后选择执行的作业，避免零长度的执行段和虚假的抢占
+            if (running >= 0) {
+                if (finish == event) {
+                    complete(running, core, event);
+                    running = -1;
+                } else {
+                    jobRemaining[running] -= event - now;
+                }
+            }
+            now = event;
+            while (releaseSize > 0 && releaseTime[0] == now) {
+                int task = releaseHeap[0];
+                releaseJob(task, now);
+                long next = period[task] > 0 ? now + period[task] : Long.MAX_VALUE;
+                replaceReleaseTop(next < limit ? task : -1, next);
+            }
+
+            if (running < 0) {
+                running = startNext(core, now);
+            } else if (readySize > 0 && higherPriority(readyHeap[0], running)) {
+                pushReady(running);
+                stats.preemptions++;
+                running = startNext(core, now);
+            }
+        }
+    }
+
+    /**
+     * 全局模式：所有处理器共享一个按截止期排序的就绪队列
+     */
+    private void simulateGlobal(int n) {
+        global.clear();
+        releaseSize = 0;
+        long limit = stats.horizon;
+        taskCore = new int[n];
+        for (int task = 0; task < n; task++) {
+            int affinity = nodes[task].affinity;
+            taskCore[task] = affinity >= 0 && affinity < cores ? affinity : -1;
+            long first = Math.max(nodes[task].release, 0);
+            if (first < limit) {
+                pushRelease(task, first);
+            }
+        }
+        coreJob = new int[cores];
+        coreFinish = new long[cores];
+        segmentStart = new long[cores];
+        Arrays.fill(coreJob, -1);
+        Arrays.fill(coreFinish, Long.MAX_VALUE);
+        idleCores = cores;
+        finishOrder = new CoreHeap(cores);
+        victimOrder = new CoreHeap(cores);
+
+        while (true) {
+            long finish = finishOrder.isEmpty() ? Long.MAX_VALUE : finishOrder.peekPrimary();
+            long release = releaseSize > 0 ? releaseTime[0] : Long.MAX_VALUE;
+            long now = Math.min(finish, release);
+            if (now == Long.MAX_VALUE) {
+                break;
+            }
+
+            // 同一时刻先完成、再释放，最后统一派发，避免零长度的执行段
+            while (!finishOrder.isEmpty() && finishOrder.peekPrimary() == now) {
+                int c = finishOrder.peek();
+                stopGlobal(c);
+                stats.coreBusyTime[c] += now - segmentStart[c];
+                complete(coreJob[c], c, now);
+                coreJob[c] = -1;
+                idleCores++;
+            }
+            while (releaseSize > 0 && releaseTime[0] == now) {
+                int task = releaseHeap[0];
+                releaseJob(task, now);
+                long next = period[task] > 0 ? now + period[task] : Long.MAX_VALUE;
+                replaceReleaseTop(next < limit ? task : -1, next);
+            }
+            dispatchGlobal(now);
+        }
+
+        for (int task = 0; task < n; task++) {
+            nodes[task].partition = taskCore[task] >= 0 ? taskCore[task] : 0;
+        }
+    }
+
+    /**
+     * 全局派发：先用就绪队列填满空闲处理器，再让截止期更早的就绪作业抢占截止期最晚的执行中作业
+     */
+    private void dispatchGlobal(long now) {
+        while (idleCores > 0 && !global.isEmpty()) {
+            int job = global.poll();
+            int preferred = jobCore[job] >= 0 ? jobCore[job] : taskCore[jobTask[job]];
+            startGlobal(job, global.selectCore(preferred, coreJob, cores), now);
+        }
+
+        while (!global.isEmpty()) {
+            int victim = victimOrder.peek();
+            int running = coreJob[victim];
+            long deadline = global.peekDeadline();
+            if (deadline > jobDeadline[running]
+                    || (deadline == jobDeadline[running] && global.peekSeq() > jobSeq[running])) {
+                break;
+            }
+            stats.coreBusyTime[victim] += now - segmentStart[victim];
+            jobRemaining[running] = coreFinish[victim] - now;
+            stopGlobal(victim);
+            coreJob[victim] = -1;
+            idleCores++;
+            int job = global.poll();
+            global.push(running, jobDeadline[running], jobSeq[running]);
+            stats.preemptions++;
+            startGlobal(job, victim, now);
+        }
+    }
+
+    /**
+     * 在指定处理器上开始（或恢复）作业，恢复时处理器不同则计迁移并追加重填时间
+     */
+    private void startGlobal(int job, int core, long now) {
+        int task = jobTask[job];
+        if (jobRemaining[job] < 0) {
+            prepareJob(job, core, now);
+        } else {
+            int from = jobCore[job];
+            if (from != core) {
+                stats.migrations++;
+                if (global.crossesLevel2(from, core)) {
+                    stats.clusterMigrations++;
+                    long penalty = global.migrationPenalty(from, core, jobExecution[job], nodes[task].sensitivity);
+                    jobRemaining[job] += penalty;
+                    jobPenalty[job] += penalty;
+                    stats.migrationPenalty += penalty;
+                }
+            }
+        }
+        jobCore[job] = core;
+        taskCore[task] = core;
+        coreJob[core] = job;
+        coreFinish[core] = now + jobRemaining[job];
+        segmentStart[core] = now;
+        idleCores--;
+        finishOrder.add(core, coreFinish[core], core);
+        // 截止期越晚、释放越晚的作业优先级越低，取反后排在堆顶
+        victimOrder.add(core, -jobDeadline[job], -jobSeq[job]);
+    }
+
+    /**
+     * 处理器上的执行段结束（作业完成或被抢占）
+     */
+    private void stopGlobal(int core) {
+        finishOrder.remove(core);
+        victimOrder.remove(core);
+        coreFinish[core] = Long.MAX_VALUE;
+    }
+
+    /**
+     * 释放任务的一个作业
+     */
+    private void releaseJob(int task, long now) {
+        int job = allocateJob();
+        jobTask[job] = task;
+        jobRelease[job] = now;
+        long deadline = relativeDeadline[task];
+        jobDeadline[job] = deadline == NO_DEADLINE || deadline > NO_DEADLINE - now ? NO_DEADLINE : now + deadline;
+        jobKey[job] = policy == Policy.EDF ? jobDeadline[job]
+            : period[task] > 0 ? period[task] : Long.MAX_VALUE;
+        jobSeq[job] = releaseSeq++;
+        jobRemaining[job] = -1;
+        jobCore[job] = -1;
+        jobPenalty[job] = 0;
+        stats.releasedJobs++;
+        if (global != null) {
+            global.push(job, jobDeadline[job], jobSeq[job]);
+        } else {
+            pushReady(job);
+        }
+    }
+
+    /**
+     * 取出优先级最高的就绪作业开始（或继续）执行
+     *
+     * @return 作业槽，没有就绪作业时为-1
+     */
+    private int startNext(int core, long now) {
+        if (readySize == 0) {
+            return -1;
+        }
+        int job = readyHeap[0];
+        popReady();
+        prepareJob(job, core, now);
+        return job;
+    }
+
+    /**
+     * 作业首次开始执行时确定执行时间（已开始的作业不变）
+     */
+    private void prepareJob(int job, int core, long now) {
+        if (jobRemaining[job] < 0) {
+            int task = jobTask[job];
+            long execution;
+            if (executionTimeModel == ExecutionTimeModel.NOMINAL) {
+                execution = wcet[task];
+            } else {
+                ExecutionTimeEvent event = new ExecutionTimeEvent();
+                event.begin();
+                execution = executionTimeModel.executionTime(nodes[task], core);
+                event.finish(1);
+            }
+            execution = Math.max(1L, execution);
+            jobExecution[job] = execution;
+            jobRemaining[job] = execution;
+            if (firstStart[task] < 0) {
+                firstStart[task] = now;
+            }
+        }
+    }
+
+    /**
+     * 作业完成：统计响应时间和截止期，回收作业槽
+     */
+    private void complete(int job, int core, long now) {
+        int task = jobTask[job];
+        long execution = jobExecution[job] + jobPenalty[job];
+        stats.completedJobs++;
+        stats.taskJobs[task]++;
+        stats.taskBusyTime[task] += execution;
+        stats.taskResponseTime[task] += now - jobRelease[job];
+        if (global == null) {
+            // 全局模式按执行段累计处理器忙碌时间
+            stats.coreBusyTime[core] += execution;
+        }
+        stats.coreFinishTime[core] = now;
+        stats.makespan = Math.max(stats.makespan, now);
+        if (now > jobDeadline[job]) {
+            stats.missedJobs++;
+            stats.taskMisses[task]++;
+            stats.maxTardiness = Math.max(stats.maxTardiness, now - jobDeadline[job]);
+        }
+        lastFinish[task] = now;
+        freeJobs[freeCount++] = job;
+    }
+
+    private int allocateJob() {
+        if (freeCount > 0) {
+            return freeJobs[--freeCount];
+        }
+        if (jobCapacity == jobTask.length) {
+            int capacity = jobCapacity * 2;
+            jobTask = Arrays.copyOf(jobTask, capacity);
+            jobRelease = Arrays.copyOf(jobRelease, capacity);
+            jobDeadline = Arrays.copyOf(jobDeadline, capacity);
+            jobKey = Arrays.copyOf(jobKey, capacity);
+            jobSeq = Arrays.copyOf(jobSeq, capacity);
+            jobExecution = Arrays.copyOf(jobExecution, capacity);
+            jobRemaining = Arrays.copyOf(jobRemaining, capacity);
+            jobCore = Arrays.copyOf(jobCore, capacity);
+            jobPenalty = Arrays.copyOf(jobPenalty, capacity);
+            freeJobs = Arrays.copyOf(freeJobs, capacity);
+            readyHeap = Arrays.copyOf(readyHeap, capacity);
+            readyKey = Arrays.copyOf(readyKey, capacity);
+            readySeq = Arrays.copyOf(readySeq, capacity);
+        }
+        return jobCapacity++;
+    }
+
+    // ==================== 二叉堆 ====================
+    // 堆元素的排序键与元素并列存放在堆数组中，比较时不经过作业池或任务数组间接寻址
+
+    private boolean higherPriority(int a, int b) {
+        return jobKey[a] < jobKey[b] || (jobKey[a] == jobKey[b] && jobSeq[a] < jobSeq[b]);
+    }
+
+    private void pushReady(int job) {
+        long key = jobKey[job];
+        long seq = jobSeq[job];
+        int i = readySize++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            long parentKey = readyKey[parent];
+            if (key > parentKey || (key == parentKey && seq > readySeq[parent])) {
+                break;
+            }
+            readyHeap[i] = readyHeap[parent];
+            readyKey[i] = parentKey;
+            readySeq[i] = readySeq[parent];
+            i = parent;
+        }
+        readyHeap[i] = job;
+        readyKey[i] = key;
+        readySeq[i] = seq;
+    }
+
+    /**
+     * 删除就绪堆顶
+     */
+    private void popReady() {
+        int last = --readySize;
+        if (last == 0) {
+            return;
+        }
+        int job = readyHeap[last];
+        long key = readyKey[last];
+        long seq = readySeq[last];
+        int i = 0;
+        int half = last >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int right = child + 1;
+            if (right < last && (readyKey[right] < readyKey[child]
+                    || (readyKey[right] == readyKey[child] && readySeq[right] < readySeq[child]))) {
+                child = right;
+            }
+            long childKey = readyKey[child];
+            if (key < childKey || (key == childKey && seq < readySeq[child])) {
+                break;
+            }
+            readyHeap[i] = readyHeap[child];
+            readyKey[i] = childKey;
+            readySeq[i] = readySeq[child];
+            i = child;
+        }
+        readyHeap[i] = job;
+        readyKey[i] = key;
+        readySeq[i] = seq;
+    }
+
+    private void pushRelease(int task, long time) {
+        int i = releaseSize++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            long parentTime = releaseTime[parent];
+            if (time > parentTime || (time == parentTime && task > releaseHeap[parent])) {
+                break;
+            }
+            releaseHeap[i] = releaseHeap[parent];
+            releaseTime[i] = parentTime;
+            i = parent;
+        }
+        releaseHeap[i] = task;
+        releaseTime[i] = time;
+    }
+
+    /**
+     * 把释放堆顶替换为(task, time)并恢复堆序；task为-1时删除堆顶
+     */
+    private void replaceReleaseTop(int task, long time) {
+        if (task < 0) {
+            int last = --releaseSize;
+            if (last == 0) {
+                return;
+            }
+            task = releaseHeap[last];
+            time = releaseTime[last];
+        }
+        int size = releaseSize;
+        int i = 0;
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int right = child + 1;
+            if (right < size && (releaseTime[right] < releaseTime[child]
+                    || (releaseTime[right] == releaseTime[child] && releaseHeap[right] < releaseHeap[child]))) {
+                child = right;
+            }
+            long childTime = releaseTime[child];
+            if (time < childTime || (time == childTime && task < releaseHeap[child])) {
+                break;
+            }
+            releaseHeap[i] = releaseHeap[child];
+            releaseTime[i] = childTime;
+            i = child;
+        }
+        releaseHeap[i] = task;
+        releaseTime[i] = time;
+    }
+
+    /**
+     * 以处理器ID为元素的二叉小顶堆，按(主键, 次键)排序，记录各处理器在堆中的位置以支持删除任意处理器
+     */
+    private static final class CoreHeap {
+        private final int[] heap;
+        private final long[] primary;
+        private final long[] secondary;
+        private final int[] position;
+        private int size;
+
+        CoreHeap(int cores) {
+            heap = new int[cores];
+            primary = new long[cores];
+            secondary = new long[cores];
+            position = new int[cores];
+            Arrays.fill(position, -1);
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        int peek() {
+            return heap[0];
+        }
+
+        long peekPrimary() {
+            return primary[0];
+        }
+
+        void add(int core, long key, long tie) {
+            siftUp(size++, core, key, tie);
+        }
+
+        void remove(int core) {
+            int i = position[core];
+            position[core] = -1;
+            int last = --size;
+            if (i == last) {
+                return;
+            }
+            int moved = heap[last];
+            long key = primary[last];
+            long tie = secondary[last];
+            int parent = (i - 1) >>> 1;
+            if (i > 0 && (key < primary[parent] || (key == primary[parent] && tie < secondary[parent]))) {
+                siftUp(i, moved, key, tie);
+            } else {
+                siftDown(i, moved, key, tie);
+            }
+        }
+
+        private void siftUp(int i, int core, long key, long tie) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (key > primary[parent] || (key == primary[parent] && tie > secondary[parent])) {
+                    break;
+                }
+                place(i, heap[parent], primary[parent], secondary[parent]);
+                i = parent;
+            }
+            place(i, core, key, tie);
+        }
+
+        private void siftDown(int i, int core, long key, long tie) {
+            int half = size >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                int right = child + 1;
+                if (right < size && (primary[right] < primary[child]
+                        || (primary[right] == primary[child] && secondary[right] < secondary[child]))) {
+                    child = right;
+                }
+                if (key < primary[child] || (key == primary[child] && tie < secondary[child])) {
+                    break;
+                }
+                place(i, heap[child], primary[child], secondary[child]);
+                i = child;
+            }
+            place(i, core, key, tie);
+        }
+
+        private void place(int i, int core, long key, long tie) {
+            heap[i] = core;
+            primary[i] = key;
+            secondary[i] = tie;
+            position[core] = i;
+        }
+    }
+
+    /**
+     * 完成与释放同时发生的检查：单核RM，H(周期10, 执行5)、M(周期20, 执行5)、L(周期40, 执行5)，
+     * t=10时M完成且H释放下一个作业，应先执行H、再于t=15开始L，超周期内没有抢占，
+     * 执行时间模型对每个作业只调用一次
+     */
+    private static void checkCoincidentEvents() {
+        List<Node> tasks = new ArrayList<>();
+        long[] periods = {10, 20, 40};
+        for (int i = 0; i < periods.length; i++) {
+            Node task = new Node(0, NodeType.NORMAL, i, i, null, null);
+            task.period = periods[i];
+            task.expectedET = 5;
+            tasks.add(task);
+        }
+        long[] calls = new long[1];
+        ExecutionTimeModel counting = (task, core) -> {
+            calls[0]++;
+            return task.expectedET;
+        };
+        Stats stats = new PeriodicSimulator(1, new WFD(1), counting, Policy.RM).run(tasks);
+        boolean ok = stats.completedJobs == 7 && stats.missedJobs == 0 && stats.preemptions == 0
+            && calls[0] == stats.completedJobs && tasks.get(2).start == 15;
+        System.out.printf("同时完成与释放: jobs=%d missed=%d preemptions=%d modelCalls=%d L.start=%d %s\n",
+            stats.completedJobs, stats.missedJobs, stats.preemptions, calls[0], tasks.get(2).start,
+            ok ? "OK" : "FAIL");
+    }
+
+    /**
+     * 吞吐量测试：利用率约为核心数80%的随机周期任务集，分别在分区EDF、分区RM和全局EDF下
+     * 仿真超周期（或指定区间）；全部任务在0时刻同时释放第一个作业，任务数即为初始积压的作业数
+     */
+    public static void main(String[] args) {
+        checkCoincidentEvents();
+
+        int cores = 8;
+        int taskCount = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        long horizon = args.length > 1 ? Long.parseLong(args[1]) : 0;
+        long[] periods = {10, 20, 50, 100, 200, 500, 1000};
+        Random rng = new Random(42);
+
+        List<Node> tasks = new ArrayList<>(taskCount);
+        double perTask = cores * 0.8 / taskCount;
+        for (int i = 0; i < taskCount; i++) {
+            Node task = new Node(0, NodeType.NORMAL, i, i, null, null);
+            task.period = periods[rng.nextInt(periods.length)] * 1000;
+            task.expectedET = Math.max(1L, (long) (task.period * perTask * (0.5 + rng.nextDouble())));
+            tasks.add(task);
+        }
+
+        for (Policy policy : Policy.values()) {
+            Stats stats = new PeriodicSimulator(cores, new WFD(cores), ExecutionTimeModel.NOMINAL, policy)
+                .setHorizon(horizon).run(tasks);
+            System.out.printf("%-4s horizon=%d jobs=%d missed=%d preemptions=%d time=%.1fms throughput=%.2fM jobs/s\n",
+                policy, stats.horizon, stats.completedJobs, stats.missedJobs, stats.preemptions,
+                stats.wallTimeNanos / 1e6, stats.jobsPerSecond() / 1e6);
+        }
+
+        Stats stats = new PeriodicSimulator(cores, new GlobalEDF(cores), ExecutionTimeModel.NOMINAL)
+            .setHorizon(horizon).run(tasks);
+        System.out.printf("GEDF horizon=%d jobs=%d missed=%d preemptions=%d migrations=%d (L2 %d, penalty %d) "
+            + "time=%.1fms throughput=%.2fM jobs/s\n",
+            stats.horizon, stats.completedJobs, stats.missedJobs, stats.preemptions, stats.migrations,
+            stats.clusterMigrations, stats.migrationPenalty, stats.wallTimeNanos / 1e6, stats.jobsPerSecond() / 1e6);
+    }
+}
@@ -0,0 +1,87 @@
+package simulator;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+import entity.Node;
+
+/**
+ * 就绪任务队列
+ * 
+ * 基于环形数组的FIFO队列，同时实现List接口，可直接作为
+ * AllocationMethods.allocate(readyNodes, ...) 的就绪列表传入。
+ * 入队和出队均为O(1)，按下标访问为O(1)。
+ * 
+ * @author Cache-Aware Task Scheduling System
+ */
+public class ReadyQueue extends AbstractList<Node> implements RandomAccess {
+    
+    private Node[] elements;
+    private int head = 0;
+    private int size = 0;
+    
+    public ReadyQueue() {
+        this(16);
+    }
+    
+    public ReadyQueue(int initialCapacity) {
+        elements = new Node[Math.max(Integer.highestOneBit(Math.max(initialCapacity, 2) - 1) << 1, 2)];
+    }
+    
+    @Override
+    public Node get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index = " + index + ", size = " + size);
+        }
+        return elements[(head + index) & (elements.length - 1)];
+    }
+    
+    @Override
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * 队尾入队
+     */
+    @Override
+    public boolean add(Node node) {
+        if (size == elements.length) {
+            grow();
+        }
+        elements[(head + size) & (elements.length - 1)] = node;
+        size++;
+        return true;
+    }
+    
+    /**
+     * 队首出队，队列为空时返回null
+     */
+    public Node poll() {
+        if (size == 0) {
+            return null;
+        }
+        Node node = elements[head];
+        elements[head] = null;
+        head = (head + 1) & (elements.length - 1);
+        size--;
+        return node;
+    }
+    
+    @Override
+    public void clear() {
+        while (size > 0) {
+            poll();
+        }
+        head = 0;
+    }
+    
+    private void grow() {
+        Node[] larger = new Node[elements.length << 1];
+        for (int i = 0; i < size; i++) {
+            larger[i] = elements[(head + i) & (elements.length - 1)];
+        }
+        elements = larger;
+        head = 0;
+    }
+}
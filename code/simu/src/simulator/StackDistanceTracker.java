@@ -0,0 +1,168 @@
+package simulator;
+
+import java.util.Arrays;
+
+/**
+ * LRU栈距离（重用距离）跟踪器
+ *
+ * 对一条访问序列计算每次访问的栈距离：自该数据块上次被访问以来访问过的不同数据块数量。
+ * 对容量为C的全相联LRU缓存，栈距离小于C的访问即为命中。
+ *
+ * 实现：每次访问占用一个时间槽，每个数据块只在其最近一次访问的时间槽上保留标记，
+ * 用树状数组（Fenwick树）统计标记，栈距离 = 上次访问之后的标记数，每次访问O(log n)。
+ * 时间槽用完时压缩：存活标记按时间顺序重新编号，并丢弃栈距离已不小于horizon的数据块，
+ * 因此内存只与horizon和数据块标识范围有关，与访问序列长度无关。
+ *
+ * 数据块标识为非负稠密整数（例如DAG ID）。
+ *
+ * @author Cache-Aware Task Scheduling System
+ */
+public class StackDistanceTracker {
+
+    /** 首次访问（或已超出horizon被丢弃）的栈距离 */
+    public static final int COLD = Integer.MAX_VALUE;
+
+    /** 需要精确区分的最大栈距离，不小于该值的数据块在压缩时被丢弃 */
+    private final int horizon;
+
+    /** 树状数组（下标从1开始），tree[i]覆盖时间槽(i - lowbit(i), i] */
+    private int[] tree;
+
+    /** 时间槽上的数据块，-1表示该槽已无标记 */
+    private int[] blockAt;
+
+    /** 下一个时间槽 */
+    private int now;
+
+    /** 存活标记数（即当前跟踪的不同数据块数） */
+    private int live;
+
+    /** 数据块最近一次访问的时间槽，-1表示未跟踪 */
+    private int[] lastAccess = new int[0];
+
+    /**
+     * @param horizon 需要精确区分的最大栈距离（通常为最大缓存容量）
+     */
+    public StackDistanceTracker(int horizon) {
+        if (horizon <= 0) {
+            throw new IllegalArgumentException("horizon必须为正数: " + horizon);
+        }
+        this.horizon = horizon;
+        int slots = Math.max(64, Integer.highestOneBit(horizon) << 2);
+        this.tree = new int[slots + 1];
+        this.blockAt = new int[slots];
+    }
+
+    /**
+     * 记录一次访问并返回其栈距离
+     *
+     * @param block 数据块标识（非负）
+     * @return 栈距离；首次访问或距离超出horizon时返回COLD
+     */
+    public int access(int block) {
+        if (block < 0) {
+            throw new IllegalArgumentException("数据块标识必须非负: " + block);
+        }
+        if (block >= lastAccess.length) {
+            int oldLength = lastAccess.length;
+            lastAccess = Arrays.copyOf(lastAccess, Math.max(block + 1, oldLength * 2));
+            Arrays.fill(lastAccess, oldLength, lastAccess.length, -1);
+        }
+        if (now == blockAt.length) {
+            compact();
+        }
+
+        int distance = COLD;
+        int last = lastAccess[block];
+        if (last >= 0) {
+            // 上次访问之后的存活标记数（不含上次访问自身）
+            distance = live - prefixSum(last + 1);
+            update(last + 1, -1);
+            blockAt[last] = -1;
+            live--;
+            if (distance >= horizon) {
+                distance = COLD;
+            }
+        }
+
+        update(now + 1, 1);
+        blockAt[now] = block;
+        lastAccess[block] = now;
+        now++;
+        live++;
+        return distance;
+    }
+
+    /**
+     * 清空全部访问历史
+     */
+    public void clear() {
+        Arrays.fill(tree, 0);
+        Arrays.fill(blockAt, -1);
+        Arrays.fill(lastAccess, -1);
+        now = 0;
+        live = 0;
+    }
+
+    /** 当前跟踪的不同数据块数 */
+    public int trackedBlocks() {
+        return live;
+    }
+
+    /**
+     * 压缩时间槽：保留最近horizon个存活数据块并按时间顺序重新编号
+     */
+    private void compact() {
+        int keep = Math.min(live, horizon);
+        int skip = live - keep;
+
+        // 存活数据块仍占用超过一半时间槽时扩容
+        int slots = blockAt.length;
+        if (keep > slots / 2) {
+            slots *= 2;
+        }
+        int[] compacted = new int[slots];
+        Arrays.fill(compacted, -1);
+
+        int next = 0;
+        for (int t = 0; t < now; t++) {
+            int block = blockAt[t];
+            if (block < 0) {
+                continue;
+            }
+            if (skip > 0) {
+                // 栈距离已不小于horizon，之后的访问必然为COLD
+                lastAccess[block] = -1;
+                skip--;
+                continue;
+            }
+            compacted[next] = block;
+            lastAccess[block] = next;
+            next++;
+        }
+
+        blockAt = compacted;
+        tree = new int[slots + 1];
+        // 前keep个时间槽全部有标记：tree[i] = i覆盖范围与[1, keep]的交集大小
+        for (int i = 1; i <= slots; i++) {
+            int low = i - (i & -i);
+            tree[i] = Math.max(0, Math.min(i, keep) - low);
+        }
+        now = keep;
+        live = keep;
+    }
+
+    private void update(int index, int delta) {
+        for (int i = index; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    private int prefixSum(int index) {
+        int sum = 0;
+        for (int i = index; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,371 @@
+package visualizer;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+import analyzer.PerformanceAnalyzer.ExperimentResult;
+
+/**
+ * 流式CSV结果写入器
+ *
+ * 每个案例完成后即追加一行，行先写入大容量直接缓冲区，缓冲区满时整块写入文件通道，
+ * 内存占用与实验规模无关，实验结束时也不需要一次性导出全部结果。
+ * 数值按定点格式直接写成ASCII字节，不经过String.format，输出与"%.2f"/"%.3f"逐字节相同。
+ *
+ * 可选按文件大小轮转：当前文件达到上限后关闭，后续行写入
+ * result.1.csv、result.2.csv……，每个文件都带表头。
+ * 所有公开方法都是同步的，多个线程可以共用一个写入器。
+ *
+ * @author Cache-Aware Task Scheduling System
+ */
+public class ResultCsvSink implements Closeable {
+
+    /** CSV表头 */
+    public static final String HEADER =
+        "Algorithm,TestCase,Makespan,CacheHit,TotalExecutionTime,AvgExecutionTime,ResponseTime,CpuUtilization,LoadBalance\n";
+
+    /** 默认缓冲区大小 */
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+
+    /** 快速路径格式化的一行数值部分的字节数上限 */
+    private static final int MAX_NUMERIC_ROW = 256;
+
+    private static final long[] POW10 = {1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L};
+
+    /** 快速路径可表示的最大缩放值（2^53，超过后double不能精确表示整数） */
+    private static final double MAX_EXACT = 9007199254740992.0;
+
+    private static final byte[] HEADER_BYTES = HEADER.getBytes(StandardCharsets.US_ASCII);
+
+    private final String baseName;
+    private final String extension;
+    private final long rotateBytes;
+
+    private ByteBuffer buffer;
+    private FileChannel channel;
+
+    /** 当前文件已写出到通道的字节数（不含缓冲区中的部分） */
+    private long drainedBytes;
+
+    /** 已打开的文件数（第一个文件不带序号） */
+    private int fileCount;
+
+    /** 已写入的结果行数 */
+    private long rowCount;
+
+    private boolean closed;
+
+    /**
+     * 创建不轮转的写入器
+     *
+     * @param filename 输出文件（已存在时覆盖）
+     */
+    public ResultCsvSink(String filename) throws IOException {
+        this(filename, 0, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * @param filename 第一个输出文件，轮转文件在扩展名前插入序号
+     * @param rotateBytes 单个文件的大小上限（字节），0表示不轮转
+     * @param bufferSize 写缓冲区大小（字节）
+     */
+    public ResultCsvSink(String filename, long rotateBytes, int bufferSize) throws IOException {
+        int dot = filename.lastIndexOf('.');
+        int slash = Math.max(filename.lastIndexOf('/'), filename.lastIndexOf(File.separatorChar));
+        if (dot > slash + 1) {
+            this.baseName = filename.substring(0, dot);
+            this.extension = filename.substring(dot);
+        } else {
+            this.baseName = filename;
+            this.extension = "";
+        }
+        this.rotateBytes = rotateBytes;
+        this.buffer = ByteBuffer.allocateDirect(Math.max(bufferSize, MAX_NUMERIC_ROW * 2));
+        openNextFile();
+    }
+
+    /**
+     * 追加一行结果，算法名取result.algorithmName
+     */
+    public synchronized void append(ExperimentResult result) throws IOException {
+        append(result.algorithmName, result);
+    }
+
+    /**
+     * 追加一行结果
+     *
+     * @param algorithm 算法名称（CSV第一列）
+     * @param result 实验结果
+     */
+    public synchronized void append(String algorithm, ExperimentResult result) throws IOException {
+        ensureOpen();
+        if (rotateBytes > 0 && drainedBytes + buffer.position() >= rotateBytes) {
+            rotate();
+        }
+
+        byte[] name = algorithm.getBytes(StandardCharsets.UTF_8);
+        ensureRoom(name.length + MAX_NUMERIC_ROW);
+
+        buffer.put(name);
+        buffer.put((byte) ',');
+        putLong(result.testCaseId);
+        buffer.put((byte) ',');
+        putFixed(result.makespan, 2);
+        buffer.put((byte) ',');
+        putFixed(result.cacheHitRatio, 3);
+        buffer.put((byte) ',');
+        putFixed(result.totalTaskExecutionTime, 2);
+        buffer.put((byte) ',');
+        putFixed(result.averageTaskExecutionTime, 2);
+        buffer.put((byte) ',');
+        putFixed(result.averageResponseTime, 2);
+        buffer.put((byte) ',');
+        putFixed(result.cpuUtilization, 3);
+        buffer.put((byte) ',');
+        putFixed(result.loadBalance, 3);
+        buffer.put((byte) '\n');
+        rowCount++;
+    }
+
+    /**
+     * 将缓冲区中的行写入文件并强制落盘
+     */
+    public synchronized void flush() throws IOException {
+        ensureOpen();
+        drain();
+        channel.force(false);
+    }
+
+    /**
+     * 立即结束当前文件，后续行写入下一个轮转文件
+     */
+    public synchronized void rotate() throws IOException {
+        ensureOpen();
+        drain();
+        channel.close();
+        openNextFile();
+    }
+
+    /** 已写入的结果行数 */
+    public synchronized long getRowCount() {
+        return rowCount;
+    }
+
+    /** 已打开的文件数（含当前文件） */
+    public synchronized int getFileCount() {
+        return fileCount;
+    }
+
+    /** 当前写入的文件名 */
+    public synchronized String getCurrentFile() {
+        return fileName(fileCount - 1);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            drain();
+        } finally {
+            channel.close();
+        }
+    }
+
+    // ==================== 文件管理 ====================
+
+    /**
+     * 第index个文件的文件名：0为原文件名，之后在扩展名前插入序号
+     */
+    private String fileName(int index) {
+        return index == 0 ? baseName + extension : baseName + "." + index + extension;
+    }
+
+    private void openNextFile() throws IOException {
+        File file = new File(fileName(fileCount));
+        File parentDir = file.getParentFile();
+        if (parentDir != null && !parentDir.exists()) {
+            parentDir.mkdirs();
+        }
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        fileCount++;
+        drainedBytes = 0;
+        buffer.put(HEADER_BYTES);
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("结果写入器已关闭");
+        }
+    }
+
+    /**
+     * 保证缓冲区至少有bytes字节空闲（不足时先写出，仍不足时扩容）
+     *
+     * 可以在一行写到一半时调用：已写入的半行先写出到通道，不影响文件内容。
+     */
+    private void ensureRoom(int bytes) throws IOException {
+        if (buffer.remaining() >= bytes) {
+            return;
+        }
+        drain();
+        if (buffer.capacity() < bytes) {
+            buffer = ByteBuffer.allocateDirect(bytes);
+        }
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        drainedBytes += buffer.remaining();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    // ==================== 数值格式化 ====================
+
+    /**
+     * 写入十进制整数
+     */
+    private void putLong(long value) throws IOException {
+        if (value < 0) {
+            buffer.put((byte) '-');
+            if (value == Long.MIN_VALUE) {
+                putAscii(Long.toString(value).substring(1));
+                return;
+            }
+            value = -value;
+        }
+        int start = buffer.position();
+        do {
+            buffer.put((byte) ('0' + (int) (value % 10)));
+            value /= 10;
+        } while (value != 0);
+        // 逆序写入的数字原地翻转
+        for (int i = start, j = buffer.position() - 1; i < j; i++, j--) {
+            byte tmp = buffer.get(i);
+            buffer.put(i, buffer.get(j));
+            buffer.put(j, tmp);
+        }
+    }
+
+    /**
+     * 写入保留digits位小数的定点数，与String.format("%.{digits}f")结果相同
+     *
+     * Formatter对double的最短十进制表示做HALF_UP舍入。一般情况下value·10^digits
+     * 的小数部分远离0.5，直接Math.round即为相同结果；恰好落在0.5附近（或数值过大、非有限值）时
+     * 退回到按最短十进制表示舍入的BigDecimal路径。
+     * 缩放值与十进制真值之差不超过约1.5个ulp(scaled)（十进制表示误差与乘法舍入误差之和），
+     * 因此“0.5附近”的判定容差随ulp(scaled)放大，数值较大时不会误入快速路径。
+     */
+    private void putFixed(double value, int digits) throws IOException {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            putAscii(Double.isNaN(value) ? "NaN" : value > 0 ? "Infinity" : "-Infinity");
+            return;
+        }
+        // 与Formatter一致：负数（含舍入后为0的负数和-0.0）保留负号
+        if (value < 0 || (value == 0.0 && 1.0 / value < 0)) {
+            buffer.put((byte) '-');
+        }
+        double magnitude = Math.abs(value);
+        double scaled = magnitude * POW10[digits];
+        double fraction = scaled - Math.floor(scaled);
+        double tolerance = Math.max(1e-6, 4 * Math.ulp(scaled));
+        if (scaled >= MAX_EXACT || Math.abs(fraction - 0.5) < tolerance) {
+            putAscii(new BigDecimal(Double.toString(magnitude))
+                .setScale(digits, RoundingMode.HALF_UP).toPlainString());
+            // 超大数值可能占满了为本行预留的空间，为行的其余部分重新预留
+            ensureRoom(MAX_NUMERIC_ROW);
+            return;
+        }
+
+        long units = Math.round(scaled);
+        putLong(units / POW10[digits]);
+        if (digits > 0) {
+            buffer.put((byte) '.');
+            long frac = units % POW10[digits];
+            for (long p = POW10[digits - 1]; p > 0; p /= 10) {
+                buffer.put((byte) ('0' + (int) (frac / p % 10)));
+            }
+        }
+    }
+
+    private void putAscii(String s) throws IOException {
+        ensureRoom(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            buffer.put((byte) s.charAt(i));
+        }
+    }
+
+    /**
+     * 格式一致性检查：在10^-3 ~ 10^15各数量级上写入随机数值和恰好落在舍入边界上的十进制数，
+     * 逐行与String.format("%.2f"/"%.3f")的结果比较
+     */
+    public static void main(String[] args) throws IOException {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        java.util.SplittableRandom rng = new java.util.SplittableRandom(42);
+        File file = File.createTempFile("result-csv-check", ".csv");
+        file.deleteOnExit();
+
+        StringBuilder expected = new StringBuilder(HEADER);
+        try (ResultCsvSink sink = new ResultCsvSink(file.getPath())) {
+            for (int row = 0; row < rows; row++) {
+                ExperimentResult result = new ExperimentResult();
+                double[] values = new double[6];
+                for (int k = 0; k < values.length; k++) {
+                    double magnitude = Math.pow(10, rng.nextInt(-3, 16));
+                    double value = rng.nextDouble() * magnitude;
+                    if (rng.nextInt(3) == 0) {
+                        // 十进制表示恰好以5结尾（舍入边界）的数值
+                        value = Double.parseDouble((long) value + "." + rng.nextInt(100) + "5");
+                    }
+                    values[k] = rng.nextInt(10) == 0 ? -value : value;
+                }
+                if (row == 0) {
+                    values[0] = 651866828.435;
+                    values[2] = 312026980.525;
+                }
+                result.testCaseId = row;
+                result.makespan = values[0];
+                result.cacheHitRatio = values[1];
+                result.totalTaskExecutionTime = values[2];
+                result.averageTaskExecutionTime = values[3];
+                result.averageResponseTime = values[4];
+                result.cpuUtilization = values[5];
+                result.loadBalance = values[1] / 7;
+                sink.append("WFD", result);
+                expected.append(String.format(java.util.Locale.ROOT,
+                    "WFD,%d,%.2f,%.3f,%.2f,%.2f,%.2f,%.3f,%.3f\n", row, result.makespan,
+                    result.cacheHitRatio, result.totalTaskExecutionTime, result.averageTaskExecutionTime,
+                    result.averageResponseTime, result.cpuUtilization, result.loadBalance));
+            }
+        }
+
+        String[] want = expected.toString().split("\n");
+        String[] got = new String(java.nio.file.Files.readAllBytes(file.toPath()), StandardCharsets.US_ASCII)
+            .split("\n");
+        int mismatches = Math.abs(want.length - got.length);
+        for (int i = 0; i < Math.min(want.length, got.length); i++) {
+            if (!want[i].equals(got[i])) {
+                if (mismatches++ < 5) {
+                    System.out.println("不一致: " + got[i] + "\n  期望: " + want[i]);
+                }
+            }
+        }
+        System.out.println(rows + "行与String.format比较，不一致" + mismatches + "行");
+        if (mismatches > 0) {
+            System.exit(1);
+        }
+    }
+}
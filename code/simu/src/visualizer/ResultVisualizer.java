@@ -1,13 +1,13 @@
 package visualizer;
 
-import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.text.DecimalFormat;
 import java.util.List;
 import java.util.Map;
 
 import analyzer.PerformanceAnalyzer.ExperimentResult;
+import analyzer.ResultAggregator;
+import analyzer.ResultAggregator.Metric;
 
 /**
  * 实验结果可视化器
@@ -42,9 +42,24 @@ public class ResultVisualizer {
      * @param algorithmResults 包含各算法实验结果的映射表
      */
     public void generatePerformanceChart(Map<String, List<ExperimentResult>> algorithmResults) {
+        ResultAggregator aggregator = new ResultAggregator();
+        for (Map.Entry<String, List<ExperimentResult>> entry : algorithmResults.entrySet()) {
+            for (ExperimentResult result : entry.getValue()) {
+                aggregator.add(entry.getKey(), result);
+            }
+        }
+        generatePerformanceChart(aggregator);
+    }
+    
+    /**
+     * 由在线汇总结果生成ASCII性能对比图表（各指标均值直接取自汇总统计量）
+     * 
+     * @param aggregator 各算法实验结果的汇总
+     */
+    public void generatePerformanceChart(ResultAggregator aggregator) {
         System.out.println("\n=== 性能对比图表 ===");
         
-        String[] algorithms = algorithmResults.keySet().toArray(new String[0]);
+        String[] algorithms = aggregator.getAlgorithms().toArray(new String[0]);
         if (algorithms.length < 2) return;
         
         // 计算各算法的平均性能指标
@@ -57,14 +72,14 @@ public class ResultVisualizer {
         double[] avgTaskExecTime = new double[algorithms.length];
         
         for (int i = 0; i < algorithms.length; i++) {
-            List<ExperimentResult> results = algorithmResults.get(algorithms[i]);
-            avgMakespan[i] = results.stream().mapToDouble(r -> r.makespan).average().orElse(0);
-            avgEnergy[i] = results.stream().mapToDouble(r -> r.energyConsumption).average().orElse(0);
-            avgCacheHit[i] = results.stream().mapToDouble(r -> r.cacheHitRatio).average().orElse(0);
-            avgLoadBalance[i] = results.stream().mapToDouble(r -> r.loadBalance).average().orElse(0);
-            avgResponseTime[i] = results.stream().mapToDouble(r -> r.averageResponseTime).average().orElse(0);
-            avgTotalExecTime[i] = results.stream().mapToDouble(r -> r.totalTaskExecutionTime).average().orElse(0);
-            avgTaskExecTime[i] = results.stream().mapToDouble(r -> r.averageTaskExecutionTime).average().orElse(0);
+            ResultAggregator.Group stats = aggregator.overall(algorithms[i]);
+            avgMakespan[i] = stats.mean(Metric.MAKESPAN);
+            avgEnergy[i] = stats.mean(Metric.ENERGY);
+            avgCacheHit[i] = stats.mean(Metric.CACHE_HIT_RATIO);
+            avgLoadBalance[i] = stats.mean(Metric.LOAD_BALANCE);
+            avgResponseTime[i] = stats.mean(Metric.RESPONSE_TIME);
+            avgTotalExecTime[i] = stats.mean(Metric.TOTAL_TASK_EXECUTION_TIME);
+            avgTaskExecTime[i] = stats.mean(Metric.AVERAGE_TASK_EXECUTION_TIME);
         }
         
         // 生成完成时间对比图
@@ -164,34 +179,21 @@ public class ResultVisualizer {
     
     public void generateTrendChart(Map<String, List<ExperimentResult>> algorithmResults) {
         System.out.println("\n=== 性能趋势分析 ===");
-    }    public void exportToCSV(Map<String, List<ExperimentResult>> algorithmResults, String filename) {
-        try {
-            // 创建目录（如果不存在）
-            File file = new File(filename);
-            File parentDir = file.getParentFile();
-            if (parentDir != null && !parentDir.exists()) {
-                parentDir.mkdirs();
-            }
-            
-            // 写入CSV文件，包含执行时间数据
-            try (FileWriter writer = new FileWriter(filename)) {
-                writer.write("Algorithm,TestCase,Makespan,CacheHit,TotalExecutionTime,AvgExecutionTime,ResponseTime,CpuUtilization,LoadBalance\n");
-                for (String algorithm : algorithmResults.keySet()) {
-                    for (ExperimentResult result : algorithmResults.get(algorithm)) {
-                        writer.write(String.format("%s,%d,%.2f,%.3f,%.2f,%.2f,%.2f,%.3f,%.3f\n",
-                            algorithm, 
-                            result.testCaseId, 
-                            result.makespan, 
-                            result.cacheHitRatio,
-                            result.totalTaskExecutionTime,
-                            result.averageTaskExecutionTime,
-                            result.averageResponseTime,
-                            result.cpuUtilization,
-                            result.loadBalance));
-                    }
+    }
+    
+    /**
+     * 一次性导出全部结果到CSV
+     * 
+     * 需要全部结果都在内存中；大规模实验应在每个案例完成时直接向ResultCsvSink追加行。
+     */
+    public void exportToCSV(Map<String, List<ExperimentResult>> algorithmResults, String filename) {
+        try (ResultCsvSink sink = new ResultCsvSink(filename)) {
+            for (String algorithm : algorithmResults.keySet()) {
+                for (ExperimentResult result : algorithmResults.get(algorithm)) {
+                    sink.append(algorithm, result);
                 }
-                System.out.println("✅ CSV数据已导出到: " + filename);
             }
+            System.out.println("✅ CSV数据已导出到: " + filename);
         } catch (IOException e) {
             System.err.println("❌ CSV导出失败: " + e.getMessage());
         }